@@ -87,6 +87,109 @@ CREATE TABLE IF NOT EXISTS guest_sessions (
     INDEX idx_guest_table (table_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- =====================================================
+-- ANALYTICS ROLLUPS
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS hotel_order_rollups (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    business_id BIGINT NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    order_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14,2) NOT NULL DEFAULT 0,
+    updated_at DATETIME,
+    UNIQUE KEY uk_rollup_bucket (business_id, bucket_start, order_type, status),
+    INDEX idx_rollup_bucket_start (bucket_start)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS hotel_popular_item_checkpoints (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    business_id BIGINT NOT NULL,
+    bucket_date DATE NOT NULL,
+    menu_item_id BIGINT NOT NULL,
+    quantity BIGINT NOT NULL,
+    count_error BIGINT NOT NULL,
+    order_count BIGINT NOT NULL,
+    revenue DECIMAL(14,2) NOT NULL,
+    updated_at DATETIME,
+    UNIQUE KEY uk_popular_item_day (business_id, bucket_date, menu_item_id),
+    INDEX idx_popular_item_bucket_date (bucket_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS hotel_delivery_latency_buckets (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    business_id BIGINT NOT NULL,
+    agent_id BIGINT NOT NULL,
+    bucket_date DATE NOT NULL,
+    metric VARCHAR(20) NOT NULL,
+    bucket_index INT NOT NULL,
+    sample_count BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME,
+    UNIQUE KEY uk_latency_bucket (business_id, agent_id, bucket_date, metric, bucket_index),
+    INDEX idx_latency_agent_date (agent_id, bucket_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =====================================================
+-- IDEMPOTENCY KEYS
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS hotel_idempotency_keys (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    key_hash CHAR(64) NOT NULL,
+    scope VARCHAR(20) NOT NULL,
+    request_hash CHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    response_body TEXT,
+    created_at DATETIME NOT NULL,
+    expires_at DATETIME NOT NULL,
+    UNIQUE KEY uk_idempotency_key_hash (key_hash),
+    INDEX idx_idempotency_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =====================================================
+-- ORDER OUTBOX
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS hotel_order_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    business_id BIGINT NOT NULL,
+    order_id BIGINT NOT NULL,
+    type VARCHAR(30) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    available_at DATETIME NOT NULL,
+    last_error VARCHAR(500),
+    created_at DATETIME NOT NULL,
+    processed_at DATETIME,
+    INDEX idx_outbox_status_available (status, available_at),
+    INDEX idx_outbox_processed_at (processed_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =====================================================
+-- MENU CHANGE LOG (delta menu sync)
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS hotel_menu_versions (
+    business_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS hotel_menu_changes (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    business_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    action VARCHAR(20) NOT NULL,
+    payload TEXT,
+    created_at DATETIME NOT NULL,
+    UNIQUE KEY uk_menu_change_version (business_id, version),
+    INDEX idx_menu_change_created_at (created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- =====================================================
 -- VERIFICATION
 -- =====================================================
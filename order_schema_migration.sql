@@ -0,0 +1,14 @@
+-- ========================================
+-- ORDER SCHEMA MIGRATION
+-- Purpose: Guest orders (QR code sessions) have no user
+-- Run once against existing databases (ddl-auto is none)
+-- ========================================
+
+-- Guest orders store a null user_id; the column was created NOT NULL
+ALTER TABLE hotel_orders MODIFY user_id BIGINT NULL;
+
+-- ========================================
+-- ROLLBACK (only if no guest orders exist yet)
+-- ========================================
+
+-- ALTER TABLE hotel_orders MODIFY user_id BIGINT NOT NULL;
@@ -0,0 +1,44 @@
+-- ========================================
+-- PERFORMANCE INDEXES
+-- Purpose: Composite indexes backing range/aggregate queries
+-- Run once against existing databases (ddl-auto is none)
+-- ========================================
+
+-- Analytics: per-business date range scans
+CREATE INDEX idx_order_business_created ON hotel_orders(business_id, created_at);
+CREATE INDEX idx_reservation_business_datetime ON hotel_table_reservations(business_id, reservation_date_time);
+
+-- Kitchen queue: active orders of a business (status IN ...), oldest first
+CREATE INDEX idx_order_business_status_created ON hotel_orders(business_id, status, created_at);
+
+-- Order history keyset pagination: (created_at, id) seek per user / status, tenant-scoped and admin
+-- InnoDB appends the primary key to every secondary index, so these also order by id
+CREATE INDEX idx_order_business_user_created ON hotel_orders(business_id, user_id, created_at);
+CREATE INDEX idx_order_user_created ON hotel_orders(user_id, created_at);
+CREATE INDEX idx_order_status_created ON hotel_orders(status, created_at);
+
+-- Redundant indexes, dropped only where present (MySQL has no DROP INDEX IF EXISTS):
+-- business_id alone is a prefix of every (business_id, ...) index above - idx_order_business_id
+-- comes from ddl-auto, idx_orders_business_id from database_migration.sql
+SET @ddl = (SELECT IF(COUNT(*) > 0, 'DROP INDEX idx_order_business_id ON hotel_orders', 'DO 0')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'hotel_orders' AND index_name = 'idx_order_business_id');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) > 0, 'DROP INDEX idx_orders_business_id ON hotel_orders', 'DO 0')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'hotel_orders' AND index_name = 'idx_orders_business_id');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- (user_id, business_id): user-only lookups use idx_order_user_created,
+-- user-plus-business lookups idx_order_business_user_created
+SET @ddl = (SELECT IF(COUNT(*) > 0, 'DROP INDEX idx_order_user_business ON hotel_orders', 'DO 0')
+            FROM information_schema.statistics
+            WHERE table_schema = DATABASE() AND table_name = 'hotel_orders' AND index_name = 'idx_order_user_business');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
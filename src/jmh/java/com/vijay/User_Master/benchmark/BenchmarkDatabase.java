@@ -0,0 +1,127 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.UserMasterApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/**
+ * BenchmarkDatabase - Seeded embedded H2 databases for the benchmarks
+ * Seeding a million orders takes minutes, so each (data size, day) is seeded once into
+ * a template file and every trial runs on a fresh copy of it: all forks start from
+ * identical data and writes made by one benchmark never leak into the next.
+ */
+public final class BenchmarkDatabase {
+
+    // Bump when the seeded data changes so stale templates are rebuilt
+    private static final int SEED_VERSION = 6;
+    private static final String H2_SUFFIX = ".mv.db";
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Start the application against a private copy of the seeded database
+     */
+    public static ConfigurableApplicationContext start(int menuItems, int orders) throws IOException {
+        Path dir = databaseDir();
+        Files.createDirectories(dir);
+        deleteOrphanedCopies(dir);
+
+        // Data is anchored to the seeding day ("today's" orders, upcoming reservations)
+        String template = "hotel-v" + SEED_VERSION + "-" + menuItems + "-" + orders + "-" + LocalDate.now();
+        if (!Files.exists(dir.resolve(template + H2_SUFFIX))) {
+            deleteStaleTemplates(dir, LocalDate.now());
+            seedTemplate(dir, template, menuItems, orders);
+        }
+
+        Files.copy(dir.resolve(template + H2_SUFFIX), workFile(dir), StandardCopyOption.REPLACE_EXISTING);
+        return application(dir.resolve(workName()), "none").run();
+    }
+
+    /**
+     * Close the application and drop its database copy
+     */
+    public static void stop(ConfigurableApplicationContext context) {
+        try {
+            context.close();
+        } finally {
+            deleteQuietly(workFile(databaseDir()));
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private static Path databaseDir() {
+        return Paths.get(System.getProperty("benchmark.db.dir", "build/jmh-db")).toAbsolutePath();
+    }
+
+    private static String workName() {
+        return "work-" + ProcessHandle.current().pid();
+    }
+
+    private static Path workFile(Path dir) {
+        return dir.resolve(workName() + H2_SUFFIX);
+    }
+
+    private static void seedTemplate(Path dir, String template, int menuItems, int orders) throws IOException {
+        // Seed under a temporary name so an interrupted run never leaves a half-seeded template
+        String seeding = template + "-seeding";
+        deleteQuietly(dir.resolve(seeding + H2_SUFFIX));
+
+        long started = System.currentTimeMillis();
+        try (ConfigurableApplicationContext context = application(dir.resolve(seeding), "create-only").run()) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            new HotelDataSeeder(jdbc, menuItems, orders).seed();
+            jdbc.execute("SHUTDOWN COMPACT");
+        }
+        deleteQuietly(dir.resolve(seeding + ".trace.db")); // SHUTDOWN closes the pool's connections under it
+        Files.move(dir.resolve(seeding + H2_SUFFIX), dir.resolve(template + H2_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        System.out.printf("Seeded %s in %d s%n", template, (System.currentTimeMillis() - started) / 1000);
+    }
+
+    private static SpringApplicationBuilder application(Path database, String ddlAuto) {
+        return new SpringApplicationBuilder(UserMasterApplication.class)
+                .properties(
+                        "spring.config.name=benchmark",
+                        // The STOMP broker needs a servlet context; a random port keeps forks from clashing
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:file:" + database
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+                        "spring.jpa.hibernate.ddl-auto=" + ddlAuto);
+    }
+
+    private static void deleteStaleTemplates(Path dir, LocalDate today) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(Path::getFileName)
+                    .map(Path::toString)
+                    .filter(name -> name.startsWith("hotel-v") && !name.endsWith(today + H2_SUFFIX))
+                    .forEach(name -> deleteQuietly(dir.resolve(name)));
+        }
+    }
+
+    // Copies left behind by forks that failed before their teardown ran
+    private static void deleteOrphanedCopies(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(Path::getFileName)
+                    .map(Path::toString)
+                    .filter(name -> name.startsWith("work-") && name.endsWith(H2_SUFFIX))
+                    .filter(name -> ProcessHandle.of(Long.parseLong(
+                            name.substring("work-".length(), name.length() - H2_SUFFIX.length()))).isEmpty())
+                    .forEach(name -> deleteQuietly(dir.resolve(name)));
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Could not delete " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.dto.hotel.analytics.DashboardOverviewDTO;
+import com.vijay.User_Master.event.hotel.HotelDataChangedEvent;
+import com.vijay.User_Master.service.hotel.AnalyticsService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DashboardBenchmark - Dashboard overview served from the analytics cache and computed cold
+ * The cold variant invalidates the business's cached snapshot before every call
+ * (outside the measured region), so it measures the parallel aggregate queries.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class DashboardBenchmark {
+
+    private AnalyticsService analyticsService;
+    private HotelState state;
+
+    @Setup(Level.Trial)
+    public void setUp(HotelState state) {
+        analyticsService = state.bean(AnalyticsService.class);
+        this.state = state;
+    }
+
+    @State(Scope.Thread)
+    public static class ColdCache {
+
+        @Setup(Level.Invocation)
+        public void invalidate(DashboardBenchmark benchmark) {
+            benchmark.state.publishEvent(new HotelDataChangedEvent(
+                    HotelDataSeeder.BENCHMARK_BUSINESS_ID, HotelDataChangedEvent.Kind.ORDER, null));
+        }
+    }
+
+    @Benchmark
+    public DashboardOverviewDTO overviewCached() {
+        return analyticsService.getDashboardOverview();
+    }
+
+    @Benchmark
+    public DashboardOverviewDTO overviewCold(ColdCache cold) {
+        return analyticsService.getDashboardOverview();
+    }
+}
@@ -0,0 +1,246 @@
+package com.vijay.User_Master.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * HotelDataSeeder - Deterministic benchmark data for a few businesses
+ * Menu items are generated in Java from a fixed seed; the bulk tables (orders, order
+ * items, rollups) are generated set-based in SQL from the row number, so a million
+ * orders take seconds and every seeding produces the same rows. Entity ids are
+ * assigned explicitly so related rows can be derived arithmetically:
+ * row id X belongs to business MOD(X - 1, BUSINESSES) + 1.
+ */
+public class HotelDataSeeder {
+
+    public static final int BUSINESSES = 4;
+    public static final long BENCHMARK_BUSINESS_ID = 1L;
+    public static final long GUEST_TABLE_ID = 1L;
+    public static final String GUEST_SESSION_TOKEN = "bench-guest-session";
+
+    static final int CATEGORIES_PER_BUSINESS = 20;
+    static final int TABLES_PER_BUSINESS = 40;
+    static final int AGENTS_PER_BUSINESS = 25;
+    private static final int HISTORY_DAYS = 365;
+    private static final int MAX_ITEMS_PER_ORDER = 3;
+
+    private static final String[] STYLES = {"Classic", "Smoky", "Spicy", "Butter", "Tandoori", "Crispy", "Garlic",
+            "Hyderabadi", "Kerala", "Punjabi", "Chettinad", "Mughlai", "Masala", "Malai", "Lemon", "Schezwan"};
+    private static final String[] DISHES = {"Paneer Tikka", "Chicken Biryani", "Dal Makhani", "Veg Pulao", "Fish Curry",
+            "Mutton Rogan Josh", "Aloo Gobi", "Chole Bhature", "Masala Dosa", "Idli Sambar", "Prawn Fry", "Naan",
+            "Jeera Rice", "Gulab Jamun", "Mango Lassi", "Chicken 65", "Palak Paneer", "Egg Curry", "Veg Manchurian",
+            "Hakka Noodles", "Fried Rice", "Tomato Soup", "Kulfi", "Rasmalai", "Pav Bhaji"};
+    private static final String[] INGREDIENTS = {"fresh herbs", "house spice blend", "slow-cooked onions",
+            "cream and cashews", "coconut milk", "curry leaves", "charred peppers", "ghee", "mint chutney"};
+
+    private final JdbcTemplate jdbc;
+    private final int menuItems;
+    private final int orders;
+    private final int menuItemsPerBusiness;
+    private final Timestamp now;
+
+    public HotelDataSeeder(JdbcTemplate jdbc, int menuItems, int orders) {
+        if (menuItems < BUSINESSES) {
+            throw new IllegalArgumentException("Need at least one menu item per business");
+        }
+        this.jdbc = jdbc;
+        this.menuItems = menuItems;
+        this.orders = orders;
+        this.menuItemsPerBusiness = menuItems / BUSINESSES;
+        this.now = Timestamp.valueOf(LocalDateTime.now().withNano(0));
+    }
+
+    public void seed() {
+        seedCategories();
+        seedMenuItems();
+        seedTables();
+        seedOrders();
+        seedOrderItems();
+        seedRollups();
+        seedReservations();
+        seedDeliveryAgents();
+        seedDeliveryTracking();
+        seedGuestSession();
+
+        for (String table : List.of("hotel_categories", "hotel_menu_items", "hotel_restaurant_tables", "hotel_orders",
+                "hotel_table_reservations", "hotel_delivery_agents", "guest_sessions")) {
+            Long next = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+            jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+        jdbc.execute("ANALYZE");
+    }
+
+    // ==================== REFERENCE DATA ====================
+
+    private void seedCategories() {
+        jdbc.update("INSERT INTO hotel_categories (id, business_id, name, display_order, is_active, created_at, updated_at) " +
+                "SELECT X, " + business("X") + ", 'Category ' || X, MOD(X, " + CATEGORIES_PER_BUSINESS + "), TRUE, ?, ? " +
+                "FROM SYSTEM_RANGE(1, " + BUSINESSES * CATEGORIES_PER_BUSINESS + ")", now, now);
+    }
+
+    private void seedMenuItems() {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(menuItems);
+        for (long id = 1; id <= menuItems; id++) {
+            long businessId = (id - 1) % BUSINESSES + 1;
+            String name = STYLES[random.nextInt(STYLES.length)] + " " + DISHES[random.nextInt(DISHES.length)];
+            rows.add(new Object[]{
+                    id,
+                    businessId,
+                    businessId + BUSINESSES * (id % CATEGORIES_PER_BUSINESS),
+                    name,
+                    name + " prepared with " + INGREDIENTS[random.nextInt(INGREDIENTS.length)],
+                    BigDecimal.valueOf(50 + (id * 37) % 450), // Same formula as price("...") in SQL
+                    random.nextInt(3) == 0,
+                    random.nextInt(10) == 0,
+                    random.nextInt(4) == 0,
+                    10 + random.nextInt(30),
+                    200 + random.nextInt(800),
+                    random.nextInt(20) != 0,
+                    random.nextInt(25) == 0,
+                    BigDecimal.valueOf(30 + random.nextInt(21), 1),
+                    now, now
+            });
+        }
+        jdbc.batchUpdate("INSERT INTO hotel_menu_items (id, business_id, category_id, name, description, price, " +
+                "is_vegetarian, is_vegan, is_spicy, preparation_time, calories, is_available, is_featured, rating, " +
+                "total_orders, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)", rows);
+    }
+
+    private void seedTables() {
+        jdbc.update("INSERT INTO hotel_restaurant_tables (id, business_id, table_number, table_name, capacity, location, " +
+                "is_available, created_at) " +
+                "SELECT X, " + business("X") + ", 'T-' || X, 'Table ' || X, 2 + 2 * MOD(X, 4), 'Floor ' || (1 + MOD(X, 2)), " +
+                "MOD(X, 5) <> 0, ? FROM SYSTEM_RANGE(1, " + BUSINESSES * TABLES_PER_BUSINESS + ")", now);
+    }
+
+    // ==================== ORDERS ====================
+
+    private void seedOrders() {
+        long historySeconds = HISTORY_DAYS * 24L * 3600;
+        Timestamp activeSince = Timestamp.valueOf(now.toLocalDateTime().minusHours(2));
+
+        // Orders are spread evenly over the last year, newest last; the most recent ones are still open
+        StringBuilder subtotal = new StringBuilder(itemTotal("X", "1"));
+        for (int j = 2; j <= MAX_ITEMS_PER_ORDER; j++) {
+            subtotal.append(" + CASE WHEN ").append(itemCount("X")).append(" >= ").append(j)
+                    .append(" THEN ").append(itemTotal("X", String.valueOf(j))).append(" ELSE 0 END");
+        }
+
+        jdbc.update("INSERT INTO hotel_orders (id, business_id, order_number, user_id, table_id, customer_name, " +
+                "customer_phone, order_type, status, subtotal, tax, discount, total_amount, created_at, updated_at, completed_at) " +
+                "SELECT id, b, 'SEED-' || id, 1000 + MOD(id * 31, 20000), " +
+                "CASE WHEN t = 'DINE_IN' THEN b + " + BUSINESSES + " * MOD(id * 13, " + TABLES_PER_BUSINESS + ") END, " +
+                "'Customer ' || MOD(id * 31, 20000), '9' || LPAD(CAST(MOD(id * 7919, 1000000000) AS VARCHAR), 9, '0'), " +
+                "t, st, sub, ROUND(sub * 0.05, 2), 0, ROUND(sub * 1.05, 2), created, created, " +
+                "CASE WHEN st IN ('COMPLETED', 'DELIVERED') THEN DATEADD('MINUTE', 40, created) END " +
+                "FROM (SELECT id, b, t, sub, created, " +
+                "  CASE WHEN created > CAST(? AS TIMESTAMP) THEN CASE MOD(id, 4) WHEN 0 THEN 'PENDING' WHEN 1 THEN 'CONFIRMED' " +
+                "       WHEN 2 THEN 'PREPARING' ELSE 'READY' END " +
+                "    WHEN MOD(id, 20) = 0 THEN 'CANCELLED' WHEN t = 'DELIVERY' THEN 'DELIVERED' ELSE 'COMPLETED' END AS st " +
+                "  FROM (SELECT X AS id, " + business("X") + " AS b, " +
+                "    CASE MOD(FLOOR(X / " + BUSINESSES + "), 4) WHEN 0 THEN 'DINE_IN' WHEN 1 THEN 'TAKEAWAY' " +
+                "      WHEN 2 THEN 'DELIVERY' ELSE 'ROOM_SERVICE' END AS t, " +
+                "    DATEADD('SECOND', -CAST(FLOOR((" + orders + " - X) * " + historySeconds + " / " + orders + ") AS BIGINT), CAST(? AS TIMESTAMP)) AS created, " +
+                "    " + subtotal + " AS sub " +
+                "  FROM SYSTEM_RANGE(1, " + orders + ")) base) o",
+                activeSince, now);
+    }
+
+    private void seedOrderItems() {
+        jdbc.update("INSERT INTO hotel_order_items (business_id, order_id, menu_item_id, quantity, unit_price, total_price, status) " +
+                "SELECT " + business("o.X") + ", o.X, " + menuItem("o.X", "r.X") + ", " + quantity("o.X", "r.X") + ", " +
+                price(menuItem("o.X", "r.X")) + ", " + itemTotal("o.X", "r.X") + ", 'SERVED' " +
+                "FROM SYSTEM_RANGE(1, " + orders + ") o JOIN SYSTEM_RANGE(1, " + MAX_ITEMS_PER_ORDER + ") r " +
+                "ON r.X <= " + itemCount("o.X"));
+    }
+
+    private void seedRollups() {
+        jdbc.update("INSERT INTO hotel_order_rollups (business_id, bucket_start, order_type, status, order_count, revenue, updated_at) " +
+                "SELECT business_id, DATE_TRUNC('HOUR', created_at), order_type, status, COUNT(*), SUM(total_amount), ? " +
+                "FROM hotel_orders GROUP BY business_id, DATE_TRUNC('HOUR', created_at), order_type, status", now);
+    }
+
+    // Expressions over an order id (and item position j); everything is a pure function of the ids
+
+    private String business(String id) {
+        return "(MOD(" + id + " - 1, " + BUSINESSES + ") + 1)";
+    }
+
+    private String itemCount(String order) {
+        return "(1 + MOD(" + order + ", " + MAX_ITEMS_PER_ORDER + "))";
+    }
+
+    // Cubic skew: low item indexes are ordered far more often, like real best sellers
+    private String menuItem(String order, String j) {
+        return "(" + business(order) + " + " + BUSINESSES + " * MOD(CAST(FLOOR(POWER(MOD(" + order + " * 7919 + " + j +
+                " * 104729, 1000) / 1000.0, 3) * " + menuItemsPerBusiness + ") AS BIGINT), " + menuItemsPerBusiness + "))";
+    }
+
+    private String quantity(String order, String j) {
+        return "(1 + MOD(" + order + " + " + j + ", 3))";
+    }
+
+    private String price(String menuItem) {
+        return "(50 + MOD(" + menuItem + " * 37, 450))";
+    }
+
+    private String itemTotal(String order, String j) {
+        return "(" + quantity(order, j) + " * " + price(menuItem(order, j)) + ")";
+    }
+
+    // ==================== RESERVATIONS & DELIVERY ====================
+
+    private void seedReservations() {
+        int reservations = Math.max(1000, orders / 50);
+        long spanMinutes = 74L * 24 * 60; // 60 days back to 14 days ahead
+
+        jdbc.update("INSERT INTO hotel_table_reservations (id, business_id, reservation_number, user_id, customer_name, " +
+                "customer_phone, table_id, number_of_guests, reservation_date_time, duration_minutes, status, " +
+                "requires_high_chair, requires_wheelchair_access, created_at, updated_at) " +
+                "SELECT id, b, 'SEED-RES-' || id, 1000 + MOD(id * 31, 20000), 'Customer ' || MOD(id * 31, 20000), " +
+                "'8' || LPAD(CAST(MOD(id * 7919, 1000000000) AS VARCHAR), 9, '0'), " +
+                "b + " + BUSINESSES + " * MOD(id * 7, " + TABLES_PER_BUSINESS + "), 2 + MOD(id, 6), at, " +
+                "CASE MOD(id, 2) WHEN 0 THEN 90 ELSE 120 END, " +
+                "CASE WHEN at > CAST(? AS TIMESTAMP) THEN CASE MOD(id, 3) WHEN 0 THEN 'PENDING' ELSE 'CONFIRMED' END " +
+                "  WHEN MOD(id, 10) = 0 THEN 'CANCELLED' WHEN MOD(id, 15) = 0 THEN 'NO_SHOW' ELSE 'COMPLETED' END, " +
+                "FALSE, FALSE, at, at " +
+                "FROM (SELECT X AS id, " + business("X") + " AS b, " +
+                "  DATEADD('MINUTE', CAST(FLOOR(X * " + spanMinutes + " / " + reservations + ") AS BIGINT) / 30 * 30, " +
+                "    DATEADD('DAY', -60, CAST(? AS DATE))) AS at " +
+                "  FROM SYSTEM_RANGE(1, " + reservations + ")) r",
+                now, now);
+    }
+
+    private void seedDeliveryAgents() {
+        jdbc.update("INSERT INTO hotel_delivery_agents (id, business_id, name, phone, email, vehicle_type, is_available, " +
+                "is_online, rating, total_deliveries, created_at, updated_at) " +
+                "SELECT X, " + business("X") + ", 'Agent ' || X, '7' || LPAD(CAST(X AS VARCHAR), 9, '0'), " +
+                "'agent' || X || '@bench.local', CASE MOD(X, 3) WHEN 0 THEN 'Bike' WHEN 1 THEN 'Scooter' ELSE 'Car' END, " +
+                "MOD(X, 4) <> 0, MOD(X, 3) <> 0, 3.5 + MOD(X, 15) / 10.0, 0, ?, ? " +
+                "FROM SYSTEM_RANGE(1, " + BUSINESSES * AGENTS_PER_BUSINESS + ")", now, now);
+    }
+
+    private void seedDeliveryTracking() {
+        Timestamp since = Timestamp.valueOf(now.toLocalDateTime().minusDays(7));
+        jdbc.update("INSERT INTO hotel_delivery_tracking (business_id, order_id, agent_id, status, assigned_at, " +
+                "picked_up_at, delivered_at, estimated_time_minutes, created_at, updated_at) " +
+                "SELECT business_id, id, business_id + " + BUSINESSES + " * MOD(id, " + AGENTS_PER_BUSINESS + "), " +
+                "CASE status WHEN 'DELIVERED' THEN 'DELIVERED' WHEN 'CANCELLED' THEN 'CANCELLED' ELSE 'IN_TRANSIT' END, " +
+                "DATEADD('MINUTE', 5, created_at), DATEADD('MINUTE', 15 + MOD(id, 10), created_at), " +
+                "CASE WHEN status = 'DELIVERED' THEN DATEADD('MINUTE', 35 + MOD(id * 7, 30), created_at) END, " +
+                "30, created_at, created_at FROM hotel_orders WHERE order_type = 'DELIVERY' AND created_at >= ?", since);
+    }
+
+    private void seedGuestSession() {
+        jdbc.update("INSERT INTO guest_sessions (id, business_id, table_id, session_token, status, created_at, expires_at) " +
+                "VALUES (1, ?, ?, ?, 'ACTIVE', ?, ?)", BENCHMARK_BUSINESS_ID, GUEST_TABLE_ID, GUEST_SESSION_TOKEN,
+                now, Timestamp.valueOf(now.toLocalDateTime().plusYears(1)));
+    }
+}
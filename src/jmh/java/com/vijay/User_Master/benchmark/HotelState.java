@@ -0,0 +1,74 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.entity.Role;
+import com.vijay.User_Master.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Set;
+
+/**
+ * HotelState - Application context over a seeded database, shared by all threads of a trial
+ * Requests run as the owner of the benchmark business, so every service call goes
+ * through the same tenant filtering as production traffic.
+ */
+@State(Scope.Benchmark)
+public class HotelState {
+
+    @Param("10000")
+    public int menuItems;
+
+    @Param("1000000")
+    public int orders;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        context = BenchmarkDatabase.start(menuItems, orders);
+
+        // Benchmark threads are not request threads - share one authentication across all of them
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        CustomUserDetails owner = CustomUserDetails.build(User.builder()
+                .id(HotelDataSeeder.BENCHMARK_BUSINESS_ID)
+                .name("Benchmark Owner")
+                .username("bench-owner")
+                .email("owner@bench.local")
+                .roles(Set.of(role("ROLE_OWNER")))
+                .build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, owner.getAuthorities()));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        SecurityContextHolder.clearContext();
+        BenchmarkDatabase.stop(context);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public void publishEvent(Object event) {
+        context.publishEvent(event);
+    }
+
+    /**
+     * Menu item id of the benchmark business; rank 0 is the most ordered item
+     */
+    public long menuItemId(int rank) {
+        int perBusiness = menuItems / HotelDataSeeder.BUSINESSES;
+        return HotelDataSeeder.BENCHMARK_BUSINESS_ID + (long) HotelDataSeeder.BUSINESSES * (rank % perBusiness);
+    }
+
+    private static Role role(String name) {
+        Role role = new Role();
+        role.setName(name);
+        role.setActive(true);
+        return role;
+    }
+}
@@ -0,0 +1,63 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.config.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtBenchmark - Token validation done by the authentication filter on every request
+ * Needs only the token provider, so it runs without the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/benchmark.properties")) {
+            properties.load(in);
+        }
+
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "app.jwt-secret", properties.getProperty("app.jwt-secret"),
+                "app-jwt-expiration-milliseconds", properties.getProperty("app-jwt-expiration-milliseconds"))));
+        context.register(JwtTokenProvider.class);
+        context.refresh();
+
+        tokenProvider = context.getBean(JwtTokenProvider.class);
+        token = tokenProvider.generateToken(new UsernamePasswordAuthenticationToken("bench-owner", null));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return tokenProvider.getUsername(token);
+    }
+}
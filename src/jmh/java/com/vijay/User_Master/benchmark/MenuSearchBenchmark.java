@@ -0,0 +1,53 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.dto.hotel.MenuFilterRequest;
+import com.vijay.User_Master.dto.hotel.MenuItemDTO;
+import com.vijay.User_Master.service.hotel.MenuService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MenuSearchBenchmark - Keyword search over the menu, cycling through common and rare terms,
+ * and attribute filters cycling through common combinations
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class MenuSearchBenchmark {
+
+    private static final String[] KEYWORDS = {"paneer", "biryani", "masala", "tikka", "garlic naan", "kulfi", "xyz"};
+    private static final MenuFilterRequest[] FILTERS = {
+            MenuFilterRequest.builder().vegetarian(true).build(),
+            MenuFilterRequest.builder().vegan(true).spicy(false).sortBy(MenuFilterRequest.SortBy.RATING).build(),
+            MenuFilterRequest.builder().maxPrice(BigDecimal.valueOf(250)).sortBy(MenuFilterRequest.SortBy.PRICE_ASC).build(),
+            MenuFilterRequest.builder().vegetarian(true).maxCalories(500).maxPreparationTime(20).build(),
+            MenuFilterRequest.builder().featured(true).minPrice(BigDecimal.valueOf(200)).sortBy(MenuFilterRequest.SortBy.PRICE_DESC).build()
+    };
+
+    private MenuService menuService;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(HotelState state) {
+        menuService = state.bean(MenuService.class);
+    }
+
+    @Benchmark
+    public Page<MenuItemDTO> searchMenuItems() {
+        String keyword = KEYWORDS[next++ % KEYWORDS.length];
+        return menuService.searchMenuItems(keyword, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<MenuItemDTO> filterMenuItems() {
+        MenuFilterRequest filter = FILTERS[next++ % FILTERS.length];
+        return menuService.filterMenuItems(filter, PageRequest.of(0, 20));
+    }
+}
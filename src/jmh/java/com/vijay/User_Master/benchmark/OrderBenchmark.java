@@ -0,0 +1,77 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.dto.hotel.CreateOrderRequest;
+import com.vijay.User_Master.dto.hotel.GuestOrderRequest;
+import com.vijay.User_Master.dto.hotel.OrderDTO;
+import com.vijay.User_Master.service.hotel.GuestOrderService;
+import com.vijay.User_Master.service.hotel.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderBenchmark - Order placement by staff (createOrder) and by QR guests (placeGuestOrder),
+ * and the kitchen queue they feed (activeOrders)
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class OrderBenchmark {
+
+    private OrderService orderService;
+    private GuestOrderService guestOrderService;
+    private CreateOrderRequest takeaway;
+    private GuestOrderRequest guestOrder;
+
+    @Setup(Level.Trial)
+    public void setUp(HotelState state) {
+        orderService = state.bean(OrderService.class);
+        guestOrderService = state.bean(GuestOrderService.class);
+
+        takeaway = CreateOrderRequest.builder()
+                .userId(1001L)
+                .customerName("Benchmark Customer")
+                .customerPhone("9000000001")
+                .orderType("TAKEAWAY")
+                .items(List.of(
+                        takeawayItem(state.menuItemId(0), 2),
+                        takeawayItem(state.menuItemId(1), 1),
+                        takeawayItem(state.menuItemId(7), 1)))
+                .build();
+
+        guestOrder = GuestOrderRequest.builder()
+                .guestName("Benchmark Guest")
+                .guestPhone("9000000002")
+                .items(List.of(
+                        guestItem(state.menuItemId(0), 1),
+                        guestItem(state.menuItemId(3), 2)))
+                .build();
+    }
+
+    @Benchmark
+    public OrderDTO createOrder() {
+        return orderService.createOrder(takeaway);
+    }
+
+    @Benchmark
+    public OrderDTO placeGuestOrder() {
+        return guestOrderService.placeGuestOrder(HotelDataSeeder.GUEST_SESSION_TOKEN, guestOrder);
+    }
+
+    @Benchmark
+    public List<OrderDTO> activeOrders() {
+        return orderService.getActiveOrders();
+    }
+
+    private static CreateOrderRequest.OrderItemRequest takeawayItem(long menuItemId, int quantity) {
+        return CreateOrderRequest.OrderItemRequest.builder().menuItemId(menuItemId).quantity(quantity).build();
+    }
+
+    private static GuestOrderRequest.OrderItemRequest guestItem(long menuItemId, int quantity) {
+        return GuestOrderRequest.OrderItemRequest.builder().menuItemId(menuItemId).quantity(quantity).build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.dto.CursorPageResponse;
+import com.vijay.User_Master.dto.hotel.OrderDTO;
+import com.vijay.User_Master.service.hotel.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderHistoryBenchmark - The same page of completed orders reached by OFFSET and by keyset cursor
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class OrderHistoryBenchmark {
+
+    private static final String STATUS = "COMPLETED";
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"0", "100", "1000"})
+    public int page;
+
+    private OrderService orderService;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp(HotelState state) {
+        orderService = state.bean(OrderService.class);
+
+        // Walk to the page once; a client holds its cursor from the previous response
+        for (int i = 0; i < page; i++) {
+            CursorPageResponse<OrderDTO> response = orderService.getOrdersByStatus(STATUS, cursor, PAGE_SIZE);
+            if (!response.isHasMore()) {
+                throw new IllegalStateException("Fewer than " + page + " pages of " + STATUS + " orders");
+            }
+            cursor = response.getNextCursor();
+        }
+    }
+
+    @Benchmark
+    public Page<OrderDTO> offset() {
+        return orderService.getOrdersByStatus(STATUS,
+                PageRequest.of(page, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt", "id")));
+    }
+
+    @Benchmark
+    public CursorPageResponse<OrderDTO> keyset() {
+        return orderService.getOrdersByStatus(STATUS, cursor, PAGE_SIZE);
+    }
+}
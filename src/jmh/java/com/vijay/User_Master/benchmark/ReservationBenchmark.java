@@ -0,0 +1,37 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.entity.hotel.RestaurantTable;
+import com.vijay.User_Master.service.hotel.ReservationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReservationBenchmark - Table availability lookup for a peak dinner slot
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class ReservationBenchmark {
+
+    private ReservationService reservationService;
+    private LocalDateTime dinner;
+
+    @Setup(Level.Trial)
+    public void setUp(HotelState state) {
+        reservationService = state.bean(ReservationService.class);
+        dinner = LocalDateTime.of(LocalDate.now().plusDays(1), LocalTime.of(19, 0));
+    }
+
+    @Benchmark
+    public List<RestaurantTable> getAvailableTables() {
+        return reservationService.getAvailableTables(dinner, 4, 120);
+    }
+}
@@ -0,0 +1,32 @@
+package com.vijay.User_Master.benchmark;
+
+import com.vijay.User_Master.Helper.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SnowflakeIdBenchmark - Id generation contended by concurrent order placements
+ * Eight threads share one generator, as request threads do; the target is well over 1M ids/s.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Threads(8)
+@State(Scope.Benchmark)
+public class SnowflakeIdBenchmark {
+
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+
+    @Benchmark
+    public long nextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String nextNumber() {
+        return generator.nextNumber("ORD");
+    }
+}
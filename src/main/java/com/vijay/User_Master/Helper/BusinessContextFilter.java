@@ -241,4 +241,22 @@ public class BusinessContextFilter {
             throw new RuntimeException("Access denied - This resource belongs to a different business");
         }
     }
+    
+    /**
+     * Check whether a user may see a business's data, without a security context on the thread
+     * Used where the caller only has the principal, e.g. STOMP frames on the inbound channel
+     * 
+     * @param userDetails The authenticated user, or null
+     * @param businessId Business ID of the resource being accessed
+     * @return true for ADMIN, or when the business is the user's own
+     */
+    public boolean canAccessBusiness(CustomUserDetails userDetails, Long businessId) {
+        if (userDetails == null || businessId == null) {
+            return false;
+        }
+        if (hasRole(userDetails.getRoles(), "ROLE_ADMIN")) {
+            return true;
+        }
+        return businessId.equals(getBusinessIdForCustomUserDetails(userDetails));
+    }
 }
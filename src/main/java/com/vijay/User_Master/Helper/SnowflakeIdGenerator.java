@@ -0,0 +1,92 @@
+package com.vijay.User_Master.Helper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * SnowflakeIdGenerator - Unique, time-ordered 64-bit ids without a database round trip
+ * Layout: 41 bits milliseconds since 2024-01-01 | 10 bits node | 12 bits sequence.
+ * The last (millisecond, sequence) pair is one AtomicLong advanced by CAS, so ids are
+ * strictly increasing per node without locks. Past 4096 ids in one millisecond, or
+ * when the wall clock steps back, the generator keeps counting on from the last id
+ * instead of waiting - it runs briefly ahead of the clock rather than blocking.
+ * Distinct nodes never collide; give each instance its own app.id.node-id.
+ */
+@Component
+@Slf4j
+public class SnowflakeIdGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    // (millis since epoch << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong last = new AtomicLong();
+
+    @Autowired
+    public SnowflakeIdGenerator(@Value("${app.id.node-id:-1}") long nodeId) {
+        this(nodeId >= 0 ? nodeId : hostNodeId(), System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+        log.info("Snowflake id generator using node id {}", nodeId);
+    }
+
+    public long nextId() {
+        while (true) {
+            long previous = last.get();
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long next = now > (previous >>> SEQUENCE_BITS)
+                    ? now << SEQUENCE_BITS  // New millisecond - sequence restarts at 0
+                    : previous + 1;         // Same (or earlier) millisecond - overflow carries into the next one
+            if (last.compareAndSet(previous, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Business number such as ORD-123456789012345678
+     */
+    public String nextNumber(String prefix) {
+        return prefix + "-" + nextId();
+    }
+
+    /**
+     * When the id was generated, to the millisecond
+     */
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS);
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private static long hostNodeId() {
+        try {
+            String host = InetAddress.getLocalHost().getHostName();
+            return (host.hashCode() & Integer.MAX_VALUE) % (MAX_NODE_ID + 1);
+        } catch (Exception e) {
+            long nodeId = ThreadLocalRandom.current().nextLong(MAX_NODE_ID + 1);
+            log.warn("Could not resolve host name for the id node, using random node {}: {}", nodeId, e.getMessage());
+            return nodeId;
+        }
+    }
+}
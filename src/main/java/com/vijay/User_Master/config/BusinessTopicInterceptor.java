@@ -0,0 +1,65 @@
+package com.vijay.User_Master.config;
+
+import com.vijay.User_Master.Helper.BusinessContextFilter;
+import com.vijay.User_Master.config.security.CustomUserDetails;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BusinessTopicInterceptor - Keeps STOMP subscriptions inside the subscriber's business
+ * A SUBSCRIBE to /topic/business/{id}/... is refused unless the session's user belongs to
+ * business {id} (ADMIN may watch any). The client gets an ERROR frame and nothing is delivered.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BusinessTopicInterceptor implements ChannelInterceptor {
+
+    private static final Pattern BUSINESS_TOPIC = Pattern.compile("^/topic/business/([^/]+)(?:/.*)?$");
+
+    private final BusinessContextFilter businessContext;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        if (accessor.getCommand() != StompCommand.SUBSCRIBE || accessor.getDestination() == null) {
+            return message;
+        }
+        Matcher matcher = BUSINESS_TOPIC.matcher(accessor.getDestination());
+        if (matcher.matches() && !businessContext.canAccessBusiness(userDetails(accessor.getUser()), businessId(matcher.group(1)))) {
+            log.warn("Refused subscription of {} to {}", accessor.getUser() != null ? accessor.getUser().getName() : "anonymous",
+                    accessor.getDestination());
+            throw new AccessDeniedException("Access denied - This topic belongs to a different business");
+        }
+        return message;
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private static CustomUserDetails userDetails(Principal user) {
+        if (user instanceof Authentication authentication && authentication.getPrincipal() instanceof CustomUserDetails details) {
+            return details;
+        }
+        return null;
+    }
+
+    private static Long businessId(String segment) {
+        try {
+            return Long.valueOf(segment);
+        } catch (NumberFormatException e) {
+            return null;  // Not a business id - refused
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.vijay.User_Master.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Enables @Scheduled jobs (analytics checkpoints, nightly recomputes).
+    // spring.main.lazy-initialization=true: beans with jobs must be @Lazy(false)
+}
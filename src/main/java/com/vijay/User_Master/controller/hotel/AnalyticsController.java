@@ -2,14 +2,30 @@ package com.vijay.User_Master.controller.hotel;
 
 import com.vijay.User_Master.dto.hotel.analytics.*;
 import com.vijay.User_Master.service.hotel.AnalyticsService;
+import com.vijay.User_Master.service.hotel.WriteBehindCounterService;
+import com.vijay.User_Master.service.hotel.analytics.AgentLeaderboardSort;
+import com.vijay.User_Master.service.hotel.analytics.AnalyticsExportService;
+import com.vijay.User_Master.service.hotel.analytics.ExportWriter;
+import com.vijay.User_Master.service.hotel.analytics.LiveDashboardService;
+import com.vijay.User_Master.service.hotel.analytics.OrderRollupService;
+import com.vijay.User_Master.service.hotel.analytics.PopularItemsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/hotel/analytics")
@@ -18,6 +34,10 @@ import java.time.LocalTime;
 public class AnalyticsController {
     
     private final AnalyticsService analyticsService;
+    private final OrderRollupService rollupService;
+    private final AnalyticsExportService exportService;
+    private final LiveDashboardService liveDashboardService;
+    private final WriteBehindCounterService counterService;
     
     /**
      * Get overall dashboard overview with key metrics
@@ -27,6 +47,15 @@ public class AnalyticsController {
         return ResponseEntity.ok(analyticsService.getDashboardOverview());
     }
     
+    /**
+     * Live dashboard feed (Server-Sent Events): one "snapshot" event, then coalesced "patch" events
+     * carrying only the changed overview fields and the orders/deliveries/check-ins behind them
+     */
+    @GetMapping(value = "/dashboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboard() {
+        return liveDashboardService.subscribe();
+    }
+    
     /**
      * Get comprehensive order analytics
      * @param startDate Optional start date (default: 7 days ago)
@@ -73,6 +102,18 @@ public class AnalyticsController {
         return ResponseEntity.ok(analyticsService.getOrderAnalytics(start, end));
     }
     
+    /**
+     * Get most popular dishes from the streaming top-K sketches
+     * @param window TODAY or WEEK (last 7 days, default)
+     * @param limit Number of items (default: 10)
+     */
+    @GetMapping("/popular-items")
+    public ResponseEntity<List<PopularItemDTO>> getPopularItems(
+            @RequestParam(defaultValue = "WEEK") PopularItemsService.Window window,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(analyticsService.getPopularItems(window, Math.min(Math.max(limit, 1), 50)));
+    }
+    
     /**
      * Get comprehensive delivery analytics
      * @param startDate Optional start date (default: 7 days ago)
@@ -99,6 +140,21 @@ public class AnalyticsController {
         return ResponseEntity.ok(analyticsService.getDeliveryAnalytics(start, end));
     }
     
+    /**
+     * Get paginated delivery agent leaderboard
+     * @param sortBy RATING (default), DELIVERIES or SPEED
+     * @param days Window for latency percentiles (default: 30)
+     */
+    @GetMapping("/agents/leaderboard")
+    public ResponseEntity<Page<AgentPerformanceDTO>> getAgentLeaderboard(
+            @RequestParam(defaultValue = "RATING") AgentLeaderboardSort sortBy,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(analyticsService.getAgentLeaderboard(
+                sortBy, Math.max(page, 0), Math.min(Math.max(size, 1), 100), Math.min(Math.max(days, 1), 365)));
+    }
+    
     /**
      * Get comprehensive reservation analytics
      * @param startDate Optional start date (default: 7 days ago)
@@ -144,4 +200,99 @@ public class AnalyticsController {
         LocalDateTime end = LocalDateTime.now();
         return ResponseEntity.ok(analyticsService.getReservationAnalytics(start, end));
     }
+    
+    /**
+     * Rebuild hourly order rollups from raw orders (backfill history or repair drift)
+     * @param startDate Start date (inclusive)
+     * @param endDate Optional end date (default: now)
+     */
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> rebuildOrderRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        
+        LocalDateTime end = (endDate != null) ? endDate.atTime(LocalTime.MAX) : LocalDateTime.now();
+        int buckets = rollupService.rebuild(startDate.atStartOfDay(), end);
+        return ResponseEntity.ok(Map.of("buckets", buckets));
+    }
+    
+    /**
+     * Write-behind counter health: increments not yet written (the crash loss window), failed flushes
+     */
+    @GetMapping("/counters")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getCounterStats() {
+        return ResponseEntity.ok(counterService.getStats());
+    }
+    
+    /**
+     * Stream raw orders for accounting
+     * @param format CSV (default) or NDJSON
+     * @param gzip Compress the response (default: false)
+     * @param startDate Optional start date (default: 30 days ago)
+     * @param endDate Optional end date (default: now)
+     */
+    @GetMapping("/export/orders")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "CSV") ExportWriter.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        
+        LocalDateTime start = (startDate != null) ? startDate.atStartOfDay() : LocalDate.now().minusDays(30).atStartOfDay();
+        LocalDateTime end = (endDate != null) ? endDate.atTime(LocalTime.MAX) : LocalDateTime.now();
+        
+        return export("orders", format, gzip, exportService.exportOrders(format, gzip, start, end));
+    }
+    
+    /**
+     * Stream raw order items for accounting
+     * @param format CSV (default) or NDJSON
+     * @param gzip Compress the response (default: false)
+     * @param startDate Optional start date (default: 30 days ago)
+     * @param endDate Optional end date (default: now)
+     */
+    @GetMapping("/export/order-items")
+    public ResponseEntity<StreamingResponseBody> exportOrderItems(
+            @RequestParam(defaultValue = "CSV") ExportWriter.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        
+        LocalDateTime start = (startDate != null) ? startDate.atStartOfDay() : LocalDate.now().minusDays(30).atStartOfDay();
+        LocalDateTime end = (endDate != null) ? endDate.atTime(LocalTime.MAX) : LocalDateTime.now();
+        
+        return export("order-items", format, gzip, exportService.exportOrderItems(format, gzip, start, end));
+    }
+    
+    /**
+     * Stream raw payments for accounting
+     * @param format CSV (default) or NDJSON
+     * @param gzip Compress the response (default: false)
+     * @param startDate Optional start date (default: 30 days ago)
+     * @param endDate Optional end date (default: now)
+     */
+    @GetMapping("/export/payments")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = "CSV") ExportWriter.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        
+        LocalDateTime start = (startDate != null) ? startDate.atStartOfDay() : LocalDate.now().minusDays(30).atStartOfDay();
+        LocalDateTime end = (endDate != null) ? endDate.atTime(LocalTime.MAX) : LocalDateTime.now();
+        
+        return export("payments", format, gzip, exportService.exportPayments(format, gzip, start, end));
+    }
+    
+    private ResponseEntity<StreamingResponseBody> export(String name, ExportWriter.Format format, boolean gzip,
+                                                         StreamingResponseBody body) {
+        String filename = name + "-" + LocalDate.now() + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
 }
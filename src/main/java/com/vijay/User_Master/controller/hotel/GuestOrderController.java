@@ -2,11 +2,20 @@ package com.vijay.User_Master.controller.hotel;
 
 import com.vijay.User_Master.dto.hotel.GuestOrderRequest;
 import com.vijay.User_Master.dto.hotel.GuestSessionDTO;
+import com.vijay.User_Master.dto.hotel.MenuChangesDTO;
+import com.vijay.User_Master.dto.hotel.MenuFilterRequest;
 import com.vijay.User_Master.dto.hotel.MenuItemDTO;
 import com.vijay.User_Master.dto.hotel.OrderDTO;
+import com.vijay.User_Master.entity.hotel.IdempotencyRecord;
 import com.vijay.User_Master.service.hotel.GuestOrderService;
+import com.vijay.User_Master.service.hotel.IdempotencyService;
+import com.vijay.User_Master.service.hotel.MenuCatalog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,6 +34,7 @@ import java.util.List;
 public class GuestOrderController {
     
     private final GuestOrderService guestOrderService;
+    private final IdempotencyService idempotencyService;
     
     /**
      * Scan QR code - Entry point for contactless ordering
@@ -42,31 +52,64 @@ public class GuestOrderController {
     /**
      * Get menu for guest
      * Automatically filtered by business from session
+     * Pre-serialized per business; a matching If-None-Match gets 304 without a body
      * 
      * Header: X-Guest-Session: guest-session-token
+     * Header: If-None-Match: ETag of a previous response (optional)
      */
     @GetMapping("/menu")
-    public ResponseEntity<MenuResponse> getMenu(
+    public ResponseEntity<byte[]> getMenu(
             @RequestHeader("X-Guest-Session") String sessionToken
     ) {
         log.info("Getting menu for guest session: {}", sessionToken);
-        List<MenuItemDTO> menu = guestOrderService.getMenuForGuest(sessionToken);
-        return ResponseEntity.ok(new MenuResponse(menu, menu.size()));
+        return menuResponse(guestOrderService.getMenuForGuest(sessionToken));
     }
     
     /**
      * Get menu by category for guest
      * 
      * Header: X-Guest-Session: guest-session-token
+     * Header: If-None-Match: ETag of a previous response (optional)
      */
     @GetMapping("/menu/category/{categoryId}")
-    public ResponseEntity<MenuResponse> getMenuByCategory(
+    public ResponseEntity<byte[]> getMenuByCategory(
             @PathVariable Long categoryId,
             @RequestHeader("X-Guest-Session") String sessionToken
     ) {
         log.info("Getting menu category {} for guest session: {}", categoryId, sessionToken);
-        List<MenuItemDTO> menu = guestOrderService.getMenuByCategoryForGuest(sessionToken, categoryId);
-        return ResponseEntity.ok(new MenuResponse(menu, menu.size()));
+        return menuResponse(guestOrderService.getMenuByCategoryForGuest(sessionToken, categoryId));
+    }
+    
+    /**
+     * Menu changes since the X-Menu-Version of a previous menu response or sync
+     * Guests drop items that come back with isAvailable false
+     * 
+     * Header: X-Guest-Session: guest-session-token
+     * Example: GET /api/public/guest/menu/changes?since=1042
+     */
+    @GetMapping("/menu/changes")
+    public ResponseEntity<MenuChangesDTO> getMenuChanges(
+            @RequestParam Long since,
+            @RequestHeader("X-Guest-Session") String sessionToken
+    ) {
+        log.info("Getting menu changes since {} for guest session: {}", since, sessionToken);
+        return ResponseEntity.ok(guestOrderService.getMenuChangesForGuest(sessionToken, since));
+    }
+    
+    /**
+     * Filter the menu by dietary flags, categories, price, preparation time and calories
+     * 
+     * Header: X-Guest-Session: guest-session-token
+     * Example: GET /api/public/guest/menu/filter?vegetarian=true&maxPrice=300&sortBy=RATING
+     */
+    @GetMapping("/menu/filter")
+    public ResponseEntity<Page<MenuItemDTO>> filterMenu(
+            @ModelAttribute MenuFilterRequest filter,
+            @RequestHeader("X-Guest-Session") String sessionToken,
+            Pageable pageable
+    ) {
+        log.info("Filtering menu {} for guest session: {}", filter, sessionToken);
+        return ResponseEntity.ok(guestOrderService.filterMenuForGuest(sessionToken, filter, pageable));
     }
     
     /**
@@ -74,14 +117,19 @@ public class GuestOrderController {
      * Order automatically assigned to correct business
      * 
      * Header: X-Guest-Session: guest-session-token
+     * Header: Idempotency-Key: client-generated-key (optional) - a retry with the same key
+     *         returns the original order instead of placing it again
      */
     @PostMapping("/orders")
     public ResponseEntity<OrderDTO> placeOrder(
             @RequestHeader("X-Guest-Session") String sessionToken,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody GuestOrderRequest request
     ) {
         log.info("Guest placing order with session: {}", sessionToken);
-        OrderDTO order = guestOrderService.placeGuestOrder(sessionToken, request);
+        OrderDTO order = idempotencyService.execute(IdempotencyRecord.Scope.GUEST_ORDER, sessionToken,
+                idempotencyKey, request, OrderDTO.class,
+                () -> guestOrderService.placeGuestOrder(sessionToken, request));
         return ResponseEntity.ok(order);
     }
     
@@ -137,12 +185,22 @@ public class GuestOrderController {
         return ResponseEntity.ok(new HealthResponse("Guest ordering API is running", "OK"));
     }
     
-    // ==================== RESPONSE WRAPPERS ====================
+    // ==================== HELPER METHODS ====================
     
     /**
-     * Menu response wrapper
+     * Stored menu bytes with their ETag - Spring answers a matching If-None-Match with 304
+     * Guests revalidate on every use (no-cache), so a menu change shows on the next request
      */
-    public record MenuResponse(List<MenuItemDTO> items, int count) {}
+    private ResponseEntity<byte[]> menuResponse(MenuCatalog.View menu) {
+        return ResponseEntity.ok()
+                .eTag(menu.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(MenuController.MENU_VERSION_HEADER, String.valueOf(menu.version()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(menu.body());
+    }
+    
+    // ==================== RESPONSE WRAPPERS ====================
     
     /**
      * Health check response
@@ -1,6 +1,8 @@
 package com.vijay.User_Master.controller.hotel;
 
 import com.vijay.User_Master.dto.hotel.CategoryDTO;
+import com.vijay.User_Master.dto.hotel.MenuChangesDTO;
+import com.vijay.User_Master.dto.hotel.MenuFilterRequest;
 import com.vijay.User_Master.dto.hotel.MenuItemDTO;
 import com.vijay.User_Master.service.hotel.MenuService;
 import lombok.RequiredArgsConstructor;
@@ -18,6 +20,8 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class MenuController {
     
+    public static final String MENU_VERSION_HEADER = "X-Menu-Version";
+    
     private final MenuService menuService;
     
     // ==================== CATEGORY ENDPOINTS ====================
@@ -67,7 +71,11 @@ public class MenuController {
     
     @GetMapping("/items")
     public ResponseEntity<List<MenuItemDTO>> getAllMenuItems() {
-        return ResponseEntity.ok(menuService.getAllMenuItems());
+        // Version read before the items - syncing from it may replay a change, never miss one
+        long version = menuService.getMenuVersion();
+        return ResponseEntity.ok()
+                .header(MENU_VERSION_HEADER, String.valueOf(version))
+                .body(menuService.getAllMenuItems());
     }
     
     @GetMapping("/items/category/{categoryId}")
@@ -92,14 +100,40 @@ public class MenuController {
         return ResponseEntity.ok(menuService.searchMenuItems(keyword, pageable));
     }
     
+    /**
+     * Any combination of flags, categories and ranges, e.g. ?vegan=true&maxCalories=500&sortBy=PRICE_ASC
+     */
+    @GetMapping("/items/filter")
+    public ResponseEntity<Page<MenuItemDTO>> filterMenuItems(
+            @ModelAttribute MenuFilterRequest filter,
+            Pageable pageable) {
+        return ResponseEntity.ok(menuService.filterMenuItems(filter, pageable));
+    }
+    
     @GetMapping("/items/{id}")
     public ResponseEntity<MenuItemDTO> getMenuItemById(@PathVariable Long id) {
         return ResponseEntity.ok(menuService.getMenuItemById(id));
     }
     
+    @PatchMapping("/items/{id}/availability")
+    public ResponseEntity<MenuItemDTO> setMenuItemAvailability(@PathVariable Long id, @RequestParam boolean available) {
+        return ResponseEntity.ok(menuService.setMenuItemAvailability(id, available));
+    }
+    
     @DeleteMapping("/items/{id}")
     public ResponseEntity<Void> deleteMenuItem(@PathVariable Long id) {
         menuService.deleteMenuItem(id);
         return ResponseEntity.noContent().build();
     }
+    
+    // ==================== MENU SYNC ENDPOINTS ====================
+    
+    /**
+     * Categories and items changed after the version from X-Menu-Version or a previous sync
+     * The same deltas are pushed to /topic/business/{id}/menu
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<MenuChangesDTO> getMenuChanges(@RequestParam Long since) {
+        return ResponseEntity.ok(menuService.getMenuChanges(since));
+    }
 }
@@ -1,7 +1,13 @@
 package com.vijay.User_Master.controller.hotel;
 
+import com.vijay.User_Master.Helper.BusinessContextFilter;
+import com.vijay.User_Master.dto.CursorPageResponse;
+import com.vijay.User_Master.dto.hotel.BulkOrderStatusRequest;
+import com.vijay.User_Master.dto.hotel.BulkOrderStatusResponse;
 import com.vijay.User_Master.dto.hotel.CreateOrderRequest;
 import com.vijay.User_Master.dto.hotel.OrderDTO;
+import com.vijay.User_Master.entity.hotel.IdempotencyRecord;
+import com.vijay.User_Master.service.hotel.IdempotencyService;
 import com.vijay.User_Master.service.hotel.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -20,10 +26,22 @@ import java.util.Map;
 public class OrderController {
     
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final BusinessContextFilter businessContext;
     
+    /**
+     * Retries carrying the same Idempotency-Key get the original order back instead of a new one
+     */
     @PostMapping
-    public ResponseEntity<OrderDTO> createOrder(@RequestBody CreateOrderRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(orderService.createOrder(request));
+    public ResponseEntity<OrderDTO> createOrder(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody CreateOrderRequest request) {
+        // Admins have no business, so their keys are scoped to the admin user instead of shared
+        Long businessId = businessContext.getCurrentBusinessId();
+        String owner = businessId != null ? businessId.toString() : "user-" + businessContext.getCurrentUserId();
+        OrderDTO order = idempotencyService.execute(IdempotencyRecord.Scope.ORDER, owner, idempotencyKey, request,
+                OrderDTO.class, () -> orderService.createOrder(request));
+        return ResponseEntity.status(HttpStatus.CREATED).body(order);
     }
     
     @GetMapping("/{id}")
@@ -48,6 +66,17 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersByUser(userId, pageable));
     }
     
+    /**
+     * Keyset pagination - pass the returned nextCursor to get the next page
+     */
+    @GetMapping("/user/{userId}/cursor")
+    public ResponseEntity<CursorPageResponse<OrderDTO>> getOrdersByUserCursor(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getOrdersByUser(userId, cursor, size));
+    }
+    
     @GetMapping("/status/{status}")
     public ResponseEntity<List<OrderDTO>> getOrdersByStatus(@PathVariable String status) {
         return ResponseEntity.ok(orderService.getOrdersByStatus(status));
@@ -60,6 +89,14 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersByStatus(status, pageable));
     }
     
+    @GetMapping("/status/{status}/cursor")
+    public ResponseEntity<CursorPageResponse<OrderDTO>> getOrdersByStatusCursor(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getOrdersByStatus(status, cursor, size));
+    }
+    
     @GetMapping("/active")
     public ResponseEntity<List<OrderDTO>> getActiveOrders() {
         return ResponseEntity.ok(orderService.getActiveOrders());
@@ -73,6 +110,23 @@ public class OrderController {
         return ResponseEntity.ok(orderService.updateOrderStatus(id, status));
     }
     
+    /**
+     * One status for many orders; answers with which moved and which were rejected, not full orders
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<BulkOrderStatusResponse> updateOrderStatuses(@RequestBody BulkOrderStatusRequest request) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request));
+    }
+    
+    @PatchMapping("/{id}/items/{itemId}/status")
+    public ResponseEntity<OrderDTO> updateOrderItemStatus(
+            @PathVariable Long id,
+            @PathVariable Long itemId,
+            @RequestBody Map<String, String> request) {
+        String status = request.get("status");
+        return ResponseEntity.ok(orderService.updateOrderItemStatus(id, itemId, status));
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> cancelOrder(@PathVariable Long id) {
         orderService.cancelOrder(id);
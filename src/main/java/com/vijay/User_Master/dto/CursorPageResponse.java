@@ -0,0 +1,23 @@
+package com.vijay.User_Master.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * CursorPageResponse - One page of a keyset-paginated list
+ * Pass nextCursor back to get the following page; it is null on the last page.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasMore;
+
+}
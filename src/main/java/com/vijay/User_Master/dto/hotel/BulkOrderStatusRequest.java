@@ -0,0 +1,17 @@
+package com.vijay.User_Master.dto.hotel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusRequest {
+    private List<Long> orderIds;
+    private String status; // Target status for every order, e.g. SERVED or COMPLETED
+}
@@ -0,0 +1,34 @@
+package com.vijay.User_Master.dto.hotel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * BulkOrderStatusResponse - Outcome of a bulk status transition
+ * Orders that could not move are listed with the reason; the rest were all updated.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusResponse {
+    private String status;
+    private int requested;
+    private List<Long> updatedOrderIds;
+    private List<Rejected> rejected;
+    private int tablesFreed;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rejected {
+        private Long orderId;
+        private String currentStatus; // null when the order was not found
+        private String reason;
+    }
+}
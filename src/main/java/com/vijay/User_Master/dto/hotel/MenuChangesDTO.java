@@ -0,0 +1,27 @@
+package com.vijay.User_Master.dto.hotel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * MenuChangesDTO - Menu rows changed after a client's version, latest state per row
+ * Items with isAvailable false are no longer orderable. fullReload means the changes
+ * can't be replayed (unknown or purged version, too many changes) - fetch the whole
+ * menu and continue from its version.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuChangesDTO {
+    private Long version;
+    private boolean fullReload;
+    private List<MenuItemDTO> items;
+    private List<CategoryDTO> categories;
+    private List<Long> deletedItemIds;
+    private List<Long> deletedCategoryIds;
+}
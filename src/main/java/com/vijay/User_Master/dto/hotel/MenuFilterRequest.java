@@ -0,0 +1,40 @@
+package com.vijay.User_Master.dto.hotel;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * MenuFilterRequest - Attribute filters over a business's available menu items
+ * Bound from query parameters; null means "any". Flags filter both ways (false = must not be).
+ * Ranges are inclusive and exclude items without a value for that attribute.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuFilterRequest {
+    private Boolean vegetarian;
+    private Boolean vegan;
+    private Boolean spicy;
+    private Boolean featured;
+    private List<Long> categoryIds;     // Any of these
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer maxPreparationTime; // Minutes
+    private Integer minCalories;
+    private Integer maxCalories;
+    @Builder.Default
+    private SortBy sortBy = SortBy.POPULARITY;
+
+    public enum SortBy {
+        POPULARITY,     // Total orders, most first
+        RATING,         // Highest first
+        PRICE_ASC,
+        PRICE_DESC
+    }
+}
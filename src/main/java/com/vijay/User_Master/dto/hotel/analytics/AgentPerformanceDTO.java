@@ -20,4 +20,5 @@ public class AgentPerformanceDTO {
     private Double rating;
     private Double successRate;
     private Double averageDeliveryTimeMinutes;
+    private LatencyPercentilesDTO deliveryTimePercentiles;
 }
@@ -0,0 +1,20 @@
+package com.vijay.User_Master.dto.hotel.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardEventDTO {
+    // ORDER_PLACED, DELIVERY_STATUS or RESERVATION_CHECKED_IN
+    private String type;
+    private Long entityId;
+    private String status;
+    private BigDecimal amount;
+}
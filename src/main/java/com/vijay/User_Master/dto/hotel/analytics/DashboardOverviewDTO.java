@@ -6,9 +6,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class DashboardOverviewDTO {
@@ -33,4 +34,7 @@ public class DashboardOverviewDTO {
     private Long onlineDeliveryAgents;
     private Long occupiedTables;
     private Long availableTables;
+
+    // Metrics whose query timed out or failed and carry fallback values
+    private List<String> unavailableMetrics;
 }
@@ -0,0 +1,24 @@
+package com.vijay.User_Master.dto.hotel.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardPatchDTO {
+    // Changed DashboardOverviewDTO fields with their new values (JSON merge patch)
+    private Map<String, Object> overview;
+
+    // Notable events since the previous frame, oldest first
+    private List<DashboardEventDTO> events;
+
+    // Events left out because the frame's event list was full
+    private Integer droppedEvents;
+}
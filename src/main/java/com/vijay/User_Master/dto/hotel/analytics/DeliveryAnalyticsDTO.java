@@ -20,6 +20,8 @@ public class DeliveryAnalyticsDTO {
     
     // Performance metrics
     private Double averageDeliveryTimeMinutes;
+    private LatencyPercentilesDTO deliveryTimePercentiles; // Pickup -> delivered
+    private LatencyPercentilesDTO pickupTimePercentiles;   // Assigned -> picked up
     private Double successRate;
     private Double averageRating;
     
@@ -0,0 +1,17 @@
+package com.vijay.User_Master.dto.hotel.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencyPercentilesDTO {
+    private Long sampleCount;
+    private Double p50Minutes;
+    private Double p90Minutes;
+    private Double p99Minutes;
+}
@@ -19,4 +19,5 @@ public class PopularItemDTO {
     private Long totalQuantitySold;
     private BigDecimal revenue;
     private Double averageRating;
+    private Long quantityError; // Max over-count of totalQuantitySold for sketch-based results (0 = exact)
 }
@@ -0,0 +1,26 @@
+package com.vijay.User_Master.dto.hotel.kitchen;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class KitchenEventDTO {
+    private String type; // ORDER_CREATED, ORDER_STATUS_CHANGED, ITEM_STATUS_CHANGED
+    private Long orderId;
+    private String orderNumber;
+    private String orderType;
+    private String tableNumber;
+    private String status;         // Order status; the item's for ITEM_STATUS_CHANGED
+    private String previousStatus; // Before the first change folded into this event
+    private String specialInstructions;
+    private List<KitchenItemDTO> items; // All lines for ORDER_CREATED, the changed line for ITEM_STATUS_CHANGED
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,25 @@
+package com.vijay.User_Master.dto.hotel.kitchen;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KitchenFrameDTO {
+    private Long businessId;
+    private Long stationId; // Category id; null on the whole-kitchen topic
+
+    // Per business, shared by the station frames of one flush - a gap means frames were missed,
+    // and the display should reload GET /api/hotel/orders/active
+    private Long sequence;
+
+    // Oldest first; changes to the same order or line within one frame are merged
+    private List<KitchenEventDTO> events;
+    private Integer coalescedEvents;
+}
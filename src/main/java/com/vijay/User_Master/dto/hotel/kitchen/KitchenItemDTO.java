@@ -0,0 +1,20 @@
+package com.vijay.User_Master.dto.hotel.kitchen;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class KitchenItemDTO {
+    private Long id;
+    private Long menuItemId;
+    private String name;
+    private Long categoryId; // Station the line is prepared at
+    private Integer quantity;
+    private String specialInstructions;
+    private String status;
+}
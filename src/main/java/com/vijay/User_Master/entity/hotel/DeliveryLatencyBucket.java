@@ -0,0 +1,63 @@
+package com.vijay.User_Master.entity.hotel;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DeliveryLatencyBucket Entity - One cell of a daily delivery latency histogram
+ * Counts deliveries per business, agent, day, metric and log-scaled latency bucket
+ * (see LatencyHistogram). Incremented on DELIVERED; percentiles sum cells across
+ * days/agents instead of scanning delivery tracking rows.
+ */
+@Entity
+@Table(name = "hotel_delivery_latency_buckets",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_latency_bucket",
+                columnNames = {"business_id", "agent_id", "bucket_date", "metric", "bucket_index"})
+    },
+    indexes = {
+        @Index(name = "idx_latency_agent_date", columnList = "agent_id,bucket_date")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryLatencyBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "business_id", nullable = false)
+    private Long businessId; // Hotel/Business owner ID
+
+    @Column(name = "agent_id", nullable = false)
+    private Long agentId; // 0 when the delivery had no agent
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate; // Day the delivery completed
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Metric metric;
+
+    @Column(name = "bucket_index", nullable = false)
+    private Integer bucketIndex;
+
+    @Column(name = "sample_count", nullable = false)
+    private Long sampleCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Metric {
+        PICKUP,   // assignedAt -> pickedUpAt
+        DELIVERY  // pickedUpAt -> deliveredAt
+    }
+}
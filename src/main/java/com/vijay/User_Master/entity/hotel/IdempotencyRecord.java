@@ -0,0 +1,67 @@
+package com.vijay.User_Master.entity.hotel;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * IdempotencyRecord Entity - Outcome of a request submitted with an Idempotency-Key
+ * The key is stored hashed together with its scope and owner (business or guest session),
+ * so the same key from two tenants never collides. PENDING while the first request runs,
+ * COMPLETED with the response body once it has succeeded.
+ */
+@Entity
+@Table(name = "hotel_idempotency_keys",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_idempotency_key_hash", columnNames = {"key_hash"})
+    },
+    indexes = {
+        @Index(name = "idx_idempotency_expires_at", columnList = "expires_at")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "key_hash", nullable = false, length = 64)
+    private String keyHash; // SHA-256 of scope, owner and client key
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Scope scope;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash; // SHA-256 of the request body - a reused key must carry the same request
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody; // JSON of the original response
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public enum Scope {
+        ORDER,          // POST /api/hotel/orders
+        GUEST_ORDER     // POST /api/public/guest/orders
+    }
+
+    public enum Status {
+        PENDING,
+        COMPLETED
+    }
+}
@@ -0,0 +1,68 @@
+package com.vijay.User_Master.entity.hotel;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * MenuChange Entity - One category or menu item write, recorded in the writing transaction
+ * version is the business's menu version after the write (see MenuVersion): clients holding
+ * version N ask for every change of their business with a larger version.
+ * The payload is the JSON of the row as written (null for deletes), so deltas are served
+ * from this table alone.
+ */
+@Entity
+@Table(name = "hotel_menu_changes",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_menu_change_version", columnNames = {"business_id", "version"})
+    },
+    indexes = {
+        @Index(name = "idx_menu_change_created_at", columnList = "created_at")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "business_id", nullable = false)
+    private Long businessId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Action action;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum EntityType {
+        CATEGORY,
+        MENU_ITEM
+    }
+
+    public enum Action {
+        UPSERT,
+        DELETE
+    }
+}
@@ -77,7 +77,7 @@ public class MenuItem {
     @Builder.Default
     private BigDecimal rating = BigDecimal.ZERO;
     
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)  // Written only by WriteBehindCounterService
     @Builder.Default
     private Integer totalOrders = 0;
     
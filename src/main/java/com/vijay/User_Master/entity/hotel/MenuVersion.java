@@ -0,0 +1,28 @@
+package com.vijay.User_Master.entity.hotel;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MenuVersion Entity - Latest menu change log version of one business
+ * Bumped in the writing transaction, which holds the row lock until it commits, so a
+ * business's versions commit in order and a client syncing to version N has seen every change up to N.
+ */
+@Entity
+@Table(name = "hotel_menu_versions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuVersion {
+
+    @Id
+    @Column(name = "business_id")
+    private Long businessId;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -16,8 +16,11 @@ import java.util.List;
 
 @Entity
 @Table(name = "hotel_orders", indexes = {
-    @Index(name = "idx_order_business_id", columnList = "business_id"),
-    @Index(name = "idx_order_user_business", columnList = "user_id,business_id")
+    @Index(name = "idx_order_business_created", columnList = "business_id,created_at"),
+    @Index(name = "idx_order_business_status_created", columnList = "business_id,status,created_at"),
+    @Index(name = "idx_order_business_user_created", columnList = "business_id,user_id,created_at"),
+    @Index(name = "idx_order_user_created", columnList = "user_id,created_at"),
+    @Index(name = "idx_order_status_created", columnList = "status,created_at")
 })
 @Data
 @Builder
@@ -36,8 +39,7 @@ public class Order {
     @Column(nullable = false, unique = true, length = 50)
     private String orderNumber;
     
-    @Column(nullable = false)
-    private Long userId; // Reference to User from User Management
+    private Long userId; // Reference to User from User Management (null for guest orders)
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "table_id")
@@ -64,7 +66,8 @@ public class Order {
     private List<OrderItem> items = new ArrayList<>();
     
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal subtotal;
+    @Builder.Default
+    private BigDecimal subtotal = BigDecimal.ZERO; // Filled in once the items are priced
     
     @Column(nullable = false, precision = 10, scale = 2)
     @Builder.Default
@@ -75,7 +78,8 @@ public class Order {
     private BigDecimal discount = BigDecimal.ZERO;
     
     @Column(nullable = false, precision = 10, scale = 2)
-    private BigDecimal totalAmount;
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
     
     @Column(columnDefinition = "TEXT")
     private String specialInstructions;
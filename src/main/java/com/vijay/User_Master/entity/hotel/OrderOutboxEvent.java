@@ -0,0 +1,76 @@
+package com.vijay.User_Master.entity.hotel;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * OrderOutboxEvent Entity - Side effect of an order write, recorded in the same transaction
+ * The dispatcher applies PENDING events after commit and marks them DONE; an event that keeps
+ * failing is retried with backoff until max attempts, then left FAILED for inspection.
+ * The payload is a JSON snapshot taken at write time, so handlers never re-read the order.
+ */
+@Entity
+@Table(name = "hotel_order_outbox", indexes = {
+    @Index(name = "idx_outbox_status_available", columnList = "status,available_at"),
+    @Index(name = "idx_outbox_processed_at", columnList = "processed_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "business_id", nullable = false)
+    private Long businessId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private Type type;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt; // Not picked up before this - pushed back after a failure
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    public enum Type {
+        ORDER_PLACED,           // Rollups, popular items, live dashboard / analytics invalidation
+        ORDER_CONFIRMATION_EMAIL
+    }
+
+    public enum Status {
+        PENDING,
+        DONE,
+        FAILED
+    }
+}
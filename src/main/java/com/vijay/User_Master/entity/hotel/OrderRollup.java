@@ -0,0 +1,60 @@
+package com.vijay.User_Master.entity.hotel;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * OrderRollup Entity - Pre-aggregated hourly order bucket
+ * One row per business, hour, order type and order status
+ * Maintained incrementally on order create/status change so analytics
+ * read a few hundred bucket rows instead of every raw order
+ */
+@Entity
+@Table(name = "hotel_order_rollups",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollup_bucket", columnNames = {"business_id", "bucket_start", "order_type", "status"})
+    },
+    indexes = {
+        @Index(name = "idx_rollup_bucket_start", columnList = "bucket_start")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "business_id", nullable = false)
+    private Long businessId; // Hotel/Business owner ID
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart; // Order createdAt truncated to the hour
+
+    @Column(name = "order_type", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Order.OrderType orderType;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Order.OrderStatus status;
+
+    @Column(name = "order_count", nullable = false)
+    @Builder.Default
+    private Long orderCount = 0L;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
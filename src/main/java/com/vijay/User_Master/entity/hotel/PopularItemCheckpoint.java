@@ -0,0 +1,59 @@
+package com.vijay.User_Master.entity.hotel;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * PopularItemCheckpoint Entity - Persisted counter of a daily top-items sketch
+ * One row per business, day and monitored menu item; restored on restart
+ * and overwritten with exact figures by the nightly recompute
+ */
+@Entity
+@Table(name = "hotel_popular_item_checkpoints",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_popular_item_day", columnNames = {"business_id", "bucket_date", "menu_item_id"})
+    },
+    indexes = {
+        @Index(name = "idx_popular_item_bucket_date", columnList = "bucket_date")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PopularItemCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "business_id", nullable = false)
+    private Long businessId; // Hotel/Business owner ID
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "menu_item_id", nullable = false)
+    private Long menuItemId;
+
+    @Column(nullable = false)
+    private Long quantity; // Sketch count (upper bound of quantity sold)
+
+    @Column(name = "count_error", nullable = false)
+    private Long countError; // quantity - countError is a guaranteed lower bound
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -51,11 +51,11 @@ public class QRCode {
     @Builder.Default
     private Boolean isActive = true;
     
-    @Column(name = "scan_count")
+    @Column(name = "scan_count", updatable = false)  // Written only by WriteBehindCounterService
     @Builder.Default
     private Integer scanCount = 0;
     
-    @Column(name = "last_scanned_at")
+    @Column(name = "last_scanned_at", updatable = false)
     private LocalDateTime lastScannedAt;
     
     @CreatedDate
@@ -69,12 +69,4 @@ public class QRCode {
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
     }
-    
-    /**
-     * Increment scan count when QR code is scanned
-     */
-    public void incrementScanCount() {
-        this.scanCount++;
-        this.lastScannedAt = LocalDateTime.now();
-    }
 }
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "hotel_table_reservations", indexes = {
     @Index(name = "idx_reservation_business_id", columnList = "business_id"),
-    @Index(name = "idx_reservation_user_business", columnList = "user_id,business_id")
+    @Index(name = "idx_reservation_user_business", columnList = "user_id,business_id"),
+    @Index(name = "idx_reservation_business_datetime", columnList = "business_id,reservation_date_time")
 })
 @Data
 @Builder
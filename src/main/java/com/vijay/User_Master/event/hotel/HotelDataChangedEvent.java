@@ -0,0 +1,41 @@
+package com.vijay.User_Master.event.hotel;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * HotelDataChangedEvent - Published by hotel services after a write
+ * businessId null means the owning business is unknown (treat as all businesses).
+ * Status writes carry the transition (previousStatus null = newly created) and,
+ * for orders, the amount - enough for listeners to apply deltas without a re-read.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class HotelDataChangedEvent {
+
+    private final Long businessId;
+    private final Kind kind;
+    private final Long entityId;
+    private final String previousStatus;
+    private final String status;
+    private final BigDecimal amount;
+
+    public HotelDataChangedEvent(Long businessId, Kind kind, Long entityId) {
+        this(businessId, kind, entityId, null, null, null);
+    }
+
+    public boolean isCreated() {
+        return status != null && previousStatus == null;
+    }
+
+    public enum Kind {
+        ORDER,
+        PAYMENT,
+        DELIVERY,
+        RESERVATION
+    }
+}
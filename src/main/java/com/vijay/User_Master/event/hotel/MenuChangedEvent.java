@@ -0,0 +1,24 @@
+package com.vijay.User_Master.event.hotel;
+
+import com.vijay.User_Master.dto.hotel.MenuChangesDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * MenuChangedEvent - Published by writes to categories and menu items
+ * businessId null means the owning business is unknown (treat as all businesses).
+ * Writes recorded in the menu change log carry their delta, pushed to menu clients after commit.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class MenuChangedEvent {
+
+    private final Long businessId;
+    private final MenuChangesDTO changes;
+
+    public MenuChangedEvent(Long businessId) {
+        this(businessId, null);
+    }
+}
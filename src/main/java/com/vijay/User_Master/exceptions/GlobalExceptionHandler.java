@@ -131,6 +131,15 @@ public class GlobalExceptionHandler {
                 HttpStatus.BAD_REQUEST
         );
     }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<?> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        logger.warn("Idempotency conflict: {}", ex.getMessage());
+        return ExceptionUtil.createErrorResponseMessage(
+                ex.getMessage(),
+                HttpStatus.CONFLICT
+        );
+    }
 }
 
 
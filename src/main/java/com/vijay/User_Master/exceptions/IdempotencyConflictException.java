@@ -0,0 +1,7 @@
+package com.vijay.User_Master.exceptions;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,8 +1,11 @@
 package com.vijay.User_Master.repository.hotel;
 
 import com.vijay.User_Master.entity.hotel.DeliveryAgent;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -24,4 +27,43 @@ public interface DeliveryAgentRepository extends JpaRepository<DeliveryAgent, Lo
     
     @Query("SELECT da FROM DeliveryAgent da ORDER BY da.rating DESC")
     List<DeliveryAgent> findTopRatedAgents();
+    
+    // ========== ANALYTICS AGGREGATES ==========
+    // businessId null means all businesses (admin)
+    
+    @Query("SELECT COUNT(da) FROM DeliveryAgent da WHERE (:businessId IS NULL OR da.businessId = :businessId)")
+    Long countForBusiness(@Param("businessId") Long businessId);
+    
+    @Query("SELECT COUNT(da) FROM DeliveryAgent da WHERE (:businessId IS NULL OR da.businessId = :businessId) AND da.isOnline = true")
+    Long countOnlineForBusiness(@Param("businessId") Long businessId);
+    
+    @Query("SELECT COUNT(da) FROM DeliveryAgent da WHERE (:businessId IS NULL OR da.businessId = :businessId) " +
+           "AND da.isOnline = true AND da.isAvailable = true")
+    Long countAvailableForBusiness(@Param("businessId") Long businessId);
+    
+    interface AgentLeaderboardRow {
+        Long getAgentId();
+        String getAgentName();
+        String getPhone();
+        String getVehicleType();
+        Integer getTotalDeliveries();
+        Double getRating();
+        Long getAssignedDeliveries();
+        Long getSuccessfulDeliveries();
+        Long getFailedDeliveries();
+        Double getAverageDeliverySeconds();
+    }
+    
+    // Per-agent delivery outcomes and timing in one grouped query (no per-agent lookups)
+    // Sortable by any alias, e.g. rating, successfulDeliveries, averageDeliverySeconds
+    @Query(value = "SELECT da.id AS agentId, da.name AS agentName, da.phone AS phone, da.vehicleType AS vehicleType, " +
+                   "da.totalDeliveries AS totalDeliveries, da.rating AS rating, COUNT(dt) AS assignedDeliveries, " +
+                   "SUM(CASE WHEN dt.status = 'DELIVERED' THEN 1 ELSE 0 END) AS successfulDeliveries, " +
+                   "SUM(CASE WHEN dt.status = 'FAILED' THEN 1 ELSE 0 END) AS failedDeliveries, " +
+                   "AVG((dt.deliveredAt - dt.pickedUpAt) BY SECOND) AS averageDeliverySeconds " +
+                   "FROM DeliveryAgent da LEFT JOIN DeliveryTracking dt ON dt.agent = da " +
+                   "WHERE (:businessId IS NULL OR da.businessId = :businessId) " +
+                   "GROUP BY da.id, da.name, da.phone, da.vehicleType, da.totalDeliveries, da.rating",
+           countQuery = "SELECT COUNT(da) FROM DeliveryAgent da WHERE (:businessId IS NULL OR da.businessId = :businessId)")
+    Page<AgentLeaderboardRow> findAgentLeaderboard(@Param("businessId") Long businessId, Pageable pageable);
 }
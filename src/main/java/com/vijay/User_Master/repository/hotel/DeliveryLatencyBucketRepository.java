@@ -0,0 +1,57 @@
+package com.vijay.User_Master.repository.hotel;
+
+import com.vijay.User_Master.entity.hotel.DeliveryLatencyBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DeliveryLatencyBucketRepository extends JpaRepository<DeliveryLatencyBucket, Long> {
+
+    interface BucketCount {
+        Integer getBucketIndex();
+        Long getSampleCount();
+    }
+
+    interface AgentBucketCount {
+        Long getAgentId();
+        Integer getBucketIndex();
+        Long getSampleCount();
+    }
+
+    // Atomic increment of one histogram cell
+    @Modifying
+    @Query(value = "INSERT INTO hotel_delivery_latency_buckets (business_id, agent_id, bucket_date, metric, bucket_index, sample_count, updated_at) " +
+                   "VALUES (:businessId, :agentId, :bucketDate, :metric, :bucketIndex, 1, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE sample_count = sample_count + 1, updated_at = NOW()",
+           nativeQuery = true)
+    int increment(@Param("businessId") Long businessId,
+                  @Param("agentId") Long agentId,
+                  @Param("bucketDate") LocalDate bucketDate,
+                  @Param("metric") String metric,
+                  @Param("bucketIndex") int bucketIndex);
+
+    // Business histogram merged over agents and days; businessId null means all businesses (admin)
+    @Query("SELECT b.bucketIndex AS bucketIndex, SUM(b.sampleCount) AS sampleCount FROM DeliveryLatencyBucket b " +
+           "WHERE (:businessId IS NULL OR b.businessId = :businessId) AND b.metric = :metric " +
+           "AND b.bucketDate BETWEEN :startDate AND :endDate GROUP BY b.bucketIndex")
+    List<BucketCount> sumBuckets(@Param("businessId") Long businessId,
+                                 @Param("metric") DeliveryLatencyBucket.Metric metric,
+                                 @Param("startDate") LocalDate startDate,
+                                 @Param("endDate") LocalDate endDate);
+
+    // Per-agent histograms merged over days
+    @Query("SELECT b.agentId AS agentId, b.bucketIndex AS bucketIndex, SUM(b.sampleCount) AS sampleCount " +
+           "FROM DeliveryLatencyBucket b WHERE b.agentId IN :agentIds AND b.metric = :metric " +
+           "AND b.bucketDate BETWEEN :startDate AND :endDate GROUP BY b.agentId, b.bucketIndex")
+    List<AgentBucketCount> sumBucketsByAgent(@Param("agentIds") Collection<Long> agentIds,
+                                             @Param("metric") DeliveryLatencyBucket.Metric metric,
+                                             @Param("startDate") LocalDate startDate,
+                                             @Param("endDate") LocalDate endDate);
+}
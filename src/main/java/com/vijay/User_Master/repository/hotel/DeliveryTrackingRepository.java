@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,4 +27,41 @@ public interface DeliveryTrackingRepository extends JpaRepository<DeliveryTracki
     
     @Query("SELECT COUNT(dt) FROM DeliveryTracking dt WHERE dt.agent.id = :agentId AND dt.status = 'DELIVERED'")
     Long countCompletedDeliveriesByAgent(@Param("agentId") Long agentId);
+    
+    // ========== ANALYTICS AGGREGATES ==========
+    // Tracking rows are scoped through their order's business_id
+    
+    interface StatusCount {
+        DeliveryTracking.DeliveryStatus getStatus();
+        Long getDeliveryCount();
+    }
+    
+    interface DeliveryTimingSummary {
+        Double getAverageDeliveryMinutes();
+        Double getAverageRating();
+        Long getDeliveredToday();
+    }
+    
+    @Query("SELECT dt.status AS status, COUNT(dt) AS deliveryCount FROM DeliveryTracking dt JOIN dt.order o " +
+           "WHERE (:businessId IS NULL OR o.businessId = :businessId) AND dt.createdAt BETWEEN :startDate AND :endDate " +
+           "GROUP BY dt.status")
+    List<StatusCount> countByStatusBetween(@Param("businessId") Long businessId,
+                                           @Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate);
+    
+    @Query(value = "SELECT AVG(CASE WHEN dt.picked_up_at IS NOT NULL AND dt.delivered_at IS NOT NULL " +
+                   "THEN TIMESTAMPDIFF(MINUTE, dt.picked_up_at, dt.delivered_at) END) AS averageDeliveryMinutes, " +
+                   "AVG(dt.delivery_rating) AS averageRating, " +
+                   "SUM(CASE WHEN dt.status = 'DELIVERED' AND dt.delivered_at > :todayStart THEN 1 ELSE 0 END) AS deliveredToday " +
+                   "FROM hotel_delivery_tracking dt JOIN hotel_orders o ON o.id = dt.order_id " +
+                   "WHERE (:businessId IS NULL OR o.business_id = :businessId) AND dt.created_at BETWEEN :startDate AND :endDate",
+           nativeQuery = true)
+    DeliveryTimingSummary summarizeTimingBetween(@Param("businessId") Long businessId,
+                                                 @Param("startDate") LocalDateTime startDate,
+                                                 @Param("endDate") LocalDateTime endDate,
+                                                 @Param("todayStart") LocalDateTime todayStart);
+    
+    @Query("SELECT COUNT(dt) FROM DeliveryTracking dt JOIN dt.order o " +
+           "WHERE (:businessId IS NULL OR o.businessId = :businessId) AND dt.status IN ('PENDING', 'ASSIGNED', 'PICKED_UP', 'IN_TRANSIT')")
+    Long countActiveDeliveries(@Param("businessId") Long businessId);
 }
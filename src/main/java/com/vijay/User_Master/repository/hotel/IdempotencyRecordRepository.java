@@ -0,0 +1,36 @@
+package com.vijay.User_Master.repository.hotel;
+
+import com.vijay.User_Master.entity.hotel.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByKeyHash(String keyHash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.keyHash = :keyHash")
+    int deleteByKeyHash(@Param("keyHash") String keyHash);
+
+    // Matched by id, so a run whose key was taken over after pending-timeout completes nothing
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.status = 'COMPLETED', r.responseBody = :responseBody " +
+           "WHERE r.id = :id AND r.status = 'PENDING'")
+    int markCompleted(@Param("id") Long id, @Param("responseBody") String responseBody);
+
+    // Retention - expired keys are never replayed
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,35 @@
+package com.vijay.User_Master.repository.hotel;
+
+import com.vijay.User_Master.entity.hotel.MenuChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MenuChangeRepository extends JpaRepository<MenuChange, Long> {
+
+    // ========== PER-BUSINESS VERSIONS ==========
+
+    @Query("SELECT c FROM MenuChange c WHERE c.businessId = :businessId AND c.version > :since ORDER BY c.version")
+    List<MenuChange> findChangesSince(@Param("businessId") Long businessId, @Param("since") Long since, Pageable pageable);
+
+    // Versions below this may have been purged
+    @Query("SELECT MIN(c.version) FROM MenuChange c WHERE c.businessId = :businessId")
+    Long findOldestVersion(@Param("businessId") Long businessId);
+
+    // ========== RETENTION ==========
+
+    // Each business's newest change is always kept, so its oldest retained version never jumps past it
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM MenuChange c WHERE c.createdAt < :cutoff " +
+           "AND c.version < (SELECT v.version FROM MenuVersion v WHERE v.businessId = c.businessId)")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,6 +21,10 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     
     List<MenuItem> findByBusinessIdAndIsAvailableTrue(Long businessId);
     
+    // Guest menu snapshot - category in the same statement, stable order so rebuilds serialize identically
+    @Query("SELECT m FROM MenuItem m JOIN FETCH m.category WHERE m.businessId = :businessId AND m.isAvailable = true ORDER BY m.id")
+    List<MenuItem> findAvailableWithCategory(@Param("businessId") Long businessId);
+    
     Page<MenuItem> findByBusinessId(Long businessId, Pageable pageable);
     
     // Find by business and category
@@ -55,15 +60,26 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     
     List<MenuItem> findByIsAvailableTrue();
     
+    // Admin listings across businesses - category fetched for mapping outside a transaction
+    @Query("SELECT m FROM MenuItem m JOIN FETCH m.category WHERE m.isFeatured = true AND m.isAvailable = true")
     List<MenuItem> findByIsFeaturedTrueAndIsAvailableTrue();
     
+    @Query("SELECT m FROM MenuItem m JOIN FETCH m.category WHERE m.isVegetarian = true AND m.isAvailable = true")
     List<MenuItem> findByIsVegetarianTrueAndIsAvailableTrue();
     
-    @Query("SELECT m FROM MenuItem m WHERE m.isAvailable = true AND " +
+    // Admin search across businesses - category fetched for mapping outside a transaction
+    @Query(value = "SELECT m FROM MenuItem m JOIN FETCH m.category WHERE m.isAvailable = true AND " +
+           "(LOWER(m.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(m.description) LIKE LOWER(CONCAT('%', :keyword, '%')))",
+           countQuery = "SELECT COUNT(m) FROM MenuItem m WHERE m.isAvailable = true AND " +
            "(LOWER(m.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
            "LOWER(m.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     Page<MenuItem> searchMenuItems(@Param("keyword") String keyword, Pageable pageable);
     
     @Query("SELECT m FROM MenuItem m WHERE m.category.id = :categoryId AND m.isAvailable = true")
     Page<MenuItem> findByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+    
+    // Item details with category in one statement (top-items lookups)
+    @Query("SELECT m FROM MenuItem m LEFT JOIN FETCH m.category WHERE m.id IN :ids")
+    List<MenuItem> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
 }
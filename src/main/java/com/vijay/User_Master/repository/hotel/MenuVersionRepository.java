@@ -0,0 +1,23 @@
+package com.vijay.User_Master.repository.hotel;
+
+import com.vijay.User_Master.entity.hotel.MenuVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MenuVersionRepository extends JpaRepository<MenuVersion, Long> {
+
+    // Atomic increment of the business's version; the row stays locked until the transaction ends
+    @Modifying
+    @Query(value = "INSERT INTO hotel_menu_versions (business_id, version) VALUES (:businessId, 1) " +
+                   "ON DUPLICATE KEY UPDATE version = version + 1",
+           nativeQuery = true)
+    int increment(@Param("businessId") Long businessId);
+
+    // Scalar, so a version bumped earlier in the same transaction is never read from the persistence context
+    @Query("SELECT v.version FROM MenuVersion v WHERE v.businessId = :businessId")
+    Long findVersion(@Param("businessId") Long businessId);
+}
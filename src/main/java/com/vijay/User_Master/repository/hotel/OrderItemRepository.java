@@ -1,19 +1,88 @@
 package com.vijay.User_Master.repository.hotel;
 
 import com.vijay.User_Master.entity.hotel.OrderItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     
-    List<OrderItem> findByOrderId(Long orderId);
+    // Explicit JPQL compares the FK column; the derived query left-joined hotel_orders, which
+    // engines that do not turn it into an inner join answer by scanning every order line
+    @Query("SELECT oi FROM OrderItem oi WHERE oi.order.id = :orderId")
+    List<OrderItem> findByOrderId(@Param("orderId") Long orderId);
+    
+    // Lines of a page of orders with their menu items, in one statement
+    @Query("SELECT oi FROM OrderItem oi JOIN FETCH oi.menuItem WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItem> findByOrderIdInWithMenuItem(@Param("orderIds") Collection<Long> orderIds);
     
     @Query("SELECT oi FROM OrderItem oi WHERE oi.order.id = :orderId AND oi.status = :status")
     List<OrderItem> findByOrderIdAndStatus(@Param("orderId") Long orderId, 
                                            @Param("status") OrderItem.ItemStatus status);
+    
+    // ========== ANALYTICS AGGREGATES ==========
+    
+    interface ItemSales {
+        Long getItemId();
+        String getItemName();
+        String getCategoryName();
+        Long getOrderCount();
+        Long getTotalQuantity();
+        BigDecimal getRevenue();
+        BigDecimal getRating();
+    }
+    
+    // Best sellers in range, grouped per menu item; businessId null means all businesses (admin)
+    @Query("SELECT m.id AS itemId, m.name AS itemName, c.name AS categoryName, COUNT(oi) AS orderCount, " +
+           "SUM(oi.quantity) AS totalQuantity, SUM(oi.totalPrice) AS revenue, m.rating AS rating " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.menuItem m JOIN m.category c " +
+           "WHERE (:businessId IS NULL OR o.businessId = :businessId) AND o.createdAt BETWEEN :startDate AND :endDate " +
+           "GROUP BY m.id, m.name, c.name, m.rating ORDER BY SUM(oi.quantity) DESC")
+    List<ItemSales> findTopSellingItems(@Param("businessId") Long businessId,
+                                        @Param("startDate") LocalDateTime startDate,
+                                        @Param("endDate") LocalDateTime endDate,
+                                        Pageable pageable);
+    
+    // ========== EXPORT (forward-only streaming) ==========
+    
+    interface OrderItemExportRow {
+        Long getOrderItemId();
+        Long getOrderId();
+        String getOrderNumber();
+        LocalDateTime getOrderCreatedAt();
+        Long getMenuItemId();
+        String getItemName();
+        Integer getQuantity();
+        BigDecimal getUnitPrice();
+        BigDecimal getTotalPrice();
+        OrderItem.ItemStatus getStatus();
+    }
+    
+    // Scalar projection - rows never enter the persistence context
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT oi.id AS orderItemId, o.id AS orderId, o.orderNumber AS orderNumber, o.createdAt AS orderCreatedAt, " +
+           "m.id AS menuItemId, m.name AS itemName, oi.quantity AS quantity, oi.unitPrice AS unitPrice, " +
+           "oi.totalPrice AS totalPrice, oi.status AS status " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.menuItem m " +
+           "WHERE (:businessId IS NULL OR o.businessId = :businessId) AND o.createdAt BETWEEN :startDate AND :endDate " +
+           "ORDER BY oi.id")
+    Stream<OrderItemExportRow> streamForExport(@Param("businessId") Long businessId,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate);
 }
@@ -0,0 +1,31 @@
+package com.vijay.User_Master.repository.hotel;
+
+import com.vijay.User_Master.entity.hotel.OrderOutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    // Claim a batch: rows locked by another instance's dispatcher are skipped, not waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // SKIP LOCKED
+    @Query("SELECT e FROM OrderOutboxEvent e WHERE e.status = 'PENDING' AND e.availableAt <= :now ORDER BY e.id")
+    List<OrderOutboxEvent> claimPending(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(OrderOutboxEvent.Status status);
+
+    // Retention - processed events are kept for a while as an order event log
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrderOutboxEvent e WHERE e.status = 'DONE' AND e.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,20 +1,31 @@
 package com.vijay.User_Master.repository.hotel;
 
 import com.vijay.User_Master.entity.hotel.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
+    // Keyset condition: rows strictly after the cursor in (createdAt DESC, id DESC) order
+    String AFTER_CURSOR = "(o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id))";
+    
     // ========== MULTI-TENANT QUERIES ==========
     
     // Find by business ID
@@ -27,6 +38,9 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     Page<Order> findByBusinessIdAndStatus(Long businessId, Order.OrderStatus status, Pageable pageable);
     
+    // Kitchen queue - served by idx_order_business_status_created
+    List<Order> findByBusinessIdAndStatusInOrderByIdAsc(Long businessId, Collection<Order.OrderStatus> statuses);
+    
     // Find by business and user
     List<Order> findByBusinessIdAndUserId(Long businessId, Long userId);
     
@@ -52,6 +66,12 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE o.businessId = :businessId AND o.table.id = :tableId AND o.status NOT IN ('COMPLETED', 'CANCELLED')")
     List<Order> findActiveOrdersByBusinessIdAndTable(@Param("businessId") Long businessId, @Param("tableId") Long tableId);
     
+    // A table's orders since a guest session started, oldest first
+    @Query("SELECT o FROM Order o WHERE o.businessId = :businessId AND o.table.id = :tableId AND o.createdAt > :since ORDER BY o.id")
+    List<Order> findByBusinessIdAndTableIdSince(@Param("businessId") Long businessId,
+                                                @Param("tableId") Long tableId,
+                                                @Param("since") LocalDateTime since);
+    
     // Total revenue by business
     @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.businessId = :businessId")
     Double getTotalRevenueByBusinessId(@Param("businessId") Long businessId);
@@ -74,6 +94,8 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     Page<Order> findByStatus(Order.OrderStatus status, Pageable pageable);
     
+    List<Order> findByStatusInOrderByIdAsc(Collection<Order.OrderStatus> statuses);
+    
     @Query("SELECT o FROM Order o WHERE o.userId = :userId AND o.status = :status")
     List<Order> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") Order.OrderStatus status);
     
@@ -90,4 +112,73 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
     
     Long countByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
+    
+    @Query("SELECT DISTINCT o.businessId FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate")
+    List<Long> findBusinessIdsWithOrdersBetween(@Param("startDate") LocalDateTime startDate,
+                                                @Param("endDate") LocalDateTime endDate);
+    
+    // ========== KEYSET (SEEK) PAGINATION ==========
+    // Newest first from the cursor; pass PageRequest.of(0, size + 1) to learn whether more follow.
+    // Each seeks straight into a (..., created_at) index - cost does not grow with page depth
+    
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId AND " + AFTER_CURSOR + " ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findByUserIdAfter(@Param("userId") Long userId,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id,
+                                  Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.businessId = :businessId AND o.userId = :userId AND " + AFTER_CURSOR +
+           " ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findByBusinessIdAndUserIdAfter(@Param("businessId") Long businessId,
+                                               @Param("userId") Long userId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND " + AFTER_CURSOR + " ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findByStatusAfter(@Param("status") Order.OrderStatus status,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id,
+                                  Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.businessId = :businessId AND o.status = :status AND " + AFTER_CURSOR +
+           " ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findByBusinessIdAndStatusAfter(@Param("businessId") Long businessId,
+                                               @Param("status") Order.OrderStatus status,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+    
+    // ========== EXPORT (forward-only streaming) ==========
+    // Integer.MIN_VALUE fetch size makes MySQL Connector/J stream row by row instead of
+    // buffering the result set; consume inside a transaction and detach each entity
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT o FROM Order o WHERE (:businessId IS NULL OR o.businessId = :businessId) " +
+           "AND o.createdAt BETWEEN :startDate AND :endDate ORDER BY o.id")
+    Stream<Order> streamForExport(@Param("businessId") Long businessId,
+                                  @Param("startDate") LocalDateTime startDate,
+                                  @Param("endDate") LocalDateTime endDate);
+    
+    // ========== BULK STATUS TRANSITIONS ==========
+    // Rows are locked in id order, so concurrent bulk calls cannot deadlock and no single-order
+    // update can slip in between validation and the UPDATE; the table comes along for the
+    // kitchen display, as the UPDATE detaches the loaded orders
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.table WHERE o.id IN :ids AND (:businessId IS NULL OR o.businessId = :businessId) ORDER BY o.id")
+    List<Order> findAllForStatusUpdate(@Param("ids") Collection<Long> ids, @Param("businessId") Long businessId);
+    
+    // completedAt null keeps the current value
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.completedAt = COALESCE(:completedAt, o.completedAt), " +
+           "o.updatedAt = :now WHERE o.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") Order.OrderStatus status,
+                     @Param("completedAt") LocalDateTime completedAt,
+                     @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,78 @@
+package com.vijay.User_Master.repository.hotel;
+
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.entity.hotel.OrderRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, Long> {
+
+    /**
+     * Projection of one aggregated bucket (summed across businesses for admin)
+     */
+    interface RollupBucket {
+        LocalDateTime getBucketStart();
+        Order.OrderType getOrderType();
+        Order.OrderStatus getStatus();
+        Long getOrderCount();
+        BigDecimal getRevenue();
+    }
+
+    interface RollupTotals {
+        Long getOrderCount();
+        BigDecimal getRevenue();
+    }
+
+    // Atomic increment of a bucket - no read-modify-write, safe under concurrent orders
+    @Modifying
+    @Query(value = "INSERT INTO hotel_order_rollups (business_id, bucket_start, order_type, status, order_count, revenue, updated_at) " +
+                   "VALUES (:businessId, :bucketStart, :orderType, :status, :countDelta, :revenueDelta, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+                   "revenue = revenue + VALUES(revenue), updated_at = NOW()",
+           nativeQuery = true)
+    int applyDelta(@Param("businessId") Long businessId,
+                   @Param("bucketStart") LocalDateTime bucketStart,
+                   @Param("orderType") String orderType,
+                   @Param("status") String status,
+                   @Param("countDelta") long countDelta,
+                   @Param("revenueDelta") BigDecimal revenueDelta);
+
+    // Buckets in range; businessId null means all businesses (admin)
+    @Query("SELECT r.bucketStart AS bucketStart, r.orderType AS orderType, r.status AS status, " +
+           "SUM(r.orderCount) AS orderCount, SUM(r.revenue) AS revenue FROM OrderRollup r " +
+           "WHERE (:businessId IS NULL OR r.businessId = :businessId) AND r.bucketStart BETWEEN :startDate AND :endDate " +
+           "GROUP BY r.bucketStart, r.orderType, r.status ORDER BY r.bucketStart")
+    List<RollupBucket> findBuckets(@Param("businessId") Long businessId,
+                                   @Param("startDate") LocalDateTime startDate,
+                                   @Param("endDate") LocalDateTime endDate);
+
+    // All-time totals from the buckets - cost is bounded by bucket count, not order count
+    @Query("SELECT COALESCE(SUM(r.orderCount), 0) AS orderCount, COALESCE(SUM(r.revenue), 0) AS revenue FROM OrderRollup r " +
+           "WHERE (:businessId IS NULL OR r.businessId = :businessId)")
+    RollupTotals sumTotals(@Param("businessId") Long businessId);
+
+    // ========== REBUILD (backfill / repair from raw orders) ==========
+
+    @Modifying
+    @Query(value = "DELETE FROM hotel_order_rollups WHERE bucket_start BETWEEN :startDate AND :endDate", nativeQuery = true)
+    int deleteBucketsBetween(@Param("startDate") LocalDateTime startDate,
+                             @Param("endDate") LocalDateTime endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO hotel_order_rollups (business_id, bucket_start, order_type, status, order_count, revenue, updated_at) " +
+                   "SELECT o.business_id, DATE_FORMAT(o.created_at, '%Y-%m-%d %H:00:00'), o.order_type, o.status, " +
+                   "COUNT(*), COALESCE(SUM(o.total_amount), 0), NOW() FROM hotel_orders o " +
+                   "WHERE o.created_at BETWEEN :startDate AND :endDate " +
+                   "GROUP BY o.business_id, DATE_FORMAT(o.created_at, '%Y-%m-%d %H:00:00'), o.order_type, o.status",
+           nativeQuery = true)
+    int rebuildBucketsBetween(@Param("startDate") LocalDateTime startDate,
+                              @Param("endDate") LocalDateTime endDate);
+}
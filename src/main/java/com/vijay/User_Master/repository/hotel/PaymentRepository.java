@@ -1,13 +1,19 @@
 package com.vijay.User_Master.repository.hotel;
 
 import com.vijay.User_Master.entity.hotel.Payment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -21,4 +27,48 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT p FROM Payment p WHERE p.paymentMethod = :method AND p.status = :status")
     List<Payment> findByPaymentMethodAndStatus(@Param("method") Payment.PaymentMethod method,
                                                @Param("status") Payment.PaymentStatus status);
+    
+    // ========== ANALYTICS AGGREGATES ==========
+    
+    interface PaymentMethodRevenue {
+        Payment.PaymentMethod getPaymentMethod();
+        BigDecimal getRevenue();
+    }
+    
+    // Revenue per payment method for orders created in range, scoped through the order's business
+    @Query("SELECT p.paymentMethod AS paymentMethod, SUM(p.amount) AS revenue FROM Payment p JOIN p.order o " +
+           "WHERE (:businessId IS NULL OR o.businessId = :businessId) AND o.createdAt BETWEEN :startDate AND :endDate " +
+           "GROUP BY p.paymentMethod")
+    List<PaymentMethodRevenue> sumRevenueByPaymentMethod(@Param("businessId") Long businessId,
+                                                         @Param("startDate") LocalDateTime startDate,
+                                                         @Param("endDate") LocalDateTime endDate);
+    
+    // ========== EXPORT (forward-only streaming) ==========
+    
+    interface PaymentExportRow {
+        Long getPaymentId();
+        Long getOrderId();
+        String getOrderNumber();
+        String getTransactionId();
+        Payment.PaymentMethod getPaymentMethod();
+        Payment.PaymentStatus getStatus();
+        BigDecimal getAmount();
+        LocalDateTime getPaidAt();
+        LocalDateTime getCreatedAt();
+    }
+    
+    // Scalar projection - rows never enter the persistence context
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p.id AS paymentId, o.id AS orderId, o.orderNumber AS orderNumber, p.transactionId AS transactionId, " +
+           "p.paymentMethod AS paymentMethod, p.status AS status, p.amount AS amount, p.paidAt AS paidAt, " +
+           "p.createdAt AS createdAt FROM Payment p JOIN p.order o " +
+           "WHERE (:businessId IS NULL OR o.businessId = :businessId) AND p.createdAt BETWEEN :startDate AND :endDate " +
+           "ORDER BY p.id")
+    Stream<PaymentExportRow> streamForExport(@Param("businessId") Long businessId,
+                                             @Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate);
 }
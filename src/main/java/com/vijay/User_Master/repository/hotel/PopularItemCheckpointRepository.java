@@ -0,0 +1,26 @@
+package com.vijay.User_Master.repository.hotel;
+
+import com.vijay.User_Master.entity.hotel.PopularItemCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PopularItemCheckpointRepository extends JpaRepository<PopularItemCheckpoint, Long> {
+
+    List<PopularItemCheckpoint> findByBusinessIdAndBucketDate(Long businessId, LocalDate bucketDate);
+
+    @Modifying
+    @Query("DELETE FROM PopularItemCheckpoint c WHERE c.businessId = :businessId AND c.bucketDate = :bucketDate")
+    int deleteDay(@Param("businessId") Long businessId, @Param("bucketDate") LocalDate bucketDate);
+
+    // Retention - checkpoints older than the longest window are never read
+    @Modifying
+    @Query("DELETE FROM PopularItemCheckpoint c WHERE c.bucketDate < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDate cutoff);
+}
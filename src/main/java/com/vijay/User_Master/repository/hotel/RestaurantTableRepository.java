@@ -2,8 +2,12 @@ package com.vijay.User_Master.repository.hotel;
 
 import com.vijay.User_Master.entity.hotel.RestaurantTable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,4 +37,19 @@ public interface RestaurantTableRepository extends JpaRepository<RestaurantTable
     Optional<RestaurantTable> findByTableNumber(String tableNumber);
     
     List<RestaurantTable> findByLocation(String location);
+    
+    // ========== ANALYTICS AGGREGATES ==========
+    // businessId null means all businesses (admin)
+    
+    @Query("SELECT COUNT(t) FROM RestaurantTable t WHERE (:businessId IS NULL OR t.businessId = :businessId)")
+    Long countForBusiness(@Param("businessId") Long businessId);
+    
+    @Query("SELECT COUNT(t) FROM RestaurantTable t WHERE (:businessId IS NULL OR t.businessId = :businessId) AND t.isAvailable = true")
+    Long countAvailableForBusiness(@Param("businessId") Long businessId);
+    
+    // ========== BULK UPDATES ==========
+    
+    @Modifying
+    @Query("UPDATE RestaurantTable t SET t.isAvailable = true WHERE t.id IN :ids")
+    int markAvailable(@Param("ids") Collection<Long> ids);
 }
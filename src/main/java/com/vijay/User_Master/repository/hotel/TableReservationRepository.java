@@ -1,6 +1,7 @@
 package com.vijay.User_Master.repository.hotel;
 
 import com.vijay.User_Master.entity.hotel.TableReservation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -64,4 +65,78 @@ public interface TableReservationRepository extends JpaRepository<TableReservati
     
     @Query("SELECT COUNT(tr) FROM TableReservation tr WHERE tr.userId = :userId AND tr.status = 'NO_SHOW'")
     Long countNoShowsByUser(@Param("userId") Long userId);
+    
+    // ========== ANALYTICS AGGREGATES ==========
+    // businessId null means all businesses (admin)
+    
+    interface ReservationStatusSummary {
+        TableReservation.ReservationStatus getStatus();
+        Long getReservationCount();
+        Long getTotalGuests();
+        Long getTotalDurationMinutes();
+    }
+    
+    interface ReservationSlotCount {
+        Integer getHourOfDay();
+        Integer getDayOfWeek(); // MySQL DAYOFWEEK: 1 = Sunday ... 7 = Saturday
+        Long getReservationCount();
+    }
+    
+    interface OccasionCount {
+        String getOccasion();
+        Long getReservationCount();
+    }
+    
+    interface TableBookings {
+        Long getTableId();
+        String getTableNumber();
+        String getTableName();
+        String getLocation();
+        Integer getCapacity();
+        Long getBookingCount();
+        Double getAverageGuests();
+    }
+    
+    @Query("SELECT COUNT(tr) FROM TableReservation tr WHERE (:businessId IS NULL OR tr.businessId = :businessId)")
+    Long countForBusiness(@Param("businessId") Long businessId);
+    
+    @Query("SELECT COUNT(tr) FROM TableReservation tr WHERE (:businessId IS NULL OR tr.businessId = :businessId) " +
+           "AND tr.reservationDateTime BETWEEN :startDate AND :endDate")
+    Long countBetweenForBusiness(@Param("businessId") Long businessId,
+                                 @Param("startDate") LocalDateTime startDate,
+                                 @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT COUNT(tr) FROM TableReservation tr WHERE (:businessId IS NULL OR tr.businessId = :businessId) " +
+           "AND tr.reservationDateTime >= :now AND tr.status = 'CONFIRMED'")
+    Long countUpcomingForBusiness(@Param("businessId") Long businessId, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT tr.status AS status, COUNT(tr) AS reservationCount, SUM(tr.numberOfGuests) AS totalGuests, " +
+           "SUM(tr.durationMinutes) AS totalDurationMinutes FROM TableReservation tr " +
+           "WHERE (:businessId IS NULL OR tr.businessId = :businessId) AND tr.reservationDateTime BETWEEN :startDate AND :endDate " +
+           "GROUP BY tr.status")
+    List<ReservationStatusSummary> summarizeByStatus(@Param("businessId") Long businessId,
+                                                     @Param("startDate") LocalDateTime startDate,
+                                                     @Param("endDate") LocalDateTime endDate);
+    
+    @Query(value = "SELECT HOUR(tr.reservation_date_time) AS hourOfDay, DAYOFWEEK(tr.reservation_date_time) AS dayOfWeek, " +
+                   "COUNT(*) AS reservationCount FROM hotel_table_reservations tr " +
+                   "WHERE (:businessId IS NULL OR tr.business_id = :businessId) AND tr.reservation_date_time BETWEEN :startDate AND :endDate " +
+                   "GROUP BY HOUR(tr.reservation_date_time), DAYOFWEEK(tr.reservation_date_time)",
+           nativeQuery = true)
+    List<ReservationSlotCount> countBySlot(@Param("businessId") Long businessId,
+                                           @Param("startDate") LocalDateTime startDate,
+                                           @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT tr.occasion AS occasion, COUNT(tr) AS reservationCount FROM TableReservation tr " +
+           "WHERE (:businessId IS NULL OR tr.businessId = :businessId) AND tr.reservationDateTime BETWEEN :startDate AND :endDate " +
+           "AND tr.occasion IS NOT NULL AND tr.occasion <> '' GROUP BY tr.occasion")
+    List<OccasionCount> countByOccasion(@Param("businessId") Long businessId,
+                                        @Param("startDate") LocalDateTime startDate,
+                                        @Param("endDate") LocalDateTime endDate);
+    
+    @Query("SELECT t.id AS tableId, t.tableNumber AS tableNumber, t.tableName AS tableName, t.location AS location, " +
+           "t.capacity AS capacity, COUNT(tr) AS bookingCount, AVG(tr.numberOfGuests) AS averageGuests " +
+           "FROM TableReservation tr JOIN tr.table t WHERE (:businessId IS NULL OR tr.businessId = :businessId) " +
+           "GROUP BY t.id, t.tableNumber, t.tableName, t.location, t.capacity ORDER BY COUNT(tr) DESC")
+    List<TableBookings> findMostBookedTables(@Param("businessId") Long businessId, Pageable pageable);
 }
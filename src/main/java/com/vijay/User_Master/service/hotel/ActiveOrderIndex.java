@@ -0,0 +1,151 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.dto.hotel.OrderDTO;
+import com.vijay.User_Master.entity.hotel.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * ActiveOrderIndex - In-memory kitchen queue: the non-terminal orders of each business
+ * A business is loaded from the database on its first read, then kept current by the
+ * services that place orders or change their status (applied after commit). Every change
+ * bumps the business version under the same per-key lock the load installs under, so a
+ * load that raced with a change is served once and discarded instead of cached stale.
+ * Changes made by other instances are not seen; a loaded business is re-read after max-age.
+ */
+@Component
+@Slf4j
+public class ActiveOrderIndex {
+
+    public static final Set<Order.OrderStatus> ACTIVE_STATUSES =
+            Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(Order.OrderStatus.COMPLETED, Order.OrderStatus.CANCELLED)));
+
+    private static final class BusinessOrders {
+        final NavigableMap<Long, OrderDTO> byId = new ConcurrentSkipListMap<>(); // Id order = placement order
+        final long loadedAtMillis = System.currentTimeMillis();
+    }
+
+    private final long maxAgeMillis;
+    private final ConcurrentHashMap<Long, BusinessOrders> businesses = new ConcurrentHashMap<>();
+    // Only read or written inside businesses.compute for the same key
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    public ActiveOrderIndex(@Value("${hotel.active-orders.max-age-ms:300000}") long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Active orders of the business, oldest first; the loader runs only when the business is not loaded
+     */
+    public List<OrderDTO> getActiveOrders(Long businessId, Supplier<List<OrderDTO>> loader) {
+        BusinessOrders loaded = businesses.get(businessId);
+        if (loaded != null && !isExpired(loaded)) {
+            return new ArrayList<>(loaded.byId.values());
+        }
+
+        long version = versionOf(businessId);
+        List<OrderDTO> orders = loader.get();
+        businesses.compute(businessId, (id, current) -> {
+            if (current != null && !isExpired(current)) {
+                return current;
+            }
+            if (versions.getOrDefault(id, 0L) != version) {
+                return null; // Changed while loading - the next read loads again
+            }
+            BusinessOrders fresh = new BusinessOrders();
+            orders.forEach(order -> fresh.byId.put(order.getId(), order));
+            return fresh;
+        });
+        log.debug("Loaded {} active orders for business {}", orders.size(), businessId);
+        return orders;
+    }
+
+    /**
+     * A newly placed order, added once its transaction commits
+     */
+    public void recordPlaced(Long businessId, OrderDTO order) {
+        afterCommit(() -> apply(businessId, orders -> {
+            orders.byId.put(order.getId(), order);
+            return true;
+        }));
+    }
+
+    /**
+     * The order's current status, applied once its transaction commits; call after every status write
+     */
+    public void recordStatusChange(Order order) {
+        Long businessId = order.getBusinessId();
+        Long orderId = order.getId();
+        Order.OrderStatus status = order.getStatus();
+        LocalDateTime completedAt = order.getCompletedAt();
+
+        afterCommit(() -> apply(businessId, orders -> {
+            OrderDTO current = orders.byId.get(orderId);
+            if (!ACTIVE_STATUSES.contains(status)) {
+                orders.byId.remove(orderId);
+            } else if (current != null) {
+                // Stored DTOs are shared with readers - replace, never mutate
+                orders.byId.put(orderId, current.toBuilder().status(status.name()).completedAt(completedAt).build());
+            } else {
+                // Reopened order - not in memory, so reload the business
+                return false;
+            }
+            return true;
+        }));
+    }
+
+    public void invalidate(Long businessId) {
+        businesses.compute(businessId, (id, current) -> {
+            versions.merge(id, 1L, Long::sum);
+            return null;
+        });
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private interface Change {
+        boolean applyTo(BusinessOrders orders); // false drops the business
+    }
+
+    private void apply(Long businessId, Change change) {
+        businesses.compute(businessId, (id, current) -> {
+            versions.merge(id, 1L, Long::sum);
+            return current == null || change.applyTo(current) ? current : null;
+        });
+    }
+
+    private long versionOf(Long businessId) {
+        long[] version = new long[1];
+        businesses.compute(businessId, (id, current) -> {
+            version[0] = versions.getOrDefault(id, 0L);
+            return current;
+        });
+        return version[0];
+    }
+
+    private boolean isExpired(BusinessOrders orders) {
+        return maxAgeMillis > 0 && System.currentTimeMillis() - orders.loadedAtMillis > maxAgeMillis;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,20 +1,42 @@
 package com.vijay.User_Master.service.hotel;
 
+import com.vijay.User_Master.Helper.BusinessContextFilter;
 import com.vijay.User_Master.dto.hotel.analytics.*;
 import com.vijay.User_Master.entity.hotel.*;
 import com.vijay.User_Master.repository.hotel.*;
+import com.vijay.User_Master.repository.hotel.OrderRollupRepository.RollupBucket;
+import com.vijay.User_Master.service.hotel.analytics.AgentLeaderboardSort;
+import com.vijay.User_Master.service.hotel.analytics.AnalyticsCache;
+import com.vijay.User_Master.service.hotel.analytics.DeliveryLatencyService;
+import com.vijay.User_Master.service.hotel.analytics.OrderRollupService;
+import com.vijay.User_Master.service.hotel.analytics.ParallelQueryExecutor;
+import com.vijay.User_Master.service.hotel.analytics.PopularItemsService;
+import com.vijay.User_Master.service.hotel.analytics.SpaceSavingSketch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+/**
+ * AnalyticsService - Dashboard and report figures
+ * All aggregation happens in the database (GROUP BY / COUNT / SUM projections)
+ * or on the hourly order rollups, so memory stays flat and latency does not
+ * grow with total table size. businessId null (admin) aggregates all businesses.
+ * Responses are served from AnalyticsCache, invalidated by hotel write events.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -28,32 +50,82 @@ public class AnalyticsService {
     private final TableReservationRepository reservationRepository;
     private final RestaurantTableRepository tableRepository;
     private final OrderItemRepository orderItemRepository;
+    private final OrderRollupService rollupService;
+    private final OrderRollupRepository rollupRepository;
+    private final BusinessContextFilter businessContext;
+    private final ParallelQueryExecutor queryExecutor;
+    private final AnalyticsCache analyticsCache;
+    private final PopularItemsService popularItemsService;
+    private final DeliveryLatencyService latencyService;
     
     // ==================== DASHBOARD OVERVIEW ====================
     
     public DashboardOverviewDTO getDashboardOverview() {
-        log.info("Generating dashboard overview");
-        
+        // Resolved on the request thread - the security context does not reach the query threads
+        return getDashboardOverview(businessContext.getCurrentBusinessId());
+    }
+
+    /**
+     * Overview for an explicit business (null = all businesses), e.g. from the live feed
+     */
+    public DashboardOverviewDTO getDashboardOverview(Long businessId) {
+        // Partial (degraded) snapshots are served but not cached
+        return analyticsCache.get(businessId, AnalyticsCache.View.OVERVIEW, null, null,
+                () -> computeDashboardOverview(businessId),
+                overview -> overview.getUnavailableMetrics().isEmpty());
+    }
+
+    private DashboardOverviewDTO computeDashboardOverview(Long businessId) {
+        log.info("Generating dashboard overview for business {}", businessId);
+
         LocalDateTime todayStart = LocalDate.now().atStartOfDay();
         LocalDateTime todayEnd = LocalDate.now().atTime(LocalTime.MAX);
         LocalDateTime yesterdayStart = LocalDate.now().minusDays(1).atStartOfDay();
         LocalDateTime yesterdayEnd = LocalDate.now().minusDays(1).atTime(LocalTime.MAX);
         
+        // Independent queries run concurrently; latency is the slowest one, not the sum
+        ParallelQueryExecutor.Fanout fanout = queryExecutor.fanout();
+        CompletableFuture<List<RollupBucket>> recentBucketsFuture = fanout.submit("orders",
+                () -> rollupService.getBuckets(businessId, yesterdayStart, todayEnd), List.of());
+        CompletableFuture<OrderRollupRepository.RollupTotals> totalsFuture = fanout.submit("totals",
+                () -> rollupRepository.sumTotals(businessId), null);
+        CompletableFuture<Long> todayReservationsFuture = fanout.submit("todayReservations",
+                () -> reservationRepository.countBetweenForBusiness(businessId, todayStart, todayEnd), 0L);
+        CompletableFuture<Long> yesterdayReservationsFuture = fanout.submit("yesterdayReservations",
+                () -> reservationRepository.countBetweenForBusiness(businessId, yesterdayStart, yesterdayEnd), 0L);
+        CompletableFuture<Long> totalReservationsFuture = fanout.submit("totalReservations",
+                () -> reservationRepository.countForBusiness(businessId), 0L);
+        CompletableFuture<Long> activeDeliveriesFuture = fanout.submit("activeDeliveries",
+                () -> deliveryTrackingRepository.countActiveDeliveries(businessId), 0L);
+        CompletableFuture<Long> onlineAgentsFuture = fanout.submit("onlineAgents",
+                () -> deliveryAgentRepository.countOnlineForBusiness(businessId), 0L);
+        CompletableFuture<Long> totalTablesFuture = fanout.submit("totalTables",
+                () -> tableRepository.countForBusiness(businessId), 0L);
+        CompletableFuture<Long> availableTablesFuture = fanout.submit("availableTables",
+                () -> tableRepository.countAvailableForBusiness(businessId), 0L);
+        Set<String> unavailable = fanout.await();
+
+        // Today's and yesterday's order metrics from one read of the hourly rollups
+        List<RollupBucket> recentBuckets = recentBucketsFuture.join();
+        Predicate<RollupBucket> isToday = b -> !b.getBucketStart().isBefore(todayStart);
+        Predicate<RollupBucket> isYesterday = isToday.negate();
+        
         // Today's metrics
-        Long todayOrders = orderRepository.countByCreatedAtBetween(todayStart, todayEnd);
-        BigDecimal todayRevenue = calculateRevenueBetween(todayStart, todayEnd);
-        Long todayReservations = (long) reservationRepository.findReservationsBetweenDates(todayStart, todayEnd).size();
-        Long activeDeliveries = (long) deliveryTrackingRepository.findAllActiveDeliveries().size();
+        Long todayOrders = countOf(recentBuckets, isToday);
+        BigDecimal todayRevenue = revenueOf(recentBuckets, isToday);
+        Long todayReservations = todayReservationsFuture.join();
+        Long activeDeliveries = activeDeliveriesFuture.join();
         
         // Yesterday's metrics for growth calculation
-        Long yesterdayOrders = orderRepository.countByCreatedAtBetween(yesterdayStart, yesterdayEnd);
-        BigDecimal yesterdayRevenue = calculateRevenueBetween(yesterdayStart, yesterdayEnd);
-        Long yesterdayReservations = (long) reservationRepository.findReservationsBetweenDates(yesterdayStart, yesterdayEnd).size();
+        Long yesterdayOrders = countOf(recentBuckets, isYesterday);
+        BigDecimal yesterdayRevenue = revenueOf(recentBuckets, isYesterday);
+        Long yesterdayReservations = yesterdayReservationsFuture.join();
         
         // Overall metrics
-        Long totalOrders = orderRepository.count();
-        BigDecimal totalRevenue = calculateTotalRevenue();
-        Long totalReservations = reservationRepository.count();
+        OrderRollupRepository.RollupTotals totals = totalsFuture.join();
+        Long totalOrders = totals != null ? totals.getOrderCount() : 0L;
+        BigDecimal totalRevenue = totals != null ? totals.getRevenue() : BigDecimal.ZERO;
+        Long totalReservations = totalReservationsFuture.join();
         
         // Growth percentages
         Double orderGrowth = calculateGrowthPercent(yesterdayOrders, todayOrders);
@@ -61,10 +133,9 @@ public class AnalyticsService {
         Double reservationGrowth = calculateGrowthPercent(yesterdayReservations, todayReservations);
         
         // Current status
-        Long onlineAgents = (long) deliveryAgentRepository.findByIsOnlineTrue().size();
-        List<RestaurantTable> allTables = tableRepository.findAll();
-        Long occupiedTables = allTables.stream().filter(t -> !t.getIsAvailable()).count();
-        Long availableTables = (long) tableRepository.findByIsAvailableTrue().size();
+        Long onlineAgents = onlineAgentsFuture.join();
+        Long availableTables = availableTablesFuture.join();
+        Long occupiedTables = Math.max(0L, totalTablesFuture.join() - availableTables);
         
         return DashboardOverviewDTO.builder()
                 .todayOrders(todayOrders)
@@ -80,51 +151,58 @@ public class AnalyticsService {
                 .onlineDeliveryAgents(onlineAgents)
                 .occupiedTables(occupiedTables)
                 .availableTables(availableTables)
+                .unavailableMetrics(new ArrayList<>(unavailable))
                 .build();
     }
     
     // ==================== ORDER ANALYTICS ====================
     
     public OrderAnalyticsDTO getOrderAnalytics(LocalDateTime startDate, LocalDateTime endDate) {
+        Long businessId = businessContext.getCurrentBusinessId();
+        return analyticsCache.get(businessId, AnalyticsCache.View.ORDERS, startDate, endDate,
+                () -> computeOrderAnalytics(businessId, startDate, endDate));
+    }
+
+    private OrderAnalyticsDTO computeOrderAnalytics(Long businessId, LocalDateTime startDate, LocalDateTime endDate) {
         log.info("Generating order analytics from {} to {}", startDate, endDate);
         
-        List<Order> orders = orderRepository.findByCreatedAtBetween(startDate, endDate);
+        List<RollupBucket> buckets = rollupService.getBuckets(businessId, startDate, endDate);
         
         // Summary metrics
-        Long totalOrders = (long) orders.size();
-        BigDecimal totalRevenue = orders.stream()
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Long totalOrders = countOf(buckets, b -> true);
+        BigDecimal totalRevenue = revenueOf(buckets, b -> true);
         BigDecimal avgOrderValue = totalOrders > 0 ? 
                 totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
-        Long pendingOrders = orders.stream().filter(o -> o.getStatus() == Order.OrderStatus.PENDING).count();
-        Long completedOrders = orders.stream().filter(o -> o.getStatus() == Order.OrderStatus.COMPLETED).count();
+        Long pendingOrders = countOf(buckets, b -> b.getStatus() == Order.OrderStatus.PENDING);
+        Long completedOrders = countOf(buckets, b -> b.getStatus() == Order.OrderStatus.COMPLETED);
         
         // Order type distribution
-        Long dineIn = orders.stream().filter(o -> o.getOrderType() == Order.OrderType.DINE_IN).count();
-        Long takeaway = orders.stream().filter(o -> o.getOrderType() == Order.OrderType.TAKEAWAY).count();
-        Long delivery = orders.stream().filter(o -> o.getOrderType() == Order.OrderType.DELIVERY).count();
+        Long dineIn = countOf(buckets, b -> b.getOrderType() == Order.OrderType.DINE_IN);
+        Long takeaway = countOf(buckets, b -> b.getOrderType() == Order.OrderType.TAKEAWAY);
+        Long delivery = countOf(buckets, b -> b.getOrderType() == Order.OrderType.DELIVERY);
         
         // Revenue by payment method (from payments)
-        Map<String, BigDecimal> revenueByPayment = paymentRepository.findAll().stream()
-                .filter(p -> p.getOrder().getCreatedAt().isAfter(startDate) && p.getOrder().getCreatedAt().isBefore(endDate))
-                .collect(Collectors.groupingBy(
+        Map<String, BigDecimal> revenueByPayment = paymentRepository
+                .sumRevenueByPaymentMethod(businessId, startDate, endDate).stream()
+                .filter(p -> p.getPaymentMethod() != null)
+                .collect(Collectors.toMap(
                         p -> p.getPaymentMethod().toString(),
-                        Collectors.reducing(BigDecimal.ZERO, Payment::getAmount, BigDecimal::add)
+                        PaymentRepository.PaymentMethodRevenue::getRevenue
                 ));
         
         // Orders by hour
-        Map<Integer, Long> ordersByHour = orders.stream()
+        Map<Integer, Long> ordersByHour = buckets.stream()
+                .filter(b -> b.getOrderCount() > 0)
                 .collect(Collectors.groupingBy(
-                        o -> o.getCreatedAt().getHour(),
-                        Collectors.counting()
+                        b -> b.getBucketStart().getHour(),
+                        Collectors.summingLong(RollupBucket::getOrderCount)
                 ));
         
         // Top selling items
-        List<PopularItemDTO> topItems = getTopSellingItems(startDate, endDate, 10);
+        List<PopularItemDTO> topItems = getTopSellingItems(businessId, startDate, endDate, 10);
         
         // Daily revenue trend (last 7 days)
-        List<DailyRevenueDTO> dailyTrend = getDailyRevenueTrend(7);
+        List<DailyRevenueDTO> dailyTrend = getDailyRevenueTrend(businessId, 7);
         
         return OrderAnalyticsDTO.builder()
                 .totalOrders(totalOrders)
@@ -145,52 +223,52 @@ public class AnalyticsService {
     // ==================== DELIVERY ANALYTICS ====================
     
     public DeliveryAnalyticsDTO getDeliveryAnalytics(LocalDateTime startDate, LocalDateTime endDate) {
+        Long businessId = businessContext.getCurrentBusinessId();
+        return analyticsCache.get(businessId, AnalyticsCache.View.DELIVERIES, startDate, endDate,
+                () -> computeDeliveryAnalytics(businessId, startDate, endDate));
+    }
+
+    private DeliveryAnalyticsDTO computeDeliveryAnalytics(Long businessId, LocalDateTime startDate, LocalDateTime endDate) {
         log.info("Generating delivery analytics from {} to {}", startDate, endDate);
         
-        List<DeliveryTracking> deliveries = deliveryTrackingRepository.findAll().stream()
-                .filter(d -> d.getCreatedAt().isAfter(startDate) && d.getCreatedAt().isBefore(endDate))
-                .collect(Collectors.toList());
+        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
         
-        Long totalDeliveries = (long) deliveries.size();
-        Long successful = deliveries.stream().filter(d -> d.getStatus() == DeliveryTracking.DeliveryStatus.DELIVERED).count();
-        Long failed = deliveries.stream().filter(d -> d.getStatus() == DeliveryTracking.DeliveryStatus.FAILED).count();
-        Long active = (long) deliveryTrackingRepository.findAllActiveDeliveries().size();
+        // Status distribution in range
+        Map<DeliveryTracking.DeliveryStatus, Long> byStatus = deliveryTrackingRepository
+                .countByStatusBetween(businessId, startDate, endDate).stream()
+                .collect(Collectors.toMap(
+                        DeliveryTrackingRepository.StatusCount::getStatus,
+                        DeliveryTrackingRepository.StatusCount::getDeliveryCount
+                ));
         
-        // Average delivery time (for completed deliveries)
-        Double avgTime = deliveries.stream()
-                .filter(d -> d.getPickedUpAt() != null && d.getDeliveredAt() != null)
-                .mapToLong(d -> java.time.Duration.between(d.getPickedUpAt(), d.getDeliveredAt()).toMinutes())
-                .average()
-                .orElse(0.0);
+        Long totalDeliveries = byStatus.values().stream().mapToLong(Long::longValue).sum();
+        Long successful = byStatus.getOrDefault(DeliveryTracking.DeliveryStatus.DELIVERED, 0L);
+        Long failed = byStatus.getOrDefault(DeliveryTracking.DeliveryStatus.FAILED, 0L);
+        Long active = deliveryTrackingRepository.countActiveDeliveries(businessId);
+
+        // Average delivery time, rating and today's deliveries in one pass
+        DeliveryTrackingRepository.DeliveryTimingSummary timing = deliveryTrackingRepository
+                .summarizeTimingBetween(businessId, startDate, endDate, todayStart);
+        Double avgTime = timing.getAverageDeliveryMinutes() != null ? timing.getAverageDeliveryMinutes() : 0.0;
+        Double avgRating = timing.getAverageRating() != null ? timing.getAverageRating() : 0.0;
+        Long deliveredToday = timing.getDeliveredToday() != null ? timing.getDeliveredToday() : 0L;
         
         Double successRate = totalDeliveries > 0 ? (successful * 100.0 / totalDeliveries) : 0.0;
         
-        Double avgRating = deliveries.stream()
-                .filter(d -> d.getDeliveryRating() != null)
-                .mapToDouble(DeliveryTracking::getDeliveryRating)
-                .average()
-                .orElse(0.0);
-        
         // Agent metrics
-        Long totalAgents = deliveryAgentRepository.count();
-        Long onlineAgents = (long) deliveryAgentRepository.findByIsOnlineTrue().size();
-        Long availableAgents = (long) deliveryAgentRepository.findByIsAvailableTrueAndIsOnlineTrue().size();
+        Long totalAgents = deliveryAgentRepository.countForBusiness(businessId);
+        Long onlineAgents = deliveryAgentRepository.countOnlineForBusiness(businessId);
+        Long availableAgents = deliveryAgentRepository.countAvailableForBusiness(businessId);
         Long busyAgents = onlineAgents - availableAgents;
         
+        // Latency percentiles from the daily histograms
+        LatencyPercentilesDTO deliveryPercentiles = latencyService.getPercentiles(
+                businessId, DeliveryLatencyBucket.Metric.DELIVERY, startDate, endDate);
+        LatencyPercentilesDTO pickupPercentiles = latencyService.getPercentiles(
+                businessId, DeliveryLatencyBucket.Metric.PICKUP, startDate, endDate);
+
         // Top agents
-        List<AgentPerformanceDTO> topAgents = getTopPerformingAgents(5);
-        
-        // Status distribution
-        Long pending = deliveries.stream().filter(d -> d.getStatus() == DeliveryTracking.DeliveryStatus.PENDING).count();
-        Long assigned = deliveries.stream().filter(d -> d.getStatus() == DeliveryTracking.DeliveryStatus.ASSIGNED).count();
-        Long pickedUp = deliveries.stream().filter(d -> d.getStatus() == DeliveryTracking.DeliveryStatus.PICKED_UP).count();
-        Long inTransit = deliveries.stream().filter(d -> d.getStatus() == DeliveryTracking.DeliveryStatus.IN_TRANSIT).count();
-        
-        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        Long deliveredToday = deliveries.stream()
-                .filter(d -> d.getStatus() == DeliveryTracking.DeliveryStatus.DELIVERED)
-                .filter(d -> d.getDeliveredAt() != null && d.getDeliveredAt().isAfter(todayStart))
-                .count();
+        List<AgentPerformanceDTO> topAgents = getTopPerformingAgents(businessId, startDate, endDate, 5);
         
         return DeliveryAnalyticsDTO.builder()
                 .totalDeliveries(totalDeliveries)
@@ -198,6 +276,8 @@ public class AnalyticsService {
                 .failedDeliveries(failed)
                 .activeDeliveries(active)
                 .averageDeliveryTimeMinutes(avgTime)
+                .deliveryTimePercentiles(deliveryPercentiles)
+                .pickupTimePercentiles(pickupPercentiles)
                 .successRate(successRate)
                 .averageRating(avgRating)
                 .totalAgents(totalAgents)
@@ -205,10 +285,10 @@ public class AnalyticsService {
                 .availableAgents(availableAgents)
                 .busyAgents(busyAgents)
                 .topAgents(topAgents)
-                .pendingDeliveries(pending)
-                .assignedDeliveries(assigned)
-                .pickedUpDeliveries(pickedUp)
-                .inTransitDeliveries(inTransit)
+                .pendingDeliveries(byStatus.getOrDefault(DeliveryTracking.DeliveryStatus.PENDING, 0L))
+                .assignedDeliveries(byStatus.getOrDefault(DeliveryTracking.DeliveryStatus.ASSIGNED, 0L))
+                .pickedUpDeliveries(byStatus.getOrDefault(DeliveryTracking.DeliveryStatus.PICKED_UP, 0L))
+                .inTransitDeliveries(byStatus.getOrDefault(DeliveryTracking.DeliveryStatus.IN_TRANSIT, 0L))
                 .deliveredToday(deliveredToday)
                 .build();
     }
@@ -216,63 +296,68 @@ public class AnalyticsService {
     // ==================== RESERVATION ANALYTICS ====================
     
     public ReservationAnalyticsDTO getReservationAnalytics(LocalDateTime startDate, LocalDateTime endDate) {
+        Long businessId = businessContext.getCurrentBusinessId();
+        return analyticsCache.get(businessId, AnalyticsCache.View.RESERVATIONS, startDate, endDate,
+                () -> computeReservationAnalytics(businessId, startDate, endDate));
+    }
+
+    private ReservationAnalyticsDTO computeReservationAnalytics(Long businessId, LocalDateTime startDate, LocalDateTime endDate) {
         log.info("Generating reservation analytics from {} to {}", startDate, endDate);
         
-        List<TableReservation> reservations = reservationRepository.findReservationsBetweenDates(startDate, endDate);
         
-        Long totalReservations = (long) reservations.size();
-        Long upcoming = (long) reservationRepository.findUpcomingReservations(LocalDateTime.now()).size();
+        // Counts, guests and duration per status in one grouped query
+        List<TableReservationRepository.ReservationStatusSummary> statusSummary =
+                reservationRepository.summarizeByStatus(businessId, startDate, endDate);
+        Map<TableReservation.ReservationStatus, Long> byStatus = statusSummary.stream()
+                .collect(Collectors.toMap(
+                        TableReservationRepository.ReservationStatusSummary::getStatus,
+                        TableReservationRepository.ReservationStatusSummary::getReservationCount
+                ));
+
+        Long totalReservations = byStatus.values().stream().mapToLong(Long::longValue).sum();
+        Long upcoming = reservationRepository.countUpcomingForBusiness(businessId, LocalDateTime.now());
         
         LocalDateTime todayStart = LocalDate.now().atStartOfDay();
         LocalDateTime todayEnd = LocalDate.now().atTime(LocalTime.MAX);
-        Long today = (long) reservationRepository.findReservationsBetweenDates(todayStart, todayEnd).size();
+        Long today = reservationRepository.countBetweenForBusiness(businessId, todayStart, todayEnd);
         
-        Long completed = reservations.stream().filter(r -> r.getStatus() == TableReservation.ReservationStatus.COMPLETED).count();
-        Long cancelled = reservations.stream().filter(r -> r.getStatus() == TableReservation.ReservationStatus.CANCELLED).count();
-        Long noShow = reservations.stream().filter(r -> r.getStatus() == TableReservation.ReservationStatus.NO_SHOW).count();
+        Long completed = byStatus.getOrDefault(TableReservation.ReservationStatus.COMPLETED, 0L);
+        Long cancelled = byStatus.getOrDefault(TableReservation.ReservationStatus.CANCELLED, 0L);
+        Long noShow = byStatus.getOrDefault(TableReservation.ReservationStatus.NO_SHOW, 0L);
         
         // Table metrics
-        Long totalTables = tableRepository.count();
-        List<RestaurantTable> tables = tableRepository.findAll();
-        Long occupied = tables.stream().filter(t -> !t.getIsAvailable()).count();
-        Long available = (long) tableRepository.findByIsAvailableTrue().size();
+        Long totalTables = tableRepository.countForBusiness(businessId);
+        Long available = tableRepository.countAvailableForBusiness(businessId);
+        Long occupied = totalTables - available;
         Double occupancyRate = totalTables > 0 ? (occupied * 100.0 / totalTables) : 0.0;
         
-        // Reservations by hour
-        Map<Integer, Long> byHour = reservations.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getReservationDateTime().getHour(),
-                        Collectors.counting()
-                ));
-        
-        // Reservations by day of week
-        Map<String, Long> byDay = reservations.stream()
-                .collect(Collectors.groupingBy(
-                        r -> r.getReservationDateTime().getDayOfWeek().toString(),
-                        Collectors.counting()
-                ));
+        // Reservations by hour and by day of week from one (hour, weekday) grouping
+        Map<Integer, Long> byHour = new HashMap<>();
+        Map<String, Long> byDay = new HashMap<>();
+        for (TableReservationRepository.ReservationSlotCount slot : reservationRepository.countBySlot(businessId, startDate, endDate)) {
+            byHour.merge(slot.getHourOfDay(), slot.getReservationCount(), Long::sum);
+            byDay.merge(toDayOfWeek(slot.getDayOfWeek()).toString(), slot.getReservationCount(), Long::sum);
+        }
         
         // Popular tables
-        List<PopularTableDTO> popularTables = getMostBookedTables(5);
+        List<PopularTableDTO> popularTables = getMostBookedTables(businessId, 5);
         
         // By occasion
-        Map<String, Long> byOccasion = reservations.stream()
-                .filter(r -> r.getOccasion() != null && !r.getOccasion().isEmpty())
-                .collect(Collectors.groupingBy(
-                        TableReservation::getOccasion,
-                        Collectors.counting()
+        Map<String, Long> byOccasion = reservationRepository.countByOccasion(businessId, startDate, endDate).stream()
+                .collect(Collectors.toMap(
+                        TableReservationRepository.OccasionCount::getOccasion,
+                        TableReservationRepository.OccasionCount::getReservationCount
                 ));
         
         // Averages
-        Double avgGuests = reservations.stream()
-                .mapToInt(TableReservation::getNumberOfGuests)
-                .average()
-                .orElse(0.0);
-        
-        Double avgDuration = reservations.stream()
-                .mapToInt(TableReservation::getDurationMinutes)
-                .average()
-                .orElse(0.0);
+        long totalGuests = statusSummary.stream()
+                .mapToLong(s -> s.getTotalGuests() != null ? s.getTotalGuests() : 0L)
+                .sum();
+        long totalDuration = statusSummary.stream()
+                .mapToLong(s -> s.getTotalDurationMinutes() != null ? s.getTotalDurationMinutes() : 0L)
+                .sum();
+        Double avgGuests = totalReservations > 0 ? (double) totalGuests / totalReservations : 0.0;
+        Double avgDuration = totalReservations > 0 ? (double) totalDuration / totalReservations : 0.0;
         
         Double cancellationRate = totalReservations > 0 ? (cancelled * 100.0 / totalReservations) : 0.0;
         
@@ -296,18 +381,72 @@ public class AnalyticsService {
                 .cancellationRate(cancellationRate)
                 .build();
     }
+
+    // ==================== AGENT LEADERBOARD ====================
+
+    /**
+     * Paginated agent leaderboard - one grouped query per page plus a count
+     * Latency percentiles cover the last `days` days
+     */
+    public Page<AgentPerformanceDTO> getAgentLeaderboard(AgentLeaderboardSort sortBy, int page, int size, int days) {
+        Long businessId = businessContext.getCurrentBusinessId();
+        LocalDateTime end = LocalDateTime.now();
+        LocalDateTime start = LocalDate.now().minusDays(days - 1).atStartOfDay();
+
+        Page<DeliveryAgentRepository.AgentLeaderboardRow> rows = deliveryAgentRepository.findAgentLeaderboard(
+                businessId, PageRequest.of(page, size, sortBy.getSort()));
+        return new PageImpl<>(toAgentPerformance(rows.getContent(), start, end), rows.getPageable(), rows.getTotalElements());
+    }
     
+    // ==================== POPULAR ITEMS ====================
+
+    /**
+     * Top dishes today / over the last 7 days from the streaming top-K sketches
+     * Admin (all businesses) has no sketch and gets an exact database ranking
+     */
+    public List<PopularItemDTO> getPopularItems(PopularItemsService.Window window, int limit) {
+        Long businessId = businessContext.getCurrentBusinessId();
+        if (businessId == null) {
+            LocalDateTime start = window == PopularItemsService.Window.TODAY
+                    ? LocalDate.now().atStartOfDay() : LocalDate.now().minusDays(6).atStartOfDay();
+            return getTopSellingItems(null, start, LocalDateTime.now(), limit);
+        }
+
+        List<SpaceSavingSketch.Counter> counters = popularItemsService.getTopItems(businessId, window, limit);
+        Map<Long, MenuItem> items = menuItemRepository.findAllWithCategoryByIdIn(
+                        counters.stream().map(SpaceSavingSketch.Counter::getItemId).toList()).stream()
+                .collect(Collectors.toMap(MenuItem::getId, item -> item));
+
+        return counters.stream()
+                .map(counter -> {
+                    MenuItem item = items.get(counter.getItemId());
+                    return PopularItemDTO.builder()
+                            .itemId(counter.getItemId())
+                            .itemName(item != null ? item.getName() : null)
+                            .categoryName(item != null && item.getCategory() != null ? item.getCategory().getName() : null)
+                            .orderCount(counter.getOrderCount())
+                            .totalQuantitySold(counter.getCount())
+                            .revenue(counter.getRevenue())
+                            .averageRating(item != null && item.getRating() != null ? item.getRating().doubleValue() : 0.0)
+                            .quantityError(counter.getError())
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
     // ==================== HELPER METHODS ====================
     
-    private BigDecimal calculateRevenueBetween(LocalDateTime start, LocalDateTime end) {
-        return orderRepository.findByCreatedAtBetween(start, end).stream()
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private long countOf(List<RollupBucket> buckets, Predicate<RollupBucket> filter) {
+        return buckets.stream()
+                .filter(filter)
+                .mapToLong(RollupBucket::getOrderCount)
+                .sum();
     }
     
-    private BigDecimal calculateTotalRevenue() {
-        return orderRepository.findAll().stream()
-                .map(Order::getTotalAmount)
+    private BigDecimal revenueOf(List<RollupBucket> buckets, Predicate<RollupBucket> filter) {
+        return buckets.stream()
+                .filter(filter)
+                .map(RollupBucket::getRevenue)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
     
@@ -326,127 +465,99 @@ public class AnalyticsService {
                 .doubleValue();
     }
     
-    private List<PopularItemDTO> getTopSellingItems(LocalDateTime start, LocalDateTime end, int limit) {
-        List<OrderItem> orderItems = orderItemRepository.findAll().stream()
-                .filter(oi -> oi.getOrder().getCreatedAt().isAfter(start) && 
-                             oi.getOrder().getCreatedAt().isBefore(end))
-                .collect(Collectors.toList());
-        
-        Map<Long, List<OrderItem>> itemGroups = orderItems.stream()
-                .collect(Collectors.groupingBy(oi -> oi.getMenuItem().getId()));
-        
-        List<PopularItemDTO> popularItems = itemGroups.entrySet().stream()
-                .map(entry -> {
-                    MenuItem item = entry.getValue().get(0).getMenuItem();
-                    List<OrderItem> items = entry.getValue();
-                    
-                    return PopularItemDTO.builder()
-                            .itemId(item.getId())
-                            .itemName(item.getName())
-                            .categoryName(item.getCategory().getName())
-                            .orderCount((long) items.size())
-                            .totalQuantitySold(items.stream().mapToLong(OrderItem::getQuantity).sum())
-                            .revenue(items.stream().map(OrderItem::getTotalPrice).reduce(BigDecimal.ZERO, BigDecimal::add))
-                            .averageRating(item.getRating() != null ? item.getRating().doubleValue() : 0.0)
-                            .build();
-                })
-                .collect(Collectors.toList());
+    /**
+     * Convert MySQL DAYOFWEEK (1 = Sunday ... 7 = Saturday) to java.time.DayOfWeek
+     */
+    private DayOfWeek toDayOfWeek(int mysqlDayOfWeek) {
+        return DayOfWeek.of(((mysqlDayOfWeek + 5) % 7) + 1);
+    }
         
-        return popularItems.stream()
-                .sorted(Comparator.comparing(PopularItemDTO::getTotalQuantitySold).reversed())
-                .limit(limit)
+    private List<PopularItemDTO> getTopSellingItems(Long businessId, LocalDateTime start, LocalDateTime end, int limit) {
+        return orderItemRepository.findTopSellingItems(businessId, start, end, PageRequest.of(0, limit)).stream()
+                .map(sales -> PopularItemDTO.builder()
+                        .itemId(sales.getItemId())
+                        .itemName(sales.getItemName())
+                        .categoryName(sales.getCategoryName())
+                        .orderCount(sales.getOrderCount())
+                        .totalQuantitySold(sales.getTotalQuantity())
+                        .revenue(sales.getRevenue())
+                        .averageRating(sales.getRating() != null ? sales.getRating().doubleValue() : 0.0)
+                        .quantityError(0L)
+                        .build())
                 .collect(Collectors.toList());
     }
     
-    private List<DailyRevenueDTO> getDailyRevenueTrend(int days) {
-        List<DailyRevenueDTO> trend = new ArrayList<>();
+    private List<DailyRevenueDTO> getDailyRevenueTrend(Long businessId, int days) {
+        LocalDate firstDay = LocalDate.now().minusDays(days - 1);
+        List<RollupBucket> buckets = rollupService.getBuckets(
+                businessId, firstDay.atStartOfDay(), LocalDate.now().atTime(LocalTime.MAX));
         
-        for (int i = days - 1; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusDays(i);
-            LocalDateTime start = date.atStartOfDay();
-            LocalDateTime end = date.atTime(LocalTime.MAX);
-            
-            List<Order> dayOrders = orderRepository.findByCreatedAtBetween(start, end);
-            BigDecimal revenue = dayOrders.stream()
-                    .map(Order::getTotalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Map<LocalDate, List<RollupBucket>> bucketsByDay = buckets.stream()
+                .collect(Collectors.groupingBy(b -> b.getBucketStart().toLocalDate()));
+        
+        List<DailyRevenueDTO> trend = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            LocalDate date = firstDay.plusDays(i);
+            List<RollupBucket> dayBuckets = bucketsByDay.getOrDefault(date, Collections.emptyList());
             
             trend.add(DailyRevenueDTO.builder()
                     .date(date)
-                    .orderCount((long) dayOrders.size())
-                    .revenue(revenue)
+                    .orderCount(countOf(dayBuckets, b -> true))
+                    .revenue(revenueOf(dayBuckets, b -> true))
                     .build());
         }
         
         return trend;
     }
     
-    private List<AgentPerformanceDTO> getTopPerformingAgents(int limit) {
-        return deliveryAgentRepository.findTopRatedAgents().stream()
-                .limit(limit)
-                .map(agent -> {
-                    List<DeliveryTracking> agentDeliveries = deliveryTrackingRepository.findByAgentId(agent.getId());
-                    Long successful = agentDeliveries.stream()
-                            .filter(d -> d.getStatus() == DeliveryTracking.DeliveryStatus.DELIVERED)
-                            .count();
-                    Long failed = agentDeliveries.stream()
-                            .filter(d -> d.getStatus() == DeliveryTracking.DeliveryStatus.FAILED)
-                            .count();
-                    
-                    Double successRate = agentDeliveries.size() > 0 ? 
-                            (successful * 100.0 / agentDeliveries.size()) : 0.0;
-                    
-                    Double avgTime = agentDeliveries.stream()
-                            .filter(d -> d.getPickedUpAt() != null && d.getDeliveredAt() != null)
-                            .mapToLong(d -> java.time.Duration.between(d.getPickedUpAt(), d.getDeliveredAt()).toMinutes())
-                            .average()
-                            .orElse(0.0);
+    private List<AgentPerformanceDTO> getTopPerformingAgents(Long businessId, LocalDateTime startDate,
+                                                              LocalDateTime endDate, int limit) {
+        PageRequest topRated = PageRequest.of(0, limit, AgentLeaderboardSort.RATING.getSort());
+        return toAgentPerformance(deliveryAgentRepository.findAgentLeaderboard(businessId, topRated).getContent(),
+                startDate, endDate);
+    }
+
+    private List<AgentPerformanceDTO> toAgentPerformance(List<DeliveryAgentRepository.AgentLeaderboardRow> rows,
+                                                         LocalDateTime startDate, LocalDateTime endDate) {
+        Map<Long, LatencyPercentilesDTO> percentiles = latencyService.getAgentPercentiles(
+                rows.stream().map(DeliveryAgentRepository.AgentLeaderboardRow::getAgentId).toList(),
+                DeliveryLatencyBucket.Metric.DELIVERY, startDate, endDate);
+
+        return rows.stream()
+                .map(row -> {
+                    long assigned = row.getAssignedDeliveries() != null ? row.getAssignedDeliveries() : 0L;
+                    long successful = row.getSuccessfulDeliveries() != null ? row.getSuccessfulDeliveries() : 0L;
+                    long failed = row.getFailedDeliveries() != null ? row.getFailedDeliveries() : 0L;
                     
                     return AgentPerformanceDTO.builder()
-                            .agentId(agent.getId())
-                            .agentName(agent.getName())
-                            .phone(agent.getPhone())
-                            .vehicleType(agent.getVehicleType())
-                            .totalDeliveries(agent.getTotalDeliveries())
-                            .successfulDeliveries(successful.intValue())
-                            .failedDeliveries(failed.intValue())
-                            .rating(agent.getRating())
-                            .successRate(successRate)
-                            .averageDeliveryTimeMinutes(avgTime)
+                            .agentId(row.getAgentId())
+                            .agentName(row.getAgentName())
+                            .phone(row.getPhone())
+                            .vehicleType(row.getVehicleType())
+                            .totalDeliveries(row.getTotalDeliveries())
+                            .successfulDeliveries((int) successful)
+                            .failedDeliveries((int) failed)
+                            .rating(row.getRating())
+                            .successRate(assigned > 0 ? (successful * 100.0 / assigned) : 0.0)
+                            .averageDeliveryTimeMinutes(row.getAverageDeliverySeconds() != null
+                                    ? row.getAverageDeliverySeconds() / 60.0 : 0.0)
+                            .deliveryTimePercentiles(percentiles.get(row.getAgentId()))
                             .build();
                 })
                 .collect(Collectors.toList());
     }
     
-    private List<PopularTableDTO> getMostBookedTables(int limit) {
-        List<TableReservation> allReservations = reservationRepository.findAll();
-        
-        Map<Long, List<TableReservation>> tableGroups = allReservations.stream()
-                .filter(r -> r.getTable() != null)
-                .collect(Collectors.groupingBy(r -> r.getTable().getId()));
-        
-        return tableGroups.entrySet().stream()
-                .map(entry -> {
-                    RestaurantTable table = entry.getValue().get(0).getTable();
-                    List<TableReservation> bookings = entry.getValue();
-                    
-                    Double avgGuests = bookings.stream()
-                            .mapToInt(TableReservation::getNumberOfGuests)
-                            .average()
-                            .orElse(0.0);
-                    
-                    return PopularTableDTO.builder()
-                            .tableId(table.getId())
-                            .tableNumber(table.getTableNumber())
-                            .tableName(table.getTableName())
-                            .location(table.getLocation())
-                            .capacity(table.getCapacity())
-                            .bookingCount((long) bookings.size())
-                            .averageGuestsPerBooking(avgGuests)
-                            .build();
-                })
-                .sorted(Comparator.comparing(PopularTableDTO::getBookingCount).reversed())
-                .limit(limit)
+    private List<PopularTableDTO> getMostBookedTables(Long businessId, int limit) {
+        return reservationRepository.findMostBookedTables(businessId, PageRequest.of(0, limit)).stream()
+                .map(table -> PopularTableDTO.builder()
+                        .tableId(table.getTableId())
+                        .tableNumber(table.getTableNumber())
+                        .tableName(table.getTableName())
+                        .location(table.getLocation())
+                        .capacity(table.getCapacity())
+                        .bookingCount(table.getBookingCount())
+                        .averageGuestsPerBooking(table.getAverageGuests())
+                        .build())
                 .collect(Collectors.toList());
     }
 }
@@ -6,11 +6,15 @@ import com.vijay.User_Master.dto.hotel.UpdateLocationRequest;
 import com.vijay.User_Master.entity.hotel.DeliveryAgent;
 import com.vijay.User_Master.entity.hotel.DeliveryTracking;
 import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.event.hotel.HotelDataChangedEvent;
 import com.vijay.User_Master.repository.hotel.DeliveryAgentRepository;
 import com.vijay.User_Master.repository.hotel.DeliveryTrackingRepository;
 import com.vijay.User_Master.repository.hotel.OrderRepository;
+import com.vijay.User_Master.service.hotel.analytics.DeliveryLatencyService;
+import com.vijay.User_Master.service.hotel.analytics.OrderRollupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +30,11 @@ public class DeliveryService {
     private final DeliveryTrackingRepository deliveryTrackingRepository;
     private final DeliveryAgentRepository deliveryAgentRepository;
     private final OrderRepository orderRepository;
+    private final OrderRollupService rollupService;
+    private final ActiveOrderIndex activeOrderIndex;
+    private final KitchenDisplayService kitchenDisplayService;
+    private final DeliveryLatencyService latencyService;
+    private final ApplicationEventPublisher eventPublisher;
     
     // ==================== DELIVERY AGENT OPERATIONS ====================
     
@@ -60,6 +69,8 @@ public class DeliveryService {
         if (isOnline != null) agent.setIsOnline(isOnline);
         
         agent = deliveryAgentRepository.save(agent);
+        eventPublisher.publishEvent(new HotelDataChangedEvent(
+                agent.getBusinessId(), HotelDataChangedEvent.Kind.DELIVERY, agent.getId()));
         return mapToAgentDTO(agent);
     }
     
@@ -113,6 +124,7 @@ public class DeliveryService {
                 .build();
         
         tracking = deliveryTrackingRepository.save(tracking);
+        publishDeliveryChanged(tracking, null);
         return mapToTrackingDTO(tracking);
     }
     
@@ -130,6 +142,7 @@ public class DeliveryService {
             throw new RuntimeException("Agent is not available for delivery");
         }
         
+        DeliveryTracking.DeliveryStatus previousStatus = tracking.getStatus();
         tracking.setAgent(agent);
         tracking.setStatus(DeliveryTracking.DeliveryStatus.ASSIGNED);
         tracking.setAssignedAt(LocalDateTime.now());
@@ -138,6 +151,7 @@ public class DeliveryService {
         deliveryAgentRepository.save(agent);
         
         tracking = deliveryTrackingRepository.save(tracking);
+        publishDeliveryChanged(tracking, previousStatus);
         return mapToTrackingDTO(tracking);
     }
     
@@ -163,6 +177,7 @@ public class DeliveryService {
         DeliveryTracking tracking = deliveryTrackingRepository.findById(trackingId)
                 .orElseThrow(() -> new RuntimeException("Delivery tracking not found"));
         
+        DeliveryTracking.DeliveryStatus previousStatus = tracking.getStatus();
         DeliveryTracking.DeliveryStatus newStatus = DeliveryTracking.DeliveryStatus.valueOf(status);
         tracking.setStatus(newStatus);
         
@@ -172,6 +187,7 @@ public class DeliveryService {
                 break;
             case DELIVERED:
                 tracking.setDeliveredAt(LocalDateTime.now());
+                latencyService.recordDelivered(tracking);
                 // Mark agent as available again
                 if (tracking.getAgent() != null) {
                     DeliveryAgent agent = tracking.getAgent();
@@ -181,12 +197,17 @@ public class DeliveryService {
                 }
                 // Update order status
                 Order order = tracking.getOrder();
+                Order.OrderStatus previousOrderStatus = order.getStatus();
                 order.setStatus(Order.OrderStatus.DELIVERED);
                 orderRepository.save(order);
+                rollupService.recordStatusChange(order, previousOrderStatus);
+                activeOrderIndex.recordStatusChange(order);
+                kitchenDisplayService.orderStatusChanged(order, previousOrderStatus);
                 break;
         }
         
         tracking = deliveryTrackingRepository.save(tracking);
+        publishDeliveryChanged(tracking, previousStatus);
         return mapToTrackingDTO(tracking);
     }
     
@@ -228,6 +249,15 @@ public class DeliveryService {
                 .collect(Collectors.toList());
     }
     
+    // ==================== HELPER METHODS ====================
+    
+    // Tracking rows carry no reliable business_id; the order's is authoritative
+    private void publishDeliveryChanged(DeliveryTracking tracking, DeliveryTracking.DeliveryStatus previousStatus) {
+        eventPublisher.publishEvent(new HotelDataChangedEvent(
+                tracking.getOrder().getBusinessId(), HotelDataChangedEvent.Kind.DELIVERY, tracking.getId(),
+                previousStatus != null ? previousStatus.name() : null, tracking.getStatus().name(), null));
+    }
+    
     // ==================== MAPPERS ====================
     
     private DeliveryAgentDTO mapToAgentDTO(DeliveryAgent agent) {
@@ -1,16 +1,17 @@
 package com.vijay.User_Master.service.hotel;
 
+import com.vijay.User_Master.Helper.SnowflakeIdGenerator;
 import com.vijay.User_Master.dto.hotel.*;
 import com.vijay.User_Master.entity.hotel.*;
 import com.vijay.User_Master.repository.hotel.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,10 +29,19 @@ public class GuestOrderService {
     
     private final QRCodeRepository qrCodeRepository;
     private final GuestSessionRepository sessionRepository;
-    private final MenuItemRepository menuItemRepository;
+    private final GuestSessionCache sessionCache;
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
     private final RestaurantTableRepository tableRepository;
+    private final OrderPlacementService orderPlacementService;
+    private final WriteBehindCounterService counterService;
+    private final ActiveOrderIndex activeOrderIndex;
+    private final KitchenDisplayService kitchenDisplayService;
+    private final OrderDTOMapper orderMapper;
+    private final MenuCatalog menuCatalog;
+    private final MenuChangeService menuChangeService;
+    private final MenuSearchIndex menuSearchIndex;
+    private final OrderOutboxService outboxService;
+    private final SnowflakeIdGenerator idGenerator;
     
     /**
      * Scan QR code and create guest session
@@ -49,9 +59,8 @@ public class GuestOrderService {
             throw new RuntimeException("QR code is inactive");
         }
         
-        // Update scan count
-        qrCode.incrementScanCount();
-        qrCodeRepository.save(qrCode);
+        // Update scan count (write-behind - no row lock on busy tables' QR codes)
+        counterService.increment(WriteBehindCounterService.Counter.QR_CODE_SCANS, qrCode.getId(), 1);
         
         // Check if there's already an active session for this table
         Optional<GuestSession> existingSession = sessionRepository
@@ -59,6 +68,7 @@ public class GuestOrderService {
         
         if (existingSession.isPresent()) {
             log.info("Returning existing session for table: {}", qrCode.getTableId());
+            sessionCache.put(existingSession.get());
             return mapToSessionDTO(existingSession.get());
         }
         
@@ -74,6 +84,7 @@ public class GuestOrderService {
                 .build();
         
         session = sessionRepository.save(session);
+        sessionCache.putAfterCommit(session);
         
         log.info("Guest session created: {} for business: {} table: {}", 
                 sessionToken, session.getBusinessId(), session.getTableId());
@@ -83,70 +94,69 @@ public class GuestOrderService {
     
     /**
      * Get menu for guest - automatically filtered by business_id from session
+     * Served from the business's pre-serialized snapshot
      */
-    public List<MenuItemDTO> getMenuForGuest(String sessionToken) {
+    public MenuCatalog.View getMenuForGuest(String sessionToken) {
         log.info("Getting menu for guest session: {}", sessionToken);
         
-        GuestSession session = validateSession(sessionToken);
+        GuestSessionCache.Session session = validateSession(sessionToken);
         
-        // Get menu items for THIS business only
-        // This is where business isolation happens!
-        List<MenuItem> menuItems = menuItemRepository
-                .findByBusinessIdAndIsAvailableTrue(session.getBusinessId());
-        
-        log.info("Found {} menu items for business: {}", menuItems.size(), session.getBusinessId());
-        
-        return menuItems.stream()
-                .map(this::mapToMenuItemDTO)
-                .collect(Collectors.toList());
+        // Menu of THIS business only - this is where business isolation happens!
+        return menuCatalog.menu(session.businessId());
     }
     
     /**
      * Get menu items by category for guest
      */
-    public List<MenuItemDTO> getMenuByCategoryForGuest(String sessionToken, Long categoryId) {
+    public MenuCatalog.View getMenuByCategoryForGuest(String sessionToken, Long categoryId) {
         log.info("Getting menu category {} for guest session: {}", categoryId, sessionToken);
         
-        GuestSession session = validateSession(sessionToken);
-        
-        List<MenuItem> menuItems = menuItemRepository
-                .findByBusinessIdAndCategoryIdAndIsAvailableTrue(session.getBusinessId(), categoryId);
+        GuestSessionCache.Session session = validateSession(sessionToken);
         
-        return menuItems.stream()
-                .map(this::mapToMenuItemDTO)
-                .collect(Collectors.toList());
+        return menuCatalog.category(session.businessId(), categoryId);
+    }
+    
+    /**
+     * Menu changes of the session's business since the guest's version
+     */
+    public MenuChangesDTO getMenuChangesForGuest(String sessionToken, Long since) {
+        GuestSessionCache.Session session = validateSession(sessionToken);
+        return menuChangeService.changesSince(session.businessId(), since);
+    }
+    
+    /**
+     * Menu items of the session's business matching the guest's filters (veg, price, calories...)
+     */
+    public Page<MenuItemDTO> filterMenuForGuest(String sessionToken, MenuFilterRequest filter, Pageable pageable) {
+        GuestSessionCache.Session session = validateSession(sessionToken);
+        return menuSearchIndex.filter(session.businessId(), filter, pageable);
     }
     
     /**
      * Place order as guest
      * Order automatically gets business_id from guest session
+     * The session is re-read rather than taken from the cache - a session completed on another
+     * instance must not take orders
      */
     @Transactional
     public OrderDTO placeGuestOrder(String sessionToken, GuestOrderRequest request) {
         log.info("Placing guest order for session: {}", sessionToken);
         
-        GuestSession session = validateSession(sessionToken);
+        GuestSession session = validateStoredSession(sessionToken);
         
         // Validate guest info
         if (request.getGuestName() == null || request.getGuestName().trim().isEmpty()) {
             throw new RuntimeException("Guest name is required");
         }
         
-        if (request.getItems() == null || request.getItems().isEmpty()) {
-            throw new RuntimeException("Order must contain at least one item");
-        }
-        
         // Generate order number
-        String orderNumber = generateOrderNumber();
+        String orderNumber = idGenerator.nextNumber("ORD");
         
         // Get table
         RestaurantTable table = tableRepository.findById(session.getTableId())
                 .orElseThrow(() -> new RuntimeException("Table not found"));
         
-        // Calculate totals
-        BigDecimal subtotal = BigDecimal.ZERO;
-        
-        // Create order with business_id from session
+        // Create order with business_id from session - totals are filled in when the lines are priced
         Order order = Order.builder()
                 .businessId(session.getBusinessId())  // KEY: Auto-assigned from session!
                 .orderNumber(orderNumber)
@@ -157,51 +167,19 @@ public class GuestOrderService {
                 .orderType(Order.OrderType.DINE_IN)
                 .status(Order.OrderStatus.PENDING)
                 .specialInstructions(request.getSpecialInstructions())
+                .estimatedDeliveryTime(LocalDateTime.now().plusMinutes(30))
                 .build();
         
-        order = orderRepository.save(order);
-        
-        // Create order items
-        for (GuestOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("Menu item not found"));
-            
-            // Verify menu item belongs to same business (security check)
-            if (!menuItem.getBusinessId().equals(session.getBusinessId())) {
-                throw new RuntimeException("Menu item does not belong to this business");
-            }
-            
-            BigDecimal itemTotal = menuItem.getPrice()
-                    .multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-            subtotal = subtotal.add(itemTotal);
-            
-            OrderItem orderItem = OrderItem.builder()
-                    .order(order)
-                    .menuItem(menuItem)
-                    .quantity(itemRequest.getQuantity())
-                    .unitPrice(menuItem.getPrice())
-                    .totalPrice(itemTotal)
-                    .specialInstructions(itemRequest.getSpecialInstructions())
-                    .status(OrderItem.ItemStatus.PENDING)
-                    .build();
-            
-            orderItemRepository.save(orderItem);
-            
-            // Update menu item stats
-            menuItem.setTotalOrders(menuItem.getTotalOrders() + itemRequest.getQuantity());
-            menuItemRepository.save(menuItem);
-        }
-        
-        // Calculate tax and total
-        BigDecimal tax = subtotal.multiply(BigDecimal.valueOf(0.05)); // 5% tax
-        BigDecimal totalAmount = subtotal.add(tax);
-        
-        order.setSubtotal(subtotal);
-        order.setTax(tax);
-        order.setTotalAmount(totalAmount);
-        order.setEstimatedDeliveryTime(LocalDateTime.now().plusMinutes(30));
+        // Items are checked against the session's business (security check)
+        List<OrderPlacementService.Line> lines = request.getItems() == null ? List.of() : request.getItems().stream()
+                .map(item -> new OrderPlacementService.Line(item.getMenuItemId(), item.getQuantity(), item.getSpecialInstructions()))
+                .collect(Collectors.toList());
+        OrderPlacementService.PlacedOrder placed = orderPlacementService.place(order, lines);
+        order = placed.order();
         
-        order = orderRepository.save(order);
+        // Rollups, popular items, the dashboard and the confirmation email are applied by the outbox dispatcher
+        outboxService.recordOrderPlaced(order, placed.items(), request.getGuestEmail());
+        kitchenDisplayService.orderPlaced(order, placed.items());
         
         // Update session with guest info
         session.setGuestName(request.getGuestName());
@@ -216,7 +194,9 @@ public class GuestOrderService {
         log.info("Guest order placed successfully: {} for business: {}", 
                 orderNumber, session.getBusinessId());
         
-        return mapToOrderDTO(order);
+        OrderDTO orderDTO = orderMapper.toDTO(order, placed.items());
+        activeOrderIndex.recordPlaced(order.getBusinessId(), orderDTO);
+        return orderDTO;
     }
     
     /**
@@ -225,22 +205,22 @@ public class GuestOrderService {
     public OrderDTO getOrderStatus(Long orderId, String sessionToken) {
         log.info("Getting order status: {} for session: {}", orderId, sessionToken);
         
-        GuestSession session = validateSession(sessionToken);
+        GuestSessionCache.Session session = validateSession(sessionToken);
         
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         
         // Verify order belongs to same business as session (security)
-        if (!order.getBusinessId().equals(session.getBusinessId())) {
+        if (!order.getBusinessId().equals(session.businessId())) {
             throw new RuntimeException("Access denied - Order belongs to different business");
         }
         
         // Verify order is for same table (optional - extra security)
-        if (order.getTable() != null && !order.getTable().getId().equals(session.getTableId())) {
+        if (order.getTable() != null && !order.getTable().getId().equals(session.tableId())) {
             throw new RuntimeException("Access denied - Order belongs to different table");
         }
         
-        return mapToOrderDTO(order);
+        return orderMapper.toDTO(order);
     }
     
     /**
@@ -249,18 +229,11 @@ public class GuestOrderService {
     public List<OrderDTO> getGuestOrders(String sessionToken) {
         log.info("Getting orders for guest session: {}", sessionToken);
         
-        GuestSession session = validateSession(sessionToken);
+        GuestSessionCache.Session session = validateSession(sessionToken);
         
         // Get orders for this table and business
-        List<Order> orders = orderRepository.findByBusinessId(session.getBusinessId())
-                .stream()
-                .filter(o -> o.getTable() != null && o.getTable().getId().equals(session.getTableId()))
-                .filter(o -> o.getCreatedAt().isAfter(session.getCreatedAt()))
-                .collect(Collectors.toList());
-        
-        return orders.stream()
-                .map(this::mapToOrderDTO)
-                .collect(Collectors.toList());
+        return orderMapper.toDTOs(orderRepository.findByBusinessIdAndTableIdSince(
+                session.businessId(), session.tableId(), session.createdAt()));
     }
     
     /**
@@ -275,6 +248,7 @@ public class GuestOrderService {
         
         session.complete();
         sessionRepository.save(session);
+        sessionCache.invalidate(sessionToken);
         
         log.info("Guest session completed: {}", sessionToken);
     }
@@ -282,19 +256,41 @@ public class GuestOrderService {
     // ==================== HELPER METHODS ====================
     
     /**
-     * Validate guest session
+     * Validate guest session from the session cache
+     * Throws exception if session is invalid or expired
+     */
+    private GuestSessionCache.Session validateSession(String sessionToken) {
+        GuestSessionCache.Session session = sessionCache.get(sessionToken);
+        if (session == null) {
+            throw new RuntimeException("Invalid session token");
+        }
+        
+        if (session.hasExpired()) {
+            sessionRepository.findBySessionToken(sessionToken).ifPresent(this::expire);
+            throw new RuntimeException("Session has expired. Please scan QR code again.");
+        }
+        
+        if (session.status() != GuestSession.SessionStatus.ACTIVE) {
+            throw new RuntimeException("Session is not active");
+        }
+        
+        return session;
+    }
+    
+    /**
+     * Validate guest session against the database, refreshing its cache entry
      * Throws exception if session is invalid or expired
      */
-    private GuestSession validateSession(String sessionToken) {
+    private GuestSession validateStoredSession(String sessionToken) {
         GuestSession session = sessionRepository.findBySessionToken(sessionToken)
                 .orElseThrow(() -> new RuntimeException("Invalid session token"));
         
         if (session.hasExpired()) {
-            session.setStatus(GuestSession.SessionStatus.EXPIRED);
-            sessionRepository.save(session);
+            expire(session);
             throw new RuntimeException("Session has expired. Please scan QR code again.");
         }
         
+        sessionCache.put(session);
         if (session.getStatus() != GuestSession.SessionStatus.ACTIVE) {
             throw new RuntimeException("Session is not active");
         }
@@ -302,6 +298,12 @@ public class GuestOrderService {
         return session;
     }
     
+    private void expire(GuestSession session) {
+        session.setStatus(GuestSession.SessionStatus.EXPIRED);
+        sessionRepository.save(session);
+        sessionCache.invalidate(session.getSessionToken());
+    }
+    
     /**
      * Generate unique session token
      */
@@ -309,14 +311,6 @@ public class GuestOrderService {
         return "guest-" + UUID.randomUUID().toString().replace("-", "");
     }
     
-    /**
-     * Generate order number
-     */
-    private String generateOrderNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        return "ORD-" + timestamp;
-    }
-    
     /**
      * Map GuestSession to DTO
      */
@@ -338,74 +332,4 @@ public class GuestOrderService {
                 .expiresAt(session.getExpiresAt())
                 .build();
     }
-    
-    /**
-     * Map MenuItem to DTO
-     */
-    private MenuItemDTO mapToMenuItemDTO(MenuItem menuItem) {
-        return MenuItemDTO.builder()
-                .id(menuItem.getId())
-                .categoryId(menuItem.getCategory().getId())
-                .categoryName(menuItem.getCategory().getName())
-                .name(menuItem.getName())
-                .description(menuItem.getDescription())
-                .price(menuItem.getPrice())
-                .imageUrl(menuItem.getImageUrl())
-                .isVegetarian(menuItem.getIsVegetarian())
-                .isVegan(menuItem.getIsVegan())
-                .isSpicy(menuItem.getIsSpicy())
-                .preparationTime(menuItem.getPreparationTime())
-                .calories(menuItem.getCalories())
-                .isAvailable(menuItem.getIsAvailable())
-                .isFeatured(menuItem.getIsFeatured())
-                .rating(menuItem.getRating())
-                .totalOrders(menuItem.getTotalOrders())
-                .build();
-    }
-    
-    /**
-     * Map Order to DTO
-     */
-    private OrderDTO mapToOrderDTO(Order order) {
-        List<OrderItemDTO> items = orderItemRepository.findByOrderId(order.getId()).stream()
-                .map(this::mapToOrderItemDTO)
-                .collect(Collectors.toList());
-        
-        return OrderDTO.builder()
-                .id(order.getId())
-                .orderNumber(order.getOrderNumber())
-                .userId(order.getUserId())
-                .customerName(order.getCustomerName())
-                .customerPhone(order.getCustomerPhone())
-                .tableId(order.getTable() != null ? order.getTable().getId() : null)
-                .tableNumber(order.getTable() != null ? order.getTable().getTableNumber() : null)
-                .orderType(order.getOrderType().name())
-                .status(order.getStatus().name())
-                .items(items)
-                .subtotal(order.getSubtotal())
-                .tax(order.getTax())
-                .discount(order.getDiscount())
-                .totalAmount(order.getTotalAmount())
-                .specialInstructions(order.getSpecialInstructions())
-                .estimatedDeliveryTime(order.getEstimatedDeliveryTime())
-                .completedAt(order.getCompletedAt())
-                .createdAt(order.getCreatedAt())
-                .build();
-    }
-    
-    /**
-     * Map OrderItem to DTO
-     */
-    private OrderItemDTO mapToOrderItemDTO(OrderItem item) {
-        return OrderItemDTO.builder()
-                .id(item.getId())
-                .menuItemId(item.getMenuItem().getId())
-                .menuItemName(item.getMenuItem().getName())
-                .quantity(item.getQuantity())
-                .unitPrice(item.getUnitPrice())
-                .totalPrice(item.getTotalPrice())
-                .specialInstructions(item.getSpecialInstructions())
-                .status(item.getStatus().name())
-                .build();
-    }
 }
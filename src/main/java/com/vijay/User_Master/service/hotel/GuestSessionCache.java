@@ -0,0 +1,129 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.vijay.User_Master.entity.hotel.GuestSession;
+import com.vijay.User_Master.repository.hotel.GuestSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * GuestSessionCache - Guest session tokens resolved in memory
+ * Every guest call starts by resolving its X-Guest-Session token. A hit answers with the session's
+ * business, table, status and expiry without a query. Entries are added on QR scan or on a miss,
+ * dropped after commit when a session completes or expires, and never outlive the session itself.
+ * The short TTL bounds how long a session completed on another instance is still served on reads;
+ * placing an order re-reads the row and replaces the entry, so writes never act on a stale one.
+ */
+@Component
+@Slf4j
+public class GuestSessionCache {
+
+    /**
+     * What guest endpoints need of a session to authorize and scope a call
+     */
+    public record Session(Long id, Long businessId, Long tableId, GuestSession.SessionStatus status,
+                          LocalDateTime createdAt, LocalDateTime expiresAt) {
+
+        static Session of(GuestSession session) {
+            return new Session(session.getId(), session.getBusinessId(), session.getTableId(), session.getStatus(),
+                    session.getCreatedAt(), session.getExpiresAt());
+        }
+
+        public boolean hasExpired() {
+            return expiresAt.isBefore(LocalDateTime.now());
+        }
+    }
+
+    private final GuestSessionRepository sessionRepository;
+    private final Cache<String, Session> sessions;
+
+    public GuestSessionCache(GuestSessionRepository sessionRepository,
+                             @Value("${hotel.guest-sessions.max-entries:10000}") long maxEntries,
+                             @Value("${hotel.guest-sessions.ttl-seconds:30}") long ttlSeconds) {
+        this.sessionRepository = sessionRepository;
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, Session>() {
+                    @Override
+                    public long expireAfterCreate(String token, Session session, long currentTime) {
+                        return lifetime(session, ttl);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Session session, long currentTime, long currentDuration) {
+                        return lifetime(session, ttl);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Session session, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * The session with this token, read from the database only on a miss; null if there is none
+     */
+    public Session get(String sessionToken) {
+        return sessions.get(sessionToken, token -> sessionRepository.findBySessionToken(token)
+                .map(Session::of)
+                .orElse(null));
+    }
+
+    /**
+     * Caches the session as just read from the database
+     */
+    public void put(GuestSession session) {
+        sessions.put(session.getSessionToken(), Session.of(session));
+    }
+
+    /**
+     * Caches a session written in the current transaction once it commits
+     */
+    public void putAfterCommit(GuestSession session) {
+        Session cached = Session.of(session);
+        afterCommit(() -> sessions.put(session.getSessionToken(), cached));
+    }
+
+    /**
+     * Drops the token now and again after commit, so a read racing the transaction cannot
+     * re-cache the old row
+     */
+    public void invalidate(String sessionToken) {
+        sessions.invalidate(sessionToken);
+        afterCommit(() -> sessions.invalidate(sessionToken));
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    /**
+     * The TTL, cut short by the session's own expiry
+     */
+    private static long lifetime(Session session, Duration ttl) {
+        Duration remaining = Duration.between(LocalDateTime.now(), session.expiresAt());
+        return Math.max(0, Math.min(ttl.toNanos(), remaining.toNanos()));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vijay.User_Master.entity.hotel.IdempotencyRecord;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
+import com.vijay.User_Master.exceptions.IdempotencyConflictException;
+import com.vijay.User_Master.repository.hotel.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * IdempotencyService - Runs a request at most once per Idempotency-Key
+ * Completed responses are kept in a bounded in-memory cache in front of the
+ * hotel_idempotency_keys table, both with the same TTL; a retry gets the stored
+ * response back without the action running again. Concurrent duplicates on this
+ * instance wait on the first one (single flight per key); across instances the
+ * PENDING row's unique key admits exactly one and the rest get a 409.
+ * The action runs in the transaction that completes the record (transactional services
+ * join it), so a committed action always leaves a COMPLETED key and a rolled-back one never does.
+ */
+@Service
+@Lazy(false)
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record StoredResponse(String requestHash, String body) {}
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration pendingTimeout;
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${hotel.idempotency.max-entries:10000}") long maxEntries,
+                              @Value("${hotel.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${hotel.idempotency.pending-timeout-seconds:300}") long pendingTimeoutSeconds) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.pendingTimeout = Duration.ofSeconds(pendingTimeoutSeconds);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Run the action once for the key, or return the response of the run that already happened
+     * owner scopes the key (business id, admin user, guest session); a blank key runs the action unguarded
+     */
+    public <T> T execute(IdempotencyRecord.Scope scope, String owner, String idempotencyKey,
+                         Object request, Class<T> responseType, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadApiRequestException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String keyHash = sha256(scope + "\n" + owner + "\n" + idempotencyKey);
+        String requestHash = sha256(toJson(request));
+
+        StoredResponse stored = completed.getIfPresent(keyHash);
+        if (stored == null) {
+            CompletableFuture<StoredResponse> flight = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> leader = inFlight.putIfAbsent(keyHash, flight);
+            if (leader != null) {
+                stored = await(leader);
+            } else {
+                try {
+                    stored = runOnce(scope, keyHash, requestHash, action);
+                    flight.complete(stored);
+                } catch (RuntimeException e) {
+                    flight.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inFlight.remove(keyHash, flight);
+                }
+            }
+        }
+
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException(HEADER + " was already used for a different request");
+        }
+        return fromJson(stored.body(), responseType);
+    }
+
+    // ==================== SCHEDULED JOBS ====================
+
+    @Scheduled(fixedDelayString = "${hotel.idempotency.purge-ms:3600000}")
+    public void purgeExpired() {
+        int removed = repository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            log.info("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    /**
+     * Only the single-flight leader gets here: replay a stored outcome or claim the key and run
+     */
+    private <T> StoredResponse runOnce(IdempotencyRecord.Scope scope, String keyHash, String requestHash,
+                                       Supplier<T> action) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<IdempotencyRecord> existing = repository.findByKeyHash(keyHash);
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            if (record.getExpiresAt().isBefore(now)) {
+                repository.deleteByKeyHash(keyHash);
+            } else if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                StoredResponse stored = new StoredResponse(record.getRequestHash(), record.getResponseBody());
+                completed.put(keyHash, stored);
+                return stored;
+            } else if (record.getCreatedAt().plus(pendingTimeout).isAfter(now)) {
+                throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+            } else {
+                // Still PENDING, so the run that claimed it never committed - its action rolled back with it
+                log.warn("Taking over idempotency key abandoned at {}", record.getCreatedAt());
+                repository.deleteByKeyHash(keyHash);
+            }
+        }
+
+        IdempotencyRecord record;
+        try {
+            record = repository.saveAndFlush(IdempotencyRecord.builder()
+                    .keyHash(keyHash)
+                    .scope(scope)
+                    .requestHash(requestHash)
+                    .status(IdempotencyRecord.Status.PENDING)
+                    .createdAt(now)
+                    .expiresAt(now.plus(ttl))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+        }
+
+        String body;
+        try {
+            body = transactionTemplate.execute(status -> {
+                String json = toJson(action.get());
+                if (repository.markCompleted(record.getId(), json) == 0) {
+                    throw new IdempotencyConflictException("A request with this " + HEADER + " is still being processed");
+                }
+                return json;
+            });
+        } catch (RuntimeException e) {
+            // The action rolled back together with the completion - release our claim so the client can retry
+            // (by id: a run that lost its key to a takeover must not delete the new claim)
+            repository.deleteById(record.getId());
+            throw e;
+        }
+
+        StoredResponse stored = new StoredResponse(requestHash, body);
+        completed.put(keyHash, stored);
+        return stored;
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            // The duplicate shares the outcome of the run it waited on
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not read stored " + type.getSimpleName(), e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.dto.hotel.kitchen.KitchenEventDTO;
+import com.vijay.User_Master.dto.hotel.kitchen.KitchenFrameDTO;
+import com.vijay.User_Master.dto.hotel.kitchen.KitchenItemDTO;
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.entity.hotel.OrderItem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * KitchenDisplayService - Pushes kitchen events to STOMP subscribers (KDS screens)
+ * Topics: /topic/business/{id}/kitchen for the whole kitchen and
+ * /topic/business/{id}/kitchen/station/{categoryId} for one station, which gets only
+ * its own lines (order status changes go to every station).
+ * Events are queued after commit and coalesced per business: one frame per topic per
+ * flush interval, with repeated changes to the same order or line merged into one event.
+ * Nothing is queued for businesses nobody is watching.
+ */
+@Service
+@Lazy(false)
+@Slf4j
+public class KitchenDisplayService {
+
+    public static final String ORDER_CREATED = "ORDER_CREATED";
+    public static final String ORDER_STATUS_CHANGED = "ORDER_STATUS_CHANGED";
+    public static final String ITEM_STATUS_CHANGED = "ITEM_STATUS_CHANGED";
+
+    private static final Pattern KITCHEN_TOPIC = Pattern.compile("^/topic/business/(\\d+)/kitchen(?:/station/(\\d+))?$");
+    private static final long WHOLE_KITCHEN = 0L; // Station key of the unfiltered topic - category ids start at 1
+
+    private record Station(Long businessId, long stationId) {}
+
+    private static class Pending {
+        private final Map<String, KitchenEventDTO> events = new LinkedHashMap<>(); // By order or line
+        private int coalesced;
+    }
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> sequences = new ConcurrentHashMap<>();
+    // Subscriber counts per business and station, maintained from STOMP session events
+    private final Map<Long, Map<Long, AtomicInteger>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Station>> sessions = new ConcurrentHashMap<>();
+
+    public KitchenDisplayService(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    // ==================== PUBLISHING ====================
+
+    /**
+     * A new order with its lines; call inside the placing transaction
+     */
+    public void orderPlaced(Order order, List<OrderItem> items) {
+        if (!isWatched(order.getBusinessId())) {
+            return;
+        }
+        KitchenEventDTO event = orderEvent(order, ORDER_CREATED, null)
+                .items(items.stream().map(this::mapToKitchenItem).toList())
+                .build();
+        enqueue(order.getBusinessId(), event);
+    }
+
+    public void orderStatusChanged(Order order, Order.OrderStatus previousStatus) {
+        if (previousStatus == order.getStatus() || !isWatched(order.getBusinessId())) {
+            return;
+        }
+        enqueue(order.getBusinessId(), orderEvent(order, ORDER_STATUS_CHANGED, previousStatus).build());
+    }
+
+    public void itemStatusChanged(OrderItem item, OrderItem.ItemStatus previousStatus) {
+        Order order = item.getOrder();
+        if (previousStatus == item.getStatus() || !isWatched(order.getBusinessId())) {
+            return;
+        }
+        KitchenEventDTO event = orderEvent(order, ITEM_STATUS_CHANGED, null)
+                .status(item.getStatus().name())
+                .previousStatus(previousStatus != null ? previousStatus.name() : null)
+                .items(List.of(mapToKitchenItem(item)))
+                .build();
+        enqueue(order.getBusinessId(), event);
+    }
+
+    // ==================== SCHEDULED JOBS ====================
+
+    /**
+     * Send each business's pending events as one frame per subscribed topic
+     */
+    @Scheduled(fixedDelayString = "${hotel.kds.flush-ms:50}")
+    public void flush() {
+        for (Long businessId : pending.keySet()) {
+            Pending batch = pending.remove(businessId);
+            if (batch == null) {
+                continue;
+            }
+            List<KitchenEventDTO> events;
+            int coalesced;
+            synchronized (batch) {
+                events = new ArrayList<>(batch.events.values());
+                coalesced = batch.coalesced;
+            }
+            long sequence = sequences.computeIfAbsent(businessId, id -> new AtomicLong()).incrementAndGet();
+
+            Map<Long, AtomicInteger> stations = subscribers.getOrDefault(businessId, Map.of());
+            for (Map.Entry<Long, AtomicInteger> station : stations.entrySet()) {
+                if (station.getValue().get() <= 0) {
+                    continue;
+                }
+                long stationId = station.getKey();
+                List<KitchenEventDTO> stationEvents = stationId == WHOLE_KITCHEN ? events : forStation(events, stationId);
+                if (stationEvents.isEmpty()) {
+                    continue;
+                }
+                KitchenFrameDTO frame = KitchenFrameDTO.builder()
+                        .businessId(businessId)
+                        .stationId(stationId == WHOLE_KITCHEN ? null : stationId)
+                        .sequence(sequence)
+                        .events(stationEvents)
+                        .coalescedEvents(coalesced)
+                        .build();
+                messagingTemplate.convertAndSend(destination(businessId, stationId), frame);
+            }
+        }
+    }
+
+    // ==================== SUBSCRIPTIONS ====================
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = headers.getDestination();
+        Matcher matcher = destination != null ? KITCHEN_TOPIC.matcher(destination) : null;
+        if (matcher == null || !matcher.matches() || headers.getSessionId() == null || headers.getSubscriptionId() == null) {
+            return;
+        }
+        Station station = new Station(Long.valueOf(matcher.group(1)),
+                matcher.group(2) != null ? Long.parseLong(matcher.group(2)) : WHOLE_KITCHEN);
+        Station previous = sessions.computeIfAbsent(headers.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(headers.getSubscriptionId(), station);
+        if (previous != null) {
+            release(previous);
+        }
+        subscribers.compute(station.businessId(), (id, stations) -> {
+            Map<Long, AtomicInteger> counts = stations != null ? stations : new ConcurrentHashMap<>();
+            counts.computeIfAbsent(station.stationId(), s -> new AtomicInteger()).incrementAndGet();
+            return counts;
+        });
+        log.debug("Kitchen display subscribed to {}", destination);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Station> subscriptions = headers.getSessionId() != null ? sessions.get(headers.getSessionId()) : null;
+        Station station = subscriptions != null && headers.getSubscriptionId() != null
+                ? subscriptions.remove(headers.getSubscriptionId()) : null;
+        if (station != null) {
+            release(station);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, Station> subscriptions = sessions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private boolean isWatched(Long businessId) {
+        return businessId != null && subscribers.containsKey(businessId);
+    }
+
+    private void release(Station station) {
+        subscribers.computeIfPresent(station.businessId(), (id, stations) -> {
+            AtomicInteger count = stations.get(station.stationId());
+            if (count != null && count.decrementAndGet() <= 0) {
+                stations.remove(station.stationId());
+            }
+            return stations.isEmpty() ? null : stations;
+        });
+    }
+
+    private void enqueue(Long businessId, KitchenEventDTO event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(businessId, event);
+                }
+            });
+        } else {
+            add(businessId, event);
+        }
+    }
+
+    private void add(Long businessId, KitchenEventDTO event) {
+        while (true) {
+            Pending batch = pending.computeIfAbsent(businessId, id -> new Pending());
+            synchronized (batch) {
+                if (pending.get(businessId) != batch) {
+                    continue; // Taken by a flush meanwhile - start the next batch
+                }
+                merge(batch, event);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Fold the event into the batch; a later change to the same order or line replaces the earlier one
+     */
+    private void merge(Pending batch, KitchenEventDTO event) {
+        String orderKey = "order:" + event.getOrderId();
+        KitchenEventDTO placed = batch.events.get(orderKey);
+
+        if (ITEM_STATUS_CHANGED.equals(event.getType())) {
+            KitchenItemDTO changed = event.getItems().get(0);
+            if (placed != null && ORDER_CREATED.equals(placed.getType())) {
+                // Not on any screen yet - show the order with the line already in its new status
+                List<KitchenItemDTO> items = placed.getItems().stream()
+                        .map(item -> item.getId().equals(changed.getId()) ? changed : item)
+                        .toList();
+                batch.events.put(orderKey, placed.toBuilder().items(items).build());
+                batch.coalesced++;
+                return;
+            }
+            String itemKey = "item:" + changed.getId();
+            KitchenEventDTO earlier = batch.events.get(itemKey);
+            if (earlier != null) {
+                event = event.toBuilder().previousStatus(earlier.getPreviousStatus()).build();
+                batch.coalesced++;
+            }
+            batch.events.put(itemKey, event);
+            return;
+        }
+
+        if (placed != null) {
+            event = ORDER_CREATED.equals(placed.getType())
+                    ? placed.toBuilder().status(event.getStatus()).build()
+                    : event.toBuilder().previousStatus(placed.getPreviousStatus()).build();
+            batch.coalesced++;
+        }
+        batch.events.put(orderKey, event);
+    }
+
+    private List<KitchenEventDTO> forStation(List<KitchenEventDTO> events, long stationId) {
+        List<KitchenEventDTO> filtered = new ArrayList<>();
+        for (KitchenEventDTO event : events) {
+            if (ORDER_STATUS_CHANGED.equals(event.getType())) {
+                filtered.add(event); // A cancelled or served order leaves every station
+                continue;
+            }
+            List<KitchenItemDTO> items = event.getItems().stream()
+                    .filter(item -> item.getCategoryId() != null && item.getCategoryId() == stationId)
+                    .toList();
+            if (!items.isEmpty()) {
+                filtered.add(items.size() == event.getItems().size() ? event : event.toBuilder().items(items).build());
+            }
+        }
+        return filtered;
+    }
+
+    private static String destination(Long businessId, long stationId) {
+        String topic = "/topic/business/" + businessId + "/kitchen";
+        return stationId == WHOLE_KITCHEN ? topic : topic + "/station/" + stationId;
+    }
+
+    // Customer contact details stay off the topics - the kitchen only needs the order and its lines
+    private KitchenEventDTO.KitchenEventDTOBuilder orderEvent(Order order, String type, Order.OrderStatus previousStatus) {
+        return KitchenEventDTO.builder()
+                .type(type)
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .orderType(order.getOrderType() != null ? order.getOrderType().name() : null)
+                .tableNumber(order.getTable() != null ? order.getTable().getTableNumber() : null)
+                .status(order.getStatus().name())
+                .previousStatus(previousStatus != null ? previousStatus.name() : null)
+                .specialInstructions(order.getSpecialInstructions())
+                .occurredAt(LocalDateTime.now());
+    }
+
+    private KitchenItemDTO mapToKitchenItem(OrderItem item) {
+        return KitchenItemDTO.builder()
+                .id(item.getId())
+                .menuItemId(item.getMenuItem().getId())
+                .name(item.getMenuItem().getName())
+                .categoryId(item.getMenuItem().getCategory() != null ? item.getMenuItem().getCategory().getId() : null)
+                .quantity(item.getQuantity())
+                .specialInstructions(item.getSpecialInstructions())
+                .status(item.getStatus().name())
+                .build();
+    }
+}
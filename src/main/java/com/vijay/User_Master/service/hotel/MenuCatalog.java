@@ -0,0 +1,137 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vijay.User_Master.dto.hotel.MenuItemDTO;
+import com.vijay.User_Master.event.hotel.MenuChangedEvent;
+import com.vijay.User_Master.repository.hotel.MenuItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MenuCatalog - Pre-serialized guest menu per business
+ * A snapshot holds the available items as the exact JSON guests receive, with a hash of it as
+ * the ETag, so repeat requests are answered with 304 or the stored bytes.
+ * Snapshots are keyed by business and a generation; MenuChangedEvent bumps the generation after
+ * commit, so a snapshot built from pre-write rows is never served again. The TTL picks up
+ * counters written behind the menu (total orders).
+ * Each view carries the menu change log version it was built at, for delta sync from there.
+ */
+@Component
+@Slf4j
+public class MenuCatalog {
+
+    /**
+     * One serialized menu response - etag is a hash of the body, so equal menus share it across
+     * rebuilds and instances; version is where MenuChangeService.changesSince continues
+     */
+    public record View(long version, String etag, byte[] body) {}
+
+    /**
+     * Response shape of the guest menu endpoints
+     */
+    public record MenuPayload(List<MenuItemDTO> items, int count) {}
+
+    private record Key(Long businessId, long generation) {}
+
+    private record Snapshot(View menu, List<MenuItemDTO> items, Map<Long, View> categories) {}
+
+    private final MenuItemRepository menuItemRepository;
+    private final MenuChangeService menuChangeService;
+    private final MenuItemDTOMapper menuItemMapper;
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, Snapshot> snapshots;
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    // Bumped by changes of unknown business; added to every business's generation
+    private final AtomicLong allBusinessesGeneration = new AtomicLong();
+
+    public MenuCatalog(MenuItemRepository menuItemRepository,
+                       MenuChangeService menuChangeService,
+                       MenuItemDTOMapper menuItemMapper,
+                       ObjectMapper objectMapper,
+                       @Value("${hotel.menu-catalog.max-entries:1000}") long maxEntries,
+                       @Value("${hotel.menu-catalog.ttl-seconds:300}") long ttlSeconds) {
+        this.menuItemRepository = menuItemRepository;
+        this.menuChangeService = menuChangeService;
+        this.menuItemMapper = menuItemMapper;
+        this.objectMapper = objectMapper;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Available items of the business, built once per generation
+     */
+    public View menu(Long businessId) {
+        return snapshot(businessId).menu();
+    }
+
+    /**
+     * Available items of one category - cut from the business snapshot, no extra query
+     */
+    public View category(Long businessId, Long categoryId) {
+        Snapshot snapshot = snapshot(businessId);
+        List<MenuItemDTO> items = snapshot.items().stream()
+                .filter(item -> categoryId.equals(item.getCategoryId()))
+                .toList();
+        if (items.isEmpty()) {
+            // Not kept - guests can ask for any id
+            return render(snapshot.menu().version(), items);
+        }
+        return snapshot.categories().computeIfAbsent(categoryId, id -> render(snapshot.menu().version(), items));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.getBusinessId() == null) {
+            allBusinessesGeneration.incrementAndGet();
+        } else {
+            generationOf(event.getBusinessId()).incrementAndGet();
+        }
+        log.debug("Menu changed for business {}", event.getBusinessId());
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private Snapshot snapshot(Long businessId) {
+        // Generation read before the load: a write committing meanwhile moves readers to a new key
+        long generation = generationOf(businessId).get() + allBusinessesGeneration.get();
+        return snapshots.get(new Key(businessId, generation), key -> build(businessId));
+    }
+
+    private Snapshot build(Long businessId) {
+        // Version read before the items: changes committed meanwhile are replayed on top, never lost
+        long version = menuChangeService.currentVersion(businessId);
+        List<MenuItemDTO> items = menuItemRepository.findAvailableWithCategory(businessId).stream()
+                .map(menuItemMapper::toDTO)
+                .toList();
+        log.debug("Built menu snapshot v{} for business {}: {} items", version, businessId, items.size());
+        return new Snapshot(render(version, items), items, new ConcurrentHashMap<>());
+    }
+
+    private View render(long version, List<MenuItemDTO> items) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(new MenuPayload(items, items.size()));
+            return new View(version, DigestUtils.md5DigestAsHex(body), body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize menu", e);
+        }
+    }
+
+    private AtomicLong generationOf(Long businessId) {
+        return generations.computeIfAbsent(businessId, id -> new AtomicLong());
+    }
+}
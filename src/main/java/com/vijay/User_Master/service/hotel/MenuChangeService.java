@@ -0,0 +1,236 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.dto.hotel.CategoryDTO;
+import com.vijay.User_Master.dto.hotel.MenuChangesDTO;
+import com.vijay.User_Master.dto.hotel.MenuItemDTO;
+import com.vijay.User_Master.entity.hotel.MenuChange;
+import com.vijay.User_Master.event.hotel.MenuChangedEvent;
+import com.vijay.User_Master.repository.hotel.MenuChangeRepository;
+import com.vijay.User_Master.repository.hotel.MenuVersionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MenuChangeService - Change log behind delta menu sync
+ * Category and menu item writes are recorded in the writing transaction under the next version
+ * of their business. The version row stays locked until that transaction ends, so a business's
+ * versions commit in order and no sync can move past a change that is still uncommitted.
+ * Clients holding a version replay changesSince instead of re-downloading the menu, and each
+ * delta is pushed to /topic/business/{id}/menu once its write commits.
+ */
+@Service
+@Lazy(false)
+@Slf4j
+public class MenuChangeService {
+
+    private record Entity(MenuChange.EntityType type, Long id) {}
+
+    private final MenuChangeRepository changeRepository;
+    private final MenuVersionRepository versionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxChanges;
+    private final long retentionDays;
+
+    public MenuChangeService(MenuChangeRepository changeRepository,
+                             MenuVersionRepository versionRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             SimpMessagingTemplate messagingTemplate,
+                             ObjectMapper objectMapper,
+                             @Value("${hotel.menu-changes.max-changes:500}") int maxChanges,
+                             @Value("${hotel.menu-changes.retention-days:7}") long retentionDays) {
+        this.changeRepository = changeRepository;
+        this.versionRepository = versionRepository;
+        this.eventPublisher = eventPublisher;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.maxChanges = maxChanges;
+        this.retentionDays = retentionDays;
+    }
+
+    // ==================== RECORDING ====================
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void menuItemChanged(Long businessId, MenuItemDTO item) {
+        record(businessId, MenuChange.EntityType.MENU_ITEM, item.getId(), item);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void menuItemDeleted(Long businessId, Long menuItemId) {
+        record(businessId, MenuChange.EntityType.MENU_ITEM, menuItemId, null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void categoryChanged(Long businessId, CategoryDTO category) {
+        record(businessId, MenuChange.EntityType.CATEGORY, category.getId(), category);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void categoryDeleted(Long businessId, Long categoryId) {
+        record(businessId, MenuChange.EntityType.CATEGORY, categoryId, null);
+    }
+
+    // ==================== READING ====================
+
+    /**
+     * Latest menu version of the business - read before loading a full menu, so later changes
+     * replay on top of it. Versions are per business: the admin (null) view is always 0
+     */
+    public long currentVersion(Long businessId) {
+        Long latest = businessId != null ? versionRepository.findVersion(businessId) : null;
+        return latest != null ? latest : 0L;
+    }
+
+    /**
+     * Rows of the business changed after the client's version, latest state per row
+     * businessId null is the admin (all businesses) view, which has no version to continue from
+     */
+    @Transactional(readOnly = true)
+    public MenuChangesDTO changesSince(Long businessId, Long since) {
+        // Read first: anything committed up to here is in the query below
+        long current = currentVersion(businessId);
+        if (since == null || since <= 0 || since > current) {
+            return fullReload(current);
+        }
+        Long oldest = changeRepository.findOldestVersion(businessId);
+        if (oldest != null && oldest > since + 1) {
+            // Changes after the client's version may have been purged
+            return fullReload(current);
+        }
+
+        List<MenuChange> changes = changeRepository.findChangesSince(businessId, since, PageRequest.of(0, maxChanges + 1));
+        if (changes.size() > maxChanges) {
+            return fullReload(current);
+        }
+        return toDelta(changes, current);
+    }
+
+    // ==================== PUSH ====================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.getBusinessId() == null || event.getChanges() == null) {
+            return;
+        }
+        messagingTemplate.convertAndSend(destination(event.getBusinessId()), event.getChanges());
+    }
+
+    public static String destination(Long businessId) {
+        return "/topic/business/" + businessId + "/menu";
+    }
+
+    // ==================== SCHEDULED JOBS ====================
+
+    @Scheduled(fixedDelayString = "${hotel.menu-changes.purge-ms:3600000}")
+    public void purgeOld() {
+        int deleted = changeRepository.deleteCreatedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Purged {} menu changes", deleted);
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private void record(Long businessId, MenuChange.EntityType type, Long entityId, Object row) {
+        if (businessId == null) {
+            // No business's menu to version - listeners refresh every business instead
+            eventPublisher.publishEvent(new MenuChangedEvent(null, null));
+            return;
+        }
+        versionRepository.increment(businessId);
+        long version = versionRepository.findVersion(businessId);
+        MenuChange change = changeRepository.save(MenuChange.builder()
+                .businessId(businessId)
+                .version(version)
+                .entityType(type)
+                .entityId(entityId)
+                .action(row != null ? MenuChange.Action.UPSERT : MenuChange.Action.DELETE)
+                .payload(row != null ? toJson(row) : null)
+                .createdAt(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new MenuChangedEvent(businessId, toDelta(List.of(change), version)));
+    }
+
+    /**
+     * Collapses the changes to the last one per row, in change order
+     */
+    private MenuChangesDTO toDelta(List<MenuChange> changes, long version) {
+        Map<Entity, MenuChange> latest = new LinkedHashMap<>();
+        for (MenuChange change : changes) {
+            Entity entity = new Entity(change.getEntityType(), change.getEntityId());
+            latest.remove(entity);
+            latest.put(entity, change);
+        }
+
+        List<MenuItemDTO> items = new ArrayList<>();
+        List<CategoryDTO> categories = new ArrayList<>();
+        List<Long> deletedItemIds = new ArrayList<>();
+        List<Long> deletedCategoryIds = new ArrayList<>();
+        for (MenuChange change : latest.values()) {
+            boolean deleted = change.getAction() == MenuChange.Action.DELETE;
+            if (change.getEntityType() == MenuChange.EntityType.MENU_ITEM) {
+                if (deleted) {
+                    deletedItemIds.add(change.getEntityId());
+                } else {
+                    items.add(fromJson(change.getPayload(), MenuItemDTO.class));
+                }
+            } else if (deleted) {
+                deletedCategoryIds.add(change.getEntityId());
+            } else {
+                categories.add(fromJson(change.getPayload(), CategoryDTO.class));
+            }
+        }
+        return MenuChangesDTO.builder()
+                .version(version)
+                .items(items)
+                .categories(categories)
+                .deletedItemIds(deletedItemIds)
+                .deletedCategoryIds(deletedCategoryIds)
+                .build();
+    }
+
+    private MenuChangesDTO fullReload(long version) {
+        return MenuChangesDTO.builder()
+                .version(version)
+                .fullReload(true)
+                .items(List.of())
+                .categories(List.of())
+                .deletedItemIds(List.of())
+                .deletedCategoryIds(List.of())
+                .build();
+    }
+
+    private String toJson(Object row) {
+        try {
+            return objectMapper.writeValueAsString(row);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize menu change", e);
+        }
+    }
+
+    private <T> T fromJson(String payload, Class<T> type) {
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read menu change", e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.dto.hotel.MenuFilterRequest;
+import com.vijay.User_Master.dto.hotel.MenuItemDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * MenuColumns - Immutable columnar view of one business's available menu items
+ * Items get positions 0..n-1. Each flag and each category is a bitset over the positions, and each
+ * numeric attribute is a column sorted by value, so a range is two binary searches. A filter is
+ * the intersection of its bitsets; matches are read off a precomputed order for each sort.
+ */
+public final class MenuColumns {
+
+    private static final Comparator<MenuItemDTO> POPULARITY = Comparator
+            .comparing((MenuItemDTO item) -> item.getTotalOrders() != null ? item.getTotalOrders() : 0, Comparator.reverseOrder())
+            .thenComparing(item -> item.getRating() != null ? item.getRating() : BigDecimal.ZERO, Comparator.reverseOrder())
+            .thenComparing(MenuItemDTO::getId);
+    private static final Comparator<MenuItemDTO> RATING = Comparator
+            .comparing((MenuItemDTO item) -> item.getRating() != null ? item.getRating() : BigDecimal.ZERO, Comparator.reverseOrder())
+            .thenComparing(POPULARITY);
+    private static final Comparator<MenuItemDTO> PRICE_ASC = Comparator
+            .comparing(MenuItemDTO::getPrice, Comparator.nullsLast(Comparator.<BigDecimal>naturalOrder()))
+            .thenComparing(POPULARITY);
+    private static final Comparator<MenuItemDTO> PRICE_DESC = Comparator
+            .comparing(MenuItemDTO::getPrice, Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder()))
+            .thenComparing(POPULARITY);
+
+    /**
+     * Values of one attribute in ascending order, with the position each came from
+     * Items without a value are left out, so they never match a range
+     */
+    private record NumericColumn(long[] values, int[] positions) {
+
+        static NumericColumn of(MenuItemDTO[] items, Function<MenuItemDTO, Long> attribute) {
+            int[] positions = IntStream.range(0, items.length)
+                    .filter(position -> attribute.apply(items[position]) != null)
+                    .boxed()
+                    .sorted(Comparator.comparing(position -> attribute.apply(items[position])))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            long[] values = new long[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                values[i] = attribute.apply(items[positions[i]]);
+            }
+            return new NumericColumn(values, positions);
+        }
+
+        /**
+         * Positions with min <= value <= max; a null bound is open
+         */
+        BitSet range(Long min, Long max) {
+            int from = min != null ? firstAtLeast(min) : 0;
+            int to = max != null ? firstAtLeast(max + 1) : values.length;
+            BitSet bits = new BitSet();
+            for (int i = from; i < to; i++) {
+                bits.set(positions[i]);
+            }
+            return bits;
+        }
+
+        private int firstAtLeast(long value) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private final MenuItemDTO[] items;
+    private final BitSet vegetarian;
+    private final BitSet vegan;
+    private final BitSet spicy;
+    private final BitSet featured;
+    private final Map<Long, BitSet> categories = new HashMap<>();
+    private final NumericColumn priceCents;
+    private final NumericColumn preparationTime;
+    private final NumericColumn calories;
+    private final Map<MenuFilterRequest.SortBy, int[]> orders = new EnumMap<>(MenuFilterRequest.SortBy.class);
+
+    private MenuColumns(MenuItemDTO[] items) {
+        this.items = items;
+        this.vegetarian = flag(MenuItemDTO::getIsVegetarian);
+        this.vegan = flag(MenuItemDTO::getIsVegan);
+        this.spicy = flag(MenuItemDTO::getIsSpicy);
+        this.featured = flag(MenuItemDTO::getIsFeatured);
+        for (int position = 0; position < items.length; position++) {
+            categories.computeIfAbsent(items[position].getCategoryId(), id -> new BitSet()).set(position);
+        }
+        this.priceCents = NumericColumn.of(items, item -> item.getPrice() != null ? cents(item.getPrice(), RoundingMode.HALF_UP) : null);
+        this.preparationTime = NumericColumn.of(items, item -> toLong(item.getPreparationTime()));
+        this.calories = NumericColumn.of(items, item -> toLong(item.getCalories()));
+        orders.put(MenuFilterRequest.SortBy.POPULARITY, order(POPULARITY));
+        orders.put(MenuFilterRequest.SortBy.RATING, order(RATING));
+        orders.put(MenuFilterRequest.SortBy.PRICE_ASC, order(PRICE_ASC));
+        orders.put(MenuFilterRequest.SortBy.PRICE_DESC, order(PRICE_DESC));
+    }
+
+    public static MenuColumns of(Collection<MenuItemDTO> items) {
+        return new MenuColumns(items.toArray(MenuItemDTO[]::new));
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * One page of the items matching every filter, in the requested order
+     */
+    public Page<MenuItemDTO> filter(MenuFilterRequest filter, Pageable pageable) {
+        BitSet matches = matching(filter);
+        int[] order = orders.get(filter.getSortBy() != null ? filter.getSortBy() : MenuFilterRequest.SortBy.POPULARITY);
+        long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+
+        List<MenuItemDTO> page = new ArrayList<>(Math.min(limit, matches.cardinality()));
+        for (int i = 0; i < order.length && page.size() < limit; i++) {
+            if (matches.get(order[i]) && skip-- <= 0) {
+                page.add(items[order[i]]);
+            }
+        }
+        return new PageImpl<>(page, pageable, matches.cardinality());
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private BitSet matching(MenuFilterRequest filter) {
+        BitSet bits = new BitSet(items.length);
+        bits.set(0, items.length);
+        require(bits, vegetarian, filter.getVegetarian());
+        require(bits, vegan, filter.getVegan());
+        require(bits, spicy, filter.getSpicy());
+        require(bits, featured, filter.getFeatured());
+
+        if (filter.getCategoryIds() != null && !filter.getCategoryIds().isEmpty()) {
+            BitSet anyCategory = new BitSet(items.length);
+            filter.getCategoryIds().forEach(id -> {
+                BitSet category = categories.get(id);
+                if (category != null) {
+                    anyCategory.or(category);
+                }
+            });
+            bits.and(anyCategory);
+        }
+
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+            bits.and(priceCents.range(
+                    filter.getMinPrice() != null ? cents(filter.getMinPrice(), RoundingMode.CEILING) : null,
+                    filter.getMaxPrice() != null ? cents(filter.getMaxPrice(), RoundingMode.FLOOR) : null));
+        }
+        if (filter.getMaxPreparationTime() != null) {
+            bits.and(preparationTime.range(null, toLong(filter.getMaxPreparationTime())));
+        }
+        if (filter.getMinCalories() != null || filter.getMaxCalories() != null) {
+            bits.and(calories.range(toLong(filter.getMinCalories()), toLong(filter.getMaxCalories())));
+        }
+        return bits;
+    }
+
+    /**
+     * Keeps the positions with the flag set (required true) or clear (required false)
+     */
+    private static void require(BitSet bits, BitSet flag, Boolean required) {
+        if (Boolean.TRUE.equals(required)) {
+            bits.and(flag);
+        } else if (Boolean.FALSE.equals(required)) {
+            bits.andNot(flag);
+        }
+    }
+
+    private BitSet flag(Function<MenuItemDTO, Boolean> attribute) {
+        BitSet bits = new BitSet(items.length);
+        for (int position = 0; position < items.length; position++) {
+            bits.set(position, Boolean.TRUE.equals(attribute.apply(items[position])));
+        }
+        return bits;
+    }
+
+    private int[] order(Comparator<MenuItemDTO> comparator) {
+        return IntStream.range(0, items.length)
+                .boxed()
+                .sorted(Comparator.comparing(position -> items[position], comparator))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static long cents(BigDecimal amount, RoundingMode rounding) {
+        return amount.movePointRight(2).setScale(0, rounding).longValueExact();
+    }
+
+    private static Long toLong(Integer value) {
+        return value != null ? value.longValue() : null;
+    }
+}
@@ -0,0 +1,34 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.dto.hotel.MenuItemDTO;
+import com.vijay.User_Master.entity.hotel.MenuItem;
+import org.springframework.stereotype.Component;
+
+/**
+ * MenuItemDTOMapper - Maps menu items to the DTO served by the menu, catalog and search endpoints
+ * Reads the item's category, so load items with their category (JOIN FETCH) or inside a transaction.
+ */
+@Component
+public class MenuItemDTOMapper {
+
+    public MenuItemDTO toDTO(MenuItem menuItem) {
+        return MenuItemDTO.builder()
+                .id(menuItem.getId())
+                .categoryId(menuItem.getCategory().getId())
+                .categoryName(menuItem.getCategory().getName())
+                .name(menuItem.getName())
+                .description(menuItem.getDescription())
+                .price(menuItem.getPrice())
+                .imageUrl(menuItem.getImageUrl())
+                .isVegetarian(menuItem.getIsVegetarian())
+                .isVegan(menuItem.getIsVegan())
+                .isSpicy(menuItem.getIsSpicy())
+                .preparationTime(menuItem.getPreparationTime())
+                .calories(menuItem.getCalories())
+                .isAvailable(menuItem.getIsAvailable())
+                .isFeatured(menuItem.getIsFeatured())
+                .rating(menuItem.getRating())
+                .totalOrders(menuItem.getTotalOrders())
+                .build();
+    }
+}
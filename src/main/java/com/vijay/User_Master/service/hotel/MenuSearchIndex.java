@@ -0,0 +1,342 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.dto.hotel.CategoryDTO;
+import com.vijay.User_Master.dto.hotel.MenuChangesDTO;
+import com.vijay.User_Master.dto.hotel.MenuFilterRequest;
+import com.vijay.User_Master.dto.hotel.MenuItemDTO;
+import com.vijay.User_Master.event.hotel.MenuChangedEvent;
+import com.vijay.User_Master.repository.hotel.MenuItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * MenuSearchIndex - In-memory inverted index over each business's available menu items
+ * Names, category names and descriptions are tokenized into a sorted term dictionary, so exact,
+ * prefix and (when those find nothing) typo matches are map lookups instead of LIKE scans.
+ * Every query term must match; results rank by where the terms matched, then total orders and rating.
+ * A business is loaded on its first search and then kept current from the menu change deltas,
+ * applied after commit. Changes without a delta (ratings) drop the business, and changes made by
+ * other instances or the write-behind order counters are picked up by a reload after max-age.
+ * Attribute filters run on a {@link MenuColumns} built from the same items, rebuilt on the first
+ * filter after any change.
+ */
+@Component
+@Slf4j
+public class MenuSearchIndex {
+
+    // Field weights - a hit in the name outranks one in the category, which outranks the description
+    private static final int NAME = 3;
+    private static final int CATEGORY = 2;
+    private static final int DESCRIPTION = 1;
+    // Match weights
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int TYPO = 1;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_TYPO_LENGTH = 4;       // One edit from here
+    private static final int TWO_TYPOS_LENGTH = 8;      // Two edits from here
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Comparator<Scored> RANKING = Comparator.comparingInt(Scored::score).reversed()
+            .thenComparing(scored -> orZero(scored.item().getTotalOrders()), Comparator.reverseOrder())
+            .thenComparing(scored -> scored.item().getRating() != null ? scored.item().getRating() : BigDecimal.ZERO, Comparator.reverseOrder())
+            .thenComparing(scored -> scored.item().getName(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(scored -> scored.item().getId());
+
+    private record Scored(MenuItemDTO item, int score) {}
+
+    private record Columns(long modification, MenuColumns columns) {}
+
+    private static final class BusinessIndex {
+        final Map<Long, MenuItemDTO> items = new ConcurrentHashMap<>();
+        // Term -> item id -> weight of the best field it occurs in
+        final ConcurrentNavigableMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+        final long loadedAtMillis = System.currentTimeMillis();
+        // Bumped after every add and remove, so columns built before it are stale
+        final AtomicLong modifications = new AtomicLong();
+        volatile Columns columns;
+    }
+
+    private final MenuItemRepository menuItemRepository;
+    private final MenuItemDTOMapper menuItemMapper;
+    private final long maxAgeMillis;
+    private final ConcurrentHashMap<Long, BusinessIndex> businesses = new ConcurrentHashMap<>();
+    // Only written inside businesses.compute for the same key
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong allBusinessesVersion = new AtomicLong();
+
+    public MenuSearchIndex(MenuItemRepository menuItemRepository,
+                           MenuItemDTOMapper menuItemMapper,
+                           @Value("${hotel.menu-search.max-age-ms:300000}") long maxAgeMillis) {
+        this.menuItemRepository = menuItemRepository;
+        this.menuItemMapper = menuItemMapper;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * One page of the ranked matches - the pageable's sort is ignored, results are in relevance order
+     */
+    public Page<MenuItemDTO> search(Long businessId, String keyword, Pageable pageable) {
+        List<MenuItemDTO> ranked = search(businessId, keyword);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(ranked, pageable, ranked.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        return new PageImpl<>(ranked.subList(from, to), pageable, ranked.size());
+    }
+
+    /**
+     * Available items matching every term of the keyword, best first; a blank keyword matches all
+     */
+    public List<MenuItemDTO> search(Long businessId, String keyword) {
+        BusinessIndex index = indexOf(businessId);
+        Map<Long, Integer> scores = null;
+        for (String token : tokenize(keyword)) {
+            Map<Long, Integer> matches = match(index, token);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((id, score) -> score + matches.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Scored> results = new ArrayList<>();
+        if (scores == null) {
+            index.items.values().forEach(item -> results.add(new Scored(item, 0)));
+        } else {
+            scores.forEach((id, score) -> {
+                MenuItemDTO item = index.items.get(id);
+                if (item != null) {
+                    results.add(new Scored(item, score));
+                }
+            });
+        }
+        results.sort(RANKING);
+        return results.stream().map(Scored::item).toList();
+    }
+
+    /**
+     * One page of the available items matching every attribute filter, in the filter's sort order
+     */
+    public Page<MenuItemDTO> filter(Long businessId, MenuFilterRequest filter, Pageable pageable) {
+        return columnsOf(indexOf(businessId)).filter(filter, pageable);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.getBusinessId() == null) {
+            allBusinessesVersion.incrementAndGet();
+            businesses.clear();
+            return;
+        }
+        businesses.compute(event.getBusinessId(), (id, index) -> {
+            versions.merge(id, 1L, Long::sum);
+            if (index == null || event.getChanges() == null) {
+                return null; // Reloaded by the next search
+            }
+            apply(index, event.getChanges());
+            return index;
+        });
+    }
+
+    // ==================== INDEXING ====================
+
+    private BusinessIndex indexOf(Long businessId) {
+        BusinessIndex loaded = businesses.get(businessId);
+        if (loaded != null && !isExpired(loaded)) {
+            return loaded;
+        }
+
+        long version = versionOf(businessId);
+        BusinessIndex fresh = new BusinessIndex();
+        menuItemRepository.findAvailableWithCategory(businessId)
+                .forEach(menuItem -> add(fresh, menuItemMapper.toDTO(menuItem)));
+        BusinessIndex installed = businesses.compute(businessId, (id, current) -> {
+            if (current != null && !isExpired(current)) {
+                return current;
+            }
+            if (versionOf(id) != version) {
+                return null; // Changed while loading - served once, the next search loads again
+            }
+            return fresh;
+        });
+        log.debug("Indexed {} menu items for business {}", fresh.items.size(), businessId);
+        return installed != null ? installed : fresh;
+    }
+
+    private static MenuColumns columnsOf(BusinessIndex index) {
+        long modification = index.modifications.get();
+        Columns built = index.columns;
+        if (built == null || built.modification() != modification) {
+            // Read before the items, so a change racing the build leaves these stale rather than lost
+            built = new Columns(modification, MenuColumns.of(index.items.values()));
+            index.columns = built;
+        }
+        return built.columns();
+    }
+
+    private void apply(BusinessIndex index, MenuChangesDTO changes) {
+        changes.getDeletedItemIds().forEach(id -> remove(index, id));
+        changes.getDeletedCategoryIds().forEach(categoryId -> itemsOfCategory(index, categoryId)
+                .forEach(item -> remove(index, item.getId())));
+        for (MenuItemDTO item : changes.getItems()) {
+            remove(index, item.getId());
+            if (Boolean.TRUE.equals(item.getIsAvailable())) {
+                add(index, item);
+            }
+        }
+        // A renamed category re-indexes its items under the new name
+        for (CategoryDTO category : changes.getCategories()) {
+            for (MenuItemDTO item : itemsOfCategory(index, category.getId())) {
+                remove(index, item.getId());
+                add(index, item.toBuilder().categoryName(category.getName()).build());
+            }
+        }
+    }
+
+    private void add(BusinessIndex index, MenuItemDTO item) {
+        index.items.put(item.getId(), item);
+        fieldTerms(item).forEach((term, weight) ->
+                index.postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).merge(item.getId(), weight, Math::max));
+        index.modifications.incrementAndGet();
+    }
+
+    private void remove(BusinessIndex index, Long itemId) {
+        MenuItemDTO item = index.items.remove(itemId);
+        if (item == null) {
+            return;
+        }
+        fieldTerms(item).keySet().forEach(term -> index.postings.computeIfPresent(term, (t, posting) -> {
+            posting.remove(itemId);
+            return posting.isEmpty() ? null : posting;
+        }));
+        index.modifications.incrementAndGet();
+    }
+
+    private static List<MenuItemDTO> itemsOfCategory(BusinessIndex index, Long categoryId) {
+        return index.items.values().stream()
+                .filter(item -> Objects.equals(categoryId, item.getCategoryId()))
+                .toList();
+    }
+
+    /**
+     * Terms of the item with the weight of the best field each occurs in
+     */
+    private static Map<String, Integer> fieldTerms(MenuItemDTO item) {
+        Map<String, Integer> terms = new HashMap<>();
+        tokenize(item.getDescription()).forEach(term -> terms.merge(term, DESCRIPTION, Math::max));
+        tokenize(item.getCategoryName()).forEach(term -> terms.merge(term, CATEGORY, Math::max));
+        tokenize(item.getName()).forEach(term -> terms.merge(term, NAME, Math::max));
+        return terms;
+    }
+
+    // ==================== MATCHING ====================
+
+    /**
+     * Items matching one query term, scored by match kind times field weight
+     */
+    private static Map<Long, Integer> match(BusinessIndex index, String token) {
+        Map<Long, Integer> matches = new HashMap<>();
+        collect(matches, index.postings.get(token), EXACT);
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            index.postings.subMap(token, false, token + Character.MAX_VALUE, false)
+                    .values().forEach(posting -> collect(matches, posting, PREFIX));
+        }
+        if (matches.isEmpty() && token.length() >= MIN_TYPO_LENGTH) {
+            int maxEdits = token.length() >= TWO_TYPOS_LENGTH ? 2 : 1;
+            index.postings.forEach((term, posting) -> {
+                if (Math.abs(term.length() - token.length()) <= maxEdits && withinEdits(token, term, maxEdits)) {
+                    collect(matches, posting, TYPO);
+                }
+            });
+        }
+        return matches;
+    }
+
+    private static void collect(Map<Long, Integer> matches, Map<Long, Integer> posting, int matchWeight) {
+        if (posting != null) {
+            posting.forEach((id, fieldWeight) -> matches.merge(id, matchWeight * fieldWeight, Math::max));
+        }
+    }
+
+    /**
+     * Edit distance (insert, delete, substitute, swap adjacent) of at most maxEdits
+     */
+    static boolean withinEdits(String a, String b, int maxEdits) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    /**
+     * Lower-cased words without accents, so "Crème Brûlée" matches "creme brulee"
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return Arrays.stream(NON_WORD.split(folded.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private long versionOf(Long businessId) {
+        return versions.getOrDefault(businessId, 0L) + allBusinessesVersion.get();
+    }
+
+    private boolean isExpired(BusinessIndex index) {
+        return maxAgeMillis > 0 && System.currentTimeMillis() - index.loadedAtMillis > maxAgeMillis;
+    }
+
+    private static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+}
@@ -2,9 +2,12 @@ package com.vijay.User_Master.service.hotel;
 
 import com.vijay.User_Master.Helper.BusinessContextFilter;
 import com.vijay.User_Master.dto.hotel.CategoryDTO;
+import com.vijay.User_Master.dto.hotel.MenuChangesDTO;
+import com.vijay.User_Master.dto.hotel.MenuFilterRequest;
 import com.vijay.User_Master.dto.hotel.MenuItemDTO;
 import com.vijay.User_Master.entity.hotel.Category;
 import com.vijay.User_Master.entity.hotel.MenuItem;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
 import com.vijay.User_Master.repository.hotel.CategoryRepository;
 import com.vijay.User_Master.repository.hotel.MenuItemRepository;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +28,9 @@ public class MenuService {
     private final CategoryRepository categoryRepository;
     private final MenuItemRepository menuItemRepository;
     private final BusinessContextFilter businessContext;
+    private final MenuChangeService menuChangeService;
+    private final MenuSearchIndex menuSearchIndex;
+    private final MenuItemDTOMapper menuItemMapper;
     
     // ==================== CATEGORY OPERATIONS ====================
     
@@ -44,7 +50,9 @@ public class MenuService {
                 .build();
         
         category = categoryRepository.save(category);
-        return mapToCategoryDTO(category);
+        CategoryDTO saved = mapToCategoryDTO(category);
+        menuChangeService.categoryChanged(category.getBusinessId(), saved);
+        return saved;
     }
     
     @Transactional
@@ -60,7 +68,9 @@ public class MenuService {
         category.setIsActive(dto.getIsActive());
         
         category = categoryRepository.save(category);
-        return mapToCategoryDTO(category);
+        CategoryDTO saved = mapToCategoryDTO(category);
+        menuChangeService.categoryChanged(category.getBusinessId(), saved);
+        return saved;
     }
     
     public List<CategoryDTO> getAllCategories() {
@@ -104,7 +114,10 @@ public class MenuService {
     @Transactional
     public void deleteCategory(Long id) {
         log.info("Deleting category: {}", id);
-        categoryRepository.deleteById(id);
+        categoryRepository.findById(id).ifPresent(category -> {
+            categoryRepository.delete(category);
+            menuChangeService.categoryDeleted(category.getBusinessId(), id);
+        });
     }
     
     // ==================== MENU ITEM OPERATIONS ====================
@@ -134,8 +147,7 @@ public class MenuService {
                 .isFeatured(dto.getIsFeatured() != null ? dto.getIsFeatured() : false)
                 .build();
         
-        menuItem = menuItemRepository.save(menuItem);
-        return mapToMenuItemDTO(menuItem);
+        return saveMenuItem(menuItem);
     }
     
     @Transactional
@@ -162,39 +174,40 @@ public class MenuService {
         menuItem.setIsAvailable(dto.getIsAvailable());
         menuItem.setIsFeatured(dto.getIsFeatured());
         
-        menuItem = menuItemRepository.save(menuItem);
-        return mapToMenuItemDTO(menuItem);
+        return saveMenuItem(menuItem);
     }
     
+    @Transactional(readOnly = true)
     public List<MenuItemDTO> getAllMenuItems() {
         Long businessId = businessContext.getCurrentBusinessId();
         
         if (businessId == null) {
             // Admin sees all
             return menuItemRepository.findByIsAvailableTrue().stream()
-                    .map(this::mapToMenuItemDTO)
+                    .map(menuItemMapper::toDTO)
                     .collect(Collectors.toList());
         }
         
         // Owner/Worker sees only their business
         return menuItemRepository.findByBusinessIdAndIsAvailableTrue(businessId).stream()
-                .map(this::mapToMenuItemDTO)
+                .map(menuItemMapper::toDTO)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<MenuItemDTO> getMenuItemsByCategory(Long categoryId) {
         Long businessId = businessContext.getCurrentBusinessId();
         
         if (businessId == null) {
             // Admin sees all
             return menuItemRepository.findByCategoryIdAndIsAvailableTrue(categoryId).stream()
-                    .map(this::mapToMenuItemDTO)
+                    .map(menuItemMapper::toDTO)
                     .collect(Collectors.toList());
         }
         
         // Owner/Worker sees only their business
         return menuItemRepository.findByBusinessIdAndCategoryIdAndIsAvailableTrue(businessId, categoryId).stream()
-                .map(this::mapToMenuItemDTO)
+                .map(menuItemMapper::toDTO)
                 .collect(Collectors.toList());
     }
     
@@ -204,27 +217,57 @@ public class MenuService {
         if (businessId == null) {
             // Admin sees all
             return menuItemRepository.findByIsFeaturedTrueAndIsAvailableTrue().stream()
-                    .map(this::mapToMenuItemDTO)
+                    .map(menuItemMapper::toDTO)
                     .collect(Collectors.toList());
         }
         
         // Owner/Worker sees only their business
-        return menuItemRepository.findByBusinessIdAndIsFeaturedTrueAndIsAvailableTrue(businessId).stream()
-                .map(this::mapToMenuItemDTO)
-                .collect(Collectors.toList());
+        return menuSearchIndex.filter(businessId, MenuFilterRequest.builder().featured(true).build(), Pageable.unpaged())
+                .getContent();
     }
     
     public List<MenuItemDTO> getVegetarianMenuItems() {
-        return menuItemRepository.findByIsVegetarianTrueAndIsAvailableTrue().stream()
-                .map(this::mapToMenuItemDTO)
-                .collect(Collectors.toList());
+        Long businessId = businessContext.getCurrentBusinessId();
+        
+        if (businessId == null) {
+            // Admin sees all
+            return menuItemRepository.findByIsVegetarianTrueAndIsAvailableTrue().stream()
+                    .map(menuItemMapper::toDTO)
+                    .collect(Collectors.toList());
+        }
+        
+        // Owner/Worker sees only their business
+        return menuSearchIndex.filter(businessId, MenuFilterRequest.builder().vegetarian(true).build(), Pageable.unpaged())
+                .getContent();
     }
     
+    /**
+     * Available items matching every attribute filter - bitset intersections on the in-memory menu
+     */
+    public Page<MenuItemDTO> filterMenuItems(MenuFilterRequest filter, Pageable pageable) {
+        Long businessId = businessContext.getCurrentBusinessId();
+        if (businessId == null) {
+            throw new BadApiRequestException("Menu filters are per business");
+        }
+        return menuSearchIndex.filter(businessId, filter, pageable);
+    }
+    
+    /**
+     * Owner/Worker searches run on the in-memory index - no transaction, no query once loaded
+     */
     public Page<MenuItemDTO> searchMenuItems(String keyword, Pageable pageable) {
-        return menuItemRepository.searchMenuItems(keyword, pageable)
-                .map(this::mapToMenuItemDTO);
+        Long businessId = businessContext.getCurrentBusinessId();
+        
+        if (businessId == null) {
+            // Admin searches all businesses in the database
+            return menuItemRepository.searchMenuItems(keyword, pageable)
+                    .map(menuItemMapper::toDTO);
+        }
+        
+        return menuSearchIndex.search(businessId, keyword, pageable);
     }
     
+    @Transactional(readOnly = true)
     public MenuItemDTO getMenuItemById(Long id) {
         MenuItem menuItem = menuItemRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Menu item not found with id: " + id));
@@ -232,13 +275,60 @@ public class MenuService {
         // Validate business access
         businessContext.validateBusinessAccess(menuItem.getBusinessId());
         
-        return mapToMenuItemDTO(menuItem);
+        return menuItemMapper.toDTO(menuItem);
     }
     
     @Transactional
     public void deleteMenuItem(Long id) {
         log.info("Deleting menu item: {}", id);
-        menuItemRepository.deleteById(id);
+        menuItemRepository.findById(id).ifPresent(menuItem -> {
+            menuItemRepository.delete(menuItem);
+            menuChangeService.menuItemDeleted(menuItem.getBusinessId(), id);
+        });
+    }
+    
+    /**
+     * Toggle availability (sold out / back on) - the cheapest change for synced menu clients
+     */
+    @Transactional
+    public MenuItemDTO setMenuItemAvailability(Long id, boolean available) {
+        log.info("Setting menu item {} available: {}", id, available);
+        MenuItem menuItem = menuItemRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Menu item not found with id: " + id));
+        
+        businessContext.validateBusinessAccess(menuItem.getBusinessId());
+        
+        menuItem.setIsAvailable(available);
+        return saveMenuItem(menuItem);
+    }
+    
+    // ==================== MENU SYNC ====================
+    
+    /**
+     * Current menu version - clients pass it to getMenuChanges on their next sync
+     */
+    public long getMenuVersion() {
+        return menuChangeService.currentVersion(businessContext.getCurrentBusinessId());
+    }
+    
+    /**
+     * Categories and menu items changed after the client's version
+     */
+    public MenuChangesDTO getMenuChanges(Long since) {
+        return menuChangeService.changesSince(businessContext.getCurrentBusinessId(), since);
+    }
+    
+    // ==================== HELPER METHODS ====================
+    
+    /**
+     * Saves and records the row in the menu change log - synced clients and the guest menu
+     * snapshot pick it up once the write commits
+     */
+    private MenuItemDTO saveMenuItem(MenuItem menuItem) {
+        menuItem = menuItemRepository.save(menuItem);
+        MenuItemDTO saved = menuItemMapper.toDTO(menuItem);
+        menuChangeService.menuItemChanged(menuItem.getBusinessId(), saved);
+        return saved;
     }
     
     // ==================== MAPPERS ====================
@@ -253,25 +343,4 @@ public class MenuService {
                 .isActive(category.getIsActive())
                 .build();
     }
-    
-    private MenuItemDTO mapToMenuItemDTO(MenuItem menuItem) {
-        return MenuItemDTO.builder()
-                .id(menuItem.getId())
-                .categoryId(menuItem.getCategory().getId())
-                .categoryName(menuItem.getCategory().getName())
-                .name(menuItem.getName())
-                .description(menuItem.getDescription())
-                .price(menuItem.getPrice())
-                .imageUrl(menuItem.getImageUrl())
-                .isVegetarian(menuItem.getIsVegetarian())
-                .isVegan(menuItem.getIsVegan())
-                .isSpicy(menuItem.getIsSpicy())
-                .preparationTime(menuItem.getPreparationTime())
-                .calories(menuItem.getCalories())
-                .isAvailable(menuItem.getIsAvailable())
-                .isFeatured(menuItem.getIsFeatured())
-                .rating(menuItem.getRating())
-                .totalOrders(menuItem.getTotalOrders())
-                .build();
-    }
 }
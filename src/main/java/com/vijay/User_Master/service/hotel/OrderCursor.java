@@ -0,0 +1,45 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * OrderCursor - Position in an order list sorted newest first by (createdAt, id)
+ * Encoded as an opaque token so clients cannot depend on (or forge meaning into) its contents.
+ */
+record OrderCursor(LocalDateTime createdAt, long id) {
+
+    // Sorts before every real order - the first page starts here
+    static final OrderCursor START = new OrderCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final String VERSION = "v1";
+
+    static OrderCursor after(Order order) {
+        return new OrderCursor(order.getCreatedAt(), order.getId());
+    }
+
+    static OrderCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new BadApiRequestException("Invalid cursor");
+            }
+            return new OrderCursor(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadApiRequestException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = VERSION + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,130 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.dto.hotel.OrderDTO;
+import com.vijay.User_Master.dto.hotel.OrderItemDTO;
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.entity.hotel.OrderItem;
+import com.vijay.User_Master.entity.hotel.RestaurantTable;
+import com.vijay.User_Master.repository.hotel.OrderItemRepository;
+import com.vijay.User_Master.repository.hotel.RestaurantTableRepository;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * OrderDTOMapper - Maps orders to DTOs with a fixed number of statements per batch
+ * The lines of every order (with their menu items) come from one IN query and the tables
+ * not yet loaded from another, so a page of orders costs two statements however long it is.
+ * Tables are looked up by id, so orders loaded outside a transaction map as well.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderDTOMapper {
+
+    private static final int MAX_IN_LIST = 500; // Longer lists are fetched in chunks
+
+    private final OrderItemRepository orderItemRepository;
+    private final RestaurantTableRepository tableRepository;
+
+    public OrderDTO toDTO(Order order) {
+        return toDTOs(List.of(order)).get(0);
+    }
+
+    /**
+     * Map an order whose lines are already at hand (just placed) - no statements
+     */
+    public OrderDTO toDTO(Order order, List<OrderItem> items) {
+        RestaurantTable table = order.getTable();
+        return toDTO(order, items, table != null && Hibernate.isInitialized(table) ? table.getTableNumber() : null);
+    }
+
+    public List<OrderDTO> toDTOs(List<Order> orders) {
+        List<OrderDTO> dtos = new ArrayList<>(orders.size());
+        for (int from = 0; from < orders.size(); from += MAX_IN_LIST) {
+            List<Order> chunk = orders.subList(from, Math.min(from + MAX_IN_LIST, orders.size()));
+            Map<Long, List<OrderItem>> itemsByOrder = orderItemRepository.findByOrderIdInWithMenuItem(
+                            chunk.stream().map(Order::getId).toList()).stream()
+                    .collect(Collectors.groupingBy(item -> item.getOrder().getId()));
+            Map<Long, String> tableNumbers = tableNumbers(chunk);
+
+            for (Order order : chunk) {
+                dtos.add(toDTO(order, itemsByOrder.getOrDefault(order.getId(), List.of()),
+                        order.getTable() != null ? tableNumbers.get(order.getTable().getId()) : null));
+            }
+        }
+        return dtos;
+    }
+
+    public Page<OrderDTO> toDTOs(Page<Order> page) {
+        return new PageImpl<>(toDTOs(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private Map<Long, String> tableNumbers(List<Order> orders) {
+        Map<Long, String> numbers = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Order order : orders) {
+            RestaurantTable table = order.getTable();
+            if (table == null) {
+                continue;
+            }
+            if (Hibernate.isInitialized(table)) {
+                numbers.put(table.getId(), table.getTableNumber());
+            } else {
+                missing.add(table.getId()); // Reading the id does not initialize the proxy
+            }
+        }
+        missing.removeAll(numbers.keySet());
+        if (!missing.isEmpty()) {
+            tableRepository.findAllById(missing).forEach(table -> numbers.put(table.getId(), table.getTableNumber()));
+        }
+        return numbers;
+    }
+
+    private OrderDTO toDTO(Order order, List<OrderItem> orderItems, String tableNumber) {
+        List<OrderItemDTO> items = orderItems.stream()
+                .map(this::toItemDTO)
+                .collect(Collectors.toList());
+
+        return OrderDTO.builder()
+                .id(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUserId())
+                .customerName(order.getCustomerName())
+                .customerPhone(order.getCustomerPhone())
+                .tableId(order.getTable() != null ? order.getTable().getId() : null)
+                .tableNumber(tableNumber)
+                .orderType(order.getOrderType().name())
+                .status(order.getStatus().name())
+                .items(items)
+                .subtotal(order.getSubtotal())
+                .tax(order.getTax())
+                .discount(order.getDiscount())
+                .totalAmount(order.getTotalAmount())
+                .specialInstructions(order.getSpecialInstructions())
+                .deliveryAddress(order.getDeliveryAddress())
+                .estimatedDeliveryTime(order.getEstimatedDeliveryTime())
+                .completedAt(order.getCompletedAt())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+
+    private OrderItemDTO toItemDTO(OrderItem item) {
+        return OrderItemDTO.builder()
+                .id(item.getId())
+                .menuItemId(item.getMenuItem().getId())
+                .menuItemName(item.getMenuItem().getName())
+                .quantity(item.getQuantity())
+                .unitPrice(item.getUnitPrice())
+                .totalPrice(item.getTotalPrice())
+                .specialInstructions(item.getSpecialInstructions())
+                .status(item.getStatus().name())
+                .build();
+    }
+}
@@ -0,0 +1,388 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.dto.form.EmailForm;
+import com.vijay.User_Master.entity.hotel.MenuItem;
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.entity.hotel.OrderItem;
+import com.vijay.User_Master.entity.hotel.OrderOutboxEvent;
+import com.vijay.User_Master.event.hotel.HotelDataChangedEvent;
+import com.vijay.User_Master.repository.hotel.OrderOutboxRepository;
+import com.vijay.User_Master.service.hotel.analytics.OrderRollupService;
+import com.vijay.User_Master.service.hotel.analytics.PopularItemsService;
+import com.vijay.User_Master.service.impl.EmailService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OrderOutboxService - Side effects of order placement, applied off the request path
+ * Placement only inserts outbox rows in its own transaction; after commit a dispatcher thread
+ * drains them in batches (a poll picks up anything left by a restart or another instance).
+ * Rollups are written and the event marked DONE in one transaction, so they apply once;
+ * popular items and the live dashboard follow that commit. Emails are sent at least once.
+ */
+@Service
+@Lazy(false)
+@Slf4j
+public class OrderOutboxService {
+
+    private static final long EMAIL_LEASE_SECONDS = 120;  // An email not confirmed by then is sent again
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    public record PlacedLine(Long menuItemId, Integer quantity, BigDecimal totalPrice) {}
+
+    public record OrderPlaced(String orderNumber, String orderType, String status, BigDecimal totalAmount,
+                              LocalDateTime createdAt, List<PlacedLine> items) {}
+
+    public record ConfirmationEmail(String to, String customerName, String orderNumber, BigDecimal totalAmount) {}
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderRollupService rollupService;
+    private final PopularItemsService popularItemsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retentionHours;
+    private final boolean confirmationEmails;
+
+    // JDBC stays on one platform thread - a connection wait inside synchronized code would pin a
+    // virtual thread's carrier; the slow part, talking to the mail server, fans out on virtual threads
+    private final ExecutorService dispatcher =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("order-outbox").daemon().factory());
+    private final ExecutorService mailSenders =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-outbox-mail-", 0).factory());
+    // Wake-ups since the running drain started; 0 = no drain running
+    private final AtomicInteger wakeUps = new AtomicInteger();
+
+    public OrderOutboxService(OrderOutboxRepository outboxRepository,
+                              OrderRollupService rollupService,
+                              PopularItemsService popularItemsService,
+                              ApplicationEventPublisher eventPublisher,
+                              EmailService emailService,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${hotel.outbox.batch-size:100}") int batchSize,
+                              @Value("${hotel.outbox.max-attempts:10}") int maxAttempts,
+                              @Value("${hotel.outbox.retention-hours:72}") long retentionHours,
+                              @Value("${hotel.outbox.confirmation-emails:false}") boolean confirmationEmails) {
+        this.outboxRepository = outboxRepository;
+        this.rollupService = rollupService;
+        this.popularItemsService = popularItemsService;
+        this.eventPublisher = eventPublisher;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retentionHours = retentionHours;
+        this.confirmationEmails = confirmationEmails;
+    }
+
+    // ==================== RECORDING ====================
+
+    /**
+     * Record the side effects of a newly placed order; must join the transaction that placed it
+     * confirmationEmail may be null - only sent when confirmation emails are enabled
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderPlaced(Order order, List<OrderItem> items, String confirmationEmail) {
+        List<PlacedLine> lines = items.stream()
+                .map(item -> new PlacedLine(item.getMenuItem().getId(), item.getQuantity(), item.getTotalPrice()))
+                .toList();
+        record(order, OrderOutboxEvent.Type.ORDER_PLACED, new OrderPlaced(order.getOrderNumber(),
+                order.getOrderType() != null ? order.getOrderType().name() : null, order.getStatus().name(),
+                order.getTotalAmount(), order.getCreatedAt(), lines));
+
+        if (confirmationEmails && confirmationEmail != null && !confirmationEmail.isBlank()) {
+            record(order, OrderOutboxEvent.Type.ORDER_CONFIRMATION_EMAIL, new ConfirmationEmail(confirmationEmail,
+                    order.getCustomerName(), order.getOrderNumber(), order.getTotalAmount()));
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeUp();
+            }
+        });
+    }
+
+    // ==================== DISPATCH ====================
+
+    /**
+     * Start a drain on the dispatcher thread, or make the running one go round again
+     */
+    public void wakeUp() {
+        if (wakeUps.getAndIncrement() == 0) {
+            dispatcher.execute(this::drainLoop);
+        }
+    }
+
+    // Fallback for events committed while no dispatcher was woken (restart, other instance, backoff)
+    @Scheduled(fixedDelayString = "${hotel.outbox.poll-ms:5000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    /**
+     * Process due events on the calling thread until none are left; returns the number claimed
+     */
+    public int drainPending() {
+        int total = 0;
+        int claimed;
+        do {
+            claimed = drainBatch();
+            total += claimed;
+        } while (claimed == batchSize);
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${hotel.outbox.purge-ms:3600000}")
+    public void purgeProcessed() {
+        int deleted = outboxRepository.deleteProcessedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            log.info("Purged {} processed order outbox events", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        mailSenders.shutdownNow();
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private void record(Order order, OrderOutboxEvent.Type type, Object payload) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(OrderOutboxEvent.builder()
+                .businessId(order.getBusinessId())
+                .orderId(order.getId())
+                .type(type)
+                .payload(write(payload))
+                .availableAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    private void drainLoop() {
+        while (true) {
+            int seen = wakeUps.get();
+            try {
+                drainPending();
+            } catch (RuntimeException e) {
+                log.warn("Order outbox drain failed, retrying on next poll: {}", e.getMessage());
+            }
+            // Exit only if nobody woke us while draining - their events may have been missed
+            if (wakeUps.compareAndSet(seen, 0)) {
+                return;
+            }
+        }
+    }
+
+    private int drainBatch() {
+        List<OrderOutboxEvent> emails = new ArrayList<>();
+        int claimed;
+        try {
+            claimed = transactionTemplate.execute(status -> apply(claim(batchSize), emails));
+        } catch (RuntimeException e) {
+            // One bad event fails the whole batch - isolate it by going one event at a time
+            log.warn("Order outbox batch failed, retrying events one by one: {}", e.getMessage());
+            emails.clear();
+            claimed = 0;
+            for (int i = 0; i < batchSize; i++) {
+                int one = drainOne(emails);
+                if (one == 0) {
+                    break;
+                }
+                claimed += one;
+            }
+        }
+        sendEmails(emails);
+        return claimed;
+    }
+
+    private int drainOne(List<OrderOutboxEvent> emails) {
+        Long[] current = new Long[1];
+        List<OrderOutboxEvent> claimedEmails = new ArrayList<>();
+        try {
+            int claimed = transactionTemplate.execute(status -> {
+                List<OrderOutboxEvent> batch = claim(1);
+                if (!batch.isEmpty()) {
+                    current[0] = batch.get(0).getId();
+                }
+                return apply(batch, claimedEmails);
+            });
+            emails.addAll(claimedEmails);
+            return claimed;
+        } catch (RuntimeException e) {
+            if (current[0] == null) {
+                throw e;
+            }
+            markFailedAttempt(current[0], e);
+            return 1;
+        }
+    }
+
+    private List<OrderOutboxEvent> claim(int limit) {
+        return outboxRepository.claimPending(LocalDateTime.now(), PageRequest.of(0, limit));
+    }
+
+    // Runs in the claiming transaction; emails are only leased here and sent after it commits
+    private int apply(List<OrderOutboxEvent> batch, List<OrderOutboxEvent> emails) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OrderOutboxEvent event : batch) {
+            event.setAttempts(event.getAttempts() + 1);
+            switch (event.getType()) {
+                case ORDER_PLACED -> {
+                    applyOrderPlaced(event);
+                    event.setStatus(OrderOutboxEvent.Status.DONE);
+                    event.setProcessedAt(now);
+                }
+                case ORDER_CONFIRMATION_EMAIL -> {
+                    event.setAvailableAt(now.plusSeconds(EMAIL_LEASE_SECONDS));
+                    emails.add(event);
+                }
+            }
+        }
+        outboxRepository.saveAll(batch);
+        return batch.size();
+    }
+
+    private void applyOrderPlaced(OrderOutboxEvent event) {
+        OrderPlaced placed = read(event.getPayload(), OrderPlaced.class);
+        // Transient snapshot of the order as placed - the handlers only read these fields
+        Order order = Order.builder()
+                .id(event.getOrderId())
+                .businessId(event.getBusinessId())
+                .orderNumber(placed.orderNumber())
+                .orderType(placed.orderType() != null ? Order.OrderType.valueOf(placed.orderType()) : null)
+                .status(Order.OrderStatus.valueOf(placed.status()))
+                .totalAmount(placed.totalAmount())
+                .createdAt(placed.createdAt())
+                .build();
+        List<OrderItem> items = placed.items().stream()
+                .map(line -> OrderItem.builder()
+                        .menuItem(MenuItem.builder().id(line.menuItemId()).build())
+                        .quantity(line.quantity())
+                        .totalPrice(line.totalPrice())
+                        .build())
+                .toList();
+
+        rollupService.recordOrderPlaced(order);
+        popularItemsService.recordOrderItems(order, items);
+        eventPublisher.publishEvent(new HotelDataChangedEvent(
+                order.getBusinessId(), HotelDataChangedEvent.Kind.ORDER, order.getId(),
+                null, order.getStatus().name(), order.getTotalAmount()));
+    }
+
+    private void sendEmails(List<OrderOutboxEvent> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        // Mail servers are slow - send the batch concurrently, then record the outcomes here
+        List<Future<?>> sends = new ArrayList<>();
+        for (OrderOutboxEvent event : emails) {
+            sends.add(mailSenders.submit(() -> {
+                sendEmail(event);
+                return null;
+            }));
+        }
+        for (int i = 0; i < sends.size(); i++) {
+            Long eventId = emails.get(i).getId();
+            try {
+                sends.get(i).get(EMAIL_LEASE_SECONDS, TimeUnit.SECONDS);
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(eventId).ifPresent(sent -> {
+                    sent.setStatus(OrderOutboxEvent.Status.DONE);
+                    sent.setProcessedAt(LocalDateTime.now());
+                    sent.setLastError(null);
+                }));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                markFailedAttempt(eventId, e.getCause() instanceof Exception cause ? cause : e);
+            } catch (TimeoutException e) {
+                // Still in flight - the lease expires and the email goes out again
+                log.warn("Order confirmation email {} did not complete in {}s", eventId, EMAIL_LEASE_SECONDS);
+            }
+        }
+    }
+
+    private void sendEmail(OrderOutboxEvent event) throws Exception {
+        ConfirmationEmail email = read(event.getPayload(), ConfirmationEmail.class);
+        emailService.sendEmail(EmailForm.builder()
+                .to(email.to())
+                .subject("Order " + email.orderNumber() + " received")
+                .title("Order Confirmation")
+                .message("Hi " + (email.customerName() != null ? email.customerName() : "there")
+                        + ",<br>we have received your order <b>" + email.orderNumber() + "</b>"
+                        + (email.totalAmount() != null ? " totalling " + email.totalAmount() : "") + ".")
+                .build());
+    }
+
+    // The attempt was already counted when the event was leased, or is counted here if its transaction rolled back
+    private void markFailedAttempt(Long eventId, Exception error) {
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(eventId).ifPresent(event -> {
+            if (event.getType() == OrderOutboxEvent.Type.ORDER_PLACED) {
+                event.setAttempts(event.getAttempts() + 1);
+            }
+            String message = String.valueOf(error.getMessage());
+            event.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            if (event.getAttempts() >= maxAttempts) {
+                event.setStatus(OrderOutboxEvent.Status.FAILED);
+                log.error("Order outbox event {} ({}) failed {} times, giving up: {}",
+                        eventId, event.getType(), event.getAttempts(), message);
+            } else {
+                long backoff = Math.min(1L << Math.min(event.getAttempts(), 12), MAX_BACKOFF_SECONDS);
+                event.setAvailableAt(LocalDateTime.now().plusSeconds(backoff));
+                log.warn("Order outbox event {} ({}) failed, retrying in {}s: {}",
+                        eventId, event.getType(), backoff, message);
+            }
+        }));
+    }
+
+    private String write(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox payload", e);
+        }
+    }
+
+    private <T> T read(String payload, Class<T> type) {
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Unreadable outbox payload: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.entity.hotel.MenuItem;
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.entity.hotel.OrderItem;
+import com.vijay.User_Master.repository.hotel.MenuItemRepository;
+import com.vijay.User_Master.repository.hotel.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * OrderPlacementService - Persists a new order with its lines in a fixed number of statements
+ * One select for all referenced menu items, one insert for the order and one JDBC batch
+ * for the lines - however many lines the order has. Item order counters are handed to
+ * the write-behind counter service and written after commit.
+ * Order items use IDENTITY keys, which rules out Hibernate insert batching, so the
+ * lines are written with a plain JDBC batch (a single multi-row insert on MySQL with
+ * rewriteBatchedStatements) and their generated keys read back.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPlacementService {
+
+    private static final BigDecimal TAX_RATE = BigDecimal.valueOf(0.05); // 5% tax
+
+    private static final String INSERT_ITEM_SQL = "INSERT INTO hotel_order_items " +
+            "(business_id, order_id, menu_item_id, quantity, unit_price, total_price, special_instructions, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final OrderRepository orderRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final WriteBehindCounterService counterService;
+
+    /**
+     * A requested order line
+     */
+    public record Line(Long menuItemId, Integer quantity, String specialInstructions) {}
+
+    /**
+     * The saved order and its lines with their generated ids
+     */
+    public record PlacedOrder(Order order, List<OrderItem> items) {}
+
+    /**
+     * Price the lines, then insert the order and its items
+     * The order comes in built but unsaved; totals are filled in here. When the order
+     * has a business, every item must belong to it. The lines are not added to
+     * order.items: they were written outside the persistence context, and cascading
+     * from the collection would try to insert them again.
+     */
+    @Transactional
+    public PlacedOrder place(Order order, List<Line> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new RuntimeException("Order must contain at least one item");
+        }
+
+        // Validate against one read of all referenced items
+        Set<Long> menuItemIds = new HashSet<>();
+        for (Line line : lines) {
+            if (line.menuItemId() == null) {
+                throw new RuntimeException("Menu item is required");
+            }
+            if (line.quantity() == null || line.quantity() <= 0) {
+                throw new RuntimeException("Quantity must be positive for menu item: " + line.menuItemId());
+            }
+            menuItemIds.add(line.menuItemId());
+        }
+        Map<Long, MenuItem> menuItems = menuItemRepository.findAllById(menuItemIds).stream()
+                .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+
+        List<OrderItem> orderItems = new ArrayList<>(lines.size());
+        Map<Long, Integer> quantityByMenuItem = new LinkedHashMap<>();
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (Line line : lines) {
+            MenuItem menuItem = menuItems.get(line.menuItemId());
+            if (menuItem == null) {
+                throw new RuntimeException("Menu item not found: " + line.menuItemId());
+            }
+            if (order.getBusinessId() != null && !order.getBusinessId().equals(menuItem.getBusinessId())) {
+                throw new RuntimeException("Menu item does not belong to this business");
+            }
+
+            BigDecimal itemTotal = menuItem.getPrice().multiply(BigDecimal.valueOf(line.quantity()));
+            subtotal = subtotal.add(itemTotal);
+            quantityByMenuItem.merge(menuItem.getId(), line.quantity(), Integer::sum);
+
+            orderItems.add(OrderItem.builder()
+                    .businessId(order.getBusinessId())
+                    .order(order)
+                    .menuItem(menuItem)
+                    .quantity(line.quantity())
+                    .unitPrice(menuItem.getPrice())
+                    .totalPrice(itemTotal)
+                    .specialInstructions(line.specialInstructions())
+                    .status(OrderItem.ItemStatus.PENDING)
+                    .build());
+        }
+
+        // Totals are known before the insert, so the order row is written once
+        BigDecimal tax = subtotal.multiply(TAX_RATE);
+        order.setSubtotal(subtotal);
+        order.setTax(tax);
+        order.setTotalAmount(subtotal.add(tax));
+        order = orderRepository.save(order);
+
+        insertItems(order, orderItems);
+        quantityByMenuItem.forEach((menuItemId, quantity) ->
+                counterService.increment(WriteBehindCounterService.Counter.MENU_ITEM_ORDERS, menuItemId, quantity));
+
+        log.debug("Placed order {} with {} lines", order.getOrderNumber(), orderItems.size());
+        return new PlacedOrder(order, orderItems);
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    /**
+     * Runs on the transaction's connection, after the order insert it references
+     */
+    private void insertItems(Order order, List<OrderItem> orderItems) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_ITEM_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (OrderItem item : orderItems) {
+                    statement.setObject(1, item.getBusinessId(), Types.BIGINT);
+                    statement.setLong(2, order.getId());
+                    statement.setLong(3, item.getMenuItem().getId());
+                    statement.setInt(4, item.getQuantity());
+                    statement.setBigDecimal(5, item.getUnitPrice());
+                    statement.setBigDecimal(6, item.getTotalPrice());
+                    statement.setString(7, item.getSpecialInstructions());
+                    statement.setString(8, item.getStatus().name());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (OrderItem item : orderItems) {
+                        if (!keys.next()) {
+                            break;
+                        }
+                        item.setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
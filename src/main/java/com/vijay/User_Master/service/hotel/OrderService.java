@@ -1,22 +1,31 @@
 package com.vijay.User_Master.service.hotel;
 
 import com.vijay.User_Master.Helper.BusinessContextFilter;
+import com.vijay.User_Master.Helper.SnowflakeIdGenerator;
+import com.vijay.User_Master.dto.CursorPageResponse;
+import com.vijay.User_Master.dto.hotel.BulkOrderStatusRequest;
+import com.vijay.User_Master.dto.hotel.BulkOrderStatusResponse;
 import com.vijay.User_Master.dto.hotel.CreateOrderRequest;
 import com.vijay.User_Master.dto.hotel.OrderDTO;
-import com.vijay.User_Master.dto.hotel.OrderItemDTO;
 import com.vijay.User_Master.entity.hotel.*;
+import com.vijay.User_Master.event.hotel.HotelDataChangedEvent;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
 import com.vijay.User_Master.repository.hotel.*;
+import com.vijay.User_Master.service.hotel.analytics.OrderRollupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,11 +33,27 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderService {
     
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_BULK_ORDERS = 500;
+    // Bulk moves only go forward; a finished order cannot be reopened and a served one cannot be cancelled
+    private static final Set<Order.OrderStatus> CANCELLABLE_STATUSES = EnumSet.of(
+            Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING, Order.OrderStatus.READY);
+    private static final Set<Order.OrderStatus> TABLE_RELEASING_STATUSES = EnumSet.of(
+            Order.OrderStatus.COMPLETED, Order.OrderStatus.DELIVERED, Order.OrderStatus.CANCELLED);
+    
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final MenuItemRepository menuItemRepository;
     private final RestaurantTableRepository tableRepository;
     private final BusinessContextFilter businessContext;
+    private final OrderPlacementService orderPlacementService;
+    private final OrderRollupService rollupService;
+    private final ActiveOrderIndex activeOrderIndex;
+    private final KitchenDisplayService kitchenDisplayService;
+    private final OrderDTOMapper orderMapper;
+    private final OrderOutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SnowflakeIdGenerator idGenerator;
+    private final PlatformTransactionManager transactionManager;
     
     @Transactional
     public OrderDTO createOrder(CreateOrderRequest request) {
@@ -38,7 +63,7 @@ public class OrderService {
         Long businessId = businessContext.getCurrentBusinessId();
         
         // Generate unique order number
-        String orderNumber = generateOrderNumber();
+        String orderNumber = idGenerator.nextNumber("ORD");
         
         // Get table if dine-in
         RestaurantTable table = null;
@@ -47,10 +72,7 @@ public class OrderService {
                     .orElseThrow(() -> new RuntimeException("Table not found"));
         }
         
-        // Calculate totals
-        BigDecimal subtotal = BigDecimal.ZERO;
-        
-        // Create order
+        // Create order - totals are filled in when the lines are priced
         Order order = Order.builder()
                 .businessId(businessId)  // Auto-assign business ID
                 .orderNumber(orderNumber)
@@ -62,50 +84,23 @@ public class OrderService {
                 .status(Order.OrderStatus.PENDING)
                 .specialInstructions(request.getSpecialInstructions())
                 .deliveryAddress(request.getDeliveryAddress())
+                .estimatedDeliveryTime(LocalDateTime.now().plusMinutes(30))  // 30 minutes from now
                 .build();
         
-        order = orderRepository.save(order);
-        
-        // Create order items
-        for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("Menu item not found"));
-            
-            BigDecimal itemTotal = menuItem.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-            subtotal = subtotal.add(itemTotal);
-            
-            OrderItem orderItem = OrderItem.builder()
-                    .order(order)
-                    .menuItem(menuItem)
-                    .quantity(itemRequest.getQuantity())
-                    .unitPrice(menuItem.getPrice())
-                    .totalPrice(itemTotal)
-                    .specialInstructions(itemRequest.getSpecialInstructions())
-                    .status(OrderItem.ItemStatus.PENDING)
-                    .build();
-            
-            orderItemRepository.save(orderItem);
-            
-            // Update menu item total orders
-            menuItem.setTotalOrders(menuItem.getTotalOrders() + itemRequest.getQuantity());
-            menuItemRepository.save(menuItem);
-        }
-        
-        // Calculate tax and total
-        BigDecimal tax = subtotal.multiply(BigDecimal.valueOf(0.05)); // 5% tax
-        BigDecimal totalAmount = subtotal.add(tax);
-        
-        order.setSubtotal(subtotal);
-        order.setTax(tax);
-        order.setTotalAmount(totalAmount);
-        
-        // Set estimated delivery time (30 minutes from now)
-        order.setEstimatedDeliveryTime(LocalDateTime.now().plusMinutes(30));
+        List<OrderPlacementService.Line> lines = request.getItems() == null ? List.of() : request.getItems().stream()
+                .map(item -> new OrderPlacementService.Line(item.getMenuItemId(), item.getQuantity(), item.getSpecialInstructions()))
+                .collect(Collectors.toList());
+        OrderPlacementService.PlacedOrder placed = orderPlacementService.place(order, lines);
+        order = placed.order();
         
-        order = orderRepository.save(order);
+        // Rollups, popular items and the dashboard are applied by the outbox dispatcher after commit
+        outboxService.recordOrderPlaced(order, placed.items(), null);
+        kitchenDisplayService.orderPlaced(order, placed.items());
         
         log.info("Order created successfully: {}", orderNumber);
-        return mapToOrderDTO(order);
+        OrderDTO orderDTO = orderMapper.toDTO(order, placed.items());
+        activeOrderIndex.recordPlaced(order.getBusinessId(), orderDTO);
+        return orderDTO;
     }
     
     @Transactional
@@ -114,6 +109,7 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.valueOf(status));
         
         if (status.equals("COMPLETED") || status.equals("DELIVERED")) {
@@ -127,9 +123,33 @@ public class OrderService {
         }
         
         order = orderRepository.save(order);
-        return mapToOrderDTO(order);
+        rollupService.recordStatusChange(order, previousStatus);
+        activeOrderIndex.recordStatusChange(order);
+        kitchenDisplayService.orderStatusChanged(order, previousStatus);
+        publishOrderChanged(order, previousStatus);
+        return orderMapper.toDTO(order);
     }
     
+    /**
+     * Kitchen progress of a single line (PENDING, PREPARING, READY, SERVED)
+     */
+    @Transactional
+    public OrderDTO updateOrderItemStatus(Long orderId, Long itemId, String status) {
+        log.info("Updating item {} of order {} status to {}", itemId, orderId, status);
+        OrderItem item = orderItemRepository.findById(itemId)
+                .filter(orderItem -> orderItem.getOrder().getId().equals(orderId))
+                .orElseThrow(() -> new RuntimeException("Order item not found"));
+        Order order = item.getOrder();
+        businessContext.validateBusinessAccess(order.getBusinessId());
+        
+        OrderItem.ItemStatus previousStatus = item.getStatus();
+        item.setStatus(OrderItem.ItemStatus.valueOf(status));
+        orderItemRepository.save(item);
+        kitchenDisplayService.itemStatusChanged(item, previousStatus);
+        return orderMapper.toDTO(order);
+    }
+    
+    @Transactional(readOnly = true)
     public OrderDTO getOrderById(Long id) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
@@ -137,66 +157,169 @@ public class OrderService {
         // Validate business access
         businessContext.validateBusinessAccess(order.getBusinessId());
         
-        return mapToOrderDTO(order);
+        return orderMapper.toDTO(order);
     }
     
+    @Transactional(readOnly = true)
     public OrderDTO getOrderByNumber(String orderNumber) {
         Order order = orderRepository.findByOrderNumber(orderNumber)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
-        return mapToOrderDTO(order);
+        return orderMapper.toDTO(order);
     }
     
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByUser(Long userId) {
-        return orderRepository.findByUserId(userId).stream()
-                .map(this::mapToOrderDTO)
-                .collect(Collectors.toList());
+        return orderMapper.toDTOs(orderRepository.findByUserId(userId));
     }
     
+    @Transactional(readOnly = true)
     public Page<OrderDTO> getOrdersByUser(Long userId, Pageable pageable) {
-        return orderRepository.findByUserId(userId, pageable)
-                .map(this::mapToOrderDTO);
+        return orderMapper.toDTOs(orderRepository.findByUserId(userId, pageable));
+    }
+    
+    /**
+     * Order history of a user, newest first, a page at a time (keyset - deep pages cost the same as the first)
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderDTO> getOrdersByUser(Long userId, String cursor, int size) {
+        Long businessId = businessContext.getCurrentBusinessId();
+        OrderCursor after = OrderCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, pageSize(size) + 1);
+        
+        List<Order> orders = businessId == null
+                ? orderRepository.findByUserIdAfter(userId, after.createdAt(), after.id(), limit)
+                : orderRepository.findByBusinessIdAndUserIdAfter(businessId, userId, after.createdAt(), after.id(), limit);
+        return toCursorPage(orders, pageSize(size));
     }
     
+    @Transactional(readOnly = true)
     public List<OrderDTO> getOrdersByStatus(String status) {
         Long businessId = businessContext.getCurrentBusinessId();
         
         if (businessId == null) {
             // Admin sees all
-            return orderRepository.findByStatus(Order.OrderStatus.valueOf(status)).stream()
-                    .map(this::mapToOrderDTO)
-                    .collect(Collectors.toList());
+            return orderMapper.toDTOs(orderRepository.findByStatus(Order.OrderStatus.valueOf(status)));
         }
         
         // Owner/Worker sees only their business
-        return orderRepository.findByBusinessIdAndStatus(businessId, Order.OrderStatus.valueOf(status)).stream()
-                .map(this::mapToOrderDTO)
-                .collect(Collectors.toList());
+        return orderMapper.toDTOs(orderRepository.findByBusinessIdAndStatus(businessId, Order.OrderStatus.valueOf(status)));
     }
     
+    @Transactional(readOnly = true)
     public Page<OrderDTO> getOrdersByStatus(String status, Pageable pageable) {
-        return orderRepository.findByStatus(Order.OrderStatus.valueOf(status), pageable)
-                .map(this::mapToOrderDTO);
+        return orderMapper.toDTOs(orderRepository.findByStatus(Order.OrderStatus.valueOf(status), pageable));
+    }
+    
+    /**
+     * Orders in a status, newest first, a page at a time (keyset - deep pages cost the same as the first)
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderDTO> getOrdersByStatus(String status, String cursor, int size) {
+        Long businessId = businessContext.getCurrentBusinessId();
+        Order.OrderStatus orderStatus = Order.OrderStatus.valueOf(status);
+        OrderCursor after = OrderCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, pageSize(size) + 1);
+        
+        List<Order> orders = businessId == null
+                ? orderRepository.findByStatusAfter(orderStatus, after.createdAt(), after.id(), limit)
+                : orderRepository.findByBusinessIdAndStatusAfter(businessId, orderStatus, after.createdAt(), after.id(), limit);
+        return toCursorPage(orders, pageSize(size));
     }
     
+    /**
+     * Move many orders to one status, e.g. a table's orders to SERVED or the evening's to COMPLETED
+     * Transitions are checked in memory against one locked read, then the accepted orders move in
+     * one UPDATE and their tables are freed in another; rejected orders are reported, not failed
+     */
+    @Transactional
+    public BulkOrderStatusResponse updateOrderStatuses(BulkOrderStatusRequest request) {
+        if (request.getOrderIds() == null || request.getOrderIds().isEmpty()) {
+            throw new BadApiRequestException("orderIds must not be empty");
+        }
+        List<Long> orderIds = request.getOrderIds().stream().filter(Objects::nonNull).distinct().toList();
+        if (orderIds.size() > MAX_BULK_ORDERS) {
+            throw new BadApiRequestException("At most " + MAX_BULK_ORDERS + " orders can be updated at once");
+        }
+        Order.OrderStatus target = parseStatus(request.getStatus());
+        log.info("Bulk updating {} orders to {}", orderIds.size(), target);
+        
+        // Other businesses' orders are not loaded, so they read as not found
+        Map<Long, Order> loaded = orderRepository.findAllForStatusUpdate(orderIds, businessContext.getCurrentBusinessId())
+                .stream().collect(Collectors.toMap(Order::getId, Function.identity()));
+        List<Order> accepted = new ArrayList<>();
+        List<BulkOrderStatusResponse.Rejected> rejected = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            Order order = loaded.get(orderId);
+            if (order == null) {
+                rejected.add(rejection(orderId, null, "Order not found"));
+            } else if (!canTransition(order.getStatus(), target)) {
+                rejected.add(rejection(orderId, order.getStatus(),
+                        "Cannot move from " + order.getStatus() + " to " + target));
+            } else {
+                accepted.add(order);
+            }
+        }
+        
+        int tablesFreed = 0;
+        if (!accepted.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime completedAt = target == Order.OrderStatus.COMPLETED || target == Order.OrderStatus.DELIVERED ? now : null;
+            List<Long> acceptedIds = accepted.stream().map(Order::getId).toList();
+            Set<Long> tableIds = TABLE_RELEASING_STATUSES.contains(target)
+                    ? accepted.stream().map(Order::getTable).filter(Objects::nonNull).map(RestaurantTable::getId)
+                            .collect(Collectors.toSet())
+                    : Set.of();
+            
+            orderRepository.updateStatus(acceptedIds, target, completedAt, now);
+            if (!tableIds.isEmpty()) {
+                tablesFreed = tableRepository.markAvailable(tableIds);
+            }
+            
+            // The UPDATE detached the loaded orders - bring them to the new state for the hooks only
+            List<OrderRollupService.StatusChange> changes = new ArrayList<>();
+            for (Order order : accepted) {
+                changes.add(new OrderRollupService.StatusChange(order, order.getStatus()));
+                order.setStatus(target);
+                if (completedAt != null) {
+                    order.setCompletedAt(completedAt);
+                }
+            }
+            rollupService.recordStatusChanges(changes);
+            for (OrderRollupService.StatusChange change : changes) {
+                activeOrderIndex.recordStatusChange(change.order());
+                kitchenDisplayService.orderStatusChanged(change.order(), change.previousStatus());
+                publishOrderChanged(change.order(), change.previousStatus());
+            }
+        }
+        
+        return BulkOrderStatusResponse.builder()
+                .status(target.name())
+                .requested(orderIds.size())
+                .updatedOrderIds(accepted.stream().map(Order::getId).toList())
+                .rejected(rejected)
+                .tablesFreed(tablesFreed)
+                .build();
+    }
+    
+    /**
+     * Kitchen queue - every order not yet completed or cancelled, oldest first
+     * Owners/workers are served from the in-memory index; only a cold load opens a
+     * (read-only) transaction, so a warm read never takes a connection
+     */
     public List<OrderDTO> getActiveOrders() {
         Long businessId = businessContext.getCurrentBusinessId();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
         
-        List<Order> orders;
         if (businessId == null) {
             // Admin sees all active orders
-            orders = orderRepository.findAll().stream()
-                    .filter(o -> !o.getStatus().equals(Order.OrderStatus.COMPLETED) 
-                              && !o.getStatus().equals(Order.OrderStatus.CANCELLED))
-                    .collect(Collectors.toList());
-        } else {
-            // Owner/Worker sees only their business's active orders
-            orders = orderRepository.findByBusinessId(businessId).stream()
-                    .filter(o -> !o.getStatus().equals(Order.OrderStatus.COMPLETED) 
-                              && !o.getStatus().equals(Order.OrderStatus.CANCELLED))
-                    .collect(Collectors.toList());
+            return readOnly.execute(status ->
+                    orderMapper.toDTOs(orderRepository.findByStatusInOrderByIdAsc(ActiveOrderIndex.ACTIVE_STATUSES)));
         }
         
-        return orders.stream().map(this::mapToOrderDTO).collect(Collectors.toList());
+        // Owner/Worker sees only their business's active orders
+        return activeOrderIndex.getActiveOrders(businessId, () -> readOnly.execute(status ->
+                orderMapper.toDTOs(orderRepository.findByBusinessIdAndStatusInOrderByIdAsc(businessId, ActiveOrderIndex.ACTIVE_STATUSES))));
     }
     
     @Transactional
@@ -205,6 +328,7 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.CANCELLED);
         
         // Mark table as available if dine-in
@@ -214,53 +338,60 @@ public class OrderService {
         }
         
         orderRepository.save(order);
+        rollupService.recordStatusChange(order, previousStatus);
+        activeOrderIndex.recordStatusChange(order);
+        kitchenDisplayService.orderStatusChanged(order, previousStatus);
+        publishOrderChanged(order, previousStatus);
     }
     
     // ==================== HELPER METHODS ====================
     
-    private String generateOrderNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        return "ORD-" + timestamp;
+    private void publishOrderChanged(Order order, Order.OrderStatus previousStatus) {
+        eventPublisher.publishEvent(new HotelDataChangedEvent(
+                order.getBusinessId(), HotelDataChangedEvent.Kind.ORDER, order.getId(),
+                previousStatus != null ? previousStatus.name() : null, order.getStatus().name(),
+                order.getTotalAmount()));
     }
     
-    private OrderDTO mapToOrderDTO(Order order) {
-        List<OrderItemDTO> items = orderItemRepository.findByOrderId(order.getId()).stream()
-                .map(this::mapToOrderItemDTO)
-                .collect(Collectors.toList());
-        
-        return OrderDTO.builder()
-                .id(order.getId())
-                .orderNumber(order.getOrderNumber())
-                .userId(order.getUserId())
-                .customerName(order.getCustomerName())
-                .customerPhone(order.getCustomerPhone())
-                .tableId(order.getTable() != null ? order.getTable().getId() : null)
-                .tableNumber(order.getTable() != null ? order.getTable().getTableNumber() : null)
-                .orderType(order.getOrderType().name())
-                .status(order.getStatus().name())
-                .items(items)
-                .subtotal(order.getSubtotal())
-                .tax(order.getTax())
-                .discount(order.getDiscount())
-                .totalAmount(order.getTotalAmount())
-                .specialInstructions(order.getSpecialInstructions())
-                .deliveryAddress(order.getDeliveryAddress())
-                .estimatedDeliveryTime(order.getEstimatedDeliveryTime())
-                .completedAt(order.getCompletedAt())
-                .createdAt(order.getCreatedAt())
+    private static Order.OrderStatus parseStatus(String status) {
+        try {
+            return Order.OrderStatus.valueOf(status);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BadApiRequestException("Invalid status: " + status);
+        }
+    }
+    
+    private static boolean canTransition(Order.OrderStatus from, Order.OrderStatus to) {
+        if (!ActiveOrderIndex.ACTIVE_STATUSES.contains(from) || from == to) {
+            return false;
+        }
+        if (to == Order.OrderStatus.CANCELLED) {
+            return CANCELLABLE_STATUSES.contains(from);
+        }
+        return to == Order.OrderStatus.COMPLETED || to.ordinal() > from.ordinal();
+    }
+    
+    private static BulkOrderStatusResponse.Rejected rejection(Long orderId, Order.OrderStatus status, String reason) {
+        return BulkOrderStatusResponse.Rejected.builder()
+                .orderId(orderId)
+                .currentStatus(status != null ? status.name() : null)
+                .reason(reason)
                 .build();
     }
     
-    private OrderItemDTO mapToOrderItemDTO(OrderItem item) {
-        return OrderItemDTO.builder()
-                .id(item.getId())
-                .menuItemId(item.getMenuItem().getId())
-                .menuItemName(item.getMenuItem().getName())
-                .quantity(item.getQuantity())
-                .unitPrice(item.getUnitPrice())
-                .totalPrice(item.getTotalPrice())
-                .specialInstructions(item.getSpecialInstructions())
-                .status(item.getStatus().name())
+    private static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_CURSOR_PAGE_SIZE));
+    }
+    
+    // Rows were fetched with one extra, which only signals that another page follows
+    private CursorPageResponse<OrderDTO> toCursorPage(List<Order> orders, int size) {
+        boolean hasMore = orders.size() > size;
+        List<Order> page = hasMore ? orders.subList(0, size) : orders;
+        return CursorPageResponse.<OrderDTO>builder()
+                .content(orderMapper.toDTOs(page))
+                .size(page.size())
+                .nextCursor(hasMore ? OrderCursor.after(page.get(page.size() - 1)).encode() : null)
+                .hasMore(hasMore)
                 .build();
     }
 }
@@ -4,10 +4,13 @@ import com.vijay.User_Master.dto.hotel.CreatePaymentRequest;
 import com.vijay.User_Master.dto.hotel.PaymentDTO;
 import com.vijay.User_Master.entity.hotel.Order;
 import com.vijay.User_Master.entity.hotel.Payment;
+import com.vijay.User_Master.event.hotel.HotelDataChangedEvent;
 import com.vijay.User_Master.repository.hotel.OrderRepository;
 import com.vijay.User_Master.repository.hotel.PaymentRepository;
+import com.vijay.User_Master.service.hotel.analytics.OrderRollupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +26,10 @@ public class PaymentService {
     
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
+    private final OrderRollupService rollupService;
+    private final ActiveOrderIndex activeOrderIndex;
+    private final KitchenDisplayService kitchenDisplayService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public PaymentDTO createPayment(CreatePaymentRequest request) {
@@ -50,6 +57,8 @@ public class PaymentService {
         
         payment = paymentRepository.save(payment);
         
+        publishPaymentChanged(payment);
+        
         log.info("Payment created with transaction ID: {}", transactionId);
         return mapToPaymentDTO(payment);
     }
@@ -77,8 +86,13 @@ public class PaymentService {
         if (order.getStatus() == Order.OrderStatus.PENDING) {
             order.setStatus(Order.OrderStatus.CONFIRMED);
             orderRepository.save(order);
+            rollupService.recordStatusChange(order, Order.OrderStatus.PENDING);
+            activeOrderIndex.recordStatusChange(order);
+            kitchenDisplayService.orderStatusChanged(order, Order.OrderStatus.PENDING);
         }
         
+        publishPaymentChanged(payment);
+        
         log.info("Payment processed successfully");
         return mapToPaymentDTO(payment);
     }
@@ -100,10 +114,14 @@ public class PaymentService {
             if (order.getStatus() == Order.OrderStatus.PENDING) {
                 order.setStatus(Order.OrderStatus.CONFIRMED);
                 orderRepository.save(order);
+                rollupService.recordStatusChange(order, Order.OrderStatus.PENDING);
+                activeOrderIndex.recordStatusChange(order);
+                kitchenDisplayService.orderStatusChanged(order, Order.OrderStatus.PENDING);
             }
         }
         
         payment = paymentRepository.save(payment);
+        publishPaymentChanged(payment);
         return mapToPaymentDTO(payment);
     }
     
@@ -147,8 +165,14 @@ public class PaymentService {
         
         // Update order status
         Order order = payment.getOrder();
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.CANCELLED);
         orderRepository.save(order);
+        rollupService.recordStatusChange(order, previousStatus);
+        activeOrderIndex.recordStatusChange(order);
+        kitchenDisplayService.orderStatusChanged(order, previousStatus);
+        
+        publishPaymentChanged(payment);
         
         log.info("Payment refunded successfully");
         return mapToPaymentDTO(payment);
@@ -156,6 +180,12 @@ public class PaymentService {
     
     // ==================== HELPER METHODS ====================
     
+    // Payment rows carry no reliable business_id; the order's is authoritative
+    private void publishPaymentChanged(Payment payment) {
+        eventPublisher.publishEvent(new HotelDataChangedEvent(
+                payment.getOrder().getBusinessId(), HotelDataChangedEvent.Kind.PAYMENT, payment.getId()));
+    }
+    
     private String generateTransactionId() {
         return "TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
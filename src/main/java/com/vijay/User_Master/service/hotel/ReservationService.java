@@ -1,19 +1,21 @@
 package com.vijay.User_Master.service.hotel;
 
 import com.vijay.User_Master.Helper.BusinessContextFilter;
+import com.vijay.User_Master.Helper.SnowflakeIdGenerator;
 import com.vijay.User_Master.dto.hotel.CreateReservationRequest;
 import com.vijay.User_Master.dto.hotel.TableReservationDTO;
 import com.vijay.User_Master.entity.hotel.RestaurantTable;
 import com.vijay.User_Master.entity.hotel.TableReservation;
+import com.vijay.User_Master.event.hotel.HotelDataChangedEvent;
 import com.vijay.User_Master.repository.hotel.RestaurantTableRepository;
 import com.vijay.User_Master.repository.hotel.TableReservationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,6 +27,8 @@ public class ReservationService {
     private final TableReservationRepository reservationRepository;
     private final RestaurantTableRepository tableRepository;
     private final BusinessContextFilter businessContext;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SnowflakeIdGenerator idGenerator;
     
     @Transactional
     public TableReservationDTO createReservation(CreateReservationRequest request) {
@@ -49,7 +53,7 @@ public class ReservationService {
         }
         
         // Generate reservation number
-        String reservationNumber = generateReservationNumber();
+        String reservationNumber = idGenerator.nextNumber("RES");
         
         Long businessId = businessContext.getCurrentBusinessId();
         
@@ -73,6 +77,8 @@ public class ReservationService {
         
         reservation = reservationRepository.save(reservation);
         
+        publishReservationChanged(reservation, null);
+        
         log.info("Reservation created: {}", reservationNumber);
         return mapToReservationDTO(reservation);
     }
@@ -84,6 +90,7 @@ public class ReservationService {
         TableReservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
         
+        TableReservation.ReservationStatus previousStatus = reservation.getStatus();
         TableReservation.ReservationStatus newStatus = TableReservation.ReservationStatus.valueOf(status);
         reservation.setStatus(newStatus);
         
@@ -112,6 +119,7 @@ public class ReservationService {
         }
         
         reservation = reservationRepository.save(reservation);
+        publishReservationChanged(reservation, previousStatus);
         return mapToReservationDTO(reservation);
     }
     
@@ -137,11 +145,13 @@ public class ReservationService {
         TableReservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
         
+        TableReservation.ReservationStatus previousStatus = reservation.getStatus();
         reservation.setStatus(TableReservation.ReservationStatus.CANCELLED);
         reservation.setCancellationReason(reason);
         reservation.setCancelledAt(LocalDateTime.now());
         
         reservation = reservationRepository.save(reservation);
+        publishReservationChanged(reservation, previousStatus);
         return mapToReservationDTO(reservation);
     }
     
@@ -237,9 +247,11 @@ public class ReservationService {
     
     // ==================== HELPER METHODS ====================
     
-    private String generateReservationNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        return "RES-" + timestamp;
+    private void publishReservationChanged(TableReservation reservation,
+                                           TableReservation.ReservationStatus previousStatus) {
+        eventPublisher.publishEvent(new HotelDataChangedEvent(
+                reservation.getBusinessId(), HotelDataChangedEvent.Kind.RESERVATION, reservation.getId(),
+                previousStatus != null ? previousStatus.name() : null, reservation.getStatus().name(), null));
     }
     
     private TableReservationDTO mapToReservationDTO(TableReservation reservation) {
@@ -6,11 +6,13 @@ import com.vijay.User_Master.dto.hotel.ReviewDTO;
 import com.vijay.User_Master.entity.hotel.MenuItem;
 import com.vijay.User_Master.entity.hotel.Order;
 import com.vijay.User_Master.entity.hotel.Review;
+import com.vijay.User_Master.event.hotel.MenuChangedEvent;
 import com.vijay.User_Master.repository.hotel.MenuItemRepository;
 import com.vijay.User_Master.repository.hotel.OrderRepository;
 import com.vijay.User_Master.repository.hotel.ReviewRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -30,6 +32,7 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final MenuItemRepository menuItemRepository;
     private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public ReviewDTO createReview(CreateReviewRequest request) {
@@ -233,6 +236,8 @@ public class ReviewService {
         }
         
         menuItemRepository.save(menuItem);
+        // Ratings are part of the guest menu
+        eventPublisher.publishEvent(new MenuChangedEvent(menuItem.getBusinessId()));
     }
     
     private boolean hasUserOrderedItem(Long userId, Long menuItemId) {
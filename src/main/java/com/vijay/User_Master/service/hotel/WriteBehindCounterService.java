@@ -0,0 +1,187 @@
+package com.vijay.User_Master.service.hotel;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WriteBehindCounterService - Hot row counters accumulated in memory and flushed as deltas
+ * Increments land in a LongAdder per row (no lock, no row contention on popular dishes)
+ * and a scheduled flush writes them with one batched "SET x = x + ?" per counter.
+ * Each batch commits in its own transaction, so a failed one is rolled back whole.
+ * A crash loses at most one flush interval of counts; a failed flush keeps its
+ * deltas for the next attempt. Counters are statistics - nothing reads them back
+ * inside a transaction, so they may trail the database by one interval.
+ */
+@Service
+@Lazy(false)
+@Slf4j
+public class WriteBehindCounterService {
+
+    public enum Counter {
+        MENU_ITEM_ORDERS("hotel_menu_items", "total_orders", null),
+        QR_CODE_SCANS("qr_codes", "scan_count", "last_scanned_at");
+
+        private final String table;
+        private final String column;
+        private final String touchedAtColumn;  // Set to the flush time when present
+
+        Counter(String table, String column, String touchedAtColumn) {
+            this.table = table;
+            this.column = column;
+            this.touchedAtColumn = touchedAtColumn;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final int batchSize;
+
+    // Adders stay registered once created (bounded by the number of rows that are ever counted),
+    // so an increment can never land on an adder a concurrent flush has already dropped
+    private final Map<Counter, ConcurrentHashMap<Long, LongAdder>> pending = new EnumMap<>(Counter.class);
+
+    @Getter
+    private volatile LocalDateTime lastFlushAt;
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    public WriteBehindCounterService(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${hotel.counters.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        for (Counter counter : Counter.values()) {
+            pending.put(counter, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Add to a row's counter once the current transaction commits (immediately without one)
+     */
+    public void increment(Counter counter, Long id, long delta) {
+        if (id == null || delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(counter, id, delta);
+                }
+            });
+        } else {
+            add(counter, id, delta);
+        }
+    }
+
+    /**
+     * Counts accepted but not yet written - the amount a crash right now would lose
+     */
+    public long getPendingDeltas() {
+        long total = 0;
+        for (ConcurrentHashMap<Long, LongAdder> adders : pending.values()) {
+            for (LongAdder adder : adders.values()) {
+                total += adder.sum();
+            }
+        }
+        return total;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingDeltas", getPendingDeltas());
+        stats.put("trackedRows", pending.values().stream().mapToInt(Map::size).sum());
+        stats.put("failedFlushes", failedFlushes.get());
+        stats.put("lastFlushAt", lastFlushAt);
+        return stats;
+    }
+
+    // ==================== SCHEDULED JOBS ====================
+
+    /**
+     * Write every non-zero delta; runs on a schedule and once more on shutdown
+     */
+    @Scheduled(fixedDelayString = "${hotel.counters.flush-ms:1000}")
+    public synchronized void flush() {
+        for (Counter counter : Counter.values()) {
+            flush(counter);
+        }
+        lastFlushAt = LocalDateTime.now();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        long lost = getPendingDeltas();
+        if (lost != 0) {
+            log.warn("Shutting down with {} counter increments not written", lost);
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private void add(Counter counter, Long id, long delta) {
+        pending.get(counter).computeIfAbsent(id, key -> new LongAdder()).add(delta);
+    }
+
+    private void flush(Counter counter) {
+        // Drain: getAndSet per cell, so concurrent increments go either into this flush or the next
+        SortedMap<Long, Long> deltas = new TreeMap<>();  // Id order keeps row locks ordered across instances
+        pending.get(counter).forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                deltas.put(id, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        String sql = "UPDATE " + counter.table + " SET " + counter.column + " = " + counter.column + " + ?"
+                + (counter.touchedAtColumn != null ? ", " + counter.touchedAtColumn + " = ?" : "")
+                + " WHERE id = ?";
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> args.add(counter.touchedAtColumn != null
+                ? new Object[]{delta, now, id}
+                : new Object[]{delta, id}));
+
+        int written = 0;
+        try {
+            for (int from = 0; from < args.size(); from += batchSize) {
+                List<Object[]> batch = args.subList(from, Math.min(from + batchSize, args.size()));
+                batchTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch));
+                written = Math.min(from + batchSize, args.size());
+            }
+            log.debug("Flushed {} {} deltas", args.size(), counter);
+        } catch (RuntimeException e) {
+            // Earlier batches are committed and the failed one rolled back - put back the rest
+            failedFlushes.incrementAndGet();
+            List<Long> ids = new ArrayList<>(deltas.keySet());
+            for (int i = written; i < ids.size(); i++) {
+                add(counter, ids.get(i), deltas.get(ids.get(i)));
+            }
+            log.warn("Counter flush for {} failed, {} rows retried next time: {}",
+                    counter, ids.size() - written, e.getMessage());
+        }
+    }
+}
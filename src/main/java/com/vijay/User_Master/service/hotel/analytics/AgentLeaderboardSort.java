@@ -0,0 +1,24 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * AgentLeaderboardSort - Orderings for the agent leaderboard
+ * Properties are aliases of DeliveryAgentRepository.findAgentLeaderboard; agent id breaks ties
+ */
+public enum AgentLeaderboardSort {
+
+    RATING(Sort.Order.desc("rating")),
+    DELIVERIES(Sort.Order.desc("successfulDeliveries")),
+    SPEED(Sort.Order.asc("averageDeliverySeconds").nullsLast());
+
+    private final Sort sort;
+
+    AgentLeaderboardSort(Sort.Order order) {
+        this.sort = Sort.by(order, Sort.Order.asc("agentId"));
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+}
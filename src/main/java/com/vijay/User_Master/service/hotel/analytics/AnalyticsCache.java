@@ -0,0 +1,116 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vijay.User_Master.event.hotel.HotelDataChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * AnalyticsCache - Tenant-scoped snapshot cache for analytics responses
+ * Entries are keyed by business, view, time window and a per-business generation.
+ * Writes publish HotelDataChangedEvent; after commit the affected generations are
+ * bumped, so old entries become unreachable immediately and age out by size/TTL.
+ * A read that raced with the write caches under the old generation and is never served.
+ */
+@Component
+@Slf4j
+public class AnalyticsCache {
+
+    public enum View {
+        OVERVIEW,
+        ORDERS,
+        DELIVERIES,
+        RESERVATIONS
+    }
+
+    private record Key(Long businessId, View view, long generation, LocalDateTime start, LocalDateTime end) {}
+
+    private static final Map<HotelDataChangedEvent.Kind, Set<View>> AFFECTED_VIEWS = Map.of(
+            HotelDataChangedEvent.Kind.ORDER, EnumSet.of(View.OVERVIEW, View.ORDERS),
+            HotelDataChangedEvent.Kind.PAYMENT, EnumSet.of(View.OVERVIEW, View.ORDERS),
+            HotelDataChangedEvent.Kind.DELIVERY, EnumSet.of(View.OVERVIEW, View.DELIVERIES),
+            HotelDataChangedEvent.Kind.RESERVATION, EnumSet.of(View.OVERVIEW, View.RESERVATIONS)
+    );
+
+    private final Cache<Key, Object> cache;
+    private final Map<Long, AtomicLongArray> generations = new ConcurrentHashMap<>();
+    private final AtomicLongArray allBusinessesGeneration = new AtomicLongArray(View.values().length);
+
+    public AnalyticsCache(@Value("${analytics.cache.max-entries:10000}") long maxEntries,
+                          @Value("${analytics.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Cached value for the business/view/window, loading it once per key on a miss
+     * businessId null is the admin (all businesses) view
+     */
+    public <T> T get(Long businessId, View view, LocalDateTime start, LocalDateTime end, Supplier<T> loader) {
+        return get(businessId, view, start, end, loader, value -> true);
+    }
+
+    /**
+     * Same as get, but values failing the cacheable check are returned and not kept
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long businessId, View view, LocalDateTime start, LocalDateTime end,
+                     Supplier<T> loader, Predicate<T> cacheable) {
+        Key key = new Key(businessId, view, generationOf(businessId, view), windowEdge(start), windowEdge(end));
+        T value = (T) cache.get(key, k -> loader.get());
+        if (!cacheable.test(value)) {
+            cache.asMap().remove(key, value);
+        }
+        return value;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelDataChanged(HotelDataChangedEvent event) {
+        Set<View> views = AFFECTED_VIEWS.get(event.getKind());
+        if (event.getBusinessId() == null) {
+            generations.values().forEach(gen -> bump(gen, views));
+        } else {
+            bump(generationsOf(event.getBusinessId()), views);
+        }
+        bump(allBusinessesGeneration, views);
+        log.debug("Invalidated analytics {} for business {}", views, event.getBusinessId());
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private long generationOf(Long businessId, View view) {
+        AtomicLongArray gen = businessId == null ? allBusinessesGeneration : generationsOf(businessId);
+        return gen.get(view.ordinal());
+    }
+
+    private AtomicLongArray generationsOf(Long businessId) {
+        return generations.computeIfAbsent(businessId, id -> new AtomicLongArray(View.values().length));
+    }
+
+    private void bump(AtomicLongArray gen, Set<View> views) {
+        views.forEach(view -> gen.incrementAndGet(view.ordinal()));
+    }
+
+    /**
+     * Windows ending "now" differ on every request; minute precision lets them share an entry
+     */
+    private LocalDateTime windowEdge(LocalDateTime time) {
+        return time != null ? time.truncatedTo(ChronoUnit.MINUTES) : null;
+    }
+}
@@ -0,0 +1,145 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.vijay.User_Master.Helper.BusinessContextFilter;
+import com.vijay.User_Master.repository.hotel.OrderItemRepository;
+import com.vijay.User_Master.repository.hotel.OrderRepository;
+import com.vijay.User_Master.repository.hotel.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * AnalyticsExportService - Raw order / order item / payment exports for accounting
+ * Rows come from forward-only JDBC cursors and are encoded one at a time straight
+ * into the response, so heap use is constant regardless of the export size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsExportService {
+
+    private static final String[] ORDER_COLUMNS = {
+            "orderId", "orderNumber", "businessId", "userId", "customerName", "customerPhone", "orderType",
+            "status", "subtotal", "tax", "discount", "totalAmount", "deliveryAddress", "createdAt", "completedAt"
+    };
+    private static final String[] ORDER_ITEM_COLUMNS = {
+            "orderItemId", "orderId", "orderNumber", "orderCreatedAt", "menuItemId", "itemName",
+            "quantity", "unitPrice", "totalPrice", "status"
+    };
+    private static final String[] PAYMENT_COLUMNS = {
+            "paymentId", "orderId", "orderNumber", "transactionId", "paymentMethod", "status",
+            "amount", "paidAt", "createdAt"
+    };
+
+    private final BusinessContextFilter businessContext;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final PaymentRepository paymentRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @FunctionalInterface
+    private interface RowEncoder<T> {
+        void write(ExportWriter writer, T row) throws IOException;
+    }
+
+    /**
+     * Orders created in the range; entities are detached as soon as they are written
+     */
+    public StreamingResponseBody exportOrders(ExportWriter.Format format, boolean gzip,
+                                              LocalDateTime startDate, LocalDateTime endDate) {
+        Long businessId = businessContext.getCurrentBusinessId();
+        return body("orders", format, gzip, ORDER_COLUMNS,
+                () -> orderRepository.streamForExport(businessId, startDate, endDate),
+                (writer, order) -> {
+                    writer.writeRow(order.getId(), order.getOrderNumber(), order.getBusinessId(), order.getUserId(),
+                            order.getCustomerName(), order.getCustomerPhone(), order.getOrderType(),
+                            order.getStatus(), order.getSubtotal(), order.getTax(), order.getDiscount(),
+                            order.getTotalAmount(), order.getDeliveryAddress(), order.getCreatedAt(),
+                            order.getCompletedAt());
+                    // Keep the persistence context empty - it would otherwise hold every row read
+                    entityManager.detach(order);
+                });
+    }
+
+    /**
+     * Order lines of orders created in the range (scalar projection, no managed entities)
+     */
+    public StreamingResponseBody exportOrderItems(ExportWriter.Format format, boolean gzip,
+                                                  LocalDateTime startDate, LocalDateTime endDate) {
+        Long businessId = businessContext.getCurrentBusinessId();
+        return body("order-items", format, gzip, ORDER_ITEM_COLUMNS,
+                () -> orderItemRepository.streamForExport(businessId, startDate, endDate),
+                (writer, item) -> writer.writeRow(item.getOrderItemId(), item.getOrderId(), item.getOrderNumber(),
+                        item.getOrderCreatedAt(), item.getMenuItemId(), item.getItemName(), item.getQuantity(),
+                        item.getUnitPrice(), item.getTotalPrice(), item.getStatus()));
+    }
+
+    /**
+     * Payments created in the range (scalar projection, no managed entities)
+     */
+    public StreamingResponseBody exportPayments(ExportWriter.Format format, boolean gzip,
+                                                LocalDateTime startDate, LocalDateTime endDate) {
+        Long businessId = businessContext.getCurrentBusinessId();
+        return body("payments", format, gzip, PAYMENT_COLUMNS,
+                () -> paymentRepository.streamForExport(businessId, startDate, endDate),
+                (writer, payment) -> writer.writeRow(payment.getPaymentId(), payment.getOrderId(),
+                        payment.getOrderNumber(), payment.getTransactionId(), payment.getPaymentMethod(),
+                        payment.getStatus(), payment.getAmount(), payment.getPaidAt(), payment.getCreatedAt()));
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    /**
+     * The body runs on the async request thread after the controller returns; the
+     * cursor needs an open connection, so reading happens inside a read-only transaction
+     */
+    private <T> StreamingResponseBody body(String name, ExportWriter.Format format, boolean gzip, String[] columns,
+                                           Supplier<Stream<T>> rows, RowEncoder<T> encoder) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return out -> {
+            long started = System.currentTimeMillis();
+            GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 8192) : null;
+            OutputStream target = compressed != null ? compressed : out;
+
+            long written = readOnly.execute(status -> {
+                try (Stream<T> stream = rows.get()) {
+                    ExportWriter writer = new ExportWriter(format, columns, target, jsonFactory);
+                    Iterator<T> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        encoder.write(writer, iterator.next());
+                    }
+                    writer.flush();
+                    return writer.getRowCount();
+                } catch (IOException e) {
+                    // Typically the client went away; rolling back just releases the cursor
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            if (compressed != null) {
+                compressed.finish();
+            }
+            log.info("Exported {} {} rows as {} in {} ms", written, name, format,
+                    System.currentTimeMillis() - started);
+        };
+    }
+}
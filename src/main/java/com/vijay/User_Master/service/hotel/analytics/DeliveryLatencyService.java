@@ -0,0 +1,108 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import com.vijay.User_Master.dto.hotel.analytics.LatencyPercentilesDTO;
+import com.vijay.User_Master.entity.hotel.DeliveryLatencyBucket;
+import com.vijay.User_Master.entity.hotel.DeliveryTracking;
+import com.vijay.User_Master.repository.hotel.DeliveryLatencyBucketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * DeliveryLatencyService - Daily pickup/delivery latency histograms per business and agent
+ * Updated when a delivery is marked DELIVERED; percentiles merge the stored
+ * histogram cells for the requested days instead of scanning tracking rows.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeliveryLatencyService {
+
+    private static final long UNASSIGNED_AGENT = 0L;
+
+    private final DeliveryLatencyBucketRepository bucketRepository;
+
+    /**
+     * Record pickup and delivery latency of a completed delivery
+     */
+    @Transactional
+    public void recordDelivered(DeliveryTracking tracking) {
+        if (tracking.getDeliveredAt() == null) {
+            return;
+        }
+        // Tracking rows carry no reliable business_id; the order's is authoritative
+        Long businessId = tracking.getOrder().getBusinessId();
+        Long agentId = tracking.getAgent() != null ? tracking.getAgent().getId() : UNASSIGNED_AGENT;
+        LocalDate day = tracking.getDeliveredAt().toLocalDate();
+
+        record(businessId, agentId, day, DeliveryLatencyBucket.Metric.PICKUP,
+                tracking.getAssignedAt(), tracking.getPickedUpAt());
+        record(businessId, agentId, day, DeliveryLatencyBucket.Metric.DELIVERY,
+                tracking.getPickedUpAt(), tracking.getDeliveredAt());
+    }
+
+    /**
+     * Business-wide percentiles over the days of the range; businessId null means all businesses
+     */
+    public LatencyPercentilesDTO getPercentiles(Long businessId, DeliveryLatencyBucket.Metric metric,
+                                                LocalDateTime startDate, LocalDateTime endDate) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        bucketRepository.sumBuckets(businessId, metric, startDate.toLocalDate(), endDate.toLocalDate())
+                .forEach(b -> histogram.add(b.getBucketIndex(), b.getSampleCount()));
+        return toPercentiles(histogram);
+    }
+
+    /**
+     * Per-agent percentiles for the given agents in one grouped query
+     */
+    public Map<Long, LatencyPercentilesDTO> getAgentPercentiles(Collection<Long> agentIds,
+                                                                DeliveryLatencyBucket.Metric metric,
+                                                                LocalDateTime startDate, LocalDateTime endDate) {
+        if (agentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, LatencyHistogram> histograms = new HashMap<>();
+        bucketRepository.sumBucketsByAgent(agentIds, metric, startDate.toLocalDate(), endDate.toLocalDate())
+                .forEach(b -> histograms.computeIfAbsent(b.getAgentId(), id -> new LatencyHistogram())
+                        .add(b.getBucketIndex(), b.getSampleCount()));
+
+        Map<Long, LatencyPercentilesDTO> percentiles = new HashMap<>();
+        histograms.forEach((agentId, histogram) -> percentiles.put(agentId, toPercentiles(histogram)));
+        return percentiles;
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private void record(Long businessId, Long agentId, LocalDate day, DeliveryLatencyBucket.Metric metric,
+                        LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            return;
+        }
+        long seconds = Duration.between(from, to).getSeconds();
+        bucketRepository.increment(businessId, agentId, day, metric.name(), LatencyHistogram.bucketOf(seconds));
+    }
+
+    private LatencyPercentilesDTO toPercentiles(LatencyHistogram histogram) {
+        return LatencyPercentilesDTO.builder()
+                .sampleCount(histogram.getTotalCount())
+                .p50Minutes(toMinutes(histogram.quantile(0.50)))
+                .p90Minutes(toMinutes(histogram.quantile(0.90)))
+                .p99Minutes(toMinutes(histogram.quantile(0.99)))
+                .build();
+    }
+
+    private Double toMinutes(Double seconds) {
+        if (seconds == null) {
+            return null;
+        }
+        return BigDecimal.valueOf(seconds / 60.0).setScale(1, RoundingMode.HALF_UP).doubleValue();
+    }
+}
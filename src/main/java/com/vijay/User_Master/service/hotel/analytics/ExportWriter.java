@@ -0,0 +1,152 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ExportWriter - Row-at-a-time CSV / NDJSON encoder for analytics exports
+ * Holds only the current row and a fixed-size output buffer, so memory does
+ * not depend on the number of rows. The target stream is never closed -
+ * call flush() once the last row is written. Not thread-safe.
+ */
+public class ExportWriter {
+
+    public enum Format {
+        CSV("text/csv", ".csv"),
+        NDJSON("application/x-ndjson", ".ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final Format format;
+    private final String[] columns;
+    private final Writer writer;
+    private final JsonGenerator json;
+    private long rows;
+
+    public ExportWriter(Format format, String[] columns, OutputStream out, JsonFactory jsonFactory) throws IOException {
+        this.format = format;
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == Format.NDJSON) {
+            this.json = jsonFactory.createGenerator(writer);
+            this.json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            this.json.setRootValueSeparator(null); // Rows are newline-terminated instead
+        } else {
+            this.json = null;
+            writeCsvRow(columns);
+        }
+    }
+
+    /**
+     * Encode one row; values line up with the columns
+     */
+    public void writeRow(Object... values) throws IOException {
+        if (format == Format.NDJSON) {
+            writeJsonRow(values);
+        } else {
+            writeCsvRow(values);
+        }
+        // Push full buffers to the client periodically instead of holding them until the end
+        if (++rows % FLUSH_EVERY_ROWS == 0) {
+            flush();
+        }
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    public void flush() throws IOException {
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+
+    // ==================== ENCODERS ====================
+
+    private void writeCsvRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String text = toText(values[i]);
+            if (text != null) {
+                writeCsvField(text);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeCsvField(String text) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private void writeJsonRow(Object[] values) throws IOException {
+        json.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            Object value = values[i];
+            json.writeFieldName(columns[i]);
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof BigDecimal decimal) {
+                json.writeNumber(decimal);
+            } else if (value instanceof Long || value instanceof Integer) {
+                json.writeNumber(((Number) value).longValue());
+            } else if (value instanceof Boolean bool) {
+                json.writeBoolean(bool);
+            } else {
+                json.writeString(toText(value));
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private String toText(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof Enum<?> e) {
+            return e.name();
+        }
+        return value.toString(); // java.time values render as ISO-8601
+    }
+}
@@ -0,0 +1,66 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * LatencyHistogram - Log-bucketed, mergeable latency histogram (DDSketch-style)
+ * Bucket i holds values in (GAMMA^(i-1), GAMMA^i] seconds, so every quantile is
+ * reported within ~2.5% relative error. Histograms merge by adding bucket counts,
+ * which is what lets per-day / per-agent buckets be summed in SQL.
+ */
+public final class LatencyHistogram {
+
+    public static final double GAMMA = 1.05;
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private final TreeMap<Integer, Long> counts = new TreeMap<>();
+    private long totalCount;
+
+    /**
+     * Bucket index for a latency; everything up to one second lands in bucket 0
+     */
+    public static int bucketOf(long seconds) {
+        return seconds <= 1 ? 0 : (int) Math.ceil(Math.log(seconds) / LOG_GAMMA);
+    }
+
+    /**
+     * Representative value (seconds) of a bucket - midpoint in relative terms
+     */
+    public static double valueOf(int bucket) {
+        return bucket == 0 ? 1.0 : 2 * Math.pow(GAMMA, bucket) / (GAMMA + 1);
+    }
+
+    public void add(int bucket, long count) {
+        counts.merge(bucket, count, Long::sum);
+        totalCount += count;
+    }
+
+    public void merge(LatencyHistogram other) {
+        for (Map.Entry<Integer, Long> entry : other.counts.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Latency in seconds at quantile q (0..1); null when empty
+     */
+    public Double quantile(double q) {
+        if (totalCount == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * totalCount));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> entry : counts.entrySet()) {
+            seen += entry.getValue();
+            if (seen >= rank) {
+                return valueOf(entry.getKey());
+            }
+        }
+        return valueOf(counts.lastKey());
+    }
+}
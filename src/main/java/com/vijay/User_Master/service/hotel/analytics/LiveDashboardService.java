@@ -0,0 +1,308 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.Helper.BusinessContextFilter;
+import com.vijay.User_Master.dto.hotel.analytics.DashboardEventDTO;
+import com.vijay.User_Master.dto.hotel.analytics.DashboardOverviewDTO;
+import com.vijay.User_Master.dto.hotel.analytics.DashboardPatchDTO;
+import com.vijay.User_Master.event.hotel.HotelDataChangedEvent;
+import com.vijay.User_Master.service.hotel.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * LiveDashboardService - Server-Sent Events feed of the dashboard overview per business
+ * A subscriber gets one "snapshot" event, then "patch" events holding only the
+ * overview fields that changed plus the notable events behind them. Patches are
+ * derived from domain events and coalesced: at most one frame per flush interval,
+ * however many writes happened in between. Fields events cannot update exactly
+ * (tables, agents, reservation counts, growth) come from a rate-limited re-read.
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class LiveDashboardService {
+
+    private static final Set<String> ACTIVE_DELIVERY_STATUSES = Set.of("PENDING", "ASSIGNED", "PICKED_UP", "IN_TRANSIT");
+    private static final Set<String> TABLE_RELEASING_ORDER_STATUSES = Set.of("COMPLETED", "DELIVERED", "CANCELLED");
+    private static final Set<String> TABLE_CHANGING_RESERVATION_STATUSES = Set.of("CHECKED_IN", "COMPLETED");
+    private static final int MAX_EVENTS_PER_FRAME = 50;
+    private static final long HEARTBEAT_MS = 15_000;
+
+    // Record key so the all-businesses (admin) feed can use a null businessId
+    private record FeedKey(Long businessId) {}
+
+    private static class Feed {
+        private final FeedKey key;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private DashboardOverviewDTO current;  // State as last sent to subscribers
+        private boolean closed;
+
+        // Accumulated since the last frame
+        private long newOrders;
+        private BigDecimal newRevenue = BigDecimal.ZERO;
+        private long activeDeliveriesDelta;
+        private final List<DashboardEventDTO> events = new ArrayList<>();
+        private int droppedEvents;
+        private boolean resyncRequested;
+
+        private long lastResyncAt;
+        private long lastFrameAt;
+
+        private Feed(FeedKey key) {
+            this.key = key;
+        }
+    }
+
+    private final AnalyticsService analyticsService;
+    private final BusinessContextFilter businessContext;
+    private final ObjectMapper objectMapper;
+
+    private final Map<FeedKey, Feed> feeds = new ConcurrentHashMap<>();
+
+    @Value("${analytics.live.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${analytics.live.resync-ms:5000}")
+    private long resyncMs;
+
+    @Value("${analytics.live.refresh-ms:60000}")
+    private long refreshMs;
+
+    /**
+     * Open a feed for the caller's business (all businesses for admin)
+     */
+    public SseEmitter subscribe() {
+        // Resolved on the request thread - events are pushed from the scheduler thread
+        FeedKey key = new FeedKey(businessContext.getCurrentBusinessId());
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+
+        while (true) {
+            Feed feed = feeds.computeIfAbsent(key, Feed::new);
+            DashboardOverviewDTO baseline = feed.current != null ? null : analyticsService.getDashboardOverview(key.businessId());
+            synchronized (feed) {
+                if (feed.closed) {
+                    continue; // Last subscriber left meanwhile and the feed was dropped
+                }
+                if (feed.current == null) {
+                    feed.current = baseline;
+                    feed.lastResyncAt = System.currentTimeMillis();
+                }
+                try {
+                    emitter.send(SseEmitter.event().name("snapshot").data(feed.current));
+                } catch (IOException e) {
+                    emitter.completeWithError(e);
+                    return emitter;
+                }
+                feed.emitters.add(emitter);
+            }
+            emitter.onCompletion(() -> unsubscribe(feed, emitter));
+            emitter.onTimeout(() -> unsubscribe(feed, emitter));
+            emitter.onError(e -> unsubscribe(feed, emitter));
+            log.debug("Live dashboard subscriber added for business {} ({} open)", key.businessId(), feed.emitters.size());
+            return emitter;
+        }
+    }
+
+    /**
+     * Fold a committed write into the pending frame of every feed that shows it
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelDataChanged(HotelDataChangedEvent event) {
+        for (Feed feed : feeds.values()) {
+            Long businessId = feed.key.businessId();
+            if (businessId != null && event.getBusinessId() == null) {
+                // Owner unknown - it may or may not belong to this business
+                synchronized (feed) {
+                    feed.resyncRequested = true;
+                }
+            } else if (businessId == null || businessId.equals(event.getBusinessId())) {
+                synchronized (feed) {
+                    apply(feed, event);
+                }
+            }
+        }
+    }
+
+    // ==================== SCHEDULED JOBS ====================
+
+    /**
+     * Send one coalesced frame per feed with pending changes
+     */
+    @Scheduled(fixedDelayString = "${analytics.live.flush-ms:250}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (Feed feed : feeds.values()) {
+            try {
+                flush(feed, now);
+            } catch (RuntimeException e) {
+                log.warn("Live dashboard flush failed for business {}: {}", feed.key.businessId(), e.getMessage());
+            }
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private void apply(Feed feed, HotelDataChangedEvent event) {
+        String previous = event.getPreviousStatus();
+        String status = event.getStatus();
+
+        switch (event.getKind()) {
+            case ORDER -> {
+                if (event.isCreated()) {
+                    BigDecimal amount = event.getAmount() != null ? event.getAmount() : BigDecimal.ZERO;
+                    feed.newOrders++;
+                    feed.newRevenue = feed.newRevenue.add(amount);
+                    addEvent(feed, "ORDER_PLACED", event, amount);
+                    feed.resyncRequested = true; // Dine-in guest orders occupy a table
+                } else if (status != null && TABLE_RELEASING_ORDER_STATUSES.contains(status)) {
+                    feed.resyncRequested = true;
+                }
+            }
+            case DELIVERY -> {
+                if (status == null) {
+                    feed.resyncRequested = true; // Agent online/availability change
+                } else if (!status.equals(previous)) {
+                    feed.activeDeliveriesDelta += isActiveDelivery(status) - isActiveDelivery(previous);
+                    addEvent(feed, "DELIVERY_STATUS", event, null);
+                }
+            }
+            case RESERVATION -> {
+                if ("CHECKED_IN".equals(status) && !status.equals(previous)) {
+                    addEvent(feed, "RESERVATION_CHECKED_IN", event, null);
+                }
+                if (status == null || event.isCreated() || TABLE_CHANGING_RESERVATION_STATUSES.contains(status)) {
+                    feed.resyncRequested = true;
+                }
+            }
+            case PAYMENT -> {
+                // Not part of the overview - revenue is counted from orders
+            }
+        }
+    }
+
+    private void addEvent(Feed feed, String type, HotelDataChangedEvent event, BigDecimal amount) {
+        if (feed.events.size() >= MAX_EVENTS_PER_FRAME) {
+            feed.droppedEvents++;
+            return;
+        }
+        feed.events.add(DashboardEventDTO.builder()
+                .type(type)
+                .entityId(event.getEntityId())
+                .status(event.getStatus())
+                .amount(amount)
+                .build());
+    }
+
+    private long isActiveDelivery(String status) {
+        return status != null && ACTIVE_DELIVERY_STATUSES.contains(status) ? 1 : 0;
+    }
+
+    private void flush(Feed feed, long now) {
+        boolean resync;
+        synchronized (feed) {
+            if (feed.current == null || feed.emitters.isEmpty()) {
+                return;
+            }
+            resync = (feed.resyncRequested && now - feed.lastResyncAt >= resyncMs) || now - feed.lastResyncAt >= refreshMs;
+            if (resync) {
+                // The re-read already includes everything folded in so far
+                feed.resyncRequested = false;
+                feed.lastResyncAt = now;
+                feed.newOrders = 0;
+                feed.newRevenue = BigDecimal.ZERO;
+                feed.activeDeliveriesDelta = 0;
+            }
+        }
+
+        // Outside the lock - event listeners on request threads must not wait for the query
+        DashboardOverviewDTO fresh = resync ? analyticsService.getDashboardOverview(feed.key.businessId()) : null;
+
+        DashboardPatchDTO patch;
+        List<SseEmitter> emitters;
+        synchronized (feed) {
+            DashboardOverviewDTO next = applyPending(fresh != null ? fresh : feed.current, feed);
+            Map<String, Object> changed = diff(feed.current, next);
+            if (changed.isEmpty() && feed.events.isEmpty()) {
+                if (now - feed.lastFrameAt < HEARTBEAT_MS) {
+                    return;
+                }
+                patch = null;
+            } else {
+                patch = DashboardPatchDTO.builder()
+                        .overview(changed)
+                        .events(new ArrayList<>(feed.events))
+                        .droppedEvents(feed.droppedEvents)
+                        .build();
+            }
+            feed.current = next;
+            feed.events.clear();
+            feed.droppedEvents = 0;
+            feed.lastFrameAt = now;
+            emitters = List.copyOf(feed.emitters);
+        }
+
+        for (SseEmitter emitter : emitters) {
+            try {
+                // Heartbeat comments keep idle connections open through proxies
+                emitter.send(patch != null ? SseEmitter.event().name("patch").data(patch) : SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(feed, emitter);
+            }
+        }
+    }
+
+    private DashboardOverviewDTO applyPending(DashboardOverviewDTO base, Feed feed) {
+        if (feed.newOrders == 0 && feed.activeDeliveriesDelta == 0) {
+            return base;
+        }
+        DashboardOverviewDTO next = base.toBuilder()
+                .todayOrders(base.getTodayOrders() + feed.newOrders)
+                .totalOrders(base.getTotalOrders() + feed.newOrders)
+                .todayRevenue(base.getTodayRevenue().add(feed.newRevenue))
+                .totalRevenue(base.getTotalRevenue().add(feed.newRevenue))
+                .activeDeliveries(Math.max(0L, base.getActiveDeliveries() + feed.activeDeliveriesDelta))
+                .build();
+        feed.newOrders = 0;
+        feed.newRevenue = BigDecimal.ZERO;
+        feed.activeDeliveriesDelta = 0;
+        return next;
+    }
+
+    private Map<String, Object> diff(DashboardOverviewDTO before, DashboardOverviewDTO after) {
+        TypeReference<Map<String, Object>> type = new TypeReference<>() {};
+        Map<String, Object> old = objectMapper.convertValue(before, type);
+        Map<String, Object> changed = new LinkedHashMap<>();
+        objectMapper.convertValue(after, type).forEach((field, value) -> {
+            if (!Objects.equals(old.get(field), value)) {
+                changed.put(field, value);
+            }
+        });
+        return changed;
+    }
+
+    private void unsubscribe(Feed feed, SseEmitter emitter) {
+        synchronized (feed) {
+            feed.emitters.remove(emitter);
+            if (feed.emitters.isEmpty() && !feed.closed) {
+                feed.closed = true;
+                feeds.remove(feed.key, feed);
+                log.debug("Live dashboard feed closed for business {}", feed.key.businessId());
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.repository.hotel.OrderRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OrderRollupService - Maintains hourly order buckets per business
+ * Called from the order write paths inside their transaction, so a bucket
+ * is updated exactly when the order row is. Analytics read the buckets.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderRollupService {
+
+    public record StatusChange(Order order, Order.OrderStatus previousStatus) {}
+
+    private record BucketKey(Long businessId, LocalDateTime bucketStart, Order.OrderType orderType, Order.OrderStatus status) {}
+
+    private final OrderRollupRepository rollupRepository;
+
+    /**
+     * Count a newly placed order into its hour bucket
+     */
+    @Transactional
+    public void recordOrderPlaced(Order order) {
+        applyDelta(order, order.getStatus(), 1);
+    }
+
+    /**
+     * Move an order from its previous status bucket to its current one
+     */
+    @Transactional
+    public void recordStatusChange(Order order, Order.OrderStatus previousStatus) {
+        if (previousStatus == null || previousStatus == order.getStatus()) {
+            return;
+        }
+        applyDelta(order, previousStatus, -1);
+        applyDelta(order, order.getStatus(), 1);
+    }
+
+    /**
+     * Move many orders at once - deltas are summed per bucket, so each bucket gets one upsert
+     */
+    @Transactional
+    public void recordStatusChanges(List<StatusChange> changes) {
+        Map<BucketKey, Long> counts = new LinkedHashMap<>();
+        Map<BucketKey, BigDecimal> revenues = new LinkedHashMap<>();
+        for (StatusChange change : changes) {
+            Order order = change.order();
+            if (change.previousStatus() == null || change.previousStatus() == order.getStatus()) {
+                continue;
+            }
+            if (order.getCreatedAt() == null) {
+                log.warn("Order {} has no createdAt yet - skipping rollup", order.getId());
+                continue;
+            }
+            BigDecimal amount = order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+            LocalDateTime bucket = bucketOf(order.getCreatedAt());
+            BucketKey from = new BucketKey(order.getBusinessId(), bucket, order.getOrderType(), change.previousStatus());
+            BucketKey to = new BucketKey(order.getBusinessId(), bucket, order.getOrderType(), order.getStatus());
+            counts.merge(from, -1L, Long::sum);
+            revenues.merge(from, amount.negate(), BigDecimal::add);
+            counts.merge(to, 1L, Long::sum);
+            revenues.merge(to, amount, BigDecimal::add);
+        }
+
+        counts.forEach((key, count) -> {
+            if (count != 0) {
+                rollupRepository.applyDelta(key.businessId(), key.bucketStart(), key.orderType().name(),
+                        key.status().name(), count, revenues.get(key));
+            }
+        });
+    }
+
+    public List<OrderRollupRepository.RollupBucket> getBuckets(Long businessId, LocalDateTime start, LocalDateTime end) {
+        return rollupRepository.findBuckets(businessId, bucketOf(start), end);
+    }
+
+    /**
+     * Recompute buckets from raw orders - used to backfill history or repair drift
+     * The range is widened to whole hours so no bucket is left half rebuilt
+     */
+    @Transactional
+    public int rebuild(LocalDateTime start, LocalDateTime end) {
+        LocalDateTime from = bucketOf(start);
+        LocalDateTime to = bucketOf(end).plusHours(1).minusNanos(1);
+        log.info("Rebuilding order rollups from {} to {}", from, to);
+
+        rollupRepository.deleteBucketsBetween(from, to);
+        int buckets = rollupRepository.rebuildBucketsBetween(from, to);
+
+        log.info("Rebuilt {} order rollup buckets", buckets);
+        return buckets;
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private void applyDelta(Order order, Order.OrderStatus status, long sign) {
+        if (order.getCreatedAt() == null) {
+            log.warn("Order {} has no createdAt yet - skipping rollup", order.getId());
+            return;
+        }
+        BigDecimal amount = order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+
+        rollupRepository.applyDelta(
+                order.getBusinessId(),
+                bucketOf(order.getCreatedAt()),
+                order.getOrderType().name(),
+                status.name(),
+                sign,
+                sign < 0 ? amount.negate() : amount);
+    }
+
+    private LocalDateTime bucketOf(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.HOURS);
+    }
+}
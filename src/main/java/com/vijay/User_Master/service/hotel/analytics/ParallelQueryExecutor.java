@@ -0,0 +1,107 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * ParallelQueryExecutor - Runs independent read queries concurrently on a bounded platform pool
+ * The pool size caps in-flight queries across all requests so the fan-out cannot drain the
+ * Hikari pool; platform threads because a connection wait inside synchronized driver code would
+ * pin a virtual thread's carrier. Each query runs in its own read-only transaction whose timeout
+ * starts when the query does: the driver cancels statements still running at the deadline, which
+ * frees the thread and the connection. A query that fails, times out or waited longer than the
+ * timeout in the queue falls back to a default value, so it degrades one metric instead of the
+ * whole response.
+ *
+ * Queries run outside the caller's thread: resolve tenant/security context
+ * (e.g. BusinessContextFilter) before submitting.
+ */
+@Component
+@Slf4j
+public class ParallelQueryExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate queries;
+    private final long timeoutMillis;
+
+    public ParallelQueryExecutor(PlatformTransactionManager transactionManager,
+                                 @Value("${analytics.query.max-concurrency:12}") int maxConcurrency,
+                                 @Value("${analytics.query.timeout-ms:3000}") long timeoutMillis) {
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), Thread.ofPlatform().name("analytics-query-", 0).daemon().factory());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.queries = new TransactionTemplate(transactionManager);
+        this.queries.setReadOnly(true);
+        // Applied as the JDBC statement timeout; whole seconds, rounded up
+        this.queries.setTimeout((int) Math.max(1, (timeoutMillis + 999) / 1000));
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Start a new group of queries whose results are awaited together
+     */
+    public Fanout fanout() {
+        return new Fanout();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public final class Fanout {
+
+        private final List<CompletableFuture<?>> futures = new ArrayList<>();
+        private final Set<String> degraded = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Submit a query; on timeout or failure the future completes with the fallback
+         */
+        public <T> CompletableFuture<T> submit(String name, Supplier<T> query, T fallback) {
+            long submittedAt = System.nanoTime();
+            CompletableFuture<T> result = new CompletableFuture<>();
+            Future<?> task = executor.submit(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    long queuedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedAt);
+                    if (queuedMillis > timeoutMillis) {
+                        throw new TimeoutException("queued for " + queuedMillis + "ms");
+                    }
+                    result.complete(queries.execute(status -> query.get()));
+                } catch (Throwable ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+            // Backstop for work the statement timeout cannot cancel: the queue wait plus the query, each capped
+            CompletableFuture<T> future = result
+                    .orTimeout(2 * timeoutMillis, TimeUnit.MILLISECONDS)
+                    .exceptionally(ex -> {
+                        task.cancel(false);
+                        degraded.add(name);
+                        log.warn("Query '{}' failed or timed out after {}ms, using fallback: {}",
+                                name, timeoutMillis, ex.toString());
+                        return fallback;
+                    });
+            futures.add(future);
+            return future;
+        }
+
+        /**
+         * Wait for every submitted query; returns the names of the ones that fell back
+         */
+        public Set<String> await() {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            return new TreeSet<>(degraded);
+        }
+    }
+}
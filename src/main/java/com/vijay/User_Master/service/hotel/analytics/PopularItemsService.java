@@ -0,0 +1,219 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.entity.hotel.OrderItem;
+import com.vijay.User_Master.entity.hotel.PopularItemCheckpoint;
+import com.vijay.User_Master.repository.hotel.OrderItemRepository;
+import com.vijay.User_Master.repository.hotel.OrderRepository;
+import com.vijay.User_Master.repository.hotel.PopularItemCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PopularItemsService - Streaming top-K menu items per business
+ * One Space-Saving sketch per business and day, fed from order placement.
+ * "Today" reads one sketch, "this week" merges the last 7 - both bounded by the
+ * sketch capacity, not by order history. Sketches are checkpointed to
+ * hotel_popular_item_checkpoints and restored lazily after a restart; a nightly
+ * job replaces closed days with exact figures.
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class PopularItemsService {
+
+    public enum Window {
+        TODAY,
+        WEEK
+    }
+
+    private static final int WEEK_DAYS = 7;
+
+    private record DayKey(Long businessId, LocalDate day) {}
+
+    private static class DaySketch {
+        private final SpaceSavingSketch sketch;
+        private boolean dirty;
+
+        private DaySketch(SpaceSavingSketch sketch) {
+            this.sketch = sketch;
+        }
+    }
+
+    private final PopularItemCheckpointRepository checkpointRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderRepository orderRepository;
+
+    private final Map<DayKey, DaySketch> sketches = new ConcurrentHashMap<>();
+
+    @Value("${analytics.popular-items.capacity:64}")
+    private int capacity;
+
+    /**
+     * Count a placed order's items into today's sketch
+     * Applied after commit so rolled back orders are never counted
+     */
+    public void recordOrderItems(Order order, List<OrderItem> items) {
+        LocalDate day = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+        // Resolve (and restore from checkpoint) inside the caller's transaction
+        DaySketch daySketch = sketchFor(order.getBusinessId(), day);
+
+        Map<Long, Long> quantityByItem = new HashMap<>();
+        Map<Long, BigDecimal> revenueByItem = new HashMap<>();
+        for (OrderItem item : items) {
+            Long itemId = item.getMenuItem().getId();
+            quantityByItem.merge(itemId, item.getQuantity().longValue(), Long::sum);
+            revenueByItem.merge(itemId, item.getTotalPrice(), BigDecimal::add);
+        }
+
+        Runnable apply = () -> {
+            synchronized (daySketch) {
+                quantityByItem.forEach((itemId, quantity) ->
+                        daySketch.sketch.offer(itemId, quantity, revenueByItem.get(itemId)));
+                daySketch.dirty = true;
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Heaviest items for the business in the window, heaviest first
+     */
+    public List<SpaceSavingSketch.Counter> getTopItems(Long businessId, Window window, int limit) {
+        LocalDate today = LocalDate.now();
+        int days = window == Window.TODAY ? 1 : WEEK_DAYS;
+
+        List<SpaceSavingSketch> daySketches = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            DaySketch daySketch = sketchFor(businessId, today.minusDays(i));
+            synchronized (daySketch) {
+                daySketches.add(SpaceSavingSketch.merge(capacity, List.of(daySketch.sketch)));
+            }
+        }
+        return SpaceSavingSketch.merge(capacity, daySketches).top(limit);
+    }
+
+    // ==================== SCHEDULED JOBS ====================
+
+    /**
+     * Persist sketches changed since the last checkpoint and drop days outside every window
+     */
+    @Scheduled(fixedDelayString = "${analytics.popular-items.checkpoint-ms:300000}")
+    @Transactional
+    public void checkpoint() {
+        LocalDate oldestKept = LocalDate.now().minusDays(WEEK_DAYS - 1);
+        int written = 0;
+
+        for (Map.Entry<DayKey, DaySketch> entry : sketches.entrySet()) {
+            DayKey key = entry.getKey();
+            DaySketch daySketch = entry.getValue();
+
+            List<SpaceSavingSketch.Counter> counters = null;
+            synchronized (daySketch) {
+                if (daySketch.dirty) {
+                    counters = daySketch.sketch.counters();
+                    daySketch.dirty = false;
+                }
+            }
+            if (counters != null) {
+                writeCheckpoint(key, counters);
+                written++;
+            }
+            if (key.day().isBefore(oldestKept)) {
+                sketches.remove(key, daySketch);
+            }
+        }
+
+        if (written > 0) {
+            log.debug("Checkpointed {} popular-item sketches", written);
+        }
+    }
+
+    /**
+     * Replace the closed days of the week with exact counts from order items
+     */
+    @Scheduled(cron = "${analytics.popular-items.recompute-cron:0 30 3 * * *}")
+    @Transactional
+    public void recomputeExact() {
+        LocalDate today = LocalDate.now();
+        log.info("Recomputing popular items for the last {} closed days", WEEK_DAYS - 1);
+
+        for (int i = 1; i < WEEK_DAYS; i++) {
+            LocalDate day = today.minusDays(i);
+            LocalDateTime dayStart = day.atStartOfDay();
+            LocalDateTime dayEnd = day.atTime(LocalTime.MAX);
+
+            for (Long businessId : orderRepository.findBusinessIdsWithOrdersBetween(dayStart, dayEnd)) {
+                SpaceSavingSketch exact = new SpaceSavingSketch(capacity);
+                orderItemRepository.findTopSellingItems(businessId, dayStart, dayEnd, PageRequest.of(0, capacity))
+                        .forEach(sales -> exact.restore(new SpaceSavingSketch.Counter(
+                                sales.getItemId(), sales.getTotalQuantity(), 0,
+                                sales.getOrderCount(), sales.getRevenue())));
+
+                DayKey key = new DayKey(businessId, day);
+                sketches.put(key, new DaySketch(exact));
+                writeCheckpoint(key, exact.counters());
+            }
+        }
+
+        checkpointRepository.deleteOlderThan(today.minusDays(WEEK_DAYS - 1));
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private DaySketch sketchFor(Long businessId, LocalDate day) {
+        return sketches.computeIfAbsent(new DayKey(businessId, day), this::restore);
+    }
+
+    private DaySketch restore(DayKey key) {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+        checkpointRepository.findByBusinessIdAndBucketDate(key.businessId(), key.day())
+                .forEach(row -> sketch.restore(new SpaceSavingSketch.Counter(
+                        row.getMenuItemId(), row.getQuantity(), row.getCountError(),
+                        row.getOrderCount(), row.getRevenue())));
+        return new DaySketch(sketch);
+    }
+
+    private void writeCheckpoint(DayKey key, List<SpaceSavingSketch.Counter> counters) {
+        LocalDateTime now = LocalDateTime.now();
+        checkpointRepository.deleteDay(key.businessId(), key.day());
+        checkpointRepository.saveAll(counters.stream()
+                .map(c -> PopularItemCheckpoint.builder()
+                        .businessId(key.businessId())
+                        .bucketDate(key.day())
+                        .menuItemId(c.getItemId())
+                        .quantity(c.getCount())
+                        .countError(c.getError())
+                        .orderCount(c.getOrderCount())
+                        .revenue(c.getRevenue())
+                        .updatedAt(now)
+                        .build())
+                .toList());
+    }
+}
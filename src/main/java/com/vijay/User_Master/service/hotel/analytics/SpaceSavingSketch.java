@@ -0,0 +1,137 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * SpaceSavingSketch - Weighted Space-Saving heavy-hitter summary (Metwally et al.)
+ * Keeps at most `capacity` counters. Any item whose true weight exceeds total/capacity
+ * is guaranteed to be monitored; a counter's true weight lies in [count - error, count].
+ * Memory and per-update cost are bounded by capacity, independent of history length.
+ * Not thread-safe - callers synchronize.
+ */
+public class SpaceSavingSketch {
+
+    @Getter
+    @AllArgsConstructor
+    public static class Counter {
+        private final Long itemId;
+        private long count;         // Over-estimate of total quantity
+        private long error;         // Max over-estimation inherited from an evicted counter
+        private long orderCount;    // Orders seen while monitored (lower bound)
+        private BigDecimal revenue; // Revenue seen while monitored (lower bound)
+
+        public long getGuaranteedCount() {
+            return count - error;
+        }
+    }
+
+    private final int capacity;
+    private final Map<Long, Counter> counters;
+
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Add weight for an item; evicts the smallest counter when full
+     */
+    public void offer(Long itemId, long weight, BigDecimal revenue) {
+        Counter counter = counters.get(itemId);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter(itemId, 0, 0, 0, BigDecimal.ZERO);
+            } else {
+                Counter min = minCounter();
+                counters.remove(min.getItemId());
+                counter = new Counter(itemId, min.getCount(), min.getCount(), 0, BigDecimal.ZERO);
+            }
+            counters.put(itemId, counter);
+        }
+        counter.count += weight;
+        counter.orderCount++;
+        counter.revenue = counter.revenue.add(revenue);
+    }
+
+    /**
+     * Load a counter as-is (checkpoint restore / exact recompute)
+     */
+    public void restore(Counter counter) {
+        counters.put(counter.getItemId(), new Counter(counter.getItemId(), counter.getCount(),
+                counter.getError(), counter.getOrderCount(), counter.getRevenue()));
+    }
+
+    /**
+     * Heaviest items first
+     */
+    public List<Counter> top(int limit) {
+        return counters.values().stream()
+                .sorted(Comparator.comparingLong(Counter::getCount).reversed()
+                        .thenComparing(Counter::getItemId))
+                .limit(limit)
+                .map(c -> new Counter(c.getItemId(), c.getCount(), c.getError(), c.getOrderCount(), c.getRevenue()))
+                .toList();
+    }
+
+    public List<Counter> counters() {
+        return top(capacity);
+    }
+
+    public boolean isEmpty() {
+        return counters.isEmpty();
+    }
+
+    /**
+     * Combine summaries over disjoint streams (e.g. the days of a week)
+     * An item missing from a full sketch may still have weight up to that sketch's
+     * minimum count there, so that minimum is added to both its count and error.
+     */
+    public static SpaceSavingSketch merge(int capacity, List<SpaceSavingSketch> sketches) {
+        Map<Long, Counter> combined = new HashMap<>();
+        for (SpaceSavingSketch sketch : sketches) {
+            for (Counter c : sketch.counters.values()) {
+                combined.merge(c.getItemId(),
+                        new Counter(c.getItemId(), c.getCount(), c.getError(), c.getOrderCount(), c.getRevenue()),
+                        (a, b) -> new Counter(a.getItemId(), a.getCount() + b.getCount(), a.getError() + b.getError(),
+                                a.getOrderCount() + b.getOrderCount(), a.getRevenue().add(b.getRevenue())));
+            }
+        }
+        for (SpaceSavingSketch sketch : sketches) {
+            if (sketch.counters.size() < sketch.capacity) {
+                continue; // Not full: absent items have exact weight 0 in that sketch
+            }
+            long floor = sketch.minCounter().getCount();
+            for (Counter c : combined.values()) {
+                if (!sketch.counters.containsKey(c.getItemId())) {
+                    c.count += floor;
+                    c.error += floor;
+                }
+            }
+        }
+
+        SpaceSavingSketch merged = new SpaceSavingSketch(capacity);
+        combined.values().stream()
+                .sorted(Comparator.comparingLong(Counter::getCount).reversed())
+                .limit(capacity)
+                .forEach(merged::restore);
+        return merged;
+    }
+
+    private Counter minCounter() {
+        Counter min = null;
+        for (Counter c : counters.values()) {
+            if (min == null || c.getCount() < min.getCount()) {
+                min = c;
+            }
+        }
+        return min;
+    }
+}
@@ -0,0 +1,92 @@
+package com.vijay.User_Master.Helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 250_000;
+
+    @Test
+    void concurrentIdsAreUniqueAndIncreasingPerThread() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, System::currentTimeMillis);
+        long[][] ids = new long[THREADS][IDS_PER_THREAD];
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        Future<?>[] futures = new Future<?>[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            long[] out = ids[t];
+            futures[t] = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < out.length; i++) {
+                    out[i] = generator.nextId();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            for (int i = 1; i < IDS_PER_THREAD; i++) {
+                assertTrue(ids[t][i] > ids[t][i - 1], "ids must increase within a thread");
+            }
+            System.arraycopy(ids[t], 0, all, t * IDS_PER_THREAD, IDS_PER_THREAD);
+        }
+        // At over 4096 ids per millisecond the sequence carries into the next millisecond - still unique
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "duplicate id");
+        }
+    }
+
+    @Test
+    void staysMonotonicWhenClockStallsOrStepsBack() {
+        AtomicLong now = new AtomicLong(Instant.parse("2025-06-01T12:00:00Z").toEpochMilli());
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, now::get);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {  // Stalled clock: more than one millisecond of sequence
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        now.addAndGet(-5_000);  // NTP steps the clock back
+        long afterStepBack = generator.nextId();
+        assertTrue(afterStepBack > previous);
+
+        now.addAndGet(60_000);
+        long later = generator.nextId();
+        assertEquals(Instant.ofEpochMilli(now.get()), SnowflakeIdGenerator.timestampOf(later));
+        assertEquals(0, later & ((1L << SnowflakeIdGenerator.SEQUENCE_BITS) - 1));
+    }
+
+    @Test
+    void nodesNeverCollide() {
+        AtomicLong now = new AtomicLong(System.currentTimeMillis());
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1, now::get);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2, now::get);
+
+        // Same clock, same sequence - only the node bits differ
+        assertNotEquals(first.nextId(), second.nextId());
+        assertEquals(1L << SnowflakeIdGenerator.SEQUENCE_BITS, second.nextId() - first.nextId());
+        assertThrows(IllegalArgumentException.class,
+                () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1, now::get));
+    }
+}
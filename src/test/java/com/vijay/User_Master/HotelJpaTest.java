@@ -0,0 +1,36 @@
+package com.vijay.User_Master;
+
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.repository.hotel.OrderRepository;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.lang.annotation.*;
+
+/**
+ * HotelJpaTest - JPA slice over the hotel entities and repositories
+ * Runs on the "h2" profile (src/test/resources/application-h2.properties). Tests add the
+ * services they exercise with @Import.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@ContextConfiguration(classes = HotelJpaTest.Config.class)
+public @interface HotelJpaTest {
+
+    // Deliberately not a @Configuration, so the application's component scan never picks it up
+    @EnableJpaAuditing
+    @EntityScan(basePackageClasses = Order.class)
+    @EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+    class Config {
+    }
+}
@@ -0,0 +1,81 @@
+package com.vijay.User_Master.config;
+
+import com.vijay.User_Master.Helper.BusinessContextFilter;
+import com.vijay.User_Master.config.security.CustomUserDetails;
+import com.vijay.User_Master.entity.AccountStatus;
+import com.vijay.User_Master.entity.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusinessTopicInterceptorTest {
+
+    private static final long BUSINESS_ID = 7L;
+    private static final long OTHER_BUSINESS_ID = 8L;
+
+    private final BusinessTopicInterceptor interceptor = new BusinessTopicInterceptor(new BusinessContextFilter());
+
+    @Test
+    void ownersSubscribeOnlyToTheirOwnBusiness() {
+        CustomUserDetails owner = user(BUSINESS_ID, "ROLE_OWNER");
+
+        assertAccepted(subscribe(owner, "/topic/business/" + BUSINESS_ID + "/kitchen"));
+        assertAccepted(subscribe(owner, "/topic/business/" + BUSINESS_ID + "/kitchen/station/3"));
+        assertRefused(subscribe(owner, "/topic/business/" + OTHER_BUSINESS_ID + "/kitchen"));
+        assertRefused(subscribe(owner, "/topic/business/" + OTHER_BUSINESS_ID + "/menu"));
+        assertRefused(subscribe(owner, "/topic/business/not-a-number/kitchen"));
+        // Only business topics are checked
+        assertAccepted(subscribe(owner, "/topic/announcements"));
+    }
+
+    @Test
+    void adminsWatchAnyBusinessAndAnonymousSessionsNone() {
+        assertAccepted(subscribe(user(1L, "ROLE_ADMIN"), "/topic/business/" + OTHER_BUSINESS_ID + "/kitchen"));
+        assertRefused(subscribe(user(BUSINESS_ID, "ROLE_NORMAL"), "/topic/business/" + BUSINESS_ID + "/kitchen"));
+        assertRefused(subscribe(null, "/topic/business/" + BUSINESS_ID + "/kitchen"));
+    }
+
+    @Test
+    void otherFramesPassThrough() {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.SEND);
+        headers.setDestination("/app/business/" + OTHER_BUSINESS_ID);
+        assertAccepted(MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders()));
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private void assertAccepted(Message<?> message) {
+        assertSame(message, interceptor.preSend(message, null));
+    }
+
+    private void assertRefused(Message<?> message) {
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(message, null));
+    }
+
+    private static Message<byte[]> subscribe(CustomUserDetails user, String destination) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        headers.setDestination(destination);
+        headers.setSessionId("session-1");
+        headers.setSubscriptionId("sub-1");
+        if (user != null) {
+            headers.setUser(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        }
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+
+    private static CustomUserDetails user(long id, String role) {
+        Role granted = new Role();
+        granted.setName(role);
+        return new CustomUserDetails(id, "User " + id, "user" + id, "user" + id + "@example.com", "secret",
+                Set.of(granted), null, false, null, null, List.of(), AccountStatus.builder().isActive(true).build());
+    }
+}
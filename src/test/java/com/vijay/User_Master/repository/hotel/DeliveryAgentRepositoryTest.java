@@ -0,0 +1,136 @@
+package com.vijay.User_Master.repository.hotel;
+
+import com.vijay.User_Master.HotelJpaTest;
+import com.vijay.User_Master.entity.hotel.DeliveryAgent;
+import com.vijay.User_Master.entity.hotel.DeliveryTracking;
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.service.hotel.analytics.AgentLeaderboardSort;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@HotelJpaTest
+class DeliveryAgentRepositoryTest {
+
+    private static final long BUSINESS_ID = 1L;
+    private static final int AGENTS = 500;
+
+    @Autowired
+    private DeliveryAgentRepository agentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime pickedUp = LocalDateTime.now().minusHours(2);
+        for (int i = 0; i < AGENTS; i++) {
+            DeliveryAgent agent = DeliveryAgent.builder()
+                    .businessId(BUSINESS_ID)
+                    .name("Agent " + i)
+                    .phone(String.format("9%09d", i))
+                    .email("agent" + i + "@test.local")
+                    .rating(i % 50 / 10.0)
+                    .build();
+            entityManager.persist(agent);
+
+            // Agent i has i % 3 deliveries: the first delivered in 20 minutes, the second failed
+            for (int d = 0; d < i % 3; d++) {
+                Order order = Order.builder()
+                        .businessId(BUSINESS_ID)
+                        .orderNumber("ORD-" + i + "-" + d)
+                        .userId(1L)
+                        .orderType(Order.OrderType.DELIVERY)
+                        .status(Order.OrderStatus.DELIVERED)
+                        .subtotal(BigDecimal.TEN)
+                        .totalAmount(BigDecimal.TEN)
+                        .build();
+                entityManager.persist(order);
+
+                entityManager.persist(DeliveryTracking.builder()
+                        .businessId(BUSINESS_ID)
+                        .order(order)
+                        .agent(agent)
+                        .status(d == 0 ? DeliveryTracking.DeliveryStatus.DELIVERED : DeliveryTracking.DeliveryStatus.FAILED)
+                        .pickedUpAt(pickedUp)
+                        .deliveredAt(d == 0 ? pickedUp.plusMinutes(20) : null)
+                        .build());
+            }
+        }
+
+        // An agent of another business must not show up
+        entityManager.persist(DeliveryAgent.builder()
+                .businessId(2L)
+                .name("Other business agent")
+                .phone("8000000000")
+                .email("other@test.local")
+                .rating(5.0)
+                .build());
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void leaderboardPageIsOneQueryPlusCount() {
+        Page<DeliveryAgentRepository.AgentLeaderboardRow> page = agentRepository.findAgentLeaderboard(
+                BUSINESS_ID, PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "rating").and(Sort.by("agentId"))));
+
+        assertEquals(AGENTS, page.getTotalElements());
+        assertEquals(50, page.getContent().size());
+        assertEquals(2, statistics.getPrepareStatementCount(), "page query + count query, no per-agent lookups");
+        assertEquals(4.9, page.getContent().get(0).getRating());
+    }
+
+    @Test
+    void leaderboardAggregatesOutcomesAndTiming() {
+        Page<DeliveryAgentRepository.AgentLeaderboardRow> page = agentRepository.findAgentLeaderboard(
+                BUSINESS_ID, PageRequest.of(0, AGENTS, Sort.by("agentId")));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        // Seed order: agent index 2 has one delivered and one failed delivery
+        DeliveryAgentRepository.AgentLeaderboardRow agent = page.getContent().get(2);
+        assertEquals("Agent 2", agent.getAgentName());
+        assertEquals(2L, agent.getAssignedDeliveries());
+        assertEquals(1L, agent.getSuccessfulDeliveries());
+        assertEquals(1L, agent.getFailedDeliveries());
+        assertEquals(20 * 60.0, agent.getAverageDeliverySeconds(), 0.5);
+
+        DeliveryAgentRepository.AgentLeaderboardRow idle = page.getContent().get(0);
+        assertEquals(0L, idle.getAssignedDeliveries());
+        assertNull(idle.getAverageDeliverySeconds());
+    }
+
+    @Test
+    void leaderboardSortsBySuccessfulDeliveries() {
+        Page<DeliveryAgentRepository.AgentLeaderboardRow> page = agentRepository.findAgentLeaderboard(
+                BUSINESS_ID, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "successfulDeliveries")));
+
+        page.getContent().forEach(row -> assertEquals(1L, row.getSuccessfulDeliveries()));
+    }
+
+    @Test
+    void speedLeaderboardPutsAgentsWithoutDeliveriesLast() {
+        Page<DeliveryAgentRepository.AgentLeaderboardRow> page = agentRepository.findAgentLeaderboard(
+                BUSINESS_ID, PageRequest.of(0, 10, AgentLeaderboardSort.SPEED.getSort()));
+
+        page.getContent().forEach(row -> assertNotNull(row.getAverageDeliverySeconds()));
+    }
+}
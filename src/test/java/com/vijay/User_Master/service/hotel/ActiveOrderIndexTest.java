@@ -0,0 +1,127 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.dto.hotel.OrderDTO;
+import com.vijay.User_Master.entity.hotel.Order;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveOrderIndexTest {
+
+    private static final long BUSINESS_ID = 1L;
+
+    private final ActiveOrderIndex index = new ActiveOrderIndex(0);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadsOnceThenServesFromMemory() {
+        List<OrderDTO> database = new ArrayList<>(List.of(dto(1, "PENDING"), dto(2, "PREPARING")));
+
+        assertEquals(ids(1, 2), ids(index.getActiveOrders(BUSINESS_ID, () -> load(database))));
+        assertEquals(ids(1, 2), ids(index.getActiveOrders(BUSINESS_ID, () -> load(database))));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void placementsAndTransitionsKeepTheIndexCurrent() {
+        index.getActiveOrders(BUSINESS_ID, () -> load(List.of(dto(1, "PENDING"), dto(2, "PENDING"))));
+
+        index.recordPlaced(BUSINESS_ID, dto(3, "PENDING"));
+        index.recordStatusChange(order(1, Order.OrderStatus.PREPARING));
+        index.recordStatusChange(order(2, Order.OrderStatus.CANCELLED));
+
+        List<OrderDTO> active = index.getActiveOrders(BUSINESS_ID, () -> fail("should be served from memory"));
+        assertEquals(ids(1, 3), ids(active));
+        assertEquals("PREPARING", active.get(0).getStatus());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void storedOrdersAreReplacedNotMutated() {
+        OrderDTO placed = dto(1, "PENDING");
+        index.getActiveOrders(BUSINESS_ID, () -> load(List.of(placed)));
+
+        index.recordStatusChange(order(1, Order.OrderStatus.READY));
+
+        assertEquals("PENDING", placed.getStatus());
+        assertEquals("READY", index.getActiveOrders(BUSINESS_ID, List::of).get(0).getStatus());
+    }
+
+    @Test
+    void loadRacingWithAChangeIsNotCached() {
+        List<OrderDTO> first = index.getActiveOrders(BUSINESS_ID, () -> {
+            // Read from the database, then the order is cancelled before the load is installed
+            List<OrderDTO> read = load(List.of(dto(1, "PENDING")));
+            index.recordStatusChange(order(1, Order.OrderStatus.CANCELLED));
+            return read;
+        });
+        assertEquals(ids(1), ids(first));
+
+        assertEquals(ids(), ids(index.getActiveOrders(BUSINESS_ID, () -> load(List.of()))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void reopenedOrderReloadsTheBusiness() {
+        index.getActiveOrders(BUSINESS_ID, () -> load(List.of(dto(1, "PENDING"))));
+
+        index.recordStatusChange(order(9, Order.OrderStatus.PREPARING)); // Was COMPLETED, never in memory
+
+        assertEquals(ids(1, 9), ids(index.getActiveOrders(BUSINESS_ID, () -> load(List.of(dto(1, "PENDING"), dto(9, "PREPARING"))))));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void businessesAreIndexedSeparately() {
+        index.getActiveOrders(1L, () -> load(List.of(dto(1, "PENDING"))));
+        index.getActiveOrders(2L, () -> load(List.of(dto(2, "PENDING"))));
+
+        index.recordPlaced(2L, dto(3, "PENDING"));
+
+        assertEquals(ids(1), ids(index.getActiveOrders(1L, List::of)));
+        assertEquals(ids(2, 3), ids(index.getActiveOrders(2L, List::of)));
+    }
+
+    @Test
+    void expiredBusinessIsReloaded() throws InterruptedException {
+        ActiveOrderIndex expiring = new ActiveOrderIndex(1);
+        expiring.getActiveOrders(BUSINESS_ID, () -> load(List.of(dto(1, "PENDING"))));
+        Thread.sleep(5);
+
+        expiring.getActiveOrders(BUSINESS_ID, () -> load(List.of(dto(1, "PENDING"))));
+
+        assertEquals(2, loads.get());
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private List<OrderDTO> load(List<OrderDTO> orders) {
+        loads.incrementAndGet();
+        return new ArrayList<>(orders);
+    }
+
+    private static OrderDTO dto(long id, String status) {
+        return OrderDTO.builder().id(id).orderNumber("ORD-" + id).status(status).createdAt(LocalDateTime.now()).build();
+    }
+
+    private static Order order(long id, Order.OrderStatus status) {
+        return Order.builder().id(id).businessId(BUSINESS_ID).status(status).build();
+    }
+
+    private static List<Long> ids(long... ids) {
+        List<Long> list = new ArrayList<>();
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    private static List<Long> ids(List<OrderDTO> orders) {
+        return orders.stream().map(OrderDTO::getId).toList();
+    }
+}
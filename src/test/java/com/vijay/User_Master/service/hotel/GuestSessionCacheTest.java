@@ -0,0 +1,75 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.HotelJpaTest;
+import com.vijay.User_Master.entity.hotel.GuestSession;
+import com.vijay.User_Master.repository.hotel.GuestSessionRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@HotelJpaTest
+class GuestSessionCacheTest {
+
+    @Autowired
+    private GuestSessionRepository sessionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private GuestSessionCache cache;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        cache = new GuestSessionCache(sessionRepository, 100, 30);
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void resolvesRepeatTokensWithoutQueries() {
+        GuestSession session = session("guest-active", LocalDateTime.now().plusHours(3));
+        statistics.clear();
+
+        GuestSessionCache.Session first = cache.get("guest-active");
+        assertSame(first, cache.get("guest-active"));
+        assertEquals(session.getBusinessId(), first.businessId());
+        assertEquals(session.getTableId(), first.tableId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        assertNull(cache.get("guest-unknown"));
+
+        // Completed here - dropped, the next call sees the stored status
+        session.complete();
+        sessionRepository.saveAndFlush(session);
+        cache.invalidate("guest-active");
+        assertEquals(GuestSession.SessionStatus.COMPLETED, cache.get("guest-active").status());
+    }
+
+    @Test
+    void entriesDoNotOutliveTheSession() {
+        session("guest-expired", LocalDateTime.now().minusMinutes(1));
+        statistics.clear();
+
+        assertTrue(cache.get("guest-expired").hasExpired());
+        cache.get("guest-expired");
+        assertEquals(2, statistics.getPrepareStatementCount(), "an expired session is never served from memory");
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private GuestSession session(String token, LocalDateTime expiresAt) {
+        GuestSession session = GuestSession.builder().businessId(1L).tableId(7L).sessionToken(token)
+                .expiresAt(expiresAt).build();
+        entityManager.persist(session);
+        entityManager.flush();
+        entityManager.clear();
+        return session;
+    }
+}
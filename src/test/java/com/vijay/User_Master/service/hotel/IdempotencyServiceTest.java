@@ -0,0 +1,200 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.HotelJpaTest;
+import com.vijay.User_Master.dto.hotel.OrderDTO;
+import com.vijay.User_Master.entity.hotel.IdempotencyRecord;
+import com.vijay.User_Master.exceptions.IdempotencyConflictException;
+import com.vijay.User_Master.repository.hotel.IdempotencyRecordRepository;
+import com.vijay.User_Master.repository.hotel.MenuVersionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+@HotelJpaTest
+// Concurrent requests need their own committed transactions, as in production
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceTest {
+
+    private static final IdempotencyRecord.Scope SCOPE = IdempotencyRecord.Scope.GUEST_ORDER;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private MenuVersionRepository menuVersionRepository; // Stands in for the order tables
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicInteger placed = new AtomicInteger();
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = newInstance();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+        menuVersionRepository.deleteAll();
+    }
+
+    @Test
+    void retryReturnsOriginalResponseWithoutRunningAgain() {
+        Map<String, Object> request = Map.of("menuItemId", 7, "quantity", 2);
+
+        OrderDTO first = service.execute(SCOPE, "session-a", "key-1", request, OrderDTO.class, this::placeOrder);
+        OrderDTO retry = service.execute(SCOPE, "session-a", "key-1", request, OrderDTO.class, this::placeOrder);
+        // Another instance (or a restart) only has the table
+        OrderDTO elsewhere = newInstance().execute(SCOPE, "session-a", "key-1", request, OrderDTO.class, this::placeOrder);
+
+        assertEquals(1, placed.get());
+        assertEquals(first, retry);
+        assertEquals(first, elsewhere);
+        assertEquals(IdempotencyRecord.Status.COMPLETED, repository.findAll().get(0).getStatus());
+    }
+
+    @Test
+    void keysAreScopedToTheirOwner() {
+        Map<String, Object> request = Map.of("menuItemId", 7, "quantity", 2);
+
+        OrderDTO a = service.execute(SCOPE, "session-a", "key-1", request, OrderDTO.class, this::placeOrder);
+        OrderDTO b = service.execute(SCOPE, "session-b", "key-1", request, OrderDTO.class, this::placeOrder);
+
+        assertEquals(2, placed.get());
+        assertNotEquals(a.getId(), b.getId());
+    }
+
+    @Test
+    void reusedKeyWithDifferentRequestIsRejected() {
+        service.execute(SCOPE, "session-a", "key-1", Map.of("quantity", 1), OrderDTO.class, this::placeOrder);
+
+        assertThrows(IdempotencyConflictException.class, () ->
+                service.execute(SCOPE, "session-a", "key-1", Map.of("quantity", 5), OrderDTO.class, this::placeOrder));
+        assertEquals(1, placed.get());
+    }
+
+    @Test
+    void failedRequestReleasesTheKey() {
+        assertThrows(RuntimeException.class, () -> service.execute(SCOPE, "session-a", "key-1", Map.of(), OrderDTO.class,
+                () -> { throw new RuntimeException("Menu item not available"); }));
+
+        service.execute(SCOPE, "session-a", "key-1", Map.of(), OrderDTO.class, this::placeOrder);
+        assertEquals(1, placed.get());
+    }
+
+    @Test
+    void failedCompletionRollsBackTheAction() {
+        IdempotencyRecordRepository failing = mock(IdempotencyRecordRepository.class, delegatesTo(repository));
+        doThrow(new RuntimeException("Connection reset")).when(failing).markCompleted(any(), anyString());
+
+        assertThrows(RuntimeException.class, () -> newInstance(failing).execute(SCOPE, "session-a", "key-1", Map.of(),
+                OrderDTO.class, this::placeOrderAndWrite));
+        // The order write went down with the completion, and the key is free again
+        assertNull(menuVersionRepository.findVersion(1L));
+        assertEquals(0, repository.count());
+
+        OrderDTO retry = service.execute(SCOPE, "session-a", "key-1", Map.of(), OrderDTO.class, this::placeOrderAndWrite);
+        assertEquals(1L, menuVersionRepository.findVersion(1L));
+        assertEquals(IdempotencyRecord.Status.COMPLETED, repository.findAll().get(0).getStatus());
+        assertEquals(retry, service.execute(SCOPE, "session-a", "key-1", Map.of(), OrderDTO.class, this::placeOrderAndWrite));
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        int threads = 8;
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<OrderDTO>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> service.execute(SCOPE, "session-a", "key-1", Map.of(), OrderDTO.class, () -> {
+                    started.countDown();
+                    await(release);
+                    return placeOrder();
+                })));
+            }
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Thread.sleep(200); // Let the duplicates reach the single-flight wait
+            release.countDown();
+
+            OrderDTO first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<OrderDTO> result : results) {
+                assertEquals(first, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, placed.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void expiredKeysArePurged() {
+        service.execute(SCOPE, "session-a", "key-1", Map.of(), OrderDTO.class, this::placeOrder);
+        IdempotencyRecord record = repository.findAll().get(0);
+        record.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        repository.save(record);
+
+        service.purgeExpired();
+
+        assertEquals(0, repository.count());
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private IdempotencyService newInstance() {
+        return newInstance(repository);
+    }
+
+    private IdempotencyService newInstance(IdempotencyRecordRepository records) {
+        return new IdempotencyService(records, objectMapper, transactionManager, 100, 24, 300);
+    }
+
+    // A transactional write, as createOrder makes - it joins the transaction that completes the key
+    private OrderDTO placeOrderAndWrite() {
+        menuVersionRepository.increment(1L);
+        return placeOrder();
+    }
+
+    private OrderDTO placeOrder() {
+        int n = placed.incrementAndGet();
+        return OrderDTO.builder()
+                .id((long) n)
+                .orderNumber("ORD-" + n)
+                .status("PENDING")
+                .totalAmount(BigDecimal.valueOf(210))
+                .createdAt(LocalDateTime.now().withNano(0))
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.config.BusinessTopicInterceptor;
+import com.vijay.User_Master.config.SchedulingConfig;
+import com.vijay.User_Master.config.WebSocketConfig;
+import com.vijay.User_Master.dto.hotel.kitchen.KitchenEventDTO;
+import com.vijay.User_Master.dto.hotel.kitchen.KitchenFrameDTO;
+import com.vijay.User_Master.entity.hotel.Category;
+import com.vijay.User_Master.entity.hotel.MenuItem;
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.entity.hotel.OrderItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Against the real STOMP endpoint and simple broker - no database, security or JPA.
+// The "soak" latency test is excluded from the unit suite; run it with: gradle soakTest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class KitchenDisplayServiceTest {
+
+    private static final long BUSINESS_ID = 1L;
+    private static final long GRILL = 1L;
+    private static final long BAR = 2L;
+    private static final int KITCHEN_SUBSCRIBERS = 150;
+    private static final int STATION_SUBSCRIBERS = 50;
+    private static final int ORDERS = 50;
+    private static final long LATENCY_BUDGET_MS = 100;
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            SecurityAutoConfiguration.class, UserDetailsServiceAutoConfiguration.class})
+    @Import({WebSocketConfig.class, SchedulingConfig.class, KitchenDisplayService.class})
+    static class KitchenDisplayTestConfig {
+
+        // The test clients connect without a login; the tenant check has its own test
+        @Bean
+        BusinessTopicInterceptor businessTopicInterceptor() {
+            return new BusinessTopicInterceptor(null) {
+                @Override
+                public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                    return message;
+                }
+            };
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private KitchenDisplayService kitchenDisplayService;
+
+    private final List<StompSession> sessions = new ArrayList<>();
+    private final AtomicLong nextOrderId = new AtomicLong(1000);
+
+    @AfterEach
+    void disconnect() {
+        sessions.forEach(StompSession::disconnect);
+    }
+
+    @Test
+    void fansOutEveryOrderToEverySubscriber() throws Exception {
+        List<Delivery> deliveries = fanOut(20, 10, 10);
+
+        // Every order has a line at both stations, so every subscriber gets every order
+        assertEquals((20 + 10) * 10, deliveries.size(), "deliveries");
+        for (Delivery delivery : deliveries) {
+            if (delivery.station() != null) {
+                assertTrue(delivery.event().getItems().stream().allMatch(item -> delivery.station().equals(item.getCategoryId())),
+                        "station " + delivery.station() + " got " + delivery.event().getItems());
+            }
+        }
+    }
+
+    @Test
+    @Tag("soak")
+    void fansOutToTwoHundredSubscribersWithinOneHundredMilliseconds() throws Exception {
+        List<Delivery> deliveries = fanOut(KITCHEN_SUBSCRIBERS, STATION_SUBSCRIBERS, ORDERS);
+
+        int expected = (KITCHEN_SUBSCRIBERS + STATION_SUBSCRIBERS) * ORDERS;
+        assertEquals(expected, deliveries.size(), "deliveries");
+        long[] sorted = deliveries.stream().mapToLong(Delivery::latencyNanos).sorted().toArray();
+        long p50 = TimeUnit.NANOSECONDS.toMillis(sorted[sorted.length / 2]);
+        long p99 = TimeUnit.NANOSECONDS.toMillis(sorted[(int) (sorted.length * 0.99)]);
+        String measured = "fan-out p50 " + p50 + " ms, p99 " + p99 + " ms over " + expected + " deliveries";
+        assertTrue(p50 < LATENCY_BUDGET_MS, measured);
+        assertTrue(p99 < LATENCY_BUDGET_MS, measured);
+    }
+
+    @Test
+    void changesWithinOneIntervalAreCoalesced() {
+        // Standalone instance flushed by hand, so no scheduled flush can split the batch
+        List<Object> sent = new ArrayList<>();
+        KitchenDisplayService service = new KitchenDisplayService(new SimpMessagingTemplate((message, timeout) -> true) {
+            @Override
+            public void convertAndSend(String destination, Object payload) {
+                sent.add(payload);
+            }
+        });
+        service.onSubscribe(new SessionSubscribeEvent(this, subscribeMessage("/topic/business/" + BUSINESS_ID + "/kitchen")));
+
+        Order order = order(nextOrderId.getAndIncrement());
+        List<OrderItem> items = items();
+        items.forEach(item -> item.setOrder(order));
+        // Placed, then its grill line started and the order confirmed before the next flush
+        service.orderPlaced(order, items);
+        items.get(0).setStatus(OrderItem.ItemStatus.PREPARING);
+        service.itemStatusChanged(items.get(0), OrderItem.ItemStatus.PENDING);
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        service.orderStatusChanged(order, Order.OrderStatus.PENDING);
+        service.flush();
+
+        assertEquals(1, sent.size());
+        KitchenFrameDTO frame = (KitchenFrameDTO) sent.get(0);
+        assertEquals(1, frame.getEvents().size());
+        KitchenEventDTO event = frame.getEvents().get(0);
+        assertEquals(KitchenDisplayService.ORDER_CREATED, event.getType());
+        assertEquals("CONFIRMED", event.getStatus());
+        assertEquals("PREPARING", event.getItems().get(0).getStatus());
+        assertEquals(2, frame.getCoalescedEvents());
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private static Message<byte[]> subscribeMessage(String destination) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        headers.setDestination(destination);
+        headers.setSessionId("session-1");
+        headers.setSubscriptionId("sub-1");
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+
+    /**
+     * Connects the subscribers, publishes the orders once unmeasured and once measured, and
+     * returns every event of the measured round as its subscriber decoded it
+     */
+    private List<Delivery> fanOut(int kitchenSubscribers, int stationSubscribers, int orders) throws Exception {
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        Map<Long, Long> publishedAtNanos = new ConcurrentHashMap<>();
+        // In production every display is its own device; here they share the server's CPU, so
+        // subscribers only timestamp the raw frame and it is decoded after the run
+        ConcurrentLinkedQueue<Received> received = new ConcurrentLinkedQueue<>();
+        Set<Integer> warmedUp = ConcurrentHashMap.newKeySet();
+
+        int subscribers = kitchenSubscribers + stationSubscribers;
+        for (int i = 0; i < subscribers; i++) {
+            int subscriber = i;
+            Long station = i < kitchenSubscribers ? null : (i % 2 == 0 ? GRILL : BAR);
+            // Raw WebSocket on the SockJS endpoint, as a KDS browser with WebSocket support connects
+            StompSession session = client.connectAsync("ws://localhost:" + port + "/ws/hotel/websocket", new StompSessionHandlerAdapter() {})
+                    .get(10, TimeUnit.SECONDS);
+            sessions.add(session);
+            String topic = "/topic/business/" + BUSINESS_ID + "/kitchen" + (station != null ? "/station/" + station : "");
+            session.subscribe(topic, rawFrameHandler(payload -> {
+                received.add(new Received(station, System.nanoTime(), payload));
+                warmedUp.add(subscriber);
+            }));
+        }
+
+        // Subscriptions register asynchronously - publish until every subscriber has seen a frame
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (warmedUp.size() < subscribers && System.currentTimeMillis() < deadline) {
+            kitchenDisplayService.orderPlaced(order(nextOrderId.getAndIncrement()), items());
+            Thread.sleep(100);
+        }
+        assertEquals(subscribers, warmedUp.size(), "subscribers receiving frames");
+        // One unmeasured round of the same load, so the JIT is not compiling during the measured one
+        publishOrders(orders, publishedAtNanos, received);
+        received.clear();
+        publishedAtNanos.clear();
+        publishOrders(orders, publishedAtNanos, received);
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        List<Delivery> deliveries = new ArrayList<>();
+        for (Received frame : received) {
+            for (KitchenEventDTO event : objectMapper.readValue(frame.payload(), KitchenFrameDTO.class).getEvents()) {
+                deliveries.add(new Delivery(frame.station(), event, frame.receivedAtNanos() - publishedAtNanos.get(event.getOrderId())));
+            }
+        }
+        return deliveries;
+    }
+
+    private void publishOrders(int orders, Map<Long, Long> publishedAtNanos, Collection<Received> received) throws InterruptedException {
+        for (int i = 0; i < orders; i++) {
+            long orderId = nextOrderId.getAndIncrement();
+            publishedAtNanos.put(orderId, System.nanoTime());
+            kitchenDisplayService.orderPlaced(order(orderId), items());
+            Thread.sleep(20);
+        }
+        // Wait until the broker goes quiet
+        int seen = -1;
+        while (seen != received.size()) {
+            seen = received.size();
+            Thread.sleep(500);
+        }
+    }
+
+    private record Received(Long station, long receivedAtNanos, byte[] payload) {}
+
+    private record Delivery(Long station, KitchenEventDTO event, long latencyNanos) {}
+
+    private static StompFrameHandler rawFrameHandler(Consumer<byte[]> consumer) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                consumer.accept((byte[]) payload);
+            }
+        };
+    }
+
+    private static Order order(long id) {
+        return Order.builder()
+                .id(id)
+                .businessId(BUSINESS_ID)
+                .orderNumber("ORD-" + id)
+                .status(Order.OrderStatus.PENDING)
+                .build();
+    }
+
+    private static List<OrderItem> items() {
+        return new ArrayList<>(List.of(item(1, GRILL, "Paneer Tikka"), item(2, BAR, "Mango Lassi")));
+    }
+
+    private static OrderItem item(long id, long categoryId, String name) {
+        Category category = Category.builder().id(categoryId).businessId(BUSINESS_ID).name("Station " + categoryId).build();
+        MenuItem menuItem = MenuItem.builder().id(id).businessId(BUSINESS_ID).name(name).category(category)
+                .price(BigDecimal.TEN).build();
+        return OrderItem.builder()
+                .id(id)
+                .businessId(BUSINESS_ID)
+                .menuItem(menuItem)
+                .quantity(1)
+                .unitPrice(BigDecimal.TEN)
+                .totalPrice(BigDecimal.TEN)
+                .status(OrderItem.ItemStatus.PENDING)
+                .build();
+    }
+}
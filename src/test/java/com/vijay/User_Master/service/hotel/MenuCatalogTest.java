@@ -0,0 +1,111 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.HotelJpaTest;
+import com.vijay.User_Master.entity.hotel.Category;
+import com.vijay.User_Master.entity.hotel.MenuItem;
+import com.vijay.User_Master.event.hotel.MenuChangedEvent;
+import com.vijay.User_Master.repository.hotel.MenuChangeRepository;
+import com.vijay.User_Master.repository.hotel.MenuItemRepository;
+import com.vijay.User_Master.repository.hotel.MenuVersionRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@HotelJpaTest
+class MenuCatalogTest {
+
+    private static final long BUSINESS_ID = 1L;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuChangeRepository changeRepository;
+
+    @Autowired
+    private MenuVersionRepository versionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private MenuCatalog catalog;
+    private Category mains;
+    private MenuItem paneer;
+
+    @BeforeEach
+    void setUp() {
+        MenuChangeService changeService = new MenuChangeService(changeRepository, versionRepository, event -> {}, null, objectMapper, 500, 7);
+        catalog = new MenuCatalog(menuItemRepository, changeService, new MenuItemDTOMapper(), objectMapper, 100, 300);
+        mains = category("Mains");
+        Category drinks = category("Drinks");
+        paneer = item(mains, "Paneer Tikka", true);
+        item(mains, "Dal Makhani", true);
+        item(mains, "Sold Out Curry", false);
+        item(drinks, "Mango Lassi", true);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void servesStoredBytesUntilTheMenuChanges() throws Exception {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MenuCatalog.View menu = catalog.menu(BUSINESS_ID);
+        MenuCatalog.View mainsOnly = catalog.category(BUSINESS_ID, mains.getId());
+        assertSame(menu, catalog.menu(BUSINESS_ID));
+        assertSame(mainsOnly, catalog.category(BUSINESS_ID, mains.getId()));
+        // The change log version, then the items with their categories
+        assertEquals(2, statistics.getPrepareStatementCount(), "one build serves the menu and its categories");
+
+        assertEquals(3, objectMapper.readTree(menu.body()).get("count").asInt());
+        assertEquals(2, objectMapper.readTree(mainsOnly.body()).get("count").asInt());
+        assertEquals(0, objectMapper.readTree(catalog.category(BUSINESS_ID, 999L).body()).get("count").asInt());
+
+        MenuItem renamed = menuItemRepository.findById(paneer.getId()).orElseThrow();
+        renamed.setName("Paneer Tikka Masala");
+        menuItemRepository.saveAndFlush(renamed);
+        assertSame(menu, catalog.menu(BUSINESS_ID), "served until the change commits");
+        catalog.onMenuChanged(new MenuChangedEvent(BUSINESS_ID));
+
+        MenuCatalog.View changed = catalog.menu(BUSINESS_ID);
+        assertNotEquals(menu.etag(), changed.etag());
+        JsonNode first = objectMapper.readTree(changed.body()).get("items").get(0);
+        assertEquals("Paneer Tikka Masala", first.get("name").asText());
+    }
+
+    @Test
+    void unchangedMenuKeepsItsEtagAcrossRebuilds() {
+        MenuCatalog.View menu = catalog.menu(BUSINESS_ID);
+        catalog.onMenuChanged(new MenuChangedEvent(null));
+
+        MenuCatalog.View rebuilt = catalog.menu(BUSINESS_ID);
+        assertNotSame(menu, rebuilt);
+        assertEquals(menu.etag(), rebuilt.etag(), "clients holding the old ETag still get 304");
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private Category category(String name) {
+        Category category = Category.builder().businessId(BUSINESS_ID).name(name).build();
+        entityManager.persist(category);
+        return category;
+    }
+
+    private MenuItem item(Category category, String name, boolean available) {
+        MenuItem menuItem = MenuItem.builder().businessId(BUSINESS_ID).category(category).name(name)
+                .price(BigDecimal.TEN).isAvailable(available).build();
+        entityManager.persist(menuItem);
+        return menuItem;
+    }
+}
@@ -0,0 +1,184 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.Helper.BusinessContextFilter;
+import com.vijay.User_Master.HotelJpaTest;
+import com.vijay.User_Master.dto.hotel.CategoryDTO;
+import com.vijay.User_Master.dto.hotel.MenuChangesDTO;
+import com.vijay.User_Master.dto.hotel.MenuItemDTO;
+import com.vijay.User_Master.event.hotel.MenuChangedEvent;
+import com.vijay.User_Master.repository.hotel.CategoryRepository;
+import com.vijay.User_Master.repository.hotel.MenuChangeRepository;
+import com.vijay.User_Master.repository.hotel.MenuItemRepository;
+import com.vijay.User_Master.repository.hotel.MenuVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@HotelJpaTest
+class MenuChangeServiceTest {
+
+    private static final long BUSINESS_ID = 1L;
+    private static final int MAX_CHANGES = 5;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MenuChangeRepository changeRepository;
+
+    @Autowired
+    private MenuVersionRepository versionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<MenuChangedEvent> published = new ArrayList<>();
+    private final List<String> pushedTo = new ArrayList<>();
+    private MenuChangeService changeService;
+    private MenuService menuService;
+
+    @BeforeEach
+    void setUp() {
+        BusinessContextFilter businessContext = new BusinessContextFilter() {
+            @Override
+            public Long getCurrentBusinessId() {
+                return BUSINESS_ID;
+            }
+        };
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> true) {
+            @Override
+            public void convertAndSend(String destination, Object payload) {
+                pushedTo.add(destination);
+            }
+        };
+        changeService = new MenuChangeService(changeRepository, versionRepository, event -> published.add((MenuChangedEvent) event),
+                messagingTemplate, new ObjectMapper().findAndRegisterModules(), MAX_CHANGES, 7);
+        MenuItemDTOMapper menuItemMapper = new MenuItemDTOMapper();
+        menuService = new MenuService(categoryRepository, menuItemRepository, businessContext, changeService,
+                new MenuSearchIndex(menuItemRepository, menuItemMapper, 0), menuItemMapper);
+    }
+
+    @Test
+    void replaysOnlyTheLatestStateOfRowsChangedSinceTheVersion() {
+        CategoryDTO mains = menuService.createCategory(CategoryDTO.builder().name("Mains").build());
+        CategoryDTO seasonal = menuService.createCategory(CategoryDTO.builder().name("Seasonal").build());
+        MenuItemDTO paneer = menuService.createMenuItem(item(mains, "Paneer Tikka"));
+        MenuItemDTO dal = menuService.createMenuItem(item(mains, "Dal Makhani"));
+        long version = menuService.getMenuVersion();
+
+        menuService.setMenuItemAvailability(paneer.getId(), false);
+        MenuItemDTO renamed = item(mains, "Dal Makhani Special");
+        menuService.updateMenuItem(dal.getId(), renamed);
+        renamed.setPrice(BigDecimal.valueOf(12));
+        menuService.updateMenuItem(dal.getId(), renamed);
+        menuService.deleteCategory(seasonal.getId());
+
+        MenuChangesDTO changes = menuService.getMenuChanges(version);
+        assertFalse(changes.isFullReload());
+        assertEquals(menuService.getMenuVersion(), changes.getVersion());
+        assertEquals(List.of(paneer.getId(), dal.getId()), changes.getItems().stream().map(MenuItemDTO::getId).toList());
+        assertFalse(changes.getItems().get(0).getIsAvailable());
+        assertEquals("Dal Makhani Special", changes.getItems().get(1).getName());
+        assertEquals(0, BigDecimal.valueOf(12).compareTo(changes.getItems().get(1).getPrice()));
+        assertEquals(List.of(seasonal.getId()), changes.getDeletedCategoryIds());
+        assertTrue(changes.getCategories().isEmpty());
+
+        // Up to date - nothing to replay
+        MenuChangesDTO none = menuService.getMenuChanges(changes.getVersion());
+        assertTrue(none.getItems().isEmpty() && none.getDeletedCategoryIds().isEmpty());
+        assertEquals(changes.getVersion(), none.getVersion());
+
+        // Each write carries its own delta for the menu topic
+        MenuChangedEvent last = published.get(published.size() - 1);
+        assertEquals(List.of(seasonal.getId()), last.getChanges().getDeletedCategoryIds());
+        changeService.onMenuChanged(last);
+        assertEquals(List.of("/topic/business/" + BUSINESS_ID + "/menu"), pushedTo);
+    }
+
+    @Test
+    void unknownOrOverflowingVersionsAskForAFullReload() {
+        CategoryDTO mains = menuService.createCategory(CategoryDTO.builder().name("Mains").build());
+        long version = menuService.getMenuVersion();
+        for (int i = 0; i <= MAX_CHANGES; i++) {
+            menuService.createMenuItem(item(mains, "Dish " + i));
+        }
+
+        assertTrue(menuService.getMenuChanges(0L).isFullReload());
+        assertTrue(menuService.getMenuChanges(version).isFullReload(), "more than max-changes");
+        assertFalse(menuService.getMenuChanges(version + 1).isFullReload());
+    }
+
+    @Test
+    // Each writer commits its own transaction, as in production
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void interleavedWritersNeverLetASyncSkipAChange() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> changeService.menuItemChanged(BUSINESS_ID, row(1L, "Seed")));
+        long synced = changeService.currentVersion(BUSINESS_ID);
+
+        CountDownLatch firstRecorded = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        ExecutorService writers = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = writers.submit(() -> transaction.executeWithoutResult(status -> {
+                changeService.menuItemChanged(BUSINESS_ID, row(2L, "First"));
+                firstRecorded.countDown();
+                try {
+                    releaseFirst.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(firstRecorded.await(10, TimeUnit.SECONDS));
+            Future<?> second = writers.submit(() -> transaction.executeWithoutResult(status ->
+                    changeService.menuItemChanged(BUSINESS_ID, row(3L, "Second"))));
+
+            // The second writer waits for the first to commit instead of committing a later version first
+            assertThrows(TimeoutException.class, () -> second.get(300, TimeUnit.MILLISECONDS));
+            MenuChangesDTO meanwhile = changeService.changesSince(BUSINESS_ID, synced);
+            assertEquals(synced, meanwhile.getVersion());
+            assertTrue(meanwhile.getItems().isEmpty());
+
+            releaseFirst.countDown();
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+
+            MenuChangesDTO changes = changeService.changesSince(BUSINESS_ID, synced);
+            assertEquals(List.of("First", "Second"), changes.getItems().stream().map(MenuItemDTO::getName).toList());
+            assertEquals(synced + 2, changes.getVersion());
+        } finally {
+            releaseFirst.countDown();
+            writers.shutdownNow();
+            changeRepository.deleteAll();
+            versionRepository.deleteAll();
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private static MenuItemDTO row(Long id, String name) {
+        return MenuItemDTO.builder().id(id).name(name).build();
+    }
+
+    private static MenuItemDTO item(CategoryDTO category, String name) {
+        // Updates replace every field, so the flags are sent like a client sends them
+        return MenuItemDTO.builder().categoryId(category.getId()).name(name).price(BigDecimal.TEN).isAvailable(true)
+                .isVegetarian(false).isVegan(false).isSpicy(false).isFeatured(false).preparationTime(15).build();
+    }
+}
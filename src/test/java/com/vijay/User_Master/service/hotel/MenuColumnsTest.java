@@ -0,0 +1,79 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.dto.hotel.MenuFilterRequest;
+import com.vijay.User_Master.dto.hotel.MenuItemDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MenuColumnsTest {
+
+    private static final long MAINS = 1L;
+    private static final long DESSERTS = 2L;
+
+    private final MenuColumns columns = MenuColumns.of(List.of(
+            item(1, MAINS, "Paneer Tikka", "250.00", true, false, true, 15, 420, 50, "4.5"),
+            item(2, MAINS, "Chicken Tikka", "320.00", false, false, true, 20, 510, 80, "4.2"),
+            item(3, MAINS, "Dal Makhani", "199.99", true, true, false, 25, null, 30, "4.8"),
+            item(4, DESSERTS, "Kulfi", "120.00", true, false, false, null, 300, 10, null),
+            item(5, DESSERTS, "Gulab Jamun", null, true, false, false, 5, 380, 10, "3.9")));
+
+    @Test
+    void intersectsFlagsCategoriesAndRanges() {
+        assertEquals(List.of("Paneer Tikka", "Dal Makhani", "Gulab Jamun", "Kulfi"),
+                names(MenuFilterRequest.builder().vegetarian(true).build()));
+        assertEquals(List.of("Dal Makhani", "Gulab Jamun", "Kulfi"),
+                names(MenuFilterRequest.builder().vegetarian(true).spicy(false).build()), "false excludes");
+        assertEquals(List.of("Gulab Jamun", "Kulfi"),
+                names(MenuFilterRequest.builder().categoryIds(List.of(DESSERTS, 99L)).build()));
+        assertEquals(List.of("Paneer Tikka", "Dal Makhani"),
+                names(MenuFilterRequest.builder().minPrice(new BigDecimal("199.99")).maxPrice(new BigDecimal("250")).build()),
+                "inclusive bounds, no price never matches");
+        assertEquals(List.of("Paneer Tikka", "Gulab Jamun"),
+                names(MenuFilterRequest.builder().maxPreparationTime(15).maxCalories(450).build()));
+        assertEquals(List.of("Paneer Tikka"),
+                names(MenuFilterRequest.builder().vegetarian(true).categoryIds(List.of(MAINS)).minCalories(400).build()));
+        assertTrue(names(MenuFilterRequest.builder().vegan(true).categoryIds(List.of(DESSERTS)).build()).isEmpty());
+    }
+
+    @Test
+    void sortsAndPagesTheMatches() {
+        MenuFilterRequest all = new MenuFilterRequest();
+        assertEquals(List.of("Chicken Tikka", "Paneer Tikka", "Dal Makhani", "Gulab Jamun", "Kulfi"), names(all),
+                "popularity by default, rating breaks ties");
+
+        all.setSortBy(MenuFilterRequest.SortBy.RATING);
+        assertEquals(List.of("Dal Makhani", "Paneer Tikka", "Chicken Tikka", "Gulab Jamun", "Kulfi"), names(all));
+        all.setSortBy(MenuFilterRequest.SortBy.PRICE_ASC);
+        assertEquals(List.of("Kulfi", "Dal Makhani", "Paneer Tikka", "Chicken Tikka", "Gulab Jamun"), names(all));
+        all.setSortBy(MenuFilterRequest.SortBy.PRICE_DESC);
+        assertEquals(List.of("Chicken Tikka", "Paneer Tikka", "Dal Makhani", "Kulfi", "Gulab Jamun"), names(all),
+                "no price last either way");
+
+        Page<MenuItemDTO> second = columns.filter(MenuFilterRequest.builder().vegetarian(true).build(), PageRequest.of(1, 3));
+        assertEquals(4, second.getTotalElements());
+        assertEquals(List.of("Kulfi"), second.getContent().stream().map(MenuItemDTO::getName).toList());
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private List<String> names(MenuFilterRequest filter) {
+        return columns.filter(filter, Pageable.unpaged()).getContent().stream().map(MenuItemDTO::getName).toList();
+    }
+
+    private static MenuItemDTO item(long id, long categoryId, String name, String price, boolean vegetarian, boolean vegan,
+                                    boolean spicy, Integer preparationTime, Integer calories, int totalOrders, String rating) {
+        return MenuItemDTO.builder().id(id).categoryId(categoryId).name(name)
+                .price(price != null ? new BigDecimal(price) : null)
+                .isVegetarian(vegetarian).isVegan(vegan).isSpicy(spicy).isFeatured(false)
+                .preparationTime(preparationTime).calories(calories)
+                .totalOrders(totalOrders).rating(rating != null ? new BigDecimal(rating) : null)
+                .isAvailable(true).build();
+    }
+}
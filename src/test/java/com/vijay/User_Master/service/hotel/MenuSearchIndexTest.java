@@ -0,0 +1,127 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.HotelJpaTest;
+import com.vijay.User_Master.dto.hotel.CategoryDTO;
+import com.vijay.User_Master.dto.hotel.MenuChangesDTO;
+import com.vijay.User_Master.dto.hotel.MenuFilterRequest;
+import com.vijay.User_Master.dto.hotel.MenuItemDTO;
+import com.vijay.User_Master.entity.hotel.Category;
+import com.vijay.User_Master.entity.hotel.MenuItem;
+import com.vijay.User_Master.event.hotel.MenuChangedEvent;
+import com.vijay.User_Master.repository.hotel.MenuItemRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@HotelJpaTest
+class MenuSearchIndexTest {
+
+    private static final long BUSINESS_ID = 1L;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private MenuSearchIndex index;
+    private Statistics statistics;
+    private Category drinks;
+    private MenuItem paneerTikka;
+
+    @BeforeEach
+    void setUp() {
+        index = new MenuSearchIndex(menuItemRepository, new MenuItemDTOMapper(), 0);
+        Category mains = category("Mains");
+        drinks = category("Drinks");
+        paneerTikka = item(mains, "Paneer Tikka", "Cottage cheese grilled in the tandoor", 50);
+        item(mains, "Paneer Butter Masala", "Creamy tomato gravy", 120);
+        item(mains, "Chicken Tikka", "Smoky and spicy", 10);
+        item(drinks, "Mango Lassi", "Sweet yoghurt drink", 30);
+        item(drinks, "Crème Brûlée", "Caramelised custard", 5);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        index.search(BUSINESS_ID, "warm up");
+        statistics.clear();
+    }
+
+    @Test
+    void matchesAndRanksWithoutQueries() {
+        assertEquals(List.of("Paneer Butter Masala", "Paneer Tikka"), names("paneer"));
+        assertEquals(List.of("Paneer Butter Masala", "Paneer Tikka"), names("pan"), "prefix");
+        assertEquals(List.of("Paneer Butter Masala", "Paneer Tikka"), names("panner"), "one typo");
+        assertEquals(List.of("Paneer Tikka"), names("tikka paneer"), "every term must match");
+        assertEquals(List.of("Paneer Tikka", "Chicken Tikka"), names("tikka"), "popular first");
+        assertEquals(List.of("Paneer Tikka"), names("cheese"), "description");
+        assertEquals(List.of("Mango Lassi", "Crème Brûlée"), names("drinks"), "category");
+        assertEquals(List.of("Crème Brûlée"), names("creme brulee"), "accents folded");
+        assertTrue(names("pizza").isEmpty());
+        assertEquals(5, index.search(BUSINESS_ID, "").size());
+        assertEquals(1, index.search(BUSINESS_ID, "tikka", PageRequest.of(1, 1)).getContent().size());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void appliesMenuDeltasIncrementally() {
+        MenuItemDTO soldOut = index.search(BUSINESS_ID, "paneer tikka").get(0).toBuilder().isAvailable(false).build();
+        MenuItemDTO dosa = MenuItemDTO.builder().id(999L).categoryId(drinks.getId()).categoryName("Drinks")
+                .name("Masala Dosa").isAvailable(true).totalOrders(0).build();
+        CategoryDTO renamed = CategoryDTO.builder().id(drinks.getId()).name("Beverages").build();
+        MenuFilterRequest inDrinks = MenuFilterRequest.builder().categoryIds(List.of(drinks.getId())).build();
+        assertEquals(2, index.filter(BUSINESS_ID, inDrinks, Pageable.unpaged()).getTotalElements());
+        index.onMenuChanged(new MenuChangedEvent(BUSINESS_ID, MenuChangesDTO.builder()
+                .items(List.of(soldOut, dosa))
+                .categories(List.of(renamed))
+                .deletedItemIds(List.of())
+                .deletedCategoryIds(List.of())
+                .build()));
+
+        assertEquals(List.of("Paneer Butter Masala"), names("paneer"));
+        assertEquals(List.of("Masala Dosa"), names("dosa"));
+        assertEquals(List.of("Mango Lassi", "Crème Brûlée", "Masala Dosa"), names("beverages"));
+        assertTrue(names("drinks").stream().noneMatch(name -> name.equals("Masala Dosa")), "old category name dropped");
+        assertEquals(paneerTikka.getId(), soldOut.getId());
+        assertEquals(3, index.filter(BUSINESS_ID, inDrinks, Pageable.unpaged()).getTotalElements(), "columns rebuilt");
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void typoToleranceIsBoundedByTermLength() {
+        assertTrue(MenuSearchIndex.withinEdits("tikka", "tika", 1));
+        assertTrue(MenuSearchIndex.withinEdits("lassi", "lsasi", 1), "adjacent swap is one edit");
+        assertFalse(MenuSearchIndex.withinEdits("masala", "salsa", 1));
+        assertTrue(MenuSearchIndex.withinEdits("butterchicken", "buterchiken", 2));
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private List<String> names(String keyword) {
+        return index.search(BUSINESS_ID, keyword).stream().map(MenuItemDTO::getName).toList();
+    }
+
+    private Category category(String name) {
+        Category category = Category.builder().businessId(BUSINESS_ID).name(name).build();
+        entityManager.persist(category);
+        return category;
+    }
+
+    private MenuItem item(Category category, String name, String description, int totalOrders) {
+        MenuItem menuItem = MenuItem.builder().businessId(BUSINESS_ID).category(category).name(name)
+                .description(description).price(BigDecimal.TEN).totalOrders(totalOrders).build();
+        entityManager.persist(menuItem);
+        return menuItem;
+    }
+}
@@ -0,0 +1,117 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.HotelJpaTest;
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
+import com.vijay.User_Master.repository.hotel.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@HotelJpaTest
+class OrderCursorTest {
+
+    private static final long BUSINESS_ID = 1L;
+    private static final long OTHER_BUSINESS_ID = 2L;
+    private static final long USER_ID = 42L;
+    private static final int PAGE_SIZE = 10;
+
+    // No auditing - createdAt is set by the test so that many orders share a timestamp
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Order> seeded = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 12, 0);
+        for (int i = 0; i < 57; i++) {
+            // Three orders per second, so page boundaries fall inside runs of equal createdAt
+            seeded.add(persist(i % 5 == 4 ? OTHER_BUSINESS_ID : BUSINESS_ID, base.plusSeconds(i / 3),
+                    i % 2 == 0 ? Order.OrderStatus.COMPLETED : Order.OrderStatus.CANCELLED));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void walkingTheCursorVisitsEveryOrderOnceNewestFirst() {
+        List<Long> walked = new ArrayList<>();
+        OrderCursor cursor = OrderCursor.START;
+        while (true) {
+            List<Order> page = orderRepository.findByBusinessIdAndUserIdAfter(BUSINESS_ID, USER_ID,
+                    cursor.createdAt(), cursor.id(), PageRequest.of(0, PAGE_SIZE));
+            page.forEach(order -> walked.add(order.getId()));
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            // Through the opaque token, as a client would
+            cursor = OrderCursor.decode(OrderCursor.after(page.get(page.size() - 1)).encode());
+        }
+
+        assertEquals(expected(order -> order.getBusinessId() == BUSINESS_ID), walked);
+    }
+
+    @Test
+    void statusPagesAreScopedToTheBusiness() {
+        List<Long> walked = new ArrayList<>();
+        OrderCursor cursor = OrderCursor.START;
+        List<Order> page;
+        do {
+            page = orderRepository.findByBusinessIdAndStatusAfter(OTHER_BUSINESS_ID, Order.OrderStatus.COMPLETED,
+                    cursor.createdAt(), cursor.id(), PageRequest.of(0, 3));
+            page.forEach(order -> walked.add(order.getId()));
+            cursor = page.isEmpty() ? cursor : OrderCursor.after(page.get(page.size() - 1));
+        } while (page.size() == 3);
+
+        assertEquals(expected(order -> order.getBusinessId() == OTHER_BUSINESS_ID
+                && order.getStatus() == Order.OrderStatus.COMPLETED), walked);
+        assertFalse(walked.isEmpty());
+    }
+
+    @Test
+    void blankCursorStartsAtTheNewestAndGarbageIsRejected() {
+        assertEquals(OrderCursor.START, OrderCursor.decode(null));
+        assertEquals(OrderCursor.START, OrderCursor.decode(""));
+        assertThrows(BadApiRequestException.class, () -> OrderCursor.decode("not-a-cursor"));
+        assertThrows(BadApiRequestException.class, () -> OrderCursor.decode("djF8eWVzdGVyZGF5fDE"));
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private List<Long> expected(Predicate<Order> filter) {
+        return seeded.stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(Order::getCreatedAt).thenComparing(Order::getId).reversed())
+                .map(Order::getId)
+                .toList();
+    }
+
+    private Order persist(long businessId, LocalDateTime createdAt, Order.OrderStatus status) {
+        Order order = Order.builder()
+                .businessId(businessId)
+                .orderNumber("ORD-" + seeded.size())
+                .userId(USER_ID)
+                .status(status)
+                .subtotal(BigDecimal.TEN)
+                .totalAmount(BigDecimal.TEN)
+                .createdAt(createdAt)
+                .build();
+        entityManager.persist(order);
+        return order;
+    }
+}
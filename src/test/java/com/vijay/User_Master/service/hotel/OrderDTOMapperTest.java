@@ -0,0 +1,101 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.HotelJpaTest;
+import com.vijay.User_Master.dto.hotel.OrderDTO;
+import com.vijay.User_Master.entity.hotel.*;
+import com.vijay.User_Master.repository.hotel.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@HotelJpaTest
+@Import(OrderDTOMapper.class)
+class OrderDTOMapperTest {
+
+    private static final long BUSINESS_ID = 1L;
+    private static final int ORDERS = 120;
+    private static final int TABLES = 8;
+
+    @Autowired
+    private OrderDTOMapper mapper;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        Category category = Category.builder().businessId(BUSINESS_ID).name("Mains").build();
+        entityManager.persist(category);
+        List<MenuItem> menuItems = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            MenuItem menuItem = MenuItem.builder().businessId(BUSINESS_ID).category(category).name("Dish " + i)
+                    .price(BigDecimal.TEN).build();
+            entityManager.persist(menuItem);
+            menuItems.add(menuItem);
+        }
+        List<RestaurantTable> tables = new ArrayList<>();
+        for (int i = 0; i < TABLES; i++) {
+            RestaurantTable table = RestaurantTable.builder().businessId(BUSINESS_ID).tableNumber("T" + i).capacity(4)
+                    .build();
+            entityManager.persist(table);
+            tables.add(table);
+        }
+        for (int i = 0; i < ORDERS; i++) {
+            // Every fourth order is a takeaway without a table
+            Order order = Order.builder().businessId(BUSINESS_ID).orderNumber("ORD-" + i)
+                    .table(i % 4 == 0 ? null : tables.get(i % TABLES)).build();
+            entityManager.persist(order);
+            for (int line = 0; line < 3; line++) {
+                entityManager.persist(OrderItem.builder().businessId(BUSINESS_ID).order(order)
+                        .menuItem(menuItems.get((i + line) % menuItems.size())).quantity(1)
+                        .unitPrice(BigDecimal.TEN).totalPrice(BigDecimal.TEN).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pageOfOrdersTakesConstantStatements() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<Order> page = orderRepository.findByBusinessId(BUSINESS_ID, PageRequest.of(0, 100, Sort.by("id")));
+        List<OrderDTO> dtos = mapper.toDTOs(page).getContent();
+
+        // Page and count, then every line with its menu item, then the tables
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(100, dtos.size());
+        assertTrue(dtos.stream().allMatch(dto -> dto.getItems().size() == 3));
+    }
+
+    @Test
+    void mapsTablesAndLinesOfEachOrder() {
+        List<OrderDTO> dtos = mapper.toDTOs(orderRepository.findByBusinessId(BUSINESS_ID));
+
+        OrderDTO takeaway = dtos.stream().filter(dto -> dto.getOrderNumber().equals("ORD-0")).findFirst().orElseThrow();
+        assertNull(takeaway.getTableId());
+        assertNull(takeaway.getTableNumber());
+
+        OrderDTO dineIn = dtos.stream().filter(dto -> dto.getOrderNumber().equals("ORD-5")).findFirst().orElseThrow();
+        assertEquals("T5", dineIn.getTableNumber());
+        assertEquals(List.of("Dish 0", "Dish 1", "Dish 2"),
+                dineIn.getItems().stream().map(item -> item.getMenuItemName()).toList());
+    }
+}
@@ -0,0 +1,204 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vijay.User_Master.HotelJpaTest;
+import com.vijay.User_Master.dto.form.EmailForm;
+import com.vijay.User_Master.entity.hotel.MenuItem;
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.entity.hotel.OrderItem;
+import com.vijay.User_Master.entity.hotel.OrderOutboxEvent;
+import com.vijay.User_Master.event.hotel.HotelDataChangedEvent;
+import com.vijay.User_Master.repository.hotel.*;
+import com.vijay.User_Master.service.hotel.analytics.OrderRollupService;
+import com.vijay.User_Master.service.hotel.analytics.PopularItemsService;
+import com.vijay.User_Master.service.impl.EmailService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@HotelJpaTest
+// The dispatcher commits its own transactions, as in production
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OrderRollupService.class, PopularItemsService.class})
+class OrderOutboxServiceTest {
+
+    private static final long BUSINESS_ID = 1L;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private OrderRollupRepository rollupRepository;
+
+    @Autowired
+    private OrderRollupService rollupService;
+
+    @Autowired
+    private PopularItemsService popularItemsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<Object> published = new CopyOnWriteArrayList<>();
+    private final AtomicInteger emailFailures = new AtomicInteger();
+    private final List<String> emailsSent = new CopyOnWriteArrayList<>();
+    private OrderOutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        EmailService emailService = new EmailService() {
+            @Override
+            public void sendEmail(EmailForm email) {
+                if (emailFailures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("SMTP unavailable");
+                }
+                emailsSent.add(email.getTo());
+            }
+        };
+        service = new OrderOutboxService(outboxRepository, rollupService, popularItemsService, published::add,
+                emailService, objectMapper, transactionManager, 2, MAX_ATTEMPTS, 72, true);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        service.shutdown();
+        outboxRepository.deleteAll();
+        rollupRepository.deleteAll();
+    }
+
+    @Test
+    void placementIsAppliedOnceAfterCommit() throws InterruptedException {
+        for (long id = 1; id <= 5; id++) {
+            place(order(id), null);
+        }
+
+        // Woken by the commits - batches of two until the outbox is empty
+        awaitStatus(OrderOutboxEvent.Status.DONE, 5);
+        service.drainPending();
+
+        assertEquals(5L, rollupRepository.findAll().get(0).getOrderCount());
+        assertEquals(5, published.stream().filter(event -> ((HotelDataChangedEvent) event).isCreated()).count());
+    }
+
+    @Test
+    void rolledBackPlacementRecordsNothing() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            service.recordOrderPlaced(order(1), items(), null);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, outboxRepository.count());
+        assertThrows(Exception.class, () -> service.recordOrderPlaced(order(2), items(), null), "needs the placing transaction");
+    }
+
+    @Test
+    void poisonEventBacksOffWithoutBlockingTheRest() throws Exception {
+        // Inserted directly, so no commit wakes the dispatcher and the drains below are the only ones
+        OrderOutboxEvent poison = outboxRepository.save(event(OrderOutboxEvent.Type.ORDER_PLACED, "not json"));
+        outboxRepository.save(event(OrderOutboxEvent.Type.ORDER_PLACED, objectMapper.writeValueAsString(
+                new OrderOutboxService.OrderPlaced("ORD-2", "DINE_IN", "PENDING", BigDecimal.TEN, LocalDateTime.now(), List.of()))));
+        service.drainPending();
+
+        OrderOutboxEvent failed = outboxRepository.findById(poison.getId()).orElseThrow();
+        assertEquals(OrderOutboxEvent.Status.PENDING, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertTrue(failed.getAvailableAt().isAfter(LocalDateTime.now()), "backed off");
+        assertNotNull(failed.getLastError());
+        assertEquals(1L, outboxRepository.countByStatus(OrderOutboxEvent.Status.DONE));
+
+        // Due again, until it runs out of attempts
+        for (int attempt = 2; attempt <= MAX_ATTEMPTS; attempt++) {
+            makeDue(poison.getId());
+            service.drainPending();
+        }
+        assertEquals(OrderOutboxEvent.Status.FAILED, outboxRepository.findById(poison.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void failedEmailIsRetried() throws Exception {
+        emailFailures.set(1);
+        OrderOutboxEvent email = outboxRepository.save(event(OrderOutboxEvent.Type.ORDER_CONFIRMATION_EMAIL,
+                objectMapper.writeValueAsString(new OrderOutboxService.ConfirmationEmail("guest@example.com", "Guest", "ORD-1", BigDecimal.TEN))));
+        service.drainPending();
+
+        email = outboxRepository.findById(email.getId()).orElseThrow();
+        assertEquals(OrderOutboxEvent.Status.PENDING, email.getStatus());
+        assertEquals("SMTP unavailable", email.getLastError());
+
+        makeDue(email.getId());
+        service.drainPending();
+
+        assertEquals(OrderOutboxEvent.Status.DONE, outboxRepository.findById(email.getId()).orElseThrow().getStatus());
+        assertEquals(List.of("guest@example.com"), emailsSent);
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private void place(Order order, String email) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                service.recordOrderPlaced(order, items(), email));
+    }
+
+    private void makeDue(Long eventId) {
+        OrderOutboxEvent event = outboxRepository.findById(eventId).orElseThrow();
+        event.setAvailableAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(event);
+    }
+
+    private void awaitStatus(OrderOutboxEvent.Status status, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (outboxRepository.countByStatus(status) < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(count, outboxRepository.countByStatus(status));
+    }
+
+    private static OrderOutboxEvent event(OrderOutboxEvent.Type type, String payload) {
+        LocalDateTime now = LocalDateTime.now();
+        return OrderOutboxEvent.builder()
+                .businessId(BUSINESS_ID)
+                .orderId(99L)
+                .type(type)
+                .payload(payload)
+                .availableAt(now)
+                .createdAt(now)
+                .build();
+    }
+
+    private static Order order(long id) {
+        return Order.builder()
+                .id(id)
+                .businessId(BUSINESS_ID)
+                .orderNumber("ORD-" + id)
+                .customerName("Guest")
+                .orderType(Order.OrderType.DINE_IN)
+                .status(Order.OrderStatus.PENDING)
+                .totalAmount(BigDecimal.valueOf(250))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static List<OrderItem> items() {
+        return List.of(OrderItem.builder()
+                .menuItem(MenuItem.builder().id(7L).build())
+                .quantity(2)
+                .totalPrice(BigDecimal.valueOf(250))
+                .build());
+    }
+}
@@ -0,0 +1,139 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.HotelJpaTest;
+import com.vijay.User_Master.entity.hotel.Category;
+import com.vijay.User_Master.entity.hotel.MenuItem;
+import com.vijay.User_Master.entity.hotel.Order;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@HotelJpaTest
+@Import({OrderPlacementService.class, WriteBehindCounterService.class})
+class OrderPlacementServiceTest {
+
+    private static final long BUSINESS_ID = 1L;
+    private static final long OTHER_BUSINESS_ID = 2L;
+
+    @Autowired
+    private OrderPlacementService placementService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private WriteBehindCounterService counterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<MenuItem> menuItems = new ArrayList<>();
+    private MenuItem otherBusinessItem;
+
+    @BeforeEach
+    void seed() {
+        Category category = Category.builder().businessId(BUSINESS_ID).name("Mains").build();
+        entityManager.persist(category);
+        for (int i = 0; i < 20; i++) {
+            menuItems.add(menuItem(BUSINESS_ID, category, "Dish " + i, BigDecimal.valueOf(100 + i)));
+        }
+        otherBusinessItem = menuItem(OTHER_BUSINESS_ID, category, "Elsewhere", BigDecimal.TEN);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void twentyLineOrderTakesConstantStatements() {
+        List<OrderPlacementService.Line> lines = new ArrayList<>();
+        for (MenuItem menuItem : menuItems) {
+            lines.add(new OrderPlacementService.Line(menuItem.getId(), 2, null));
+        }
+        // A repeated item is priced per line but counted once in the update
+        lines.add(new OrderPlacementService.Line(menuItems.get(0).getId(), 1, "extra spicy"));
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        OrderPlacementService.PlacedOrder placed = placementService.place(order("ORD-TEST"), lines);
+
+        // Hibernate: one select for all items, one insert for the order; the lines and counters are plain JDBC
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        Order order = placed.order();
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < 20; i++) {
+            subtotal = subtotal.add(BigDecimal.valueOf(2L * (100 + i)));
+        }
+        subtotal = subtotal.add(BigDecimal.valueOf(100));
+        assertEquals(0, subtotal.compareTo(order.getSubtotal()));
+        assertEquals(0, subtotal.multiply(BigDecimal.valueOf(1.05)).compareTo(order.getTotalAmount()));
+
+        assertEquals(21, placed.items().size());
+        assertTrue(placed.items().stream().allMatch(item -> item.getId() != null));
+        assertEquals(21, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM hotel_order_items WHERE order_id = ? AND business_id = ?",
+                Integer.class, order.getId(), BUSINESS_ID));
+
+        // Counters are handed over on commit and written by the next flush
+        assertEquals(0, counterService.getPendingDeltas());
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        assertEquals(41, counterService.getPendingDeltas());
+        assertEquals(0, totalOrders(menuItems.get(0)));
+
+        counterService.flush();
+        assertEquals(0, counterService.getPendingDeltas());
+        assertEquals(3, totalOrders(menuItems.get(0)));
+        assertEquals(2, totalOrders(menuItems.get(19)));
+        assertEquals(0, totalOrders(otherBusinessItem));
+    }
+
+    @Test
+    void rejectsItemsOfAnotherBusiness() {
+        List<OrderPlacementService.Line> lines = List.of(
+                new OrderPlacementService.Line(menuItems.get(0).getId(), 1, null),
+                new OrderPlacementService.Line(otherBusinessItem.getId(), 1, null));
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> placementService.place(order("ORD-REJECTED"), lines));
+        assertEquals("Menu item does not belong to this business", error.getMessage());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM hotel_orders WHERE order_number = 'ORD-REJECTED'", Integer.class));
+    }
+
+    private Order order(String orderNumber) {
+        return Order.builder()
+                .businessId(BUSINESS_ID)
+                .orderNumber(orderNumber)
+                .customerName("Test")
+                .orderType(Order.OrderType.TAKEAWAY)
+                .status(Order.OrderStatus.PENDING)
+                .build();
+    }
+
+    private MenuItem menuItem(long businessId, Category category, String name, BigDecimal price) {
+        MenuItem menuItem = MenuItem.builder()
+                .businessId(businessId)
+                .category(category)
+                .name(name)
+                .price(price)
+                .build();
+        entityManager.persist(menuItem);
+        return menuItem;
+    }
+
+    private int totalOrders(MenuItem menuItem) {
+        return jdbcTemplate.queryForObject("SELECT total_orders FROM hotel_menu_items WHERE id = ?",
+                Integer.class, menuItem.getId());
+    }
+}
@@ -0,0 +1,161 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.Helper.BusinessContextFilter;
+import com.vijay.User_Master.HotelJpaTest;
+import com.vijay.User_Master.dto.hotel.BulkOrderStatusRequest;
+import com.vijay.User_Master.dto.hotel.BulkOrderStatusResponse;
+import com.vijay.User_Master.entity.hotel.Order;
+import com.vijay.User_Master.entity.hotel.RestaurantTable;
+import com.vijay.User_Master.exceptions.BadApiRequestException;
+import com.vijay.User_Master.repository.hotel.*;
+import com.vijay.User_Master.service.hotel.analytics.OrderRollupService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@HotelJpaTest
+@Import(OrderRollupService.class)
+class OrderServiceBulkStatusTest {
+
+    private static final long BUSINESS_ID = 1L;
+    private static final long OTHER_BUSINESS_ID = 2L;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private RestaurantTableRepository tableRepository;
+
+    @Autowired
+    private OrderRollupService rollupService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Object> published = new ArrayList<>();
+    private OrderService orderService;
+    private RestaurantTable table1;
+    private RestaurantTable table2;
+
+    @BeforeEach
+    void setUp() {
+        BusinessContextFilter businessContext = new BusinessContextFilter() {
+            @Override
+            public Long getCurrentBusinessId() {
+                return BUSINESS_ID;
+            }
+        };
+        KitchenDisplayService kitchenDisplayService = new KitchenDisplayService(new SimpMessagingTemplate((message, timeout) -> true));
+        orderService = new OrderService(orderRepository, orderItemRepository, tableRepository, businessContext, null,
+                rollupService, new ActiveOrderIndex(0), kitchenDisplayService, new OrderDTOMapper(orderItemRepository, tableRepository),
+                null, published::add, null, transactionManager);
+
+        table1 = table("T1");
+        table2 = table("T2");
+    }
+
+    @Test
+    void closesOutManyOrdersWithConstantStatements() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(order(i % 2 == 0 ? table1 : table2, Order.OrderStatus.SERVED, BUSINESS_ID).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BulkOrderStatusResponse response = orderService.updateOrderStatuses(request(ids, "COMPLETED"));
+
+        // One locked select, one order UPDATE, one table UPDATE and the rollup upserts (two buckets)
+        assertEquals(5, statistics.getPrepareStatementCount());
+        assertEquals(ids, response.getUpdatedOrderIds());
+        assertTrue(response.getRejected().isEmpty());
+        assertEquals(2, response.getTablesFreed());
+        assertEquals(30, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM hotel_orders WHERE status = 'COMPLETED' AND completed_at IS NOT NULL", Integer.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM hotel_restaurant_tables WHERE is_available", Integer.class));
+        assertEquals(30, published.size());
+    }
+
+    @Test
+    void invalidTransitionsAndOtherBusinessesAreRejected() {
+        Order pending = order(table1, Order.OrderStatus.PENDING, BUSINESS_ID);
+        Order served = order(table1, Order.OrderStatus.SERVED, BUSINESS_ID);
+        Order completed = order(null, Order.OrderStatus.COMPLETED, BUSINESS_ID);
+        Order elsewhere = order(null, Order.OrderStatus.PENDING, OTHER_BUSINESS_ID);
+        entityManager.flush();
+        entityManager.clear();
+
+        BulkOrderStatusResponse response = orderService.updateOrderStatuses(request(
+                List.of(pending.getId(), served.getId(), completed.getId(), elsewhere.getId()), "CANCELLED"));
+
+        assertEquals(List.of(pending.getId()), response.getUpdatedOrderIds());
+        assertEquals(List.of(served.getId(), completed.getId(), elsewhere.getId()),
+                response.getRejected().stream().map(BulkOrderStatusResponse.Rejected::getOrderId).toList());
+        assertEquals("SERVED", response.getRejected().get(0).getCurrentStatus());
+        assertNull(response.getRejected().get(2).getCurrentStatus());
+        assertEquals(Order.OrderStatus.SERVED, orderRepository.findById(served.getId()).orElseThrow().getStatus());
+        assertEquals(Order.OrderStatus.PENDING, orderRepository.findById(elsewhere.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void rejectsMalformedRequests() {
+        assertThrows(BadApiRequestException.class, () -> orderService.updateOrderStatuses(request(List.of(), "SERVED")));
+        assertThrows(BadApiRequestException.class, () -> orderService.updateOrderStatuses(request(List.of(1L), "EATEN")));
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private static BulkOrderStatusRequest request(List<Long> ids, String status) {
+        return BulkOrderStatusRequest.builder().orderIds(ids).status(status).build();
+    }
+
+    private RestaurantTable table(String number) {
+        RestaurantTable table = RestaurantTable.builder()
+                .businessId(BUSINESS_ID)
+                .tableNumber(number)
+                .capacity(4)
+                .isAvailable(false)
+                .createdAt(LocalDateTime.now())
+                .build();
+        entityManager.persist(table);
+        return table;
+    }
+
+    private Order order(RestaurantTable table, Order.OrderStatus status, long businessId) {
+        Order order = Order.builder()
+                .businessId(businessId)
+                .orderNumber("ORD-" + System.nanoTime())
+                .table(table)
+                .status(status)
+                .totalAmount(BigDecimal.valueOf(120))
+                .createdAt(LocalDateTime.now().withMinute(30)) // All in one rollup bucket
+                .build();
+        entityManager.persist(order);
+        return order;
+    }
+}
@@ -0,0 +1,84 @@
+package com.vijay.User_Master.service.hotel;
+
+import com.vijay.User_Master.HotelJpaTest;
+import com.vijay.User_Master.entity.hotel.Category;
+import com.vijay.User_Master.entity.hotel.MenuItem;
+import com.vijay.User_Master.repository.hotel.CategoryRepository;
+import com.vijay.User_Master.repository.hotel.MenuItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@HotelJpaTest
+// The flush commits its own transactions, as in production
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WriteBehindCounterServiceTest {
+
+    private static final WriteBehindCounterService.Counter ORDERS = WriteBehindCounterService.Counter.MENU_ITEM_ORDERS;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> ids = new ArrayList<>();
+    private WriteBehindCounterService counterService;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(Category.builder().businessId(1L).name("Mains").build());
+        for (int i = 0; i < 5; i++) {
+            ids.add(menuItemRepository.save(MenuItem.builder().businessId(1L).category(category)
+                    .name("Dish " + i).price(BigDecimal.TEN).build()).getId());
+        }
+        counterService = new WriteBehindCounterService(jdbcTemplate, transactionManager, 3);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        menuItemRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void failedBatchIsRetriedWithoutDoubleCounting() {
+        for (Long id : ids) {
+            counterService.increment(ORDERS, id, 2);
+        }
+        // Overflows the INT column, failing the second batch after its first row was sent
+        counterService.increment(ORDERS, ids.get(4), Integer.MAX_VALUE);
+
+        counterService.flush();
+        assertEquals(List.of(2, 2, 2, 0, 0), totalOrders(), "the failed batch is rolled back whole");
+        assertEquals(2L + 2 + Integer.MAX_VALUE, counterService.getPendingDeltas());
+
+        counterService.increment(ORDERS, ids.get(4), -Integer.MAX_VALUE);
+        counterService.flush();
+        assertEquals(List.of(2, 2, 2, 2, 2), totalOrders());
+        assertEquals(0, counterService.getPendingDeltas());
+    }
+
+    private List<Integer> totalOrders() {
+        return ids.stream()
+                .map(id -> jdbcTemplate.queryForObject("SELECT total_orders FROM hotel_menu_items WHERE id = ?", Integer.class, id))
+                .toList();
+    }
+}
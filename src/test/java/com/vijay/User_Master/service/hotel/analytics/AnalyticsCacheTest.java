@@ -0,0 +1,63 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import com.vijay.User_Master.event.hotel.HotelDataChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsCacheTest {
+
+    private final AnalyticsCache cache = new AnalyticsCache(100, 60);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void servesRepeatedReadsFromCache() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 1, 7, 12, 30, 5);
+
+        load(1L, AnalyticsCache.View.ORDERS, start, end);
+        load(1L, AnalyticsCache.View.ORDERS, start, end.plusSeconds(20));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void writeEventInvalidatesOwnBusinessAndAdminOnly() {
+        load(1L, AnalyticsCache.View.OVERVIEW, null, null);
+        load(2L, AnalyticsCache.View.OVERVIEW, null, null);
+        load(null, AnalyticsCache.View.OVERVIEW, null, null);
+        assertEquals(3, loads.get());
+
+        cache.onHotelDataChanged(new HotelDataChangedEvent(1L, HotelDataChangedEvent.Kind.ORDER, 10L));
+
+        load(1L, AnalyticsCache.View.OVERVIEW, null, null);
+        load(2L, AnalyticsCache.View.OVERVIEW, null, null);
+        load(null, AnalyticsCache.View.OVERVIEW, null, null);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void unrelatedViewsSurviveInvalidation() {
+        load(1L, AnalyticsCache.View.RESERVATIONS, null, null);
+
+        cache.onHotelDataChanged(new HotelDataChangedEvent(1L, HotelDataChangedEvent.Kind.PAYMENT, 10L));
+        load(1L, AnalyticsCache.View.RESERVATIONS, null, null);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void uncacheableValuesAreNotKept() {
+        cache.get(1L, AnalyticsCache.View.OVERVIEW, null, null, loads::incrementAndGet, v -> false);
+        cache.get(1L, AnalyticsCache.View.OVERVIEW, null, null, loads::incrementAndGet, v -> false);
+
+        assertEquals(2, loads.get());
+    }
+
+    private void load(Long businessId, AnalyticsCache.View view, LocalDateTime start, LocalDateTime end) {
+        cache.get(businessId, view, start, end, loads::incrementAndGet);
+    }
+}
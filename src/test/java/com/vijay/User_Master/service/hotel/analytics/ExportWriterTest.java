@@ -0,0 +1,43 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportWriterTest {
+
+    private static final String[] COLUMNS = {"id", "name", "amount", "createdAt"};
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 12, 30);
+
+    @Test
+    void csvQuotesOnlyFieldsThatNeedIt() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = new ExportWriter(ExportWriter.Format.CSV, COLUMNS, out, new JsonFactory());
+        writer.writeRow(1L, "Paneer, \"spicy\"", new BigDecimal("1E+2"), CREATED);
+        writer.writeRow(2L, null, BigDecimal.ONE, null);
+        writer.flush();
+
+        assertEquals("id,name,amount,createdAt\r\n" +
+                "1,\"Paneer, \"\"spicy\"\"\",100,2024-03-01T12:30\r\n" +
+                "2,,1,\r\n", out.toString(StandardCharsets.UTF_8));
+        assertEquals(2, writer.getRowCount());
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter writer = new ExportWriter(ExportWriter.Format.NDJSON, COLUMNS, out, new JsonFactory());
+        writer.writeRow(1L, "Dosa\nmasala", new BigDecimal("12.50"), CREATED);
+        writer.writeRow(2L, null, BigDecimal.ONE, null);
+        writer.flush();
+
+        assertEquals("{\"id\":1,\"name\":\"Dosa\\nmasala\",\"amount\":12.50,\"createdAt\":\"2024-03-01T12:30\"}\n" +
+                "{\"id\":2,\"name\":null,\"amount\":1,\"createdAt\":null}\n", out.toString(StandardCharsets.UTF_8));
+    }
+}
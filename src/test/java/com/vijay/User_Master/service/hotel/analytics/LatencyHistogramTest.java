@@ -0,0 +1,51 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void quantilesStayWithinRelativeError() {
+        Random random = new Random(7);
+        long[] samples = new long[10_000];
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = 300 + (long) (Math.abs(random.nextGaussian()) * 900); // 5 - ~60 minutes
+            histogram.add(LatencyHistogram.bucketOf(samples[i]), 1);
+        }
+        Arrays.sort(samples);
+
+        for (double q : new double[]{0.5, 0.9, 0.99}) {
+            long exact = samples[(int) Math.ceil(q * samples.length) - 1];
+            double estimate = histogram.quantile(q);
+            assertEquals(exact, estimate, exact * (LatencyHistogram.GAMMA - 1), "q=" + q);
+        }
+    }
+
+    @Test
+    void mergedHistogramsMatchCombinedStream() {
+        LatencyHistogram monday = new LatencyHistogram();
+        LatencyHistogram tuesday = new LatencyHistogram();
+        LatencyHistogram combined = new LatencyHistogram();
+        for (long s = 60; s <= 3600; s += 60) {
+            LatencyHistogram day = s % 120 == 0 ? monday : tuesday;
+            day.add(LatencyHistogram.bucketOf(s), 1);
+            combined.add(LatencyHistogram.bucketOf(s), 1);
+        }
+
+        monday.merge(tuesday);
+
+        assertEquals(combined.getTotalCount(), monday.getTotalCount());
+        assertEquals(combined.quantile(0.9), monday.quantile(0.9));
+    }
+
+    @Test
+    void emptyHistogramHasNoQuantile() {
+        assertNull(new LatencyHistogram().quantile(0.5));
+    }
+}
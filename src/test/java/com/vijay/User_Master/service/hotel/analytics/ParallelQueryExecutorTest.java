@@ -0,0 +1,107 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelQueryExecutorTest {
+
+    private final List<TransactionDefinition> transactions = new CopyOnWriteArrayList<>();
+    private final ParallelQueryExecutor executor = new ParallelQueryExecutor(new RecordingTransactionManager(), 4, 500);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void runsQueriesConcurrently() {
+        ParallelQueryExecutor.Fanout fanout = executor.fanout();
+        long start = System.nanoTime();
+        CompletableFuture<Long> a = fanout.submit("a", () -> sleepThen(200, 1L), 0L);
+        CompletableFuture<Long> b = fanout.submit("b", () -> sleepThen(200, 2L), 0L);
+        CompletableFuture<Long> c = fanout.submit("c", () -> sleepThen(200, 3L), 0L);
+        Set<String> degraded = fanout.await();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(degraded.isEmpty());
+        assertEquals(6L, a.join() + b.join() + c.join());
+        assertTrue(elapsedMillis < 450, "expected ~200ms, took " + elapsedMillis + "ms");
+        assertEquals(3, transactions.size());
+        assertTrue(transactions.stream().allMatch(tx -> tx.isReadOnly() && tx.getTimeout() == 1),
+                "each query gets its own read-only transaction, whose timeout becomes the statement timeout");
+    }
+
+    @Test
+    void queueWaitDoesNotCountAsQueryTime() {
+        ParallelQueryExecutor single = new ParallelQueryExecutor(new RecordingTransactionManager(), 1, 500);
+        try {
+            ParallelQueryExecutor.Fanout fanout = single.fanout();
+            CompletableFuture<Long> first = fanout.submit("first", () -> sleepThen(300, 1L), 0L);
+            CompletableFuture<Long> second = fanout.submit("second", () -> sleepThen(300, 2L), 0L);
+
+            assertTrue(fanout.await().isEmpty(), "second ran 300ms after waiting 300ms - within its own 500ms");
+            assertEquals(3L, first.join() + second.join());
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void slowOrFailingQueriesFallBack() {
+        ParallelQueryExecutor.Fanout fanout = executor.fanout();
+        CompletableFuture<Long> ok = fanout.submit("ok", () -> 5L, 0L);
+        CompletableFuture<Long> slow = fanout.submit("slow", () -> sleepThen(2000, 9L), -1L);
+        CompletableFuture<Long> broken = fanout.submit("broken", () -> {
+            throw new RuntimeException("boom");
+        }, -2L);
+        Set<String> degraded = fanout.await();
+
+        assertEquals(Set.of("slow", "broken"), degraded);
+        assertEquals(5L, ok.join());
+        assertEquals(-1L, slow.join());
+        assertEquals(-2L, broken.join());
+    }
+
+    private static <T> T sleepThen(long millis, T value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+
+    /**
+     * Records the definitions it is asked to begin; no resources
+     */
+    private class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            transactions.add(definition);
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.vijay.User_Master.service.hotel.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void findsHeavyHittersInSkewedStream() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(16);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+
+        // Items 1-5 are popular, 1000 long-tail items share the rest
+        for (int i = 0; i < 20_000; i++) {
+            long itemId = random.nextInt(10) < 6 ? 1 + random.nextInt(5) : 100 + random.nextInt(1000);
+            long quantity = 1 + random.nextInt(3);
+            sketch.offer(itemId, quantity, BigDecimal.ONE);
+            exact.merge(itemId, quantity, Long::sum);
+        }
+
+        List<SpaceSavingSketch.Counter> top = sketch.top(5);
+        Set<Long> topIds = new HashSet<>();
+        top.forEach(c -> topIds.add(c.getItemId()));
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), topIds);
+
+        for (SpaceSavingSketch.Counter c : top) {
+            long trueCount = exact.get(c.getItemId());
+            assertTrue(c.getCount() >= trueCount);
+            assertTrue(c.getGuaranteedCount() <= trueCount);
+        }
+    }
+
+    @Test
+    void mergeOfNonFullSketchesIsExact() {
+        SpaceSavingSketch monday = new SpaceSavingSketch(8);
+        SpaceSavingSketch tuesday = new SpaceSavingSketch(8);
+        monday.offer(1L, 5, new BigDecimal("50"));
+        monday.offer(2L, 2, new BigDecimal("20"));
+        tuesday.offer(2L, 7, new BigDecimal("70"));
+
+        List<SpaceSavingSketch.Counter> top = SpaceSavingSketch.merge(8, List.of(monday, tuesday)).top(2);
+
+        assertEquals(2L, top.get(0).getItemId());
+        assertEquals(9, top.get(0).getCount());
+        assertEquals(0, top.get(0).getError());
+        assertEquals(new BigDecimal("90"), top.get(0).getRevenue());
+        assertEquals(1L, top.get(1).getItemId());
+        assertEquals(5, top.get(1).getCount());
+    }
+}